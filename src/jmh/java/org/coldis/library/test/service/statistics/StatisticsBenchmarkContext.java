@@ -0,0 +1,85 @@
+package org.coldis.library.test.service.statistics;
+
+import java.util.List;
+import org.coldis.library.test.service.ContainerTestHelper;
+import org.coldis.library.test.service.TestApplication;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Shared benchmark state that boots Postgres and Artemis (the same containers the integration
+ * tests use) and the test application on top of them, once per trial. Scheduled buffer flushes
+ * are disabled so only the measured stages touch the database and the broker.
+ */
+@State(Scope.Benchmark)
+public class StatisticsBenchmarkContext {
+
+  /** Containers required by the write path. */
+  private static final List<GenericContainer<?>> CONTAINERS =
+      List.of(ContainerTestHelper.POSTGRES_CONTAINER, ContainerTestHelper.ARTEMIS_CONTAINER);
+
+  /** Application context. */
+  private ConfigurableApplicationContext applicationContext;
+
+  /**
+   * Exposes the mapped port of a container using the same property naming the test extension
+   * uses (for instance {@code POSTGRES_CONTAINER_5432}).
+   *
+   * @param name Container field name.
+   * @param container Container.
+   */
+  private static void exposePorts(final String name, final GenericContainer<?> container) {
+    for (final Integer port : container.getExposedPorts()) {
+      System.setProperty(name + "_" + port, container.getMappedPort(port).toString());
+    }
+  }
+
+  /** Starts the containers and the application. */
+  @Setup
+  public void start() {
+    ContainerTestHelper.POSTGRES_CONTAINER.start();
+    ContainerTestHelper.ARTEMIS_CONTAINER.start();
+    StatisticsBenchmarkContext.exposePorts(
+        "POSTGRES_CONTAINER", ContainerTestHelper.POSTGRES_CONTAINER);
+    StatisticsBenchmarkContext.exposePorts(
+        "ARTEMIS_CONTAINER", ContainerTestHelper.ARTEMIS_CONTAINER);
+    // Redis is not part of the write path; the port property only has to resolve.
+    System.setProperty("REDIS_CONTAINER_6379", "6379");
+    this.applicationContext =
+        SpringApplication.run(
+            TestApplication.class,
+            "--logging.level.org.coldis.library=INFO",
+            "--logging.level.org.springframework.transaction=INFO",
+            "--logging.level.org.springframework.orm.jpa=INFO",
+            "--spring.jpa.show-sql=false",
+            "--org.coldis.library.service.statistics.event.buffer.cron=-",
+            "--org.coldis.library.service.statistics.summary.buffer.cron=-");
+  }
+
+  /** Stops the application and the containers. */
+  @TearDown
+  public void stop() {
+    if (this.applicationContext != null) {
+      this.applicationContext.close();
+    }
+    for (final GenericContainer<?> container : StatisticsBenchmarkContext.CONTAINERS) {
+      container.stop();
+    }
+  }
+
+  /**
+   * Gets a bean from the application context.
+   *
+   * @param <Type> Bean type.
+   * @param type Bean type.
+   * @return The bean.
+   */
+  public <Type> Type getBean(final Class<Type> type) {
+    return this.applicationContext.getBean(type);
+  }
+}
@@ -0,0 +1,26 @@
+package org.coldis.library.test.service.statistics;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread counters reported next to the primary benchmark score. Benchmark operations process
+ * whole batches, so {@link #events} reports the event rate (events per second in throughput
+ * mode) independently of the batch size.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class StatisticsBenchmarkCounters {
+
+  /** Processed events. */
+  public long events;
+
+  /** Resets the counters. */
+  @Setup(Level.Iteration)
+  public void reset() {
+    this.events = 0;
+  }
+}
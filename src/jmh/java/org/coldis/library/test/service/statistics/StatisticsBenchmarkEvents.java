@@ -0,0 +1,75 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.coldis.library.service.statistics.StatisticsEvent;
+
+/** Synthetic statistics events shared by the write-path benchmarks. */
+final class StatisticsBenchmarkEvents {
+
+  /** Benchmark context name. */
+  static final String CONTEXT = "benchmark";
+
+  /** Benchmark bucket (aligned to the default 15-minute truncation). */
+  static final LocalDateTime DATE_TIME = LocalDateTime.of(2026, 1, 15, 10, 0, 0);
+
+  /** Dimension names cycled through by the generated events. */
+  private static final String[] DIMENSIONS = {"country", "device", "channel", "product"};
+
+  /** Dimension values cycled through by the generated events. */
+  private static final String[] VALUES = {"a", "b", "c", "d", "e", "f", "g", "h"};
+
+  /** No instances. */
+  private StatisticsBenchmarkEvents() {}
+
+  /**
+   * Generates a batch of events. Owner keys cycle over {@code distinctOwners}, so the same keys
+   * are revisited across invocations (a mix of inserts and updates once the table is warm).
+   *
+   * @param batchSize Number of events.
+   * @param distinctOwners Number of distinct owner keys.
+   * @param offset Offset used to vary owners and values between invocations.
+   * @return The events.
+   */
+  static ArrayList<StatisticsEvent> generate(
+      final int batchSize, final int distinctOwners, final long offset) {
+    final ArrayList<StatisticsEvent> events = new ArrayList<>(batchSize);
+    final LocalDateTime emittedAt = LocalDateTime.now();
+    for (int index = 0; index < batchSize; index++) {
+      final long position = offset + index;
+      final StatisticsEvent event =
+          new StatisticsEvent(
+              StatisticsBenchmarkEvents.CONTEXT,
+              "owner-" + (position % distinctOwners),
+              StatisticsBenchmarkEvents.DATE_TIME,
+              StatisticsBenchmarkEvents.DIMENSIONS[
+                  (int) (position % StatisticsBenchmarkEvents.DIMENSIONS.length)],
+              StatisticsBenchmarkEvents.VALUES[
+                  (int) ((position / distinctOwners) % StatisticsBenchmarkEvents.VALUES.length)]);
+      event.setWeight(BigDecimal.valueOf(position % 1000, 2));
+      event.setEmittedAt(emittedAt.plusNanos(index * 1000L));
+      events.add(event);
+    }
+    return events;
+  }
+
+  /**
+   * Splits events into chunks the same way the event buffer flush does.
+   *
+   * @param events Events.
+   * @param chunkSize Chunk size.
+   * @return The chunks.
+   */
+  static List<ArrayList<StatisticsEvent>> chunk(
+      final List<StatisticsEvent> events, final int chunkSize) {
+    final int size = Math.max(1, chunkSize);
+    final List<ArrayList<StatisticsEvent>> chunks = new ArrayList<>();
+    for (int from = 0; from < events.size(); from += size) {
+      final int to = Math.min(from + size, events.size());
+      chunks.add(new ArrayList<>(events.subList(from, to)));
+    }
+    return chunks;
+  }
+}
@@ -0,0 +1,96 @@
+package org.coldis.library.test.service.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.coldis.library.helper.BufferedReducer;
+import org.coldis.library.service.statistics.StatisticsEvent;
+import org.coldis.library.service.statistics.StatisticsEventKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * In-memory stages of the statistics write path: reducing events into the upsert buffer and
+ * draining/chunking the buffer into upsert batch messages (what {@code flushEventBuffer} does
+ * before handing the chunks to JMS). No containers required.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatisticsEventBufferBenchmark {
+
+  /** Events reduced per operation. */
+  @Param({"1000", "10000"})
+  private int batchSize;
+
+  /** Distinct owner keys (controls how many events collapse in the buffer). */
+  @Param({"100", "10000"})
+  private int distinctOwners;
+
+  /** Upsert batch message size. */
+  @Param({"100"})
+  private int chunkSize;
+
+  /** Events for the next invocation. */
+  private List<StatisticsEvent> events;
+
+  /** Invocation counter (varies the generated events). */
+  private long invocation;
+
+  /** Generates the events for the next invocation (not measured). */
+  @Setup(Level.Invocation)
+  public void generateEvents() {
+    this.events =
+        StatisticsBenchmarkEvents.generate(
+            this.batchSize, this.distinctOwners, this.invocation++ * this.batchSize);
+  }
+
+  /**
+   * Reduces a batch into a fresh buffer and drains it.
+   *
+   * @param counters Counters.
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void bufferReduce(final StatisticsBenchmarkCounters counters, final Blackhole blackhole) {
+    final BufferedReducer<StatisticsEventKey, StatisticsEvent> buffer = new BufferedReducer<>();
+    for (final StatisticsEvent event : this.events) {
+      buffer.reduce(event.getId(), event);
+    }
+    buffer.flushLocalBuffer(blackhole::consume);
+    counters.events += this.batchSize;
+  }
+
+  /**
+   * Reduces a batch, drains it and splits it into upsert batch messages.
+   *
+   * @param counters Counters.
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void bufferReduceAndChunk(
+      final StatisticsBenchmarkCounters counters, final Blackhole blackhole) {
+    final BufferedReducer<StatisticsEventKey, StatisticsEvent> buffer = new BufferedReducer<>();
+    for (final StatisticsEvent event : this.events) {
+      buffer.reduce(event.getId(), event);
+    }
+    final List<StatisticsEvent> drained = new ArrayList<>();
+    buffer.flushLocalBuffer(drained::add);
+    blackhole.consume(StatisticsBenchmarkEvents.chunk(drained, this.chunkSize));
+    counters.events += this.batchSize;
+  }
+}
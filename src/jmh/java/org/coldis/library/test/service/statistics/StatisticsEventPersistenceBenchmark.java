@@ -0,0 +1,177 @@
+package org.coldis.library.test.service.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.persistence.LockBehavior;
+import org.coldis.library.persistence.lock.LockServiceComponent;
+import org.coldis.library.persistence.lock.LockType;
+import org.coldis.library.service.statistics.StatisticsEvent;
+import org.coldis.library.service.statistics.StatisticsEventRepository;
+import org.coldis.library.service.statistics.StatisticsEventRepositoryImpl;
+import org.coldis.library.service.statistics.StatisticsEventServiceComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Broker and database stages of the statistics write path, run against the Postgres and Artemis
+ * containers: the JMS round-trip of an upsert batch message, per-key lock acquisition, the batch
+ * upsert for each {@code upsert-strategy}, and the whole upsert listener (lock, upsert and summary
+ * delta buffering).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatisticsEventPersistenceBenchmark {
+
+  /** Queue used for the JMS round-trip stage (not consumed by any listener). */
+  private static final String ROUND_TRIP_QUEUE = "statistics-event/benchmark/round-trip";
+
+  /** Lock namespace used by the lock stage (kept apart from the upsert listener namespace). */
+  private static final int LOCK_NAMESPACE = 0x42454e43;
+
+  /** Upsert strategy. */
+  @Param({"merge", "on-conflict", "copy"})
+  private String upsertStrategy;
+
+  /** Events per upsert batch. */
+  @Param({"100", "1000"})
+  private int batchSize;
+
+  /** Distinct owner keys (controls the insert/update mix). */
+  @Param({"10000"})
+  private int distinctOwners;
+
+  /** JMS template. */
+  private JmsTemplate jmsTemplate;
+
+  /** Lock service. */
+  private LockServiceComponent lockService;
+
+  /** Statistics event repository. */
+  private StatisticsEventRepository statisticsEventRepository;
+
+  /** Statistics event service component. */
+  private StatisticsEventServiceComponent statisticsEventServiceComponent;
+
+  /** Transaction template. */
+  private TransactionTemplate transactionTemplate;
+
+  /** Invocation counter (varies the generated events). */
+  private long invocation;
+
+  /** Events for the next invocation. */
+  private ArrayList<StatisticsEvent> events;
+
+  /** Lock keys for the next invocation. */
+  private List<String> lockKeys;
+
+  /**
+   * Resolves the beans and applies the upsert strategy.
+   *
+   * @param context Benchmark context.
+   */
+  @Setup(Level.Trial)
+  public void setUp(final StatisticsBenchmarkContext context) {
+    this.jmsTemplate = context.getBean(JmsTemplate.class);
+    this.lockService = context.getBean(LockServiceComponent.class);
+    this.statisticsEventRepository = context.getBean(StatisticsEventRepository.class);
+    this.statisticsEventServiceComponent = context.getBean(StatisticsEventServiceComponent.class);
+    this.transactionTemplate =
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    ReflectionTestUtils.setField(
+        context.getBean(StatisticsEventRepositoryImpl.class),
+        "upsertStrategy",
+        this.upsertStrategy);
+  }
+
+  /** Generates the events for the next invocation (not measured). */
+  @Setup(Level.Invocation)
+  public void generateEvents() {
+    this.events =
+        StatisticsBenchmarkEvents.generate(
+            this.batchSize, this.distinctOwners, this.invocation++ * this.batchSize);
+    this.lockKeys = new ArrayList<>(this.events.size());
+    for (final StatisticsEvent event : this.events) {
+      this.lockKeys.add(
+          event.getContext() + "|" + event.getOwnerKey() + "|" + event.getDimensionName());
+    }
+  }
+
+  /**
+   * Sends an upsert batch message and receives it back.
+   *
+   * @param counters Counters.
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void jmsRoundTrip(final StatisticsBenchmarkCounters counters, final Blackhole blackhole) {
+    this.jmsTemplate.convertAndSend(StatisticsEventPersistenceBenchmark.ROUND_TRIP_QUEUE, this.events);
+    blackhole.consume(
+        this.jmsTemplate.receiveAndConvert(StatisticsEventPersistenceBenchmark.ROUND_TRIP_QUEUE));
+    counters.events += this.batchSize;
+  }
+
+  /**
+   * Acquires advisory locks for every key of a batch in its own transaction.
+   *
+   * @param counters Counters.
+   */
+  @Benchmark
+  public void advisoryLock(final StatisticsBenchmarkCounters counters) {
+    this.transactionTemplate.executeWithoutResult(
+        status ->
+            this.lockService.lockKeys(
+                LockBehavior.WAIT_AND_LOCK,
+                LockType.ADVISORY,
+                StatisticsEventPersistenceBenchmark.LOCK_NAMESPACE,
+                this.lockKeys));
+    counters.events += this.batchSize;
+  }
+
+  /**
+   * Runs the batch upsert statement for the configured strategy.
+   *
+   * @param counters Counters.
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void upsertBatch(final StatisticsBenchmarkCounters counters, final Blackhole blackhole) {
+    blackhole.consume(
+        this.transactionTemplate.execute(
+            status -> this.statisticsEventRepository.upsertBatch(this.events)));
+    counters.events += this.batchSize;
+  }
+
+  /**
+   * Runs the upsert batch listener (lock, upsert and summary delta buffering).
+   *
+   * @param counters Counters.
+   * @throws BusinessException If the batch cannot be processed.
+   */
+  @Benchmark
+  public void processEventUpsertBatch(final StatisticsBenchmarkCounters counters)
+      throws BusinessException {
+    this.statisticsEventServiceComponent.processEventUpsertBatch(this.events);
+    counters.events += this.batchSize;
+  }
+}
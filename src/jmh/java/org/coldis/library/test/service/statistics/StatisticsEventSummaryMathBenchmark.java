@@ -0,0 +1,204 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.service.statistics.StatisticsEventSummary;
+import org.coldis.library.service.statistics.StatisticsEventSummaryComparison;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDoubleHelper;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Scoring arithmetic of the statistics read path in {@code BigDecimal} ({@link
+ * StatisticsEventSummaryHelper}) against the {@code double} fast path ({@link
+ * StatisticsEventSummaryDoubleHelper}): one drift comparison, the windowed probability of a value,
+ * and a typical set of z-score features over the comparison. No containers required.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatisticsEventSummaryMathBenchmark {
+
+  /** Historical sample windows per comparison. */
+  @Param({"7", "28"})
+  private int steps;
+
+  /** Distinct dimension values per summary. */
+  @Param({"10", "100"})
+  private int distinctValues;
+
+  /** Summary buckets per window. */
+  @Param({"4"})
+  private int bucketsPerWindow;
+
+  /** Reference window summaries. */
+  private List<StatisticsEventSummary> referenceSummaries;
+
+  /** Sample window summaries. */
+  private List<List<StatisticsEventSummary>> perWindowSummaries;
+
+  /** Every sample bucket, for the windowed probability. */
+  private List<StatisticsEventSummary> windowSummaries;
+
+  /** Comparisons the z-score features are reduced over. */
+  private List<StatisticsEventSummaryComparison> comparisons;
+
+  /**
+   * Creates one window of random summaries.
+   *
+   * @param random Random source.
+   * @return The summaries.
+   */
+  private List<StatisticsEventSummary> window(final Random random) {
+    final List<StatisticsEventSummary> summaries = new ArrayList<>(this.bucketsPerWindow);
+    for (int bucket = 0; bucket < this.bucketsPerWindow; bucket++) {
+      final StatisticsEventSummary summary =
+          new StatisticsEventSummary(
+              StatisticsBenchmarkEvents.CONTEXT,
+              "country",
+              StatisticsBenchmarkEvents.DATE_TIME.minusMinutes(15L * bucket));
+      for (int value = 0; value < this.distinctValues; value++) {
+        final String dimensionValue = "v" + value;
+        final int count = 1 + random.nextInt(30);
+        for (int increment = 0; increment < count; increment++) {
+          summary.incrementValueCount(dimensionValue);
+        }
+        summary.incrementValueWeight(dimensionValue, BigDecimal.valueOf(random.nextInt(100000), 2));
+      }
+      summaries.add(summary);
+    }
+    return summaries;
+  }
+
+  /**
+   * Generates the summaries (not measured).
+   *
+   * @throws BusinessException If the comparison has no data.
+   */
+  @Setup(Level.Trial)
+  public void generateSummaries() throws BusinessException {
+    final Random random = new Random(42);
+    this.referenceSummaries = this.window(random);
+    this.perWindowSummaries = new ArrayList<>(this.steps);
+    this.windowSummaries = new ArrayList<>();
+    for (int step = 0; step < this.steps; step++) {
+      final List<StatisticsEventSummary> summaries = this.window(random);
+      this.perWindowSummaries.add(summaries);
+      this.windowSummaries.addAll(summaries);
+    }
+    this.comparisons = List.of(this.compareDecimal());
+  }
+
+  /**
+   * Computes the comparison in {@code BigDecimal}.
+   *
+   * @return The comparison.
+   * @throws BusinessException If the comparison has no data.
+   */
+  @Benchmark
+  public StatisticsEventSummaryComparison compareDecimal() throws BusinessException {
+    return StatisticsEventSummaryHelper.computeComparison(
+        this.referenceSummaries,
+        this.perWindowSummaries,
+        StatisticsBenchmarkEvents.CONTEXT,
+        "country",
+        StatisticsBenchmarkEvents.DATE_TIME,
+        null,
+        1,
+        null,
+        this.steps);
+  }
+
+  /**
+   * Computes the comparison in {@code double}.
+   *
+   * @return The comparison.
+   * @throws BusinessException If the comparison has no data.
+   */
+  @Benchmark
+  public StatisticsEventSummaryComparison compareDouble() throws BusinessException {
+    return StatisticsEventSummaryDoubleHelper.computeComparison(
+        this.referenceSummaries,
+        this.perWindowSummaries,
+        StatisticsBenchmarkEvents.CONTEXT,
+        "country",
+        StatisticsBenchmarkEvents.DATE_TIME,
+        null,
+        1,
+        null,
+        this.steps);
+  }
+
+  /**
+   * Computes the windowed probability of a value in {@code BigDecimal}.
+   *
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void windowedProbabilityDecimal(final Blackhole blackhole) {
+    blackhole.consume(
+        StatisticsEventSummaryHelper.windowedValueProbability(this.windowSummaries, "v0"));
+  }
+
+  /**
+   * Computes the windowed probability of a value in {@code double}.
+   *
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void windowedProbabilityDouble(final Blackhole blackhole) {
+    blackhole.consume(
+        StatisticsEventSummaryDoubleHelper.windowedValueProbability(this.windowSummaries, "v0"));
+  }
+
+  /**
+   * Reduces the ratio z-scores into scoring features in {@code BigDecimal}.
+   *
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void zScoreFeaturesDecimal(final Blackhole blackhole) {
+    blackhole.consume(StatisticsEventSummaryHelper.maxAbsRatioZScore(this.comparisons));
+    blackhole.consume(StatisticsEventSummaryHelper.meanAbsRatioZScore(this.comparisons));
+    blackhole.consume(StatisticsEventSummaryHelper.rootSumSquareRatioZScore(this.comparisons));
+    blackhole.consume(
+        StatisticsEventSummaryHelper.standardizedChiSquareRatioZScore(this.comparisons));
+    blackhole.consume(StatisticsEventSummaryHelper.fisherCombinedRatioZScore(this.comparisons));
+    blackhole.consume(StatisticsEventSummaryHelper.countAbsRatioZScoreAbove(this.comparisons, 2.0));
+  }
+
+  /**
+   * Reduces the ratio z-scores into scoring features in {@code double}, flattening them once.
+   *
+   * @param blackhole Blackhole.
+   */
+  @Benchmark
+  public void zScoreFeaturesDouble(final Blackhole blackhole) {
+    final double[] zScores = StatisticsEventSummaryDoubleHelper.ratioZScores(this.comparisons);
+    blackhole.consume(StatisticsEventSummaryDoubleHelper.maxAbs(zScores));
+    blackhole.consume(StatisticsEventSummaryDoubleHelper.meanAbs(zScores));
+    blackhole.consume(StatisticsEventSummaryDoubleHelper.rootSumSquare(zScores));
+    blackhole.consume(StatisticsEventSummaryDoubleHelper.standardizedChiSquare(zScores));
+    blackhole.consume(StatisticsEventSummaryDoubleHelper.fisherCombined(zScores));
+    blackhole.consume(StatisticsEventSummaryDoubleHelper.countAbsAbove(zScores, 2.0));
+  }
+}
@@ -5,6 +5,6 @@ package org.coldis.library.service.batch;
  */
 public enum BatchAction {
 
-	START, RESUME, GET, EXECUTE, FINISH;
+	START, RESUME, GET, EXECUTE, EXECUTE_ALL, FINISH, PARTITION;
 
 }
@@ -0,0 +1,113 @@
+package org.coldis.library.service.batch;
+
+import java.util.List;
+import java.util.Map;
+
+import org.coldis.library.exception.BusinessException;
+
+/**
+ * Typed batch action delegate. An action bean implementing it is called
+ * directly for the actions without a delegate method name (for instance, with
+ * empty action delegate methods), instead of by method name. The items of a
+ * page are executed at once if {@link #isExecutedAtOnce()}.
+ *
+ * @param <Type> Item type.
+ */
+public interface BatchActionDelegate<Type> {
+
+	/**
+	 * Starts a batch run ({@link BatchAction#START}).
+	 *
+	 * @throws BusinessException If the start fails.
+	 */
+	default void start() throws BusinessException {
+	}
+
+	/**
+	 * Resumes a batch run ({@link BatchAction#RESUME}).
+	 *
+	 * @throws BusinessException If the resume fails.
+	 */
+	default void resume() throws BusinessException {
+	}
+
+	/**
+	 * Gets the next items ({@link BatchAction#GET}).
+	 *
+	 * @param  lastProcessed     Last processed item ({@code null} on the first
+	 *                               page).
+	 * @param  size              Maximum number of items.
+	 * @param  arguments         Batch arguments.
+	 * @return                   The next items.
+	 * @throws BusinessException If the items cannot be retrieved.
+	 */
+	List<Type> get(
+			Type lastProcessed,
+			Long size,
+			Map<String, String> arguments) throws BusinessException;
+
+	/**
+	 * Executes an item ({@link BatchAction#EXECUTE}).
+	 *
+	 * @param  item              Item.
+	 * @throws BusinessException If the item fails.
+	 */
+	void execute(
+			Type item) throws BusinessException;
+
+	/**
+	 * If the items of a page are executed at once, by
+	 * {@link #executeAll(List)}, instead of one by one.
+	 *
+	 * @return If the items of a page are executed at once.
+	 */
+	default Boolean isExecutedAtOnce() {
+		return false;
+	}
+
+	/**
+	 * Executes the items of a page at once ({@link BatchAction#EXECUTE_ALL}).
+	 * Executes them one by one by default.
+	 *
+	 * @param  items             Items.
+	 * @throws BusinessException If an item fails (as a {@link BatchItemException}
+	 *                               with its index in the page).
+	 */
+	default void executeAll(
+			final List<Type> items) throws BusinessException {
+		for (int index = 0; index < items.size(); index++) {
+			try {
+				this.execute(items.get(index));
+			}
+			catch (final Exception exception) {
+				throw new BatchItemException(index, exception);
+			}
+		}
+	}
+
+	/**
+	 * Finishes a batch run ({@link BatchAction#FINISH}).
+	 *
+	 * @throws BusinessException If the finish fails.
+	 */
+	default void finish() throws BusinessException {
+	}
+
+	/**
+	 * Gets the arguments of a partition ({@link BatchAction#PARTITION}).
+	 *
+	 * @param  partition         Partition.
+	 * @param  partitions        Partitions.
+	 * @param  arguments         Batch arguments.
+	 * @return                   The arguments of the partition, or {@code null} for
+	 *                               the batch arguments.
+	 * @throws BusinessException If the arguments cannot be created.
+	 */
+	default Map<String, String> partition(
+			final Integer partition,
+			final Integer partitions,
+			final Map<String, String> arguments) throws BusinessException {
+		return null;
+	}
+
+}
@@ -0,0 +1,201 @@
+package org.coldis.library.service.batch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.coldis.library.persistence.bean.StaticContextAccessor;
+
+/**
+ * Resolved invoker of a batch action delegate. Delegate methods are looked up
+ * once per (bean type, method name, arity) and called through a method handle,
+ * so executing an item costs a direct call instead of a bean and reflective
+ * method lookup.
+ */
+final class BatchActionInvoker {
+
+	/**
+	 * Invoker of actions without a delegate.
+	 */
+	static final BatchActionInvoker NONE = new BatchActionInvoker(null, null, null, null);
+
+	/**
+	 * Method handles by bean type, method name and arity (empty when there is no
+	 * single public method to call, so the method is resolved by the argument
+	 * types on every call).
+	 */
+	private static final Map<MethodKey, Optional<MethodHandle>> METHOD_HANDLES = new ConcurrentHashMap<>();
+
+	/**
+	 * Method handle key.
+	 *
+	 * @param beanType   Bean type.
+	 * @param methodName Method name.
+	 * @param arity      Arity.
+	 */
+	private record MethodKey(
+			Class<?> beanType,
+			String methodName,
+			Integer arity) {}
+
+	/**
+	 * Action.
+	 */
+	private final BatchAction action;
+
+	/**
+	 * Action bean.
+	 */
+	private final Object bean;
+
+	/**
+	 * Method name ({@code null} for typed delegates).
+	 */
+	private final String methodName;
+
+	/**
+	 * Method handle, taking the bean and the arguments array ({@code null} if
+	 * the method is resolved on every call).
+	 */
+	private final MethodHandle methodHandle;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param action       Action.
+	 * @param bean         Action bean.
+	 * @param methodName   Method name.
+	 * @param methodHandle Method handle.
+	 */
+	private BatchActionInvoker(final BatchAction action, final Object bean, final String methodName, final MethodHandle methodHandle) {
+		super();
+		this.action = action;
+		this.bean = bean;
+		this.methodName = methodName;
+		this.methodHandle = methodHandle;
+	}
+
+	/**
+	 * Finds the method handle of the only public method of a type with the given
+	 * name and arity.
+	 *
+	 * @param  key Method key.
+	 * @return     The method handle, adapted to take the bean and the arguments
+	 *             array.
+	 */
+	private static Optional<MethodHandle> findMethodHandle(
+			final MethodKey key) {
+		final List<Method> methods = List.of(key.beanType().getMethods()).stream()
+				.filter(method -> method.getName().equals(key.methodName()) && (method.getParameterCount() == key.arity()) && !method.isBridge()
+						&& !method.isVarArgs() && !Modifier.isStatic(method.getModifiers()))
+				.toList();
+		if (methods.size() == 1) {
+			try {
+				final Method method = methods.get(0);
+				method.trySetAccessible();
+				return Optional.of(MethodHandles.lookup().unreflect(method).asSpreader(Object[].class, key.arity())
+						.asType(MethodType.methodType(Object.class, Object.class, Object[].class)));
+			}
+			catch (final IllegalAccessException exception) {
+				return Optional.empty();
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Resolves the invoker of an action.
+	 *
+	 * @param  action     Action.
+	 * @param  beanName   Action bean name.
+	 * @param  methodName Method name (optionally prefixed by the bean name and a
+	 *                        dot), or {@code null} for typed delegates
+	 *                        ({@link BatchActionDelegate}).
+	 * @param  arity      Arity of the action.
+	 * @return            The invoker.
+	 */
+	static BatchActionInvoker resolve(
+			final BatchAction action,
+			final String beanName,
+			final String methodName,
+			final int arity) {
+		BatchActionInvoker invoker = BatchActionInvoker.NONE;
+		if (StringUtils.isNotBlank(methodName)) {
+			final String[] methodPath = methodName.split("\\.");
+			final String actualBeanName = (methodPath.length > 1 ? methodPath[0] : beanName);
+			final String actualMethodName = (methodPath.length > 1 ? methodPath[1] : methodName);
+			final Object bean = StaticContextAccessor.getBean(actualBeanName);
+			invoker = new BatchActionInvoker(action, bean, actualMethodName, BatchActionInvoker.METHOD_HANDLES
+					.computeIfAbsent(new MethodKey(bean.getClass(), actualMethodName, arity), BatchActionInvoker::findMethodHandle).orElse(null));
+		}
+		else if (StringUtils.isNotBlank(beanName)) {
+			final Object bean = StaticContextAccessor.getBean(beanName);
+			if (bean instanceof BatchActionDelegate) {
+				invoker = new BatchActionInvoker(action, bean, null, null);
+			}
+		}
+		return invoker;
+	}
+
+	/**
+	 * Invokes a typed delegate.
+	 *
+	 * @param  delegate  Delegate.
+	 * @param  arguments Arguments.
+	 * @return           The action result.
+	 * @throws Exception If the action fails.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object invoke(
+			final BatchActionDelegate<Object> delegate,
+			final Object... arguments) throws Exception {
+		Object returnObject = null;
+		switch (this.action) {
+			case START -> delegate.start();
+			case RESUME -> delegate.resume();
+			case GET -> returnObject = delegate.get(arguments[0], (Long) arguments[1], (Map<String, String>) arguments[2]);
+			case EXECUTE -> delegate.execute(arguments[0]);
+			case EXECUTE_ALL -> delegate.executeAll((List<Object>) arguments[0]);
+			case FINISH -> delegate.finish();
+			case PARTITION -> returnObject = delegate.partition((Integer) arguments[0], (Integer) arguments[1], (Map<String, String>) arguments[2]);
+		}
+		return returnObject;
+	}
+
+	/**
+	 * Invokes the action. Failures of the delegate itself are thrown as
+	 * {@link InvocationTargetException}, as with reflection.
+	 *
+	 * @param  arguments Arguments.
+	 * @return           The action result.
+	 * @throws Exception If the action fails.
+	 */
+	@SuppressWarnings("unchecked")
+	Object invoke(
+			final Object... arguments) throws Exception {
+		Object returnObject = null;
+		if ((this.bean != null) && (this.methodName != null) && (this.methodHandle == null)) {
+			returnObject = MethodUtils.invokeMethod(this.bean, this.methodName, arguments);
+		}
+		else if (this.bean != null) {
+			try {
+				returnObject = (this.methodHandle == null ? this.invoke((BatchActionDelegate<Object>) this.bean, arguments)
+						: (Object) this.methodHandle.invokeExact(this.bean, arguments));
+			}
+			catch (final Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
+		}
+		return returnObject;
+	}
+
+}
@@ -3,12 +3,15 @@ package org.coldis.library.service.batch;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.coldis.library.exception.BusinessException;
 import org.coldis.library.exception.IntegrationException;
 import org.coldis.library.helper.DateTimeHelper;
@@ -49,6 +52,21 @@ public class BatchExecutor<Type> implements Typable {
 		BatchExecutor.OBJECT_MAPPER.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 	}
 
+	/**
+	 * Partition argument (given to the partitions of a partitioned batch).
+	 */
+	public static final String PARTITION_ARGUMENT = "partition";
+
+	/**
+	 * Partitions argument (given to the partitions of a partitioned batch).
+	 */
+	public static final String PARTITIONS_ARGUMENT = "partitions";
+
+	/**
+	 * Partition key suffix infix.
+	 */
+	private static final String PARTITION_KEY_SUFFIX_INFIX = "-partition-";
+
 	/**
 	 * Batch item itemType name.
 	 */
@@ -89,6 +107,32 @@ public class BatchExecutor<Type> implements Typable {
 	 */
 	private Duration finishWithin;
 
+	/**
+	 * Items of a page executed at once.
+	 */
+	private Integer parallelism;
+
+	/**
+	 * Pages executed by each resume.
+	 */
+	private Integer pagesPerResume;
+
+	/**
+	 * Transaction scope of the items.
+	 */
+	private BatchTransactionScope transactionScope;
+
+	/**
+	 * Partitions (child batches with cursors of their own) the batch is split
+	 * into.
+	 */
+	private Integer partitions;
+
+	/**
+	 * Key suffix of the partitioned batch this batch is a partition of.
+	 */
+	private String parentKeySuffix;
+
 	/**
 	 * Maximum interval to keep the batch persisted.
 	 */
@@ -104,6 +148,19 @@ public class BatchExecutor<Type> implements Typable {
 	 */
 	private Map<BatchAction, String> actionDelegateMethods;
 
+	/**
+	 * Actions that are not delegated (for instance, start and finish on the
+	 * partitions of a partitioned batch).
+	 */
+	private Set<BatchAction> disabledActions;
+
+	/**
+	 * Resolved action invokers (reset when the action bean or delegate methods
+	 * change).
+	 */
+	@JsonIgnore
+	private transient Map<BatchAction, BatchActionInvoker> actionInvokers;
+
 	/**
 	 * Messages templates.
 	 */
@@ -485,6 +542,188 @@ public class BatchExecutor<Type> implements Typable {
 		this.finishWithin = finishWithin;
 	}
 
+	/**
+	 * Gets the parallelism (items of a page executed at once, on the batch item
+	 * executor). Defaults to 1 (items executed in order, on the calling thread).
+	 * Parallel items run each in a transaction of its own while the page
+	 * transaction keeps its connection, so a resume takes up to 1 + parallelism
+	 * connections: item transactions across every batch are bounded by
+	 * {@code org.coldis.library.service.batch.item-executor.max-transactions}
+	 * (half the connection pool by default), which must leave enough connections
+	 * for the resumes running at once.
+	 *
+	 * @return The parallelism.
+	 */
+	@JsonView({ ModelView.Persistent.class, ModelView.Public.class })
+	public Integer getParallelism() {
+		this.parallelism = Math.max(Objects.requireNonNullElse(this.parallelism, 1), 1);
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the parallelism.
+	 *
+	 * @param parallelism New parallelism.
+	 */
+	public void setParallelism(
+			final Integer parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Gets the pagesPerResume (pages executed in process by each resume, in one
+	 * transaction, the next one fetched on the batch page executor while the
+	 * current one executes). Defaults to 1 (one page per resume message).
+	 *
+	 * @return The pagesPerResume.
+	 */
+	@JsonView({ ModelView.Persistent.class, ModelView.Public.class })
+	public Integer getPagesPerResume() {
+		this.pagesPerResume = Math.max(Objects.requireNonNullElse(this.pagesPerResume, 1), 1);
+		return this.pagesPerResume;
+	}
+
+	/**
+	 * Sets the pagesPerResume.
+	 *
+	 * @param pagesPerResume New pagesPerResume.
+	 */
+	public void setPagesPerResume(
+			final Integer pagesPerResume) {
+		this.pagesPerResume = pagesPerResume;
+	}
+
+	/**
+	 * Gets the transactionScope. Defaults to {@link BatchTransactionScope#PAGE}.
+	 *
+	 * @return The transactionScope.
+	 */
+	@JsonView({ ModelView.Persistent.class, ModelView.Public.class })
+	public BatchTransactionScope getTransactionScope() {
+		this.transactionScope = Objects.requireNonNullElse(this.transactionScope, BatchTransactionScope.PAGE);
+		return this.transactionScope;
+	}
+
+	/**
+	 * Sets the transactionScope.
+	 *
+	 * @param transactionScope New transactionScope.
+	 */
+	public void setTransactionScope(
+			final BatchTransactionScope transactionScope) {
+		this.transactionScope = transactionScope;
+	}
+
+	/**
+	 * Gets the partitions. Defaults to 1 (not partitioned).
+	 *
+	 * @return The partitions.
+	 */
+	@JsonView({ ModelView.Persistent.class, ModelView.Public.class })
+	public Integer getPartitions() {
+		this.partitions = Math.max(Objects.requireNonNullElse(this.partitions, 1), 1);
+		return this.partitions;
+	}
+
+	/**
+	 * Sets the partitions.
+	 *
+	 * @param partitions New partitions.
+	 */
+	public void setPartitions(
+			final Integer partitions) {
+		this.partitions = partitions;
+	}
+
+	/**
+	 * If the batch is split into partitions.
+	 *
+	 * @return If the batch is partitioned.
+	 */
+	@JsonIgnore
+	public Boolean isPartitioned() {
+		return this.getPartitions() > 1;
+	}
+
+	/**
+	 * Gets the parentKeySuffix.
+	 *
+	 * @return The parentKeySuffix.
+	 */
+	@JsonView({ ModelView.Persistent.class, ModelView.Public.class })
+	public String getParentKeySuffix() {
+		return this.parentKeySuffix;
+	}
+
+	/**
+	 * Sets the parentKeySuffix.
+	 *
+	 * @param parentKeySuffix New parentKeySuffix.
+	 */
+	public void setParentKeySuffix(
+			final String parentKeySuffix) {
+		this.parentKeySuffix = parentKeySuffix;
+	}
+
+	/**
+	 * Gets the key suffix of a partition of this batch.
+	 *
+	 * @param  partition Partition.
+	 * @return           The key suffix of the partition.
+	 */
+	public String getPartitionKeySuffix(
+			final Integer partition) {
+		return this.getKeySuffix() + BatchExecutor.PARTITION_KEY_SUFFIX_INFIX + partition;
+	}
+
+	/**
+	 * If a key belongs to the partition given in the arguments of a partition
+	 * batch, by hash modulo. Keys always belong to batches that are not
+	 * partitions.
+	 *
+	 * @param  key       Key.
+	 * @param  arguments Arguments of the batch.
+	 * @return           If the key belongs to the partition.
+	 */
+	public static boolean isInPartition(
+			final Object key,
+			final Map<String, String> arguments) {
+		final String partition = (arguments == null ? null : arguments.get(BatchExecutor.PARTITION_ARGUMENT));
+		final String partitions = (arguments == null ? null : arguments.get(BatchExecutor.PARTITIONS_ARGUMENT));
+		return (partition == null) || (partitions == null)
+				|| (Math.floorMod(Objects.hashCode(key), Integer.parseInt(partitions)) == Integer.parseInt(partition));
+	}
+
+	/**
+	 * If the items of a page are executed at once, by the
+	 * {@link BatchAction#EXECUTE_ALL} delegate method, or by a typed delegate
+	 * without an {@link BatchAction#EXECUTE} method name that is
+	 * {@link BatchActionDelegate#isExecutedAtOnce()} (which then takes precedence
+	 * over the item parallelism and transaction scope).
+	 *
+	 * @return If the items of a page are executed at once.
+	 */
+	@JsonIgnore
+	public Boolean isExecutedAtOnce() {
+		return !this.getDisabledActions().contains(BatchAction.EXECUTE_ALL)
+				&& (StringUtils.isNotBlank(this.getActionDelegateMethods().get(BatchAction.EXECUTE_ALL))
+						|| (StringUtils.isBlank(this.getActionDelegateMethods().get(BatchAction.EXECUTE)) && StringUtils.isNotBlank(this.getActionBeanName())
+								&& (StaticContextAccessor.getBean(this.getActionBeanName()) instanceof final BatchActionDelegate<?> delegate)
+								&& delegate.isExecutedAtOnce()));
+	}
+
+	/**
+	 * If the items of a page run apart from the page transaction (in parallel or
+	 * in transactions of their own). A failed page then still keeps the items
+	 * done before its first failed one.
+	 *
+	 * @return If the items run apart from the page transaction.
+	 */
+	@JsonIgnore
+	public Boolean isItemIsolated() {
+		return (this.getParallelism() > 1) || (this.getTransactionScope() == BatchTransactionScope.ITEM);
+	}
+
 	/**
 	 * Gets the cleansWithin.
 	 *
@@ -524,6 +763,7 @@ public class BatchExecutor<Type> implements Typable {
 	public void setActionBeanName(
 			final String actionBeanName) {
 		this.actionBeanName = actionBeanName;
+		this.actionInvokers = null;
 	}
 
 	/**
@@ -548,10 +788,34 @@ public class BatchExecutor<Type> implements Typable {
 	public void setActionDelegateMethods(
 			final Map<BatchAction, String> actionDelegateMethods) {
 		this.actionDelegateMethods = actionDelegateMethods;
+		this.actionInvokers = null;
 	}
 
 	/**
-	 * Executes a delegate method.
+	 * Gets the disabledActions.
+	 *
+	 * @return The disabledActions.
+	 */
+	@JsonView({ ModelView.Persistent.class, ModelView.Public.class })
+	public Set<BatchAction> getDisabledActions() {
+		this.disabledActions = (this.disabledActions == null ? new HashSet<>() : this.disabledActions);
+		return this.disabledActions;
+	}
+
+	/**
+	 * Sets the disabledActions.
+	 *
+	 * @param disabledActions New disabledActions.
+	 */
+	public void setDisabledActions(
+			final Set<BatchAction> disabledActions) {
+		this.disabledActions = disabledActions;
+		this.actionInvokers = null;
+	}
+
+	/**
+	 * Executes a delegate method. Disabled actions do nothing, whether they have a
+	 * delegate method or a typed delegate ({@link BatchActionDelegate}).
 	 *
 	 * @param  action            Action.
 	 * @param  arguments         Arguments.
@@ -561,27 +825,25 @@ public class BatchExecutor<Type> implements Typable {
 	public Object executeActionDelegateMethod(
 			final BatchAction action,
 			final Object... arguments) throws BusinessException {
-		Object returnObject = null;
-		String beanName = this.getActionBeanName();
-		String methodName = this.getActionDelegateMethods().get(action);
-		if (StringUtils.isNotBlank(methodName)) {
-			final String[] methodPath = methodName.split(".");
-			if (methodPath.length > 1) {
-				beanName = methodPath[0];
-				methodName = methodPath[1];
-			}
-			try {
-				final Object bean = StaticContextAccessor.getBean(beanName);
-				returnObject = MethodUtils.invokeMethod(bean, methodName, arguments);
-			}
-			catch (final IntegrationException exception) {
-				throw exception;
-			}
-			catch (final Exception exception) {
-				throw new IntegrationException(new SimpleMessage("batch.action.error"), exception);
+		try {
+			// Resolves the invoker once per action (items reuse it).
+			Map<BatchAction, BatchActionInvoker> actionInvokers = this.actionInvokers;
+			if (actionInvokers == null) {
+				actionInvokers = new ConcurrentHashMap<>();
+				this.actionInvokers = actionInvokers;
 			}
+			final BatchActionInvoker actionInvoker = actionInvokers.computeIfAbsent(action,
+					actualAction -> (this.getDisabledActions().contains(actualAction) ? BatchActionInvoker.NONE
+							: BatchActionInvoker.resolve(actualAction, this.getActionBeanName(), this.getActionDelegateMethods().get(actualAction),
+									arguments.length)));
+			return actionInvoker.invoke(arguments);
+		}
+		catch (final IntegrationException exception) {
+			throw exception;
+		}
+		catch (final Exception exception) {
+			throw new IntegrationException(new SimpleMessage("batch.action.error"), exception);
 		}
-		return returnObject;
 	}
 
 	/**
@@ -971,10 +1233,10 @@ public class BatchExecutor<Type> implements Typable {
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.actionBeanName, this.actionDelegateMethods, this.arguments, this.cleansWithin, this.delayBetweenRuns, this.minDelayBetweenRuns, this.expectedCount,
+		return Objects.hash(this.actionBeanName, this.actionDelegateMethods, this.disabledActions, this.arguments, this.cleansWithin, this.delayBetweenRuns, this.minDelayBetweenRuns, this.expectedCount,
 				this.finishWithin, this.itemTypeName, this.keySuffix, this.lastBatchFinishedAt, this.lastBatchStartedAt, this.lastCancelledAt,
 				this.lastFinishedAt, this.lastProcessed, this.lastProcessedCount, this.lastStartedAt, this.lastTotalProcessingTime, this.messagesTemplates,
-				this.size, this.slackChannels, this.tryToFinishWithin);
+				this.pagesPerResume, this.parallelism, this.parentKeySuffix, this.partitions, this.size, this.slackChannels, this.transactionScope, this.tryToFinishWithin);
 	}
 
 	/**
@@ -991,7 +1253,7 @@ public class BatchExecutor<Type> implements Typable {
 		}
 		final BatchExecutor other = (BatchExecutor) obj;
 		return Objects.equals(this.actionBeanName, other.actionBeanName) && Objects.equals(this.actionDelegateMethods, other.actionDelegateMethods)
-				&& Objects.equals(this.arguments, other.arguments) && Objects.equals(this.cleansWithin, other.cleansWithin)
+				&& Objects.equals(this.disabledActions, other.disabledActions) && Objects.equals(this.arguments, other.arguments) && Objects.equals(this.cleansWithin, other.cleansWithin)
 				&& Objects.equals(this.delayBetweenRuns, other.delayBetweenRuns) && Objects.equals(this.minDelayBetweenRuns, other.minDelayBetweenRuns) && Objects.equals(this.expectedCount, other.expectedCount)
 				&& Objects.equals(this.finishWithin, other.finishWithin) && Objects.equals(this.itemTypeName, other.itemTypeName)
 				&& Objects.equals(this.keySuffix, other.keySuffix) && Objects.equals(this.lastBatchFinishedAt, other.lastBatchFinishedAt)
@@ -999,8 +1261,11 @@ public class BatchExecutor<Type> implements Typable {
 				&& Objects.equals(this.lastFinishedAt, other.lastFinishedAt) && Objects.equals(this.lastProcessed, other.lastProcessed)
 				&& Objects.equals(this.lastProcessedCount, other.lastProcessedCount) && Objects.equals(this.lastStartedAt, other.lastStartedAt)
 				&& Objects.equals(this.lastTotalProcessingTime, other.lastTotalProcessingTime)
-				&& Objects.equals(this.messagesTemplates, other.messagesTemplates) && Objects.equals(this.size, other.size)
-				&& Objects.equals(this.slackChannels, other.slackChannels) && Objects.equals(this.tryToFinishWithin, other.tryToFinishWithin);
+				&& Objects.equals(this.messagesTemplates, other.messagesTemplates) && Objects.equals(this.pagesPerResume, other.pagesPerResume)
+				&& Objects.equals(this.parallelism, other.parallelism)
+				&& Objects.equals(this.parentKeySuffix, other.parentKeySuffix) && Objects.equals(this.partitions, other.partitions)
+				&& Objects.equals(this.size, other.size) && Objects.equals(this.slackChannels, other.slackChannels)
+				&& Objects.equals(this.transactionScope, other.transactionScope) && Objects.equals(this.tryToFinishWithin, other.tryToFinishWithin);
 	}
 
 	/**
@@ -1029,7 +1294,20 @@ public class BatchExecutor<Type> implements Typable {
 	 */
 	@SuppressWarnings("unchecked")
 	public List<Type> get() throws BusinessException {
-		return (List<Type>) this.executeActionDelegateMethod(BatchAction.GET, this.getLastProcessed(), this.getSize(), this.getArguments());
+		return this.get(this.getLastProcessed());
+	}
+
+	/**
+	 * Gets the batch that follows an item.
+	 *
+	 * @param  lastProcessed     Item the batch follows.
+	 * @return                   The batch that follows the item.
+	 * @throws BusinessException If the batch cannot be retrieved.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Type> get(
+			final Type lastProcessed) throws BusinessException {
+		return (List<Type>) this.executeActionDelegateMethod(BatchAction.GET, lastProcessed, this.getSize(), this.getArguments());
 	}
 
 	/**
@@ -1041,6 +1319,49 @@ public class BatchExecutor<Type> implements Typable {
 		this.executeActionDelegateMethod(BatchAction.FINISH);
 	}
 
+	/**
+	 * Gets the arguments of a partition: the ones returned by the
+	 * {@link BatchAction#PARTITION} delegate (e.g. the key range of the
+	 * partition), or the batch arguments when there is none, plus the
+	 * {@link #PARTITION_ARGUMENT} and {@link #PARTITIONS_ARGUMENT} (for hash
+	 * modulo partitioning, see {@link #isInPartition(Object, Map)}).
+	 *
+	 * @param  partition         Partition.
+	 * @return                   The arguments of the partition.
+	 * @throws BusinessException If the partition delegate fails.
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, String> partition(
+			final Integer partition) throws BusinessException {
+		final Map<String, String> partitionArguments = (Map<String, String>) this.executeActionDelegateMethod(BatchAction.PARTITION, partition,
+				this.getPartitions(), this.getArguments());
+		final Map<String, String> arguments = new HashMap<>(partitionArguments == null ? this.getArguments() : partitionArguments);
+		arguments.put(BatchExecutor.PARTITION_ARGUMENT, partition.toString());
+		arguments.put(BatchExecutor.PARTITIONS_ARGUMENT, this.getPartitions().toString());
+		return arguments;
+	}
+
+	/**
+	 * Executes the items of a page at once. The delegate reports a failed item by
+	 * throwing a {@link BatchItemException} with its index in the page.
+	 *
+	 * @param  items             Items.
+	 * @throws BusinessException If the items fail.
+	 */
+	public void executeAll(
+			final List<Type> items) throws BusinessException {
+		try {
+			this.executeActionDelegateMethod(BatchAction.EXECUTE_ALL, items);
+		}
+		catch (final IntegrationException exception) {
+			final BatchItemException itemException = ExceptionUtils.throwableOfType(exception, BatchItemException.class);
+			if (itemException != null) {
+				throw itemException;
+			}
+			throw exception;
+		}
+	}
+
 	/**
 	 * Executes the batch for one item.
 	 *
@@ -0,0 +1,57 @@
+package org.coldis.library.service.batch;
+
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.model.SimpleMessage;
+
+/**
+ * Failure of an item of a page executed at once ({@link BatchAction#EXECUTE_ALL}).
+ * The items before the failed one are kept as processed, and the batch resumes
+ * from the failed one.
+ */
+public class BatchItemException extends BusinessException {
+
+	/**
+	 * Serial.
+	 */
+	private static final long serialVersionUID = -3525067958316213062L;
+
+	/**
+	 * Batch item failed message.
+	 */
+	private static final SimpleMessage BATCH_ITEM_FAILED_MESSAGE = new SimpleMessage("batch.item.failed", "A batch item has failed.");
+
+	/**
+	 * Index (in the page) of the failed item.
+	 */
+	private final Integer failedIndex;
+
+	/**
+	 * Failed index and cause constructor.
+	 *
+	 * @param failedIndex Index (in the page) of the failed item.
+	 * @param cause       Cause.
+	 */
+	public BatchItemException(final Integer failedIndex, final Throwable cause) {
+		super(BatchItemException.BATCH_ITEM_FAILED_MESSAGE, BusinessException.DEFAULT_STATUS_CODE, cause);
+		this.failedIndex = failedIndex;
+	}
+
+	/**
+	 * Failed index constructor.
+	 *
+	 * @param failedIndex Index (in the page) of the failed item.
+	 */
+	public BatchItemException(final Integer failedIndex) {
+		this(failedIndex, null);
+	}
+
+	/**
+	 * Gets the index (in the page) of the failed item.
+	 *
+	 * @return The index of the failed item.
+	 */
+	public Integer getFailedIndex() {
+		return this.failedIndex;
+	}
+
+}
@@ -1,17 +1,29 @@
 package org.coldis.library.service.batch;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.coldis.library.exception.BusinessException;
+import org.coldis.library.exception.IntegrationException;
 import org.coldis.library.helper.DateTimeHelper;
 import org.coldis.library.model.RetriableIn;
+import org.coldis.library.model.SimpleMessage;
 import org.coldis.library.model.Typable;
 import org.coldis.library.persistence.LockBehavior;
 import org.coldis.library.persistence.keyvalue.KeyValue;
@@ -20,22 +32,29 @@ import org.coldis.library.serialization.ObjectMapperHelper;
 import org.coldis.library.service.jms.JmsMessage;
 import org.coldis.library.service.jms.JmsTemplateHelper;
 import org.coldis.library.service.slack.SlackIntegration;
+import org.coldis.library.thread.DynamicThreadPoolFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.PropertyPlaceholderHelper;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PreDestroy;
+
 /**
  * Batch service component.
  */
@@ -101,6 +120,139 @@ public class BatchServiceComponent {
 	@Autowired
 	private SlackIntegration slackIntegration;
 
+	/**
+	 * Transaction manager (items with their own transaction).
+	 */
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Item executor name.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.name:batch-item-thread}")
+	private String itemExecutorName;
+
+	/**
+	 * Item executor priority.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.priority:5}")
+	private Integer itemExecutorPriority;
+
+	/**
+	 * If parallel items run on virtual threads.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.virtual:false}")
+	private Boolean itemExecutorVirtual;
+
+	/**
+	 * Item executor core size.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.core-size:}")
+	private Integer itemExecutorCorePoolSize;
+
+	/**
+	 * Item executor core size CPU multiplier.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.core-size-cpu-multiplier:1}")
+	private Double itemExecutorCorePoolSizeCpuMultiplier;
+
+	/**
+	 * Item executor max size.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.max-size:}")
+	private Integer itemExecutorMaxPoolSize;
+
+	/**
+	 * Item executor max size CPU multiplier.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.max-size-cpu-multiplier:}")
+	private Double itemExecutorMaxPoolSizeCpuMultiplier;
+
+	/**
+	 * Item executor keep alive seconds.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.keep-alive-seconds:60}")
+	private Integer itemExecutorKeepAliveSeconds;
+
+	/**
+	 * Connection pool size (the item transactions are bounded against it).
+	 */
+	@Value("${spring.datasource.hikari.maximum-pool-size:10}")
+	private Integer connectionPoolSize;
+
+	/**
+	 * Item transactions open at once across every batch. Defaults to half the
+	 * connection pool, keeping the other half for the page transactions that wait
+	 * on their items.
+	 */
+	@Value("${org.coldis.library.service.batch.item-executor.max-transactions:}")
+	private Integer itemMaxTransactions;
+
+	/**
+	 * Permits of item transactions (shared by every batch, created on first use).
+	 */
+	private volatile Semaphore itemTransactions;
+
+	/**
+	 * Executor of parallel items (shared by every batch, created on first use).
+	 */
+	private volatile ExecutorService itemExecutor;
+
+	/**
+	 * Page executor name.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.name:batch-page-thread}")
+	private String pageExecutorName;
+
+	/**
+	 * Page executor priority.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.priority:5}")
+	private Integer pageExecutorPriority;
+
+	/**
+	 * If pages are fetched ahead on virtual threads.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.virtual:true}")
+	private Boolean pageExecutorVirtual;
+
+	/**
+	 * Page executor core size.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.core-size:}")
+	private Integer pageExecutorCorePoolSize;
+
+	/**
+	 * Page executor core size CPU multiplier.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.core-size-cpu-multiplier:1}")
+	private Double pageExecutorCorePoolSizeCpuMultiplier;
+
+	/**
+	 * Page executor max size.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.max-size:}")
+	private Integer pageExecutorMaxPoolSize;
+
+	/**
+	 * Page executor max size CPU multiplier.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.max-size-cpu-multiplier:}")
+	private Double pageExecutorMaxPoolSizeCpuMultiplier;
+
+	/**
+	 * Page executor keep alive seconds.
+	 */
+	@Value("${org.coldis.library.service.batch.page-executor.keep-alive-seconds:60}")
+	private Integer pageExecutorKeepAliveSeconds;
+
+	/**
+	 * Executor of pages fetched ahead (shared by every batch, created on first
+	 * use). Kept apart from the item executor so a fetch never waits behind
+	 * queued items, nor takes their threads.
+	 */
+	private volatile ExecutorService pageExecutor;
+
 	/**
 	 * Gets the batch key.
 	 *
@@ -159,6 +311,301 @@ public class BatchServiceComponent {
 
 	}
 
+	/**
+	 * Gets the executor of parallel items, creating it on first use.
+	 *
+	 * @return The item executor.
+	 */
+	private ExecutorService getItemExecutor() {
+		if (this.itemExecutor == null) {
+			synchronized (this) {
+				if (this.itemExecutor == null) {
+					this.itemExecutor = (ExecutorService) new DynamicThreadPoolFactory().withName(this.itemExecutorName).withPriority(this.itemExecutorPriority)
+							.withVirtual(this.itemExecutorVirtual).withCorePoolSize(this.itemExecutorCorePoolSize)
+							.withCorePoolSizeCpuMultiplier(this.itemExecutorCorePoolSizeCpuMultiplier).withMaxPoolSize(this.itemExecutorMaxPoolSize)
+							.withMaxPoolSizeCpuMultiplier(this.itemExecutorMaxPoolSizeCpuMultiplier)
+							.withKeepAlive(Duration.ofSeconds(this.itemExecutorKeepAliveSeconds)).build();
+				}
+			}
+		}
+		return this.itemExecutor;
+	}
+
+	/**
+	 * Gets the permits of item transactions, creating them on first use.
+	 *
+	 * @return The item transaction permits.
+	 */
+	private Semaphore getItemTransactions() {
+		if (this.itemTransactions == null) {
+			synchronized (this) {
+				if (this.itemTransactions == null) {
+					this.itemTransactions = new Semaphore(this.itemMaxTransactions == null ? Math.max(this.connectionPoolSize / 2, 1)
+							: Math.max(this.itemMaxTransactions, 1));
+				}
+			}
+		}
+		return this.itemTransactions;
+	}
+
+	/**
+	 * Gets the executor of pages fetched ahead, creating it on first use.
+	 *
+	 * @return The page executor.
+	 */
+	private ExecutorService getPageExecutor() {
+		if (this.pageExecutor == null) {
+			synchronized (this) {
+				if (this.pageExecutor == null) {
+					this.pageExecutor = (ExecutorService) new DynamicThreadPoolFactory().withName(this.pageExecutorName).withPriority(this.pageExecutorPriority)
+							.withVirtual(this.pageExecutorVirtual).withCorePoolSize(this.pageExecutorCorePoolSize)
+							.withCorePoolSizeCpuMultiplier(this.pageExecutorCorePoolSizeCpuMultiplier).withMaxPoolSize(this.pageExecutorMaxPoolSize)
+							.withMaxPoolSizeCpuMultiplier(this.pageExecutorMaxPoolSizeCpuMultiplier)
+							.withKeepAlive(Duration.ofSeconds(this.pageExecutorKeepAliveSeconds)).build();
+				}
+			}
+		}
+		return this.pageExecutor;
+	}
+
+	/**
+	 * Shuts the item and page executors down.
+	 */
+	@PreDestroy
+	public void shutdownExecutors() {
+		if (this.itemExecutor != null) {
+			this.itemExecutor.shutdown();
+		}
+		if (this.pageExecutor != null) {
+			this.pageExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Executes one item, in a transaction of its own when one is given.
+	 *
+	 * @param  executor            Executor.
+	 * @param  item                Item.
+	 * @param  transactionTemplate Item transaction ({@code null} for none).
+	 * @throws BusinessException   If the item fails.
+	 */
+	private <Type> void executeItem(
+			final BatchExecutor<Type> executor,
+			final Type item,
+			final TransactionTemplate transactionTemplate) throws BusinessException {
+		if (transactionTemplate == null) {
+			executor.execute(item);
+		}
+		else {
+			final BusinessException[] failure = { null };
+			transactionTemplate.executeWithoutResult(status -> {
+				try {
+					executor.execute(item);
+				}
+				catch (final BusinessException exception) {
+					status.setRollbackOnly();
+					failure[0] = exception;
+				}
+			});
+			if (failure[0] != null) {
+				throw failure[0];
+			}
+		}
+		this.log(executor, BatchAction.EXECUTE);
+	}
+
+	/**
+	 * Executes the items of a page apart from the page transaction: up to
+	 * {@link BatchExecutor#getParallelism()} at once on the item executor, each in
+	 * a transaction of its own with {@link BatchTransactionScope#ITEM} or when run
+	 * in parallel (parallel items cannot join the page transaction). Once an item
+	 * fails, or the item executor rejects one (e.g. on shutdown), no further item
+	 * is started, the running ones are awaited, and the cursor only advances past
+	 * the items before the first failed one (items after it run again on retry, so
+	 * actions must be idempotent). As the page transaction keeps its connection
+	 * while the items run, each item transaction takes one of the permits shared
+	 * by every batch ({@code item-executor.max-transactions}), so that concurrent
+	 * resumes wait on the permits instead of exhausting the connection pool.
+	 *
+	 * @param  executor          Executor.
+	 * @param  items             Items.
+	 * @param  lastProcessed     Last processed item before the page.
+	 * @return                   The last processed item.
+	 * @throws BusinessException If an item fails (the executor cursor is then
+	 *                               already advanced).
+	 */
+	private <Type> Type executeIsolatedItems(
+			final BatchExecutor<Type> executor,
+			final List<Type> items,
+			final Type lastProcessed) throws BusinessException {
+		final TransactionTemplate transactionTemplate = ((executor.getTransactionScope() == BatchTransactionScope.ITEM) || (executor.getParallelism() > 1)
+				? new TransactionTemplate(this.transactionManager)
+				: null);
+		if (transactionTemplate != null) {
+			transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		}
+		final Semaphore transactions = (transactionTemplate == null ? null : this.getItemTransactions());
+		final int parallelism = Math.min(executor.getParallelism(), Math.max(items.size(), 1));
+		final AtomicBoolean failed = new AtomicBoolean();
+		final List<Future<?>> executions = new ArrayList<>(items.size());
+		Throwable failure = null;
+		// Sequential items run on this thread.
+		if (parallelism <= 1) {
+			for (final Type item : items) {
+				try {
+					if (transactions != null) {
+						transactions.acquire();
+					}
+					try {
+						this.executeItem(executor, item, transactionTemplate);
+					}
+					finally {
+						if (transactions != null) {
+							transactions.release();
+						}
+					}
+					executions.add(null);
+				}
+				catch (final InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					failure = new IntegrationException(new SimpleMessage("batch.interrupted"), exception);
+					break;
+				}
+				catch (final Throwable throwable) {
+					failure = throwable;
+					break;
+				}
+			}
+		}
+		// Parallel items are submitted as permits are released.
+		else {
+			final Semaphore permits = new Semaphore(parallelism);
+			final ExecutorService itemExecutor = this.getItemExecutor();
+			try {
+				for (final Type item : items) {
+					permits.acquire();
+					if (failed.get()) {
+						permits.release();
+						break;
+					}
+					try {
+						transactions.acquire();
+					}
+					catch (final InterruptedException exception) {
+						permits.release();
+						throw exception;
+					}
+					try {
+						executions.add(itemExecutor.submit(() -> {
+							try {
+								this.executeItem(executor, item, transactionTemplate);
+								return null;
+							}
+							catch (final Throwable throwable) {
+								failed.set(true);
+								throw throwable;
+							}
+							finally {
+								transactions.release();
+								permits.release();
+							}
+						}));
+					}
+					// A rejected item never ran: the submitted ones are awaited below.
+					catch (final RuntimeException exception) {
+						transactions.release();
+						permits.release();
+						failure = exception;
+						break;
+					}
+				}
+				// Waits for every started item.
+				permits.acquire(parallelism);
+				permits.release(parallelism);
+			}
+			catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				executions.forEach(execution -> execution.cancel(true));
+				failure = new IntegrationException(new SimpleMessage("batch.interrupted"), exception);
+			}
+		}
+
+		// Advances the cursor past the items that succeeded, in page order.
+		Type actualLastProcessed = lastProcessed;
+		long processed = 0;
+		for (int index = 0; index < executions.size(); index++) {
+			final Future<?> execution = executions.get(index);
+			if (execution != null) {
+				try {
+					execution.get();
+				}
+				catch (final ExecutionException exception) {
+					failure = (failure == null ? exception.getCause() : failure);
+					break;
+				}
+				catch (final Throwable throwable) {
+					failure = (failure == null ? throwable : failure);
+					break;
+				}
+			}
+			actualLastProcessed = items.get(index);
+			processed++;
+		}
+		executor.setLastProcessedCount(executor.getLastProcessedCount() + processed);
+
+		// Keeps the succeeded items and rethrows the first failure.
+		if (failure != null) {
+			executor.setLastProcessed(actualLastProcessed);
+			if (failure instanceof final BusinessException businessException) {
+				throw businessException;
+			}
+			if (failure instanceof final RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (failure instanceof final Error error) {
+				throw error;
+			}
+			throw new IntegrationException(new SimpleMessage("batch.action.error"), failure);
+		}
+		return actualLastProcessed;
+	}
+
+	/**
+	 * Executes the items of a page at once ({@link BatchAction#EXECUTE_ALL}). If
+	 * the delegate reports a failed item ({@link BatchItemException}), the cursor
+	 * advances past the items before it; any other failure keeps the cursor.
+	 *
+	 * @param  executor          Executor.
+	 * @param  items             Items.
+	 * @param  lastProcessed     Last processed item before the page.
+	 * @return                   The last processed item.
+	 * @throws BusinessException If the items fail (the executor cursor is then
+	 *                               already advanced).
+	 */
+	private <Type> Type executeAllItems(
+			final BatchExecutor<Type> executor,
+			final List<Type> items,
+			final Type lastProcessed) throws BusinessException {
+		Type actualLastProcessed = lastProcessed;
+		if (!items.isEmpty()) {
+			try {
+				executor.executeAll(items);
+				actualLastProcessed = items.get(items.size() - 1);
+				executor.setLastProcessedCount(executor.getLastProcessedCount() + items.size());
+				this.log(executor, BatchAction.EXECUTE_ALL);
+			}
+			// Keeps the items before the failed one.
+			catch (final BatchItemException exception) {
+				final int processed = Math.clamp(Objects.requireNonNullElse(exception.getFailedIndex(), 0), 0, items.size());
+				actualLastProcessed = (processed == 0 ? lastProcessed : items.get(processed - 1));
+				executor.setLastProcessedCount(executor.getLastProcessedCount() + processed);
+				executor.setLastProcessed(actualLastProcessed);
+				throw exception;
+			}
+		}
+		return actualLastProcessed;
+	}
+
 	/**
 	 * Processes a partial batch.
 	 *
@@ -181,20 +628,99 @@ public class BatchServiceComponent {
 			throw new BatchExpiredException();
 		}
 
-		// For each item in the next batch.
+		// Executes the pages of this resume.
 		this.log(batchExecutorValue, BatchAction.GET);
-		final List<Type> nextBatchToProcess = batchExecutorValue.get();
-		for (final Type next : nextBatchToProcess) {
-			batchExecutorValue.execute(next);
-			this.log(batchExecutorValue, BatchAction.EXECUTE);
-			actualLastProcessed = next;
-			batchExecutorValue.setLastProcessedCount(batchExecutorValue.getLastProcessedCount() + 1);
+		List<Type> nextBatchToProcess = batchExecutorValue.get();
+		for (int page = 1; (nextBatchToProcess != null) && !nextBatchToProcess.isEmpty(); page++) {
+			// Fetches the next page while this one executes (if the resume runs more
+			// pages).
+			final Type pageLastProcessed = nextBatchToProcess.get(nextBatchToProcess.size() - 1);
+			final Future<List<Type>> nextPage = (page < batchExecutorValue.getPagesPerResume()
+					? this.getPageExecutor().submit(() -> batchExecutorValue.get(pageLastProcessed))
+					: null);
+			try {
+				actualLastProcessed = this.executePage(batchExecutorValue, nextBatchToProcess, actualLastProcessed);
+			}
+			catch (final Throwable throwable) {
+				if (nextPage != null) {
+					nextPage.cancel(true);
+				}
+				throw throwable;
+			}
+			// Keeps the executed page should a later one fail.
+			batchExecutorValue.setLastProcessed(actualLastProcessed);
+			nextBatchToProcess = (nextPage == null ? null : this.getPrefetchedPage(nextPage));
+			if ((nextBatchToProcess != null) && batchExecutorValue.isExpired()) {
+				throw new BatchExpiredException();
+			}
+			if (nextBatchToProcess != null) {
+				this.log(batchExecutorValue, BatchAction.GET);
+			}
 		}
 
 		// Returns the last processed. id.
 		return actualLastProcessed;
 	}
 
+	/**
+	 * Gets a page fetched ahead on the page executor.
+	 *
+	 * @param  nextPage          Page being fetched.
+	 * @return                   The page.
+	 * @throws BusinessException If the page cannot be retrieved.
+	 */
+	private <Type> List<Type> getPrefetchedPage(
+			final Future<List<Type>> nextPage) throws BusinessException {
+		try {
+			return nextPage.get();
+		}
+		catch (final InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			nextPage.cancel(true);
+			throw new IntegrationException(new SimpleMessage("batch.interrupted"), exception);
+		}
+		catch (final ExecutionException exception) {
+			if (exception.getCause() instanceof final BusinessException businessException) {
+				throw businessException;
+			}
+			if (exception.getCause() instanceof final RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IntegrationException(new SimpleMessage("batch.action.error"), exception.getCause());
+		}
+	}
+
+	/**
+	 * Executes the items of a page.
+	 *
+	 * @param  executor          Executor.
+	 * @param  items             Items.
+	 * @param  lastProcessed     Last processed item before the page.
+	 * @return                   The last processed item.
+	 * @throws BusinessException If the page could not be processed.
+	 */
+	private <Type> Type executePage(
+			final BatchExecutor<Type> executor,
+			final List<Type> items,
+			final Type lastProcessed) throws BusinessException {
+		Type actualLastProcessed = lastProcessed;
+		if (executor.isExecutedAtOnce()) {
+			actualLastProcessed = this.executeAllItems(executor, items, actualLastProcessed);
+		}
+		else if (executor.isItemIsolated()) {
+			actualLastProcessed = this.executeIsolatedItems(executor, items, actualLastProcessed);
+		}
+		else {
+			for (final Type next : items) {
+				executor.execute(next);
+				this.log(executor, BatchAction.EXECUTE);
+				actualLastProcessed = next;
+				executor.setLastProcessedCount(executor.getLastProcessedCount() + 1);
+			}
+		}
+		return actualLastProcessed;
+	}
+
 	/**
 	 * Queues a batch resume.
 	 *
@@ -266,6 +792,10 @@ public class BatchServiceComponent {
 				if (batchExecutorValue.isExpired()) {
 					BatchServiceComponent.LOGGER.debug("Dropping expired resume for batch '{}'.", key);
 				}
+				// Aggregates the partitions of a partitioned batch.
+				else if (batchExecutorValue.isPartitioned()) {
+					this.resumePartitions(batchExecutor, batchExecutorValue);
+				}
 				// Drops the resume if it arrived before the next scheduled run.
 				else if ((batchExecutorValue.getNextBatchStartingAt() != null)
 						&& batchExecutorValue.getNextBatchStartingAt().isAfter(DateTimeHelper.getCurrentLocalDateTime())) {
@@ -301,6 +831,10 @@ public class BatchServiceComponent {
 					if (Objects.equals(previousLastProcessed, currentLastProcessed)) {
 						batchExecutorValue.finish();
 						batchExecutorValue.setLastFinishedAt(DateTimeHelper.getCurrentLocalDateTime());
+						// A finished partition lets its parent batch aggregate it.
+						if (batchExecutorValue.getParentKeySuffix() != null) {
+							this.queueResumeAsync(batchExecutorValue.getParentKeySuffix(), null, true);
+						}
 					}
 					else {
 						this.queueResumeAsync(keySuffix, batchExecutorValue.getNextBatchStartingAt(), true);
@@ -337,6 +871,127 @@ public class BatchServiceComponent {
 
 	}
 
+	/**
+	 * Finds a partition of a partitioned batch.
+	 *
+	 * @param  executor  Partitioned batch.
+	 * @param  partition Partition.
+	 * @return           The partition batch, or {@code null} if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	private <Type> BatchExecutor<Type> findPartition(
+			final BatchExecutor<Type> executor,
+			final int partition) {
+		try {
+			return (BatchExecutor<Type>) this.keyValueService.findById(this.getKey(executor.getPartitionKeySuffix(partition)), LockBehavior.NO_LOCK, false)
+					.getValue();
+		}
+		catch (final BusinessException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * If a partition finished in the current run of its partitioned batch.
+	 *
+	 * @param  executor          Partitioned batch.
+	 * @param  partitionExecutor Partition batch ({@code null} if there is none).
+	 * @return                   If the partition finished.
+	 */
+	private boolean isPartitionFinished(
+			final BatchExecutor<?> executor,
+			final BatchExecutor<?> partitionExecutor) {
+		return (partitionExecutor != null) && partitionExecutor.isFinished() && !partitionExecutor.getLastFinishedAt().isBefore(executor.getLastStartedAt());
+	}
+
+	/**
+	 * Creates a partition of a partitioned batch: a batch with the same settings,
+	 * a cursor of its own and the arguments of the partition
+	 * ({@link BatchExecutor#partition(Integer)}). The start, finish and partition
+	 * actions are disabled on the partition ({@link BatchExecutor#getDisabledActions()}),
+	 * so they only run for the partitioned batch, with delegate methods or a
+	 * typed delegate alike.
+	 *
+	 * @param  executor          Partitioned batch.
+	 * @param  partition         Partition.
+	 * @return                   The partition batch.
+	 * @throws BusinessException If the partition arguments cannot be created.
+	 */
+	private <Type> BatchExecutor<Type> createPartition(
+			final BatchExecutor<Type> executor,
+			final int partition) throws BusinessException {
+		final BatchExecutor<Type> partitionExecutor = new BatchExecutor<>(executor.getItemTypeName());
+		BeanUtils.copyProperties(executor, partitionExecutor, "keySuffix", "partitions", "parentKeySuffix", "actionDelegateMethods", "disabledActions", "arguments",
+				"expectedCount", "lastStartedAt", "lastFinishedAt", "lastTotalProcessingTime", "lastCancelledAt", "lastProcessed", "lastBatchStartedAt",
+				"lastBatchFinishedAt", "lastProcessedCount");
+		partitionExecutor.setKeySuffix(executor.getPartitionKeySuffix(partition));
+		partitionExecutor.setParentKeySuffix(executor.getKeySuffix());
+		if (executor.getExpectedCount() != null) {
+			partitionExecutor.setExpectedCount((executor.getExpectedCount() + executor.getPartitions() - 1) / executor.getPartitions());
+		}
+		partitionExecutor.setActionDelegateMethods(new HashMap<>(executor.getActionDelegateMethods()));
+		final Set<BatchAction> disabledActions = new HashSet<>(executor.getDisabledActions());
+		disabledActions.addAll(Set.of(BatchAction.START, BatchAction.FINISH, BatchAction.PARTITION));
+		partitionExecutor.setDisabledActions(disabledActions);
+		partitionExecutor.setArguments(executor.partition(partition));
+		return partitionExecutor;
+	}
+
+	/**
+	 * Starts (or resumes) the partitions of a partitioned batch. The batch start
+	 * delegate runs once for the whole run. Partitions already finished in the
+	 * current run are left alone, unless the batch was reset.
+	 *
+	 * @param  executor               Partitioned batch.
+	 * @param  reset                  If the batch was reset.
+	 * @param  useLastCountAsExpected If the last count should be used as expected.
+	 * @throws BusinessException      If a partition cannot be started.
+	 */
+	private <Type> void startPartitions(
+			final BatchExecutor<Type> executor,
+			final boolean reset,
+			final Boolean useLastCountAsExpected) throws BusinessException {
+		if (executor.getLastBatchStartedAt() == null) {
+			executor.setLastBatchStartedAt(DateTimeHelper.getCurrentLocalDateTime());
+			executor.start();
+			this.log(executor, BatchAction.START);
+		}
+		for (int partition = 0; partition < executor.getPartitions(); partition++) {
+			if (reset || !this.isPartitionFinished(executor, this.findPartition(executor, partition))) {
+				this.start(this.createPartition(executor, partition), reset, useLastCountAsExpected);
+			}
+		}
+	}
+
+	/**
+	 * Aggregates the progress of the partitions of a partitioned batch, and
+	 * finishes it once every partition has finished. Runs when a partition
+	 * finishes (and on the periodic check, in case that resume was dropped).
+	 *
+	 * @param  batchExecutor     Partitioned batch record.
+	 * @param  executor          Partitioned batch.
+	 * @throws BusinessException If the finish delegate fails.
+	 */
+	private <Type> void resumePartitions(
+			final KeyValue<Typable> batchExecutor,
+			final BatchExecutor<Type> executor) throws BusinessException {
+		long processedCount = 0L;
+		boolean finished = true;
+		for (int partition = 0; partition < executor.getPartitions(); partition++) {
+			final BatchExecutor<Type> partitionExecutor = this.findPartition(executor, partition);
+			processedCount += (partitionExecutor == null ? 0L : partitionExecutor.getLastProcessedCount());
+			finished = finished && this.isPartitionFinished(executor, partitionExecutor);
+		}
+		executor.setLastProcessedCount(processedCount);
+		executor.setLastBatchFinishedAt(DateTimeHelper.getCurrentLocalDateTime());
+		if (finished) {
+			executor.finish();
+			executor.setLastFinishedAt(DateTimeHelper.getCurrentLocalDateTime());
+			this.log(executor, BatchAction.FINISH);
+		}
+		this.keyValueService.getRepository().save(batchExecutor);
+	}
+
 	/**
 	 * Processes a complete batch.
 	 *
@@ -391,13 +1046,21 @@ public class BatchServiceComponent {
 		// If the executor should be restarted, resets it.
 		@SuppressWarnings("unchecked")
 		final BatchExecutor<Type> batchExecutorValue = (BatchExecutor<Type>) batchExecutor.getValue();
-		if (restart || batchExecutorValue.isExpired() || batchExecutorValue.isFinished()) {
+		final boolean reset = restart || batchExecutorValue.isExpired() || batchExecutorValue.isFinished();
+		if (reset) {
 			batchExecutorValue.reset(useLastCountAsExpected);
 		}
 
-		// Saves and resumes the batch.
-		this.keyValueService.getRepository().save(batchExecutor);
-		this.queueResumeAsync(batchExecutorValue.getKeySuffix(), DateTimeHelper.getCurrentLocalDateTime());
+		// Saves and resumes the batch (a partitioned batch is resumed through its
+		// partitions, each with a cursor and resume messages of its own).
+		if (batchExecutorValue.isPartitioned()) {
+			this.startPartitions(batchExecutorValue, reset, useLastCountAsExpected);
+			this.keyValueService.getRepository().save(batchExecutor);
+		}
+		else {
+			this.keyValueService.getRepository().save(batchExecutor);
+			this.queueResumeAsync(batchExecutorValue.getKeySuffix(), DateTimeHelper.getCurrentLocalDateTime());
+		}
 	}
 
 	/**
@@ -419,6 +1082,14 @@ public class BatchServiceComponent {
 		final BatchExecutor<Type> batchExecutorValue = (BatchExecutor<Type>) batchExecutor.getValue();
 		batchExecutorValue.setLastCancelledAt(DateTimeHelper.getCurrentLocalDateTime());
 		this.keyValueService.getRepository().save(batchExecutor);
+		// Cancels the partitions of a partitioned batch.
+		if (batchExecutorValue.isPartitioned()) {
+			for (int partition = 0; partition < batchExecutorValue.getPartitions(); partition++) {
+				if (this.findPartition(batchExecutorValue, partition) != null) {
+					this.cancel(batchExecutorValue.getPartitionKeySuffix(partition));
+				}
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,20 @@
+package org.coldis.library.service.batch;
+
+/**
+ * Transaction scope of the items of a batch page.
+ */
+public enum BatchTransactionScope {
+
+	/**
+	 * Items join the transaction of their page. Parallel items run on other
+	 * threads, so they cannot join it and run as with {@link #ITEM} instead.
+	 */
+	PAGE,
+
+	/**
+	 * Each item runs (and commits) in a transaction of its own, on a second
+	 * connection (the page transaction keeps its own).
+	 */
+	ITEM;
+
+}
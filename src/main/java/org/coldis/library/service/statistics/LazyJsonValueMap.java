@@ -0,0 +1,402 @@
+package org.coldis.library.service.statistics;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Value map of a summary decoded lazily from its JSONB column. Loading a summary only keeps the
+ * raw JSON: the first single-key lookup ({@link #get}, {@link #getOrDefault}, {@link
+ * #containsKey}) scans it and parses only the value asked for, and any other access (iteration,
+ * size, a second lookup, or a change) decodes it once into a hash map that is used from then on.
+ * Read paths that touch a handful of values of a high-cardinality dimension (e.g. the probability
+ * of one value) never build the whole map.
+ *
+ * <p>While the map is still undecoded it is written back as the same JSON ({@link #getJson}) and
+ * compared by it, so the converters and dirty checking do not re-serialize untouched maps. Keys
+ * are JSON strings and values are either numbers, strings or {@code null}, as written by the
+ * summary SQL ({@code jsonb_object_agg}) and by Jackson.
+ *
+ * @param <V> Value type.
+ */
+public final class LazyJsonValueMap<V> extends AbstractMap<String, V> {
+
+  /** Raw JSON, until decoded. */
+  private volatile String json;
+
+  /** Decoded values. */
+  private volatile Map<String, V> values;
+
+  /** Value parser (from the JSON number or string). */
+  private final Function<String, V> valueParser;
+
+  /**
+   * If the one lookup that scans the raw JSON was claimed (atomically, since loaded maps may be
+   * shared by reader threads).
+   */
+  private final AtomicBoolean scanned = new AtomicBoolean();
+
+  /**
+   * Creates the map.
+   *
+   * @param json Raw JSON object.
+   * @param valueParser Value parser (from the JSON number or string).
+   */
+  public LazyJsonValueMap(final String json, final Function<String, V> valueParser) {
+    this.json = json;
+    this.valueParser = valueParser;
+  }
+
+  /**
+   * Gets the raw JSON while the map has not been decoded.
+   *
+   * @return The raw JSON, or {@code null} once the map has been decoded (and may have changed).
+   */
+  public String getJson() {
+    return this.json;
+  }
+
+  /**
+   * Gets the decoded values, decoding the JSON on first use.
+   *
+   * @return The decoded values.
+   */
+  private Map<String, V> decoded() {
+    Map<String, V> current = this.values;
+    if (current == null) {
+      synchronized (this) {
+        current = this.values;
+        if (current == null) {
+          current = new HashMap<>();
+          final JsonReader reader = new JsonReader(this.json);
+          if (reader.startObject()) {
+            do {
+              final String key = reader.readString();
+              reader.expect(':');
+              final String token = reader.readValue();
+              current.put(key, (token == null ? null : this.valueParser.apply(token)));
+            } while (reader.nextEntry());
+          }
+          this.values = current;
+          this.json = null;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Gets the raw JSON if the next lookup should scan it instead of decoding the map.
+   *
+   * @return The raw JSON to scan, or {@code null} if the decoded values should be used.
+   */
+  private String scannable() {
+    final String currentJson = this.json;
+    return ((currentJson != null) && this.scanned.compareAndSet(false, true) ? currentJson : null);
+  }
+
+  /**
+   * Scans the raw JSON for a key.
+   *
+   * @param currentJson Raw JSON.
+   * @param key Key.
+   * @return The reader positioned at the value of the key, or {@code null} if it is not present.
+   */
+  private static JsonReader find(final String currentJson, final Object key) {
+    final JsonReader reader = new JsonReader(currentJson);
+    if (reader.startObject()) {
+      do {
+        final String currentKey = reader.readString();
+        reader.expect(':');
+        if (currentKey.equals(key)) {
+          return reader;
+        }
+        reader.readValue();
+      } while (reader.nextEntry());
+    }
+    return null;
+  }
+
+  /**
+   * @see AbstractMap#get(Object)
+   */
+  @Override
+  public V get(final Object key) {
+    return this.getOrDefault(key, null);
+  }
+
+  /**
+   * @see Map#getOrDefault(Object, Object)
+   */
+  @Override
+  public V getOrDefault(final Object key, final V defaultValue) {
+    final String currentJson = this.scannable();
+    if (currentJson == null) {
+      return this.decoded().getOrDefault(key, defaultValue);
+    }
+    final JsonReader reader = LazyJsonValueMap.find(currentJson, key);
+    if (reader == null) {
+      return defaultValue;
+    }
+    final String token = reader.readValue();
+    return (token == null ? null : this.valueParser.apply(token));
+  }
+
+  /**
+   * @see AbstractMap#containsKey(Object)
+   */
+  @Override
+  public boolean containsKey(final Object key) {
+    final String currentJson = this.scannable();
+    return (currentJson == null
+        ? this.decoded().containsKey(key)
+        : (LazyJsonValueMap.find(currentJson, key) != null));
+  }
+
+  /**
+   * @see AbstractMap#isEmpty()
+   */
+  @Override
+  public boolean isEmpty() {
+    final String currentJson = this.json;
+    return (currentJson == null ? this.decoded().isEmpty() : !new JsonReader(currentJson).startObject());
+  }
+
+  /**
+   * @see AbstractMap#size()
+   */
+  @Override
+  public int size() {
+    return this.decoded().size();
+  }
+
+  /**
+   * @see AbstractMap#put(Object, Object)
+   */
+  @Override
+  public V put(final String key, final V value) {
+    return this.decoded().put(key, value);
+  }
+
+  /**
+   * @see AbstractMap#remove(Object)
+   */
+  @Override
+  public V remove(final Object key) {
+    return this.decoded().remove(key);
+  }
+
+  /**
+   * @see AbstractMap#clear()
+   */
+  @Override
+  public void clear() {
+    this.decoded().clear();
+  }
+
+  /**
+   * @see AbstractMap#entrySet()
+   */
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return this.decoded().entrySet();
+  }
+
+  /**
+   * Compares the raw JSON when both maps are still undecoded and equal to it, and the decoded
+   * entries otherwise.
+   *
+   * @see AbstractMap#equals(Object)
+   */
+  @Override
+  public boolean equals(final Object other) {
+    if (other instanceof LazyJsonValueMap<?> otherMap) {
+      final String currentJson = this.json;
+      if ((currentJson != null) && currentJson.equals(otherMap.json)) {
+        return true;
+      }
+    }
+    return super.equals(other);
+  }
+
+  /**
+   * @see AbstractMap#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  /** Minimal reader for a flat JSON object of string keys and scalar values. */
+  private static final class JsonReader {
+
+    /** JSON. */
+    private final String json;
+
+    /** Current position. */
+    private int position;
+
+    /**
+     * Creates the reader.
+     *
+     * @param json JSON.
+     */
+    private JsonReader(final String json) {
+      this.json = json;
+    }
+
+    /**
+     * Creates the error for the current position.
+     *
+     * @return The error.
+     */
+    private IllegalArgumentException invalid() {
+      return new IllegalArgumentException(
+          "Invalid JSON value map at position " + this.position + ": " + this.json);
+    }
+
+    /**
+     * Skips whitespace and peeks the next character.
+     *
+     * @return The next character.
+     */
+    private char peek() {
+      while ((this.position < this.json.length())
+          && Character.isWhitespace(this.json.charAt(this.position))) {
+        this.position++;
+      }
+      if (this.position >= this.json.length()) {
+        throw this.invalid();
+      }
+      return this.json.charAt(this.position);
+    }
+
+    /**
+     * Consumes an expected character.
+     *
+     * @param expected Expected character.
+     */
+    private void expect(final char expected) {
+      if (this.peek() != expected) {
+        throw this.invalid();
+      }
+      this.position++;
+    }
+
+    /**
+     * Consumes the start of the object.
+     *
+     * @return If the object has entries.
+     */
+    private boolean startObject() {
+      this.expect('{');
+      if (this.peek() == '}') {
+        this.position++;
+        return false;
+      }
+      return true;
+    }
+
+    /**
+     * Consumes the separator after an entry.
+     *
+     * @return If another entry follows.
+     */
+    private boolean nextEntry() {
+      final char separator = this.peek();
+      this.position++;
+      if (separator == ',') {
+        return true;
+      }
+      if (separator == '}') {
+        return false;
+      }
+      this.position--;
+      throw this.invalid();
+    }
+
+    /**
+     * Reads a string, unescaping it only if needed.
+     *
+     * @return The string.
+     */
+    private String readString() {
+      this.expect('"');
+      final int start = this.position;
+      while (this.position < this.json.length()) {
+        final char character = this.json.charAt(this.position);
+        if (character == '"') {
+          return this.json.substring(start, this.position++);
+        }
+        if (character == '\\') {
+          return this.readEscapedString(new StringBuilder(this.json.substring(start, this.position)));
+        }
+        this.position++;
+      }
+      throw this.invalid();
+    }
+
+    /**
+     * Reads the rest of a string that has escapes.
+     *
+     * @param builder String read so far.
+     * @return The string.
+     */
+    private String readEscapedString(final StringBuilder builder) {
+      while (this.position < this.json.length()) {
+        final char character = this.json.charAt(this.position++);
+        if (character == '"') {
+          return builder.toString();
+        }
+        if (character != '\\') {
+          builder.append(character);
+        } else if (this.position < this.json.length()) {
+          final char escaped = this.json.charAt(this.position++);
+          switch (escaped) {
+            case 'b' -> builder.append('\b');
+            case 'f' -> builder.append('\f');
+            case 'n' -> builder.append('\n');
+            case 'r' -> builder.append('\r');
+            case 't' -> builder.append('\t');
+            case 'u' -> {
+              if ((this.position + 4) > this.json.length()) {
+                throw this.invalid();
+              }
+              builder.append(
+                  (char) Integer.parseInt(this.json.substring(this.position, this.position + 4), 16));
+              this.position += 4;
+            }
+            default -> builder.append(escaped);
+          }
+        }
+      }
+      throw this.invalid();
+    }
+
+    /**
+     * Reads a scalar value.
+     *
+     * @return The value text (unquoted for strings), or {@code null} for a JSON {@code null}.
+     */
+    private String readValue() {
+      if (this.peek() == '"') {
+        return this.readString();
+      }
+      final int start = this.position;
+      while ((this.position < this.json.length())
+          && (this.json.charAt(this.position) != ',')
+          && (this.json.charAt(this.position) != '}')
+          && !Character.isWhitespace(this.json.charAt(this.position))) {
+        this.position++;
+      }
+      if (this.position == start) {
+        throw this.invalid();
+      }
+      final String token = this.json.substring(start, this.position);
+      return ("null".equals(token) ? null : token);
+    }
+  }
+}
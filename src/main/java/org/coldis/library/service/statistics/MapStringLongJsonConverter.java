@@ -1,23 +1,33 @@
 package org.coldis.library.service.statistics;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.Converter;
 import java.util.Map;
 import org.coldis.library.persistence.converter.AbstractJsonConverter;
-import org.coldis.library.serialization.ObjectMapperHelper;
 
-/** Map&lt;String, Long&gt; from/to JSON converter. */
+/**
+ * Map&lt;String, Long&gt; from/to JSON converter. Maps are decoded lazily ({@link
+ * LazyJsonValueMap}) and undecoded maps are written back as the JSON they were read from.
+ */
 @Converter(autoApply = true)
 public class MapStringLongJsonConverter extends AbstractJsonConverter<Map<String, Long>> {
 
+  /**
+   * @see AbstractJsonConverter#convertToDatabaseColumn(Object)
+   */
+  @Override
+  public String convertToDatabaseColumn(final Map<String, Long> entityAttribute) {
+    final String json =
+        (entityAttribute instanceof LazyJsonValueMap<?> lazyMap ? lazyMap.getJson() : null);
+    return (json == null ? super.convertToDatabaseColumn(entityAttribute) : json);
+  }
+
   /**
    * @see AbstractJsonConverter#convertToEntityAttribute(ObjectMapper, String)
    */
   @Override
   protected Map<String, Long> convertToEntityAttribute(
       final ObjectMapper jsonMapper, final String jsonObject) {
-    return ObjectMapperHelper.deserialize(
-        jsonMapper, jsonObject, new TypeReference<Map<String, Long>>() {}, false);
+    return (jsonObject == null ? null : new LazyJsonValueMap<>(jsonObject, Long::valueOf));
   }
 }
@@ -0,0 +1,199 @@
+package org.coldis.library.service.statistics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Writes tuples in the Postgres binary {@code COPY} format (header, tuples of length-prefixed
+ * fields, trailer). Supports the field types the statistics staging tables use: {@code text},
+ * {@code int8}, {@code numeric} and {@code timestamptz}. Local date times are interpreted in the
+ * JVM default zone, matching how the JDBC driver binds them for the session.
+ */
+public final class PostgresBinaryCopyWriter {
+
+  /** Binary COPY signature. */
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r',
+    '\n', 0};
+
+  /** Seconds between the Unix epoch and the Postgres epoch (2000-01-01T00:00:00Z). */
+  private static final long POSTGRES_EPOCH_SECONDS = 946_684_800L;
+
+  /** Numeric sign: positive. */
+  private static final short NUMERIC_POSITIVE = 0x0000;
+
+  /** Numeric sign: negative. */
+  private static final short NUMERIC_NEGATIVE = 0x4000;
+
+  /** Decimal digits per numeric base-10000 digit. */
+  private static final int NUMERIC_DIGIT_LENGTH = 4;
+
+  /** Buffer. */
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+
+  /** Output. */
+  private final DataOutputStream output = new DataOutputStream(this.buffer);
+
+  /** Writes the header. */
+  public PostgresBinaryCopyWriter() {
+    try {
+      this.output.write(PostgresBinaryCopyWriter.SIGNATURE);
+      // Flags and header extension length.
+      this.output.writeInt(0);
+      this.output.writeInt(0);
+    } catch (final IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Starts a tuple.
+   *
+   * @param fields Number of fields in the tuple.
+   */
+  public void startRow(final int fields) {
+    try {
+      this.output.writeShort(fields);
+    } catch (final IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /** Writes a null field. */
+  private void writeNull() throws IOException {
+    this.output.writeInt(-1);
+  }
+
+  /**
+   * Writes a {@code text} field.
+   *
+   * @param value Value (may be null).
+   */
+  public void writeText(final String value) {
+    try {
+      if (value == null) {
+        this.writeNull();
+      } else {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.output.writeInt(bytes.length);
+        this.output.write(bytes);
+      }
+    } catch (final IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Writes an {@code int8} field.
+   *
+   * @param value Value.
+   */
+  public void writeLong(final long value) {
+    try {
+      this.output.writeInt(Long.BYTES);
+      this.output.writeLong(value);
+    } catch (final IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Writes a {@code timestamptz} field (microseconds since the Postgres epoch).
+   *
+   * @param value Value (may be null).
+   */
+  public void writeTimestamp(final LocalDateTime value) {
+    try {
+      if (value == null) {
+        this.writeNull();
+      } else {
+        final Instant instant = value.atZone(ZoneId.systemDefault()).toInstant();
+        this.output.writeInt(Long.BYTES);
+        this.output.writeLong(
+            ((instant.getEpochSecond() - PostgresBinaryCopyWriter.POSTGRES_EPOCH_SECONDS)
+                    * 1_000_000L)
+                + (instant.getNano() / 1_000));
+      }
+    } catch (final IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Writes a {@code numeric} field: digit count, weight, sign and display scale followed by the
+   * base-10000 digits (leading and trailing zero digits stripped).
+   *
+   * @param value Value (may be null).
+   */
+  public void writeNumeric(final BigDecimal value) {
+    try {
+      if (value == null) {
+        this.writeNull();
+        return;
+      }
+      final int displayScale = Math.max(0, value.scale());
+      final String plain = value.abs().setScale(displayScale).toPlainString();
+      final int point = plain.indexOf('.');
+      final String integerPart = (point < 0 ? plain : plain.substring(0, point));
+      final String fractionPart = (point < 0 ? "" : plain.substring(point + 1));
+      final int digitLength = PostgresBinaryCopyWriter.NUMERIC_DIGIT_LENGTH;
+      // Aligns both parts to whole base-10000 digits around the decimal point.
+      final int integerPadding = (digitLength - (integerPart.length() % digitLength)) % digitLength;
+      final int fractionPadding =
+          (digitLength - (fractionPart.length() % digitLength)) % digitLength;
+      final String digits =
+          "0".repeat(integerPadding) + integerPart + fractionPart + "0".repeat(fractionPadding);
+      final int integerDigits = (integerPadding + integerPart.length()) / digitLength;
+      final short[] groups = new short[digits.length() / digitLength];
+      for (int index = 0; index < groups.length; index++) {
+        groups[index] =
+            Short.parseShort(digits.substring(index * digitLength, (index + 1) * digitLength));
+      }
+      int first = 0;
+      while ((first < groups.length) && (groups[first] == 0)) {
+        first++;
+      }
+      int last = groups.length - 1;
+      while ((last >= first) && (groups[last] == 0)) {
+        last--;
+      }
+      final int count = Math.max(0, (last - first) + 1);
+      final int weight = (count == 0 ? 0 : (integerDigits - 1 - first));
+      final short sign =
+          ((count > 0) && (value.signum() < 0)
+              ? PostgresBinaryCopyWriter.NUMERIC_NEGATIVE
+              : PostgresBinaryCopyWriter.NUMERIC_POSITIVE);
+      this.output.writeInt(8 + (2 * count));
+      this.output.writeShort(count);
+      this.output.writeShort(weight);
+      this.output.writeShort(sign);
+      this.output.writeShort(displayScale);
+      for (int index = first; index <= last; index++) {
+        this.output.writeShort(groups[index]);
+      }
+    } catch (final IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Writes the trailer and returns the COPY payload.
+   *
+   * @return The payload.
+   */
+  public byte[] finish() {
+    try {
+      this.output.writeShort(-1);
+      this.output.flush();
+    } catch (final IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    return this.buffer.toByteArray();
+  }
+}
@@ -0,0 +1,247 @@
+package org.coldis.library.service.statistics;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flush policy for the in-memory statistics buffers. Tracks how much was buffered since the last
+ * flush (buffered operations, estimated bytes and the age of the oldest one) and decides when a
+ * flush is due:
+ *
+ * <ul>
+ *   <li><b>size</b> — at {@code maxEntries} buffered operations or {@code maxBytes} estimated
+ *       bytes;
+ *   <li><b>age</b> — when the oldest buffered operation is older than {@code maxAge};
+ *   <li><b>schedule</b> — when a scheduled flush was requested and this node's jitter elapsed.
+ * </ul>
+ *
+ * <p>Every node draws a fixed offset in {@code [0, jitter]} at startup and adds it to the age limit
+ * and to scheduled flushes, so nodes sharing the same cron do not all flush at the same second.
+ * When {@code hardCapEntries} is reached, {@link #awaitCapacity(Runnable)} flushes on the caller
+ * thread (waiting for an in-flight flush if needed), which throttles producers to the flush rate.
+ * Counters are approximate: operations that collapse in the buffer still count, so they bound the
+ * buffer size from above. A limit of zero disables the corresponding trigger.
+ */
+public final class StatisticsBufferFlushPolicy {
+
+  /** Buffered operations that trigger a flush. */
+  private final long maxEntries;
+
+  /** Estimated buffered bytes that trigger a flush. */
+  private final long maxBytes;
+
+  /** Age of the oldest buffered operation that triggers a flush, in millis. */
+  private final long maxAgeMillis;
+
+  /** Buffered operations at which producers flush synchronously. */
+  private final long hardCapEntries;
+
+  /** This node's flush offset, in millis. */
+  private final long jitterMillis;
+
+  /** Buffered operations since the last flush. */
+  private final LongAdder entries = new LongAdder();
+
+  /** Estimated bytes buffered since the last flush. */
+  private final LongAdder bytes = new LongAdder();
+
+  /** When the oldest buffered operation was recorded (epoch millis, zero when empty). */
+  private final AtomicLong oldestBufferedAt = new AtomicLong();
+
+  /** When a requested scheduled flush is due (epoch millis, zero when none). */
+  private final AtomicLong scheduledFlushAt = new AtomicLong();
+
+  /** Serializes flushes. */
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  /**
+   * Creates a policy.
+   *
+   * @param maxEntries Buffered operations that trigger a flush.
+   * @param maxBytes Estimated buffered bytes that trigger a flush.
+   * @param maxAge Age of the oldest buffered operation that triggers a flush.
+   * @param hardCapEntries Buffered operations at which producers flush synchronously.
+   * @param jitter Upper bound of this node's flush offset.
+   */
+  public StatisticsBufferFlushPolicy(
+      final long maxEntries,
+      final long maxBytes,
+      final Duration maxAge,
+      final long hardCapEntries,
+      final Duration jitter) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.maxAgeMillis = (maxAge == null ? 0L : maxAge.toMillis());
+    this.hardCapEntries = hardCapEntries;
+    final long jitterBound = (jitter == null ? 0L : jitter.toMillis());
+    this.jitterMillis =
+        (jitterBound <= 0 ? 0L : ThreadLocalRandom.current().nextLong(jitterBound + 1));
+  }
+
+  /**
+   * Estimates the retained size of a string.
+   *
+   * @param value String (may be null).
+   * @return The estimated bytes.
+   */
+  public static long estimateBytes(final String value) {
+    return (value == null ? 0L : 40L + (2L * value.length()));
+  }
+
+  /**
+   * Gets this node's flush offset.
+   *
+   * @return The offset, in millis.
+   */
+  public long getJitterMillis() {
+    return this.jitterMillis;
+  }
+
+  /**
+   * Gets the operations buffered since the last flush.
+   *
+   * @return The buffered operations.
+   */
+  public long getBufferedEntries() {
+    return this.entries.sum();
+  }
+
+  /**
+   * Gets the estimated bytes buffered since the last flush.
+   *
+   * @return The estimated bytes.
+   */
+  public long getBufferedBytes() {
+    return this.bytes.sum();
+  }
+
+  /**
+   * Gets the age of the oldest operation buffered since the last flush.
+   *
+   * @param now Current epoch millis.
+   * @return The age, in millis (zero when empty).
+   */
+  public long getOldestBufferedAgeMillis(final long now) {
+    final long oldestAt = this.oldestBufferedAt.get();
+    return (oldestAt == 0L ? 0L : Math.max(0L, now - oldestAt));
+  }
+
+  /**
+   * Records a buffered operation.
+   *
+   * @param estimatedBytes Estimated bytes retained by the operation.
+   * @param now Current epoch millis.
+   */
+  public void recordBuffered(final long estimatedBytes, final long now) {
+    this.entries.increment();
+    this.bytes.add(estimatedBytes);
+    this.oldestBufferedAt.compareAndSet(0L, now);
+  }
+
+  /**
+   * Requests a scheduled flush, due after this node's offset.
+   *
+   * @param now Current epoch millis.
+   */
+  public void requestScheduledFlush(final long now) {
+    this.scheduledFlushAt.compareAndSet(0L, now + this.jitterMillis);
+  }
+
+  /**
+   * Whether a flush is due.
+   *
+   * @param now Current epoch millis.
+   * @return If a flush is due.
+   */
+  public boolean isFlushDue(final long now) {
+    final long scheduledAt = this.scheduledFlushAt.get();
+    final long oldestAt = this.oldestBufferedAt.get();
+    return ((scheduledAt > 0) && (now >= scheduledAt))
+        || ((this.maxEntries > 0) && (this.entries.sum() >= this.maxEntries))
+        || ((this.maxBytes > 0) && (this.bytes.sum() >= this.maxBytes))
+        || ((this.maxAgeMillis > 0)
+            && (oldestAt > 0)
+            && ((now - oldestAt) >= (this.maxAgeMillis + this.jitterMillis)));
+  }
+
+  /**
+   * Whether the hard cap is reached.
+   *
+   * @return If the hard cap is reached.
+   */
+  public boolean isOverHardCap() {
+    return (this.hardCapEntries > 0) && (this.entries.sum() >= this.hardCapEntries);
+  }
+
+  /**
+   * Runs a flush, resetting the counters first (operations buffered while flushing count towards
+   * the next flush, even if this one drains them).
+   *
+   * @param flush Flush.
+   */
+  private void runFlush(final Runnable flush) {
+    this.entries.reset();
+    this.bytes.reset();
+    this.oldestBufferedAt.set(0L);
+    this.scheduledFlushAt.set(0L);
+    flush.run();
+  }
+
+  /**
+   * Flushes, waiting for an in-flight flush to finish first.
+   *
+   * @param flush Flush.
+   */
+  public void flush(final Runnable flush) {
+    this.flushLock.lock();
+    try {
+      this.runFlush(flush);
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  /**
+   * Flushes if a flush is due and none is in flight.
+   *
+   * @param flush Flush.
+   * @param now Current epoch millis.
+   * @return If the flush ran.
+   */
+  public boolean flushIfDue(final Runnable flush, final long now) {
+    if (this.isFlushDue(now) && this.flushLock.tryLock()) {
+      try {
+        if (this.isFlushDue(now)) {
+          this.runFlush(flush);
+          return true;
+        }
+      } finally {
+        this.flushLock.unlock();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Applies backpressure: while the hard cap is reached, flushes on the caller thread (or waits for
+   * the in-flight flush).
+   *
+   * @param flush Flush.
+   */
+  public void awaitCapacity(final Runnable flush) {
+    if (this.isOverHardCap()) {
+      this.flushLock.lock();
+      try {
+        // Another producer may have flushed while this one waited.
+        if (this.isOverHardCap()) {
+          this.runFlush(flush);
+        }
+      } finally {
+        this.flushLock.unlock();
+      }
+    }
+  }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.coldis.library.model.view.ModelView;
 
@@ -31,6 +32,12 @@ public class StatisticsEventNaiveMultiDimensionProbability implements Serializab
   /** Individual probabilities per dimension. */
   private List<StatisticsEventSingleDimensionProbability> individualProbabilities;
 
+  /** Time spent fetching the dimensions, in microseconds (only when scored by the service). */
+  private Long fetchMicros;
+
+  /** Time spent on each dimension, in microseconds (only when scored by the service). */
+  private Map<String, Long> dimensionMicros;
+
   /** No arguments constructor. */
   public StatisticsEventNaiveMultiDimensionProbability() {}
 
@@ -132,6 +139,46 @@ public class StatisticsEventNaiveMultiDimensionProbability implements Serializab
     this.individualProbabilities = individualProbabilities;
   }
 
+  /**
+   * Gets the time spent fetching the dimensions, in microseconds. Dimensions fetched together share
+   * this time.
+   *
+   * @return The fetch time.
+   */
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public Long getFetchMicros() {
+    return this.fetchMicros;
+  }
+
+  /**
+   * Sets the time spent fetching the dimensions.
+   *
+   * @param fetchMicros New fetch time.
+   */
+  public void setFetchMicros(final Long fetchMicros) {
+    this.fetchMicros = fetchMicros;
+  }
+
+  /**
+   * Gets the time spent on each dimension, in microseconds: its own read (when not fetched with the
+   * others) and the merge of its period summary.
+   *
+   * @return The time per dimension name.
+   */
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public Map<String, Long> getDimensionMicros() {
+    return this.dimensionMicros;
+  }
+
+  /**
+   * Sets the time spent on each dimension.
+   *
+   * @param dimensionMicros New time per dimension name.
+   */
+  public void setDimensionMicros(final Map<String, Long> dimensionMicros) {
+    this.dimensionMicros = dimensionMicros;
+  }
+
   /**
    * @see Object#hashCode()
    */
@@ -20,7 +20,8 @@ public interface StatisticsEventRepository
         StatisticsEventRepositoryCustom {
 
   /**
-   * Deletes a batch of expired statistics events.
+   * Deletes a batch of expired statistics events. Rows are matched by {@code (tableoid, ctid)}, since
+   * a {@code ctid} alone is only unique within one partition.
    *
    * @param now Current date time.
    * @param limit Maximum number of rows to delete.
@@ -31,7 +32,30 @@ public interface StatisticsEventRepository
   @Query(
       nativeQuery = true,
       value =
-          "DELETE FROM statistics_event WHERE ctid IN ("
-              + "SELECT ctid FROM statistics_event WHERE expired_at IS NOT NULL AND expired_at < :now LIMIT :limit)")
+          "DELETE FROM statistics_event WHERE (tableoid, ctid) IN ("
+              + "SELECT tableoid, ctid FROM statistics_event"
+              + " WHERE expired_at IS NOT NULL AND expired_at < :now LIMIT :limit)")
   int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+  /**
+   * Deletes a batch of expired statistics events from the default partition of the event table
+   * partitioned by {@code expired_at}. The range partitions are dropped whole once they end (see
+   * {@link StatisticsEventSummaryPartitionServiceComponent}), so only rows that fell outside them
+   * are deleted one by one.
+   *
+   * @param now Current date time.
+   * @param limit Maximum number of rows to delete.
+   * @return The number of deleted rows.
+   */
+  @Modifying
+  @Transactional(propagation = Propagation.REQUIRED)
+  @Query(
+      nativeQuery = true,
+      value =
+          "DELETE FROM statistics_event WHERE (tableoid, ctid) IN ("
+              + "SELECT tableoid, ctid FROM statistics_event"
+              + " WHERE tableoid = (SELECT partdefid FROM pg_partitioned_table"
+              + "   WHERE partrelid = to_regclass('statistics_event'))"
+              + " AND expired_at IS NOT NULL AND expired_at < :now LIMIT :limit)")
+  int deleteExpiredFromDefaultPartition(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
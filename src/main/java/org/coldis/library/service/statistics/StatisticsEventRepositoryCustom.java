@@ -4,8 +4,9 @@ import java.util.List;
 
 /**
  * Custom statistics event repository operations not expressible as Spring Data derived queries.
+ * The partition operations apply to the event table range partitioned by {@code expired_at}.
  */
-public interface StatisticsEventRepositoryCustom {
+public interface StatisticsEventRepositoryCustom extends StatisticsPartitionedRepository {
 
   /**
    * Batched MERGE upsert. Caller must hold the per-key advisory lock (via
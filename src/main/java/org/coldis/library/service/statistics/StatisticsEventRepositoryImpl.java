@@ -3,28 +3,43 @@ package org.coldis.library.service.statistics;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
 import org.coldis.library.helper.DateTimeHelper;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 
 /**
  * Custom statistics event repository operations. Implements the batched upsert against Postgres
  * with parallel-array binding via {@code unnest}.
  *
- * <p>Two SQL flavors are supported, selected by
+ * <p>Three SQL flavors are supported, selected by
  * {@code org.coldis.library.service.statistics.event.upsert-strategy}:
  * <ul>
  *   <li>{@code merge} (default) — uses {@code MERGE ... RETURNING merge_action()}; requires
  *       Postgres 17 or newer.</li>
  *   <li>{@code on-conflict} — uses {@code INSERT ... ON CONFLICT DO UPDATE ... RETURNING
  *       (xmax = 0) AS was_inserted}; works on Postgres 9.5+.</li>
+ *   <li>{@code copy} — binary {@code COPY FROM STDIN} into a temporary staging table, then the
+ *       {@code merge} statement reading from it; for large batches, where array binding and
+ *       parsing dominate. Requires Postgres 17 or newer.</li>
  * </ul>
  */
 public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryCustom {
@@ -40,13 +55,66 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
   static final String STRATEGY_ON_CONFLICT = "on-conflict";
 
   /**
-   * MERGE-based single-statement CTE upsert (Postgres 17+): input → existing snapshot → MERGE
-   * (insert/update with latest-emission-wins predicate) → join everything back. Returns one row
-   * per input key in input order with {@code applied}, {@code was_inserted} and the pre-update
-   * state needed for summary deltas. Caller must hold the per-key advisory lock for the keys
-   * being upserted.
+   * Strategy value: binary {@code COPY} into a session staging table, then the {@code merge}
+   * statement reading from it (Postgres 17+).
    */
-  private static final String UPSERT_BATCH_SQL_MERGE =
+  static final String STRATEGY_COPY = "copy";
+
+  /** Checks if the event table is range partitioned. */
+  private static final String IS_PARTITIONED_SQL =
+      "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table"
+          + " WHERE partrelid = to_regclass('statistics_event'))";
+
+  /** Lists the partitions attached to the event table. */
+  private static final String FIND_PARTITION_NAMES_SQL =
+      "SELECT CAST(child.relname AS text) FROM pg_inherits"
+          + " JOIN pg_class child ON child.oid = pg_inherits.inhrelid"
+          + " WHERE pg_inherits.inhparent = to_regclass('statistics_event')";
+
+  /**
+   * Bounds of partitions, as literals (DDL takes no bind parameters). Shared with
+   * {@link StatisticsEventSummaryRepositoryImpl}.
+   */
+  static final DateTimeFormatter PARTITION_BOUND_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  /** Partition names the DDL accepts (interpolated, so never taken from outside). */
+  private static final Pattern PARTITION_NAME_PATTERN = Pattern.compile("[a-z0-9_]+");
+
+  /** Session staging table for the {@code copy} strategy. */
+  private static final String COPY_STAGING_TABLE = "statistics_event_copy_staging";
+
+  /**
+   * Creates the staging table once per session. Temporary tables are unlogged and private to the
+   * connection; {@code ON COMMIT DELETE ROWS} empties it at the end of every transaction.
+   */
+  private static final String COPY_STAGING_CREATE_SQL =
+      "CREATE TEMPORARY TABLE IF NOT EXISTS " + StatisticsEventRepositoryImpl.COPY_STAGING_TABLE
+          + " (ord bigint, context text, owner_key text, dimension_name text,"
+          + "  date_time timestamptz, dimension_value text, weight numeric,"
+          + "  expired_at timestamptz, emitted_at timestamptz, created_at timestamptz,"
+          + "  updated_at timestamptz)"
+          + " ON COMMIT DELETE ROWS";
+
+  /** Clears rows left by a previous batch in the same transaction. */
+  private static final String COPY_STAGING_TRUNCATE_SQL =
+      "TRUNCATE " + StatisticsEventRepositoryImpl.COPY_STAGING_TABLE;
+
+  /** Binary COPY into the staging table (column order matches the written tuples). */
+  private static final String COPY_STAGING_COPY_SQL =
+      "COPY " + StatisticsEventRepositoryImpl.COPY_STAGING_TABLE
+          + " (ord, context, owner_key, dimension_name, date_time, dimension_value, weight,"
+          + "  expired_at, emitted_at, created_at, updated_at)"
+          + " FROM STDIN (FORMAT binary)";
+
+  /** Number of columns written per staged tuple. */
+  private static final int COPY_STAGING_COLUMNS = 11;
+
+  /**
+   * Input CTE binding the batch as parallel arrays via {@code unnest ... WITH ORDINALITY}. Used by
+   * the {@code merge} and {@code on-conflict} flavors.
+   */
+  private static final String UPSERT_BATCH_INPUT_UNNEST =
       "WITH input AS ("
           + " SELECT * FROM unnest("
           + "  CAST(:contexts AS text[]),"
@@ -62,7 +130,28 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
           + " ) WITH ORDINALITY AS t(context, owner_key, dimension_name, date_time,"
           + "        dimension_value, weight, expired_at, emitted_at, created_at,"
           + "        updated_at, ord)"
-          + "), existing AS ("
+          + ")";
+
+  /**
+   * Input CTE reading the batch from the session staging table filled by {@code COPY}. Used by the
+   * {@code copy} flavor.
+   */
+  private static final String UPSERT_BATCH_INPUT_STAGING =
+      "WITH input AS ("
+          + " SELECT context, owner_key, dimension_name, date_time, dimension_value, weight,"
+          + "        expired_at, emitted_at, created_at, updated_at, ord"
+          + " FROM " + StatisticsEventRepositoryImpl.COPY_STAGING_TABLE
+          + ")";
+
+  /**
+   * MERGE-based single-statement CTE upsert (Postgres 17+), appended to one of the input CTEs:
+   * input → existing snapshot → MERGE (insert/update with latest-emission-wins predicate) → join
+   * everything back. Returns one row per input key in input order with {@code applied},
+   * {@code was_inserted} and the pre-update state needed for summary deltas. Caller must hold the
+   * per-key advisory lock for the keys being upserted.
+   */
+  private static final String UPSERT_BATCH_MERGE =
+      ", existing AS ("
           + " SELECT s.context, s.owner_key, s.dimension_name,"
           + "        s.dimension_value AS old_dim, s.weight AS old_weight,"
           + "        s.date_time AS old_dt"
@@ -102,28 +191,13 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
           + "  ORDER BY i.ord";
 
   /**
-   * ON CONFLICT-based single-statement CTE upsert (Postgres 9.5+): identical structure to the
-   * MERGE flavor, except the middle CTE uses {@code INSERT ... ON CONFLICT DO UPDATE} with a
+   * ON CONFLICT-based single-statement CTE upsert (Postgres 9.5+), appended to the input CTE:
+   * identical structure to the MERGE flavor, except the middle CTE uses {@code INSERT ... ON CONFLICT DO UPDATE} with a
    * {@code WHERE} clause for the latest-emission-wins predicate, and {@code (xmax = 0)} on the
    * RETURNING row to distinguish freshly inserted rows from updates.
    */
-  private static final String UPSERT_BATCH_SQL_ON_CONFLICT =
-      "WITH input AS ("
-          + " SELECT * FROM unnest("
-          + "  CAST(:contexts AS text[]),"
-          + "  CAST(:ownerKeys AS text[]),"
-          + "  CAST(:dimensionNames AS text[]),"
-          + "  CAST(:dateTimes AS timestamptz[]),"
-          + "  CAST(:dimensionValues AS text[]),"
-          + "  CAST(:weights AS numeric[]),"
-          + "  CAST(:expiredAts AS timestamptz[]),"
-          + "  CAST(:emittedAts AS timestamptz[]),"
-          + "  CAST(:createdAts AS timestamptz[]),"
-          + "  CAST(:updatedAts AS timestamptz[])"
-          + " ) WITH ORDINALITY AS t(context, owner_key, dimension_name, date_time,"
-          + "        dimension_value, weight, expired_at, emitted_at, created_at,"
-          + "        updated_at, ord)"
-          + "), existing AS ("
+  private static final String UPSERT_BATCH_ON_CONFLICT =
+      ", existing AS ("
           + " SELECT s.context, s.owner_key, s.dimension_name,"
           + "        s.dimension_value AS old_dim, s.weight AS old_weight,"
           + "        s.date_time AS old_dt"
@@ -158,7 +232,25 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
           + "    AND i.owner_key = e.owner_key AND i.dimension_name = e.dimension_name"
           + "  ORDER BY i.ord";
 
-  /** Configured upsert strategy ({@code merge} or {@code on-conflict}). Defaults to {@code merge}. */
+  /** {@code merge} flavor bound via {@code unnest}. */
+  private static final String UPSERT_BATCH_SQL_MERGE =
+      StatisticsEventRepositoryImpl.UPSERT_BATCH_INPUT_UNNEST
+          + StatisticsEventRepositoryImpl.UPSERT_BATCH_MERGE;
+
+  /** {@code on-conflict} flavor bound via {@code unnest}. */
+  private static final String UPSERT_BATCH_SQL_ON_CONFLICT =
+      StatisticsEventRepositoryImpl.UPSERT_BATCH_INPUT_UNNEST
+          + StatisticsEventRepositoryImpl.UPSERT_BATCH_ON_CONFLICT;
+
+  /** {@code copy} flavor: {@code merge} reading from the staging table. */
+  private static final String UPSERT_BATCH_SQL_COPY =
+      StatisticsEventRepositoryImpl.UPSERT_BATCH_INPUT_STAGING
+          + StatisticsEventRepositoryImpl.UPSERT_BATCH_MERGE;
+
+  /**
+   * Configured upsert strategy ({@code merge}, {@code on-conflict} or {@code copy}). Defaults to
+   * {@code merge}.
+   */
   @Value("${" + StatisticsEventRepositoryImpl.UPSERT_STRATEGY_PROPERTY + ":"
       + StatisticsEventRepositoryImpl.STRATEGY_MERGE + "}")
   private String upsertStrategy;
@@ -166,11 +258,21 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
   /** Entity manager. */
   @PersistenceContext private EntityManager entityManager;
 
+  /**
+   * Data source. The {@code copy} strategy obtains the transaction-bound connection from it, the
+   * same one the entity manager uses.
+   */
+  @Autowired private DataSource dataSource;
+
   @Override
   public List<StatisticsEventUpsertResult> upsertBatch(final List<StatisticsEvent> events) {
     if (events == null || events.isEmpty()) {
       return Collections.emptyList();
     }
+    final LocalDateTime now = DateTimeHelper.getCurrentLocalDateTime();
+    if (StatisticsEventRepositoryImpl.STRATEGY_COPY.equalsIgnoreCase(this.upsertStrategy)) {
+      return this.upsertBatchWithCopy(events, now);
+    }
     final int size = events.size();
     final String[] contexts = new String[size];
     final String[] owners = new String[size];
@@ -182,7 +284,6 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
     final LocalDateTime[] emittedAts = new LocalDateTime[size];
     final LocalDateTime[] createdAts = new LocalDateTime[size];
     final LocalDateTime[] updatedAts = new LocalDateTime[size];
-    final LocalDateTime now = DateTimeHelper.getCurrentLocalDateTime();
     for (int index = 0; index < size; index++) {
       final StatisticsEvent event = events.get(index);
       contexts[index] = event.getContext();
@@ -229,14 +330,140 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
     return results;
   }
 
+  /**
+   * {@code copy} strategy: streams the batch into the session staging table with a binary
+   * {@code COPY} (no parameter binding, no array parsing on the server) and runs the {@code merge}
+   * statement from it. Runs on the connection bound to the current transaction, so the staged rows
+   * and the caller's per-key locks share the same transaction.
+   *
+   * @param events Events to upsert.
+   * @param now Timestamp for {@code created_at} defaults and {@code updated_at}.
+   * @return One result row per input event, in input order.
+   */
+  private List<StatisticsEventUpsertResult> upsertBatchWithCopy(
+      final List<StatisticsEvent> events, final LocalDateTime now) {
+    final PostgresBinaryCopyWriter writer = new PostgresBinaryCopyWriter();
+    long ord = 0;
+    for (final StatisticsEvent event : events) {
+      writer.startRow(StatisticsEventRepositoryImpl.COPY_STAGING_COLUMNS);
+      writer.writeLong(++ord);
+      writer.writeText(event.getContext());
+      writer.writeText(event.getOwnerKey());
+      writer.writeText(event.getDimensionName());
+      writer.writeTimestamp(event.getDateTime());
+      writer.writeText(event.getDimensionValue());
+      writer.writeNumeric(event.getWeight());
+      writer.writeTimestamp(event.getExpiredAt());
+      writer.writeTimestamp(event.getEmittedAt());
+      writer.writeTimestamp((event.getCreatedAt() == null) ? now : event.getCreatedAt());
+      writer.writeTimestamp(now);
+    }
+    final byte[] payload = writer.finish();
+    final Connection connection = DataSourceUtils.getConnection(this.dataSource);
+    try {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute(StatisticsEventRepositoryImpl.COPY_STAGING_CREATE_SQL);
+        statement.execute(StatisticsEventRepositoryImpl.COPY_STAGING_TRUNCATE_SQL);
+      }
+      connection
+          .unwrap(PGConnection.class)
+          .getCopyAPI()
+          .copyIn(
+              StatisticsEventRepositoryImpl.COPY_STAGING_COPY_SQL,
+              new ByteArrayInputStream(payload));
+      final List<StatisticsEventUpsertResult> results = new ArrayList<>(events.size());
+      try (Statement statement = connection.createStatement();
+          ResultSet resultSet =
+              statement.executeQuery(StatisticsEventRepositoryImpl.UPSERT_BATCH_SQL_COPY)) {
+        while (resultSet.next()) {
+          results.add(
+              new StatisticsEventUpsertResult(
+                  resultSet.getString(1),
+                  resultSet.getString(2),
+                  resultSet.getString(3),
+                  resultSet.getBoolean(4),
+                  resultSet.getBoolean(5),
+                  resultSet.getString(6),
+                  resultSet.getBigDecimal(7),
+                  StatisticsEventRepositoryImpl.toLocalDateTime(resultSet.getTimestamp(8))));
+        }
+      }
+      return results;
+    } catch (final SQLException | IOException exception) {
+      throw new IllegalStateException("Could not upsert statistics events with COPY.", exception);
+    } finally {
+      DataSourceUtils.releaseConnection(connection, this.dataSource);
+    }
+  }
+
+  @Override
+  public boolean isPartitioned() {
+    return Boolean.TRUE.equals(
+        this.entityManager
+            .createNativeQuery(StatisticsEventRepositoryImpl.IS_PARTITIONED_SQL)
+            .getSingleResult());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<String> findPartitionNames() {
+    return this.entityManager
+        .createNativeQuery(StatisticsEventRepositoryImpl.FIND_PARTITION_NAMES_SQL)
+        .getResultList();
+  }
+
+  /**
+   * Validates a partition name before it is interpolated into DDL. Shared with
+   * {@link StatisticsEventSummaryRepositoryImpl}.
+   *
+   * @param partitionName Partition name.
+   * @return The partition name.
+   */
+  static String validatePartitionName(final String partitionName) {
+    if ((partitionName == null)
+        || !StatisticsEventRepositoryImpl.PARTITION_NAME_PATTERN
+            .matcher(partitionName)
+            .matches()) {
+      throw new IllegalArgumentException("Invalid partition name: " + partitionName);
+    }
+    return partitionName;
+  }
+
+  @Override
+  public void createPartition(
+      final String partitionName,
+      final LocalDateTime startDateTime,
+      final LocalDateTime endDateTime) {
+    this.entityManager
+        .createNativeQuery(
+            "CREATE TABLE IF NOT EXISTS "
+                + StatisticsEventRepositoryImpl.validatePartitionName(partitionName)
+                + " PARTITION OF statistics_event FOR VALUES FROM ('"
+                + StatisticsEventRepositoryImpl.PARTITION_BOUND_FORMAT.format(startDateTime)
+                + "') TO ('"
+                + StatisticsEventRepositoryImpl.PARTITION_BOUND_FORMAT.format(endDateTime)
+                + "')")
+        .executeUpdate();
+  }
+
+  @Override
+  public void dropPartition(final String partitionName) {
+    this.entityManager
+        .createNativeQuery(
+            "DROP TABLE IF EXISTS "
+                + StatisticsEventRepositoryImpl.validatePartitionName(partitionName))
+        .executeUpdate();
+  }
+
   /**
    * Coerces the JDBC timestamp value returned by the native query to {@link LocalDateTime}.
    * Postgres JDBC + Hibernate 6 may return {@link Instant}, {@link OffsetDateTime},
    * {@link LocalDateTime}, or {@link java.sql.Timestamp} depending on column type and dialect
    * configuration. {@link Instant} (the typical {@code timestamptz} mapping) is converted via the
-   * JVM default zone, matching how {@code AbstractTimestampableEntity} treats local times.
+   * JVM default zone, matching how {@code AbstractTimestampableEntity} treats local times. Shared
+   * with {@link StatisticsEventSummaryRepositoryImpl}.
    */
-  private static LocalDateTime toLocalDateTime(final Object value) {
+  static LocalDateTime toLocalDateTime(final Object value) {
     if (value == null) {
       return null;
     }
@@ -253,6 +480,6 @@ public class StatisticsEventRepositoryImpl implements StatisticsEventRepositoryC
       return timestamp.toLocalDateTime();
     }
     throw new IllegalStateException(
-        "Unexpected timestamp type from upsertBatch: " + value.getClass().getName());
+        "Unexpected timestamp type from native query: " + value.getClass().getName());
   }
 }
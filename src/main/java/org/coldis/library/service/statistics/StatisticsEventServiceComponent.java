@@ -1,5 +1,6 @@
 package org.coldis.library.service.statistics;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -9,6 +10,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import org.coldis.library.exception.BusinessException;
 import org.coldis.library.helper.BufferedReducer;
 import org.coldis.library.helper.DateTimeHelper;
@@ -57,6 +61,19 @@ public class StatisticsEventServiceComponent {
   /** Lock key prefix for statistics-event upsert serialization. */
   private static final String LOCK_KEY_PREFIX = "statistics-event:";
 
+  /** Message group property: Artemis delivers a group's messages to a single consumer. */
+  private static final String GROUP_ID_PROPERTY = "JMSXGroupID";
+
+  /** Routing strategy that locks every key of a batch before upserting it (default). */
+  static final String ROUTING_STRATEGY_LOCK = "lock";
+
+  /**
+   * Routing strategy that sends each key's upserts to one of {@code event.shard-count} message
+   * groups, so a single consumer writes it and the lock step takes one lock per shard instead of
+   * one per key.
+   */
+  static final String ROUTING_STRATEGY_SHARDED = "sharded";
+
   /** Lock-type property name. */
   static final String LOCK_TYPE_PROPERTY =
       "org.coldis.library.service.statistics.event.lock-type";
@@ -66,6 +83,16 @@ public class StatisticsEventServiceComponent {
       "${org.coldis.library.service.statistics.event.deleteexpired.batch-size:1000}")
   private int deleteExpiredBatchSize;
 
+  /**
+   * If the event table is partitioned by expiry, so expired rows are only deleted from its default
+   * partition (the others are dropped whole).
+   */
+  @org.springframework.beans.factory.annotation.Value(
+      "${"
+          + StatisticsEventSummaryPartitionServiceComponent.EVENT_PARTITION_ENABLED_PROPERTY
+          + ":false}")
+  private boolean eventPartitionEnabled;
+
   /** Maximum number of events sent in a single upsert batch message. */
   @org.springframework.beans.factory.annotation.Value(
       "${org.coldis.library.service.statistics.event.buffer.batch-size:100}")
@@ -75,6 +102,34 @@ public class StatisticsEventServiceComponent {
   private final BufferedReducer<StatisticsEventKey, StatisticsEvent> eventBuffer =
       new BufferedReducer<>();
 
+  /** Buffered upserts that trigger a flush before the next scheduled one. */
+  @org.springframework.beans.factory.annotation.Value(
+      "${org.coldis.library.service.statistics.event.buffer.max-entries:10000}")
+  private long bufferMaxEntries;
+
+  /** Estimated buffered bytes that trigger a flush before the next scheduled one. */
+  @org.springframework.beans.factory.annotation.Value(
+      "${org.coldis.library.service.statistics.event.buffer.max-bytes:16777216}")
+  private long bufferMaxBytes;
+
+  /** Age of the oldest buffered upsert that triggers a flush ({@code 0s} disables). */
+  @org.springframework.beans.factory.annotation.Value(
+      "${org.coldis.library.service.statistics.event.buffer.max-age:0s}")
+  private Duration bufferMaxAge;
+
+  /** Buffered upserts at which callers flush synchronously (backpressure, {@code 0} disables). */
+  @org.springframework.beans.factory.annotation.Value(
+      "${org.coldis.library.service.statistics.event.buffer.hard-cap:100000}")
+  private long bufferHardCap;
+
+  /** Upper bound of this node's offset for scheduled and age-triggered flushes. */
+  @org.springframework.beans.factory.annotation.Value(
+      "${org.coldis.library.service.statistics.event.buffer.jitter:10s}")
+  private Duration bufferJitter;
+
+  /** Flush policy of the upsert buffer. */
+  private StatisticsBufferFlushPolicy eventBufferFlushPolicy;
+
   /** Validator. */
   @Autowired private ExtendedValidator validator;
 
@@ -96,6 +151,21 @@ public class StatisticsEventServiceComponent {
       "${" + StatisticsEventServiceComponent.LOCK_TYPE_PROPERTY + ":ADVISORY}")
   private LockType lockType;
 
+  /**
+   * Upsert routing strategy ({@code lock} or {@code sharded}). Every node must use the same
+   * strategy and shard count, since a key must always map to the same shard lock.
+   */
+  @org.springframework.beans.factory.annotation.Value(
+      "${org.coldis.library.service.statistics.event.routing-strategy:"
+          + StatisticsEventServiceComponent.ROUTING_STRATEGY_LOCK
+          + "}")
+  private String routingStrategy;
+
+  /** Number of message groups upserts are sharded into by the {@code sharded} strategy. */
+  @org.springframework.beans.factory.annotation.Value(
+      "${org.coldis.library.service.statistics.event.shard-count:16}")
+  private int shardCount;
+
   /** Statistics context configuration service component. */
   @Autowired
   private StatisticsContextConfigurationServiceComponent
@@ -104,6 +174,49 @@ public class StatisticsEventServiceComponent {
   /** Statistics event summary buffer service component. */
   @Autowired private StatisticsEventSummaryBufferServiceComponent statisticsEventSummaryBufferServiceComponent;
 
+  /** Statistics metrics service component. */
+  @Autowired private StatisticsMetricsServiceComponent statisticsMetricsServiceComponent;
+
+  /**
+   * Validates the routing configuration, creates the buffer flush policy once its configuration is
+   * injected, and registers its gauges.
+   */
+  @PostConstruct
+  public void initializeEventBufferFlushPolicy() {
+    if (!StatisticsEventServiceComponent.ROUTING_STRATEGY_LOCK.equalsIgnoreCase(this.routingStrategy)
+        && !this.isShardedRouting()) {
+      throw new IllegalArgumentException(
+          "Invalid statistics event routing strategy '" + this.routingStrategy + "'.");
+    }
+    if (this.isShardedRouting() && (this.shardCount < 1)) {
+      throw new IllegalArgumentException(
+          "Invalid statistics event shard count '" + this.shardCount + "': it must be positive.");
+    }
+    this.eventBufferFlushPolicy =
+        new StatisticsBufferFlushPolicy(
+            this.bufferMaxEntries,
+            this.bufferMaxBytes,
+            this.bufferMaxAge,
+            this.bufferHardCap,
+            this.bufferJitter);
+    this.statisticsMetricsServiceComponent.registerBuffer(
+        StatisticsMetricsServiceComponent.EVENT_BUFFER, this.eventBufferFlushPolicy);
+  }
+
+  /**
+   * Estimates the bytes an event retains while buffered.
+   *
+   * @param event Event.
+   * @return The estimated bytes.
+   */
+  private static long estimateBufferedBytes(final StatisticsEvent event) {
+    return 256L
+        + StatisticsBufferFlushPolicy.estimateBytes(event.getContext())
+        + StatisticsBufferFlushPolicy.estimateBytes(event.getOwnerKey())
+        + StatisticsBufferFlushPolicy.estimateBytes(event.getDimensionName())
+        + StatisticsBufferFlushPolicy.estimateBytes(event.getDimensionValue());
+  }
+
   /**
    * Finds a statistics event by its composite key.
    *
@@ -193,9 +306,11 @@ public class StatisticsEventServiceComponent {
 
   /**
    * Processes a buffered upsert batch from the internal JMS queue. Acquires per-key advisory locks
-   * to serialize cross-instance writers, then runs a single MERGE statement that applies the
-   * latest-emission-wins ordering rule and reports back the pre-update state. Summary deltas are
-   * computed from the result and buffered.
+   * to serialize cross-instance writers (per-shard locks when upserts are sharded: the batch's
+   * message group normally pins its shard to this consumer, so the lock is uncontended, but it
+   * still serializes writers if a group is ever delivered to two consumers), then runs a single
+   * MERGE statement that applies the latest-emission-wins ordering rule and reports back the
+   * pre-update state. Summary deltas are computed from the result and buffered.
    *
    * @param events The batch of events to upsert.
    */
@@ -208,24 +323,42 @@ public class StatisticsEventServiceComponent {
           "${org.coldis.library.service.statistics.event.container-factory:jmsListenerContainerFactory}")
   public void processEventUpsertBatch(final List<StatisticsEvent> events) throws BusinessException {
     if (events != null && !events.isEmpty()) {
-      // Serialize cross-instance writers per-key. While we hold these locks, no other instance can
-      // run the upsert path for the same keys — so the MERGE's old-state snapshot is stable.
-      final List<String> lockKeys = new ArrayList<>(events.size());
-      for (final StatisticsEvent event : events) {
-        lockKeys.add(
-            StatisticsEventServiceComponent.LOCK_KEY_PREFIX
-                + event.getContext()
-                + "|" + event.getOwnerKey()
-                + "|" + event.getDimensionName());
+      // Serialize cross-instance writers per-key (or per-shard). While we hold these locks, no other
+      // instance can run the upsert path for the same keys — so the MERGE's old-state snapshot is
+      // stable.
+      final List<String> lockKeys;
+      if (this.isShardedRouting()) {
+        final TreeSet<Integer> shards = new TreeSet<>();
+        for (final StatisticsEvent event : events) {
+          shards.add(StatisticsEventServiceComponent.getShard(event, this.shardCount));
+        }
+        lockKeys = new ArrayList<>(shards.size());
+        for (final Integer shard : shards) {
+          lockKeys.add(StatisticsEventServiceComponent.LOCK_KEY_PREFIX + "shard|" + shard);
+        }
+      } else {
+        lockKeys = new ArrayList<>(events.size());
+        for (final StatisticsEvent event : events) {
+          lockKeys.add(
+              StatisticsEventServiceComponent.LOCK_KEY_PREFIX
+                  + event.getContext()
+                  + "|" + event.getOwnerKey()
+                  + "|" + event.getDimensionName());
+        }
       }
+      final long lockStartNanos = System.nanoTime();
       this.lockService.lockKeys(
           LockBehavior.WAIT_AND_LOCK,
           this.lockType,
           StatisticsEventServiceComponent.LOCK_NAMESPACE,
           lockKeys);
+      final long lockWaitNanos = System.nanoTime() - lockStartNanos;
       // Single round-trip: insert/update + capture old state for delta computation.
+      final long mergeStartNanos = System.nanoTime();
       final List<StatisticsEventUpsertResult> results =
           this.statisticsEventRepository.upsertBatch(events);
+      this.statisticsMetricsServiceComponent.recordEventUpsertBatch(
+          events.size(), lockWaitNanos, System.nanoTime() - mergeStartNanos);
       final Map<StatisticsEventKey, StatisticsEventUpsertResult> resultByKey =
           new HashMap<>(results.size());
       for (final StatisticsEventUpsertResult result : results) {
@@ -233,7 +366,9 @@ public class StatisticsEventServiceComponent {
       }
       for (final StatisticsEvent incoming : events) {
         final StatisticsEventUpsertResult result = resultByKey.get(incoming.getId());
-        if (result != null && result.applied()) {
+        final boolean applied = result != null && result.applied();
+        this.statisticsMetricsServiceComponent.recordEventUpsert(incoming.getContext(), applied);
+        if (applied) {
           this.bufferSummaryDeltasForUpsert(result, incoming);
         } else {
           StatisticsEventServiceComponent.LOGGER.debug(
@@ -270,6 +405,12 @@ public class StatisticsEventServiceComponent {
     }
     this.validator.validateAndThrowViolations(statisticsEvent);
     this.eventBuffer.reduce(statisticsEvent.getId(), statisticsEvent);
+    this.statisticsMetricsServiceComponent.recordEventBuffered(statisticsEvent.getContext());
+    this.eventBufferFlushPolicy.recordBuffered(
+        StatisticsEventServiceComponent.estimateBufferedBytes(statisticsEvent),
+        System.currentTimeMillis());
+    // Past the hard cap, callers pay for the flush themselves.
+    this.eventBufferFlushPolicy.awaitCapacity(this::drainEventBuffer);
   }
 
   /**
@@ -286,26 +427,124 @@ public class StatisticsEventServiceComponent {
   }
 
   /**
-   * Drains the upsert buffer and dispatches batches to the upsert batch queue. Runs on a schedule
-   * and on shutdown.
+   * Drains the upsert buffer and dispatches batches to the upsert batch queue. Runs when the flush
+   * policy says so and on shutdown.
    */
   @PreDestroy
+  public void flushEventBuffer() {
+    this.eventBufferFlushPolicy.flush(this::drainEventBuffer);
+  }
+
+  /**
+   * Requests the scheduled flush of the upsert buffer. The flush runs after this node's jitter, so
+   * nodes sharing the cron spread their flushes.
+   */
   @Scheduled(
       cron =
           "${org.coldis.library.service.statistics.event.buffer.cron:0 * * * * *}")
-  public void flushEventBuffer() {
+  public void scheduleEventBufferFlush() {
+    final long now = System.currentTimeMillis();
+    this.eventBufferFlushPolicy.requestScheduledFlush(now);
+    this.eventBufferFlushPolicy.flushIfDue(this::drainEventBuffer, now);
+  }
+
+  /**
+   * Flushes the upsert buffer when a size, age or scheduled trigger is due.
+   */
+  @Scheduled(
+      fixedDelayString =
+          "${org.coldis.library.service.statistics.event.buffer.check-interval:1s}")
+  public void checkEventBuffer() {
+    this.eventBufferFlushPolicy.flushIfDue(this::drainEventBuffer, System.currentTimeMillis());
+  }
+
+  /**
+   * Checks if upserts are routed by shard instead of locked per key.
+   *
+   * @return If upserts are routed by shard.
+   */
+  private boolean isShardedRouting() {
+    return StatisticsEventServiceComponent.ROUTING_STRATEGY_SHARDED.equalsIgnoreCase(
+        this.routingStrategy);
+  }
+
+  /**
+   * Gets the shard of an event key: a hash of {@code (context, ownerKey, dimensionName)} that is
+   * stable across nodes and restarts.
+   *
+   * @param event Event.
+   * @param shardCount Number of shards.
+   * @return The shard, from {@code 0} to {@code shardCount - 1}.
+   */
+  static int getShard(final StatisticsEvent event, final int shardCount) {
+    return Math.floorMod(
+        Objects.hash(event.getContext(), event.getOwnerKey(), event.getDimensionName()),
+        shardCount);
+  }
+
+  /**
+   * Sends events as upsert batch messages of at most {@code event.buffer.batch-size} events.
+   *
+   * @param events Events.
+   * @param groupId Message group, or {@code null} for none.
+   * @return The number of sent messages.
+   */
+  private int sendEventBatches(final List<StatisticsEvent> events, final String groupId) {
+    final int batchSize = Math.max(1, this.upsertBatchSize);
+    int messages = 0;
+    for (int from = 0; from < events.size(); from += batchSize) {
+      final int to = Math.min(from + batchSize, events.size());
+      final ArrayList<StatisticsEvent> chunk = new ArrayList<>(events.subList(from, to));
+      if (groupId == null) {
+        this.jmsTemplate.convertAndSend(
+            StatisticsEventServiceComponent.UPSERT_BATCH_QUEUE, (Serializable) chunk);
+      } else {
+        this.jmsTemplate.convertAndSend(
+            StatisticsEventServiceComponent.UPSERT_BATCH_QUEUE,
+            (Serializable) chunk,
+            message -> {
+              message.setStringProperty(StatisticsEventServiceComponent.GROUP_ID_PROPERTY, groupId);
+              return message;
+            });
+      }
+      messages++;
+    }
+    return messages;
+  }
+
+  /**
+   * Drains the upsert buffer into upsert batch messages. With sharded routing the events are
+   * partitioned by shard first and each shard's batches are sent in its own message group.
+   */
+  private void drainEventBuffer() {
     StatisticsEventServiceComponent.LOGGER.debug("Flushing event buffer.");
+    final long startNanos = System.nanoTime();
     final List<StatisticsEvent> drained = new ArrayList<>();
     this.eventBuffer.flushLocalBuffer(drained::add);
+    int messages = 0;
     if (!drained.isEmpty()) {
-      final int batchSize = Math.max(1, this.upsertBatchSize);
-      for (int from = 0; from < drained.size(); from += batchSize) {
-        final int to = Math.min(from + batchSize, drained.size());
-        final ArrayList<StatisticsEvent> chunk = new ArrayList<>(drained.subList(from, to));
-        this.jmsTemplate.convertAndSend(
-            StatisticsEventServiceComponent.UPSERT_BATCH_QUEUE, (Serializable) chunk);
+      if (this.isShardedRouting()) {
+        final Map<Integer, List<StatisticsEvent>> eventsByShard = new TreeMap<>();
+        for (final StatisticsEvent event : drained) {
+          eventsByShard
+              .computeIfAbsent(
+                  StatisticsEventServiceComponent.getShard(event, this.shardCount),
+                  shard -> new ArrayList<>())
+              .add(event);
+        }
+        for (final Map.Entry<Integer, List<StatisticsEvent>> shardEvents :
+            eventsByShard.entrySet()) {
+          messages +=
+              this.sendEventBatches(
+                  shardEvents.getValue(),
+                  StatisticsEventServiceComponent.UPSERT_BATCH_QUEUE + "/" + shardEvents.getKey());
+        }
+      } else {
+        messages = this.sendEventBatches(drained, null);
       }
     }
+    this.statisticsMetricsServiceComponent.recordBufferFlush(
+        StatisticsMetricsServiceComponent.EVENT_BUFFER, startNanos, drained.size(), messages);
   }
 
   /**
@@ -336,8 +575,11 @@ public class StatisticsEventServiceComponent {
           "${org.coldis.library.service.statistics.event.container-factory:jmsListenerContainerFactory}")
   public void deleteExpiredEvents(final String message) {
     final int deleted =
-        this.statisticsEventRepository.deleteExpired(
-            DateTimeHelper.getCurrentLocalDateTime(), this.deleteExpiredBatchSize);
+        this.eventPartitionEnabled
+            ? this.statisticsEventRepository.deleteExpiredFromDefaultPartition(
+                DateTimeHelper.getCurrentLocalDateTime(), this.deleteExpiredBatchSize)
+            : this.statisticsEventRepository.deleteExpired(
+                DateTimeHelper.getCurrentLocalDateTime(), this.deleteExpiredBatchSize);
     if (deleted > 0) {
       this.sendDeleteExpiredTrigger();
     }
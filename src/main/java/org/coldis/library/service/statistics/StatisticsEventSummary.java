@@ -39,6 +39,12 @@ public class StatisticsEventSummary extends AbstractTimestampableEntity {
   /** Serial. */
   private static final long serialVersionUID = -7294618352047183920L;
 
+  /**
+   * Reserved dimension value holding the counts and weights of the values evicted from a bounded
+   * summary (see {@code summary.sketch.max-values}).
+   */
+  public static final String OTHER_VALUE = "__other__";
+
   /** Context. */
   private String context;
 
@@ -60,6 +66,9 @@ public class StatisticsEventSummary extends AbstractTimestampableEntity {
   /** Total accumulated weight. */
   private BigDecimal totalWeight;
 
+  /** Approximate distinct values and value counts (only maintained when sketches are enabled). */
+  private StatisticsEventSummarySketch valueSketch;
+
   /** No arguments constructor. */
   public StatisticsEventSummary() {}
 
@@ -302,6 +311,28 @@ public class StatisticsEventSummary extends AbstractTimestampableEntity {
     }
   }
 
+  /**
+   * Gets the approximate distinct values and value counts. Absent unless sketches are enabled and
+   * a delta has been applied since.
+   *
+   * @return The value sketch, or {@code null}.
+   */
+  @Column(columnDefinition = "BYTEA")
+  @Convert(converter = StatisticsEventSummarySketchConverter.class)
+  @JsonIgnore
+  public StatisticsEventSummarySketch getValueSketch() {
+    return this.valueSketch;
+  }
+
+  /**
+   * Sets the value sketch.
+   *
+   * @param valueSketch New value sketch.
+   */
+  public void setValueSketch(final StatisticsEventSummarySketch valueSketch) {
+    this.valueSketch = valueSketch;
+  }
+
   /**
    * @see Object#hashCode()
    */
@@ -0,0 +1,356 @@
+package org.coldis.library.service.statistics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.coldis.library.helper.DateTimeHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import jakarta.jms.TextMessage;
+
+/**
+ * Two-level cache of summary truncation buckets, keyed on
+ * {@code (context, dimensionName, bucket)}: a near cache (a local
+ * {@link CacheManager}, Caffeine by default) in front of an optional central
+ * one (one of the Redis {@code *CentralCacheManager}s). Only <em>closed</em>
+ * buckets are cached — those that ended more than {@code close-delay} ago — so
+ * the buckets still being written are always read from the database.
+ *
+ * <p>Late deltas to a bucket that already ended are invalidated after their
+ * transaction commits ({@link #invalidateAfterCommit(Collection)}): this node
+ * evicts both levels and publishes the keys on a JMS topic, on which every node
+ * with the cache enabled evicts them as well. Loads that overlap an
+ * invalidation are not cached.
+ */
+@Component
+@Qualifier(StatisticsEventSummaryBucketCacheServiceComponent.QUALIFIER)
+@ConditionalOnProperty(
+		name = "org.coldis.configuration.service.statistics-enabled",
+		matchIfMissing = false
+)
+public class StatisticsEventSummaryBucketCacheServiceComponent {
+
+	/**
+	 * Bean qualifier. Pin this library bean with {@code @Qualifier(StatisticsEventSummaryBucketCacheServiceComponent.QUALIFIER)}
+	 * when an extended subclass makes injection by type ambiguous.
+	 */
+	public static final String QUALIFIER = "statisticsEventSummaryBucketCacheServiceComponent";
+
+	/** Logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsEventSummaryBucketCacheServiceComponent.class);
+
+	/** Cache name (on both levels). */
+	static final String CACHE_NAME = "statisticsEventSummaryBucket";
+
+	/** Keys sent in a single invalidation message. */
+	private static final int INVALIDATION_BATCH_SIZE = 500;
+
+	/** Bean factory (cache managers are looked up by name). */
+	@Autowired
+	private BeanFactory beanFactory;
+
+	/** Statistics context configuration service component. */
+	@Autowired
+	private StatisticsContextConfigurationServiceComponent statisticsContextConfigurationServiceComponent;
+
+	/** JMS template (its connection factory carries the invalidation topic). */
+	@Autowired
+	private JmsTemplate jmsTemplate;
+
+	/** JSON mapper (invalidation messages). */
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/** If summary buckets are cached. */
+	@Value("${org.coldis.library.service.statistics.summary.bucket-cache.enabled:false}")
+	private boolean enabled;
+
+	/** Local (near) cache manager bean name. */
+	@Value("${org.coldis.library.service.statistics.summary.bucket-cache.local-cache-manager:daysExpirationLocalCacheManager}")
+	private String localCacheManagerName;
+
+	/** Central cache manager bean name (empty for none). */
+	@Value("${org.coldis.library.service.statistics.summary.bucket-cache.central-cache-manager:}")
+	private String centralCacheManagerName;
+
+	/** Time after the end of a bucket before it is cached. */
+	@Value("${org.coldis.library.service.statistics.summary.bucket-cache.close-delay:15m}")
+	private Duration closeDelay;
+
+	/** Invalidation topic. */
+	@Value("${org.coldis.library.service.statistics.summary.bucket-cache.invalidation-topic:statistics-event/summary/bucket/invalidation}")
+	private String invalidationTopic;
+
+	/** Invalidations seen by this node (a load overlapping one is not cached). */
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/** Local cache (resolved on first use). */
+	private Cache localCache;
+
+	/** Central cache ({@code null} for none). */
+	private Cache centralCache;
+
+	/** Invalidation topic template. */
+	private JmsTemplate invalidationTemplate;
+
+	/** Invalidation topic listener. */
+	private DefaultMessageListenerContainer invalidationListener;
+
+	/** If the caches and the invalidation topic are set up. */
+	private volatile boolean initialized;
+
+	/**
+	 * Invalidations collected by one transaction, published once it commits.
+	 */
+	private final class InvalidationSynchronization implements TransactionSynchronization {
+
+		/** Keys to invalidate. */
+		private final Set<StatisticsEventSummaryKey> keys = new LinkedHashSet<>();
+
+		/**
+		 * @see org.springframework.transaction.support.TransactionSynchronization#afterCommit()
+		 */
+		@Override
+		public void afterCommit() {
+			StatisticsEventSummaryBucketCacheServiceComponent.this.invalidate(this.keys);
+		}
+
+		/**
+		 * Gets the owner component.
+		 *
+		 * @return The owner component.
+		 */
+		private StatisticsEventSummaryBucketCacheServiceComponent getOwner() {
+			return StatisticsEventSummaryBucketCacheServiceComponent.this;
+		}
+
+	}
+
+	/**
+	 * Gets if summary buckets are cached.
+	 *
+	 * @return If summary buckets are cached.
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Resolves the caches and starts listening to the invalidation topic (once).
+	 * The listener is a plain (non-durable) topic subscription, so every node gets
+	 * every invalidation and none is kept for stopped nodes, whose near cache is
+	 * gone anyway.
+	 */
+	private void initialize() {
+		if (this.initialized) {
+			return;
+		}
+		synchronized (this) {
+			if (!this.initialized) {
+				this.localCache = this.beanFactory.getBean(this.localCacheManagerName, CacheManager.class)
+						.getCache(StatisticsEventSummaryBucketCacheServiceComponent.CACHE_NAME);
+				this.centralCache = (StringUtils.isBlank(this.centralCacheManagerName) ? null
+						: this.beanFactory.getBean(this.centralCacheManagerName, CacheManager.class)
+								.getCache(StatisticsEventSummaryBucketCacheServiceComponent.CACHE_NAME));
+				final ConnectionFactory connectionFactory = this.jmsTemplate.getConnectionFactory();
+				this.invalidationTemplate = new JmsTemplate(connectionFactory);
+				this.invalidationTemplate.setPubSubDomain(true);
+				final DefaultMessageListenerContainer listener = new DefaultMessageListenerContainer();
+				listener.setConnectionFactory(connectionFactory);
+				listener.setPubSubDomain(true);
+				listener.setDestinationName(this.invalidationTopic);
+				listener.setMessageListener((MessageListener) this::receiveInvalidation);
+				listener.afterPropertiesSet();
+				listener.start();
+				this.invalidationListener = listener;
+				this.initialized = true;
+			}
+		}
+	}
+
+	/** Stops listening to the invalidation topic. */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (this.invalidationListener != null) {
+			this.invalidationListener.shutdown();
+			this.invalidationListener = null;
+			this.initialized = false;
+		}
+	}
+
+	/**
+	 * Gets the end of a summary bucket.
+	 *
+	 * @param  key Bucket key.
+	 * @return     The end of the bucket ({@code null} when the context has no
+	 *             positive truncation).
+	 */
+	private LocalDateTime getBucketEnd(
+			final StatisticsEventSummaryKey key) {
+		final long truncationMinutes = this.statisticsContextConfigurationServiceComponent.getTruncationMinutes(key.getContext());
+		return (truncationMinutes > 0L ? key.getDateTime().plusMinutes(truncationMinutes) : null);
+	}
+
+	/**
+	 * Gets the rows of a summary bucket from the cache, loading (and caching)
+	 * them when missing. Buckets that are not closed yet skip the cache.
+	 *
+	 * @param  key    Bucket key.
+	 * @param  loader Database read of the bucket.
+	 * @return        The bucket rows.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<StatisticsEventSummary> get(
+			final StatisticsEventSummaryKey key,
+			final Supplier<List<StatisticsEventSummary>> loader) {
+		final LocalDateTime bucketEnd = (this.enabled ? this.getBucketEnd(key) : null);
+		if ((bucketEnd == null) || !bucketEnd.plus(this.closeDelay).isBefore(DateTimeHelper.getCurrentLocalDateTime())) {
+			return loader.get();
+		}
+		this.initialize();
+		final Cache.ValueWrapper localValue = this.localCache.get(key);
+		if (localValue != null) {
+			return (List<StatisticsEventSummary>) localValue.get();
+		}
+		final long generation = this.invalidations.get();
+		final Cache.ValueWrapper centralValue = (this.centralCache == null ? null : this.centralCache.get(key));
+		if (centralValue != null) {
+			final List<StatisticsEventSummary> summaries = (List<StatisticsEventSummary>) centralValue.get();
+			if (this.invalidations.get() == generation) {
+				this.localCache.put(key, summaries);
+			}
+			return summaries;
+		}
+		final List<StatisticsEventSummary> summaries = new ArrayList<>(loader.get());
+		if (this.invalidations.get() == generation) {
+			this.localCache.put(key, summaries);
+			if (this.centralCache != null) {
+				this.centralCache.put(key, summaries);
+			}
+		}
+		return summaries;
+	}
+
+	/**
+	 * Invalidates summary buckets once the current transaction commits (at once
+	 * without one). Only buckets that already ended are invalidated: open ones
+	 * are never cached, and the close delay covers clock skew between nodes.
+	 *
+	 * @param keys Keys of the changed buckets.
+	 */
+	public void invalidateAfterCommit(
+			final Collection<StatisticsEventSummaryKey> keys) {
+		if (!this.enabled || (keys == null)) {
+			return;
+		}
+		final LocalDateTime now = DateTimeHelper.getCurrentLocalDateTime();
+		final List<StatisticsEventSummaryKey> endedKeys = keys.stream().filter(key -> {
+			final LocalDateTime bucketEnd = this.getBucketEnd(key);
+			return (bucketEnd != null) && !bucketEnd.isAfter(now);
+		}).toList();
+		if (endedKeys.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			InvalidationSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().stream()
+					.filter(InvalidationSynchronization.class::isInstance).map(InvalidationSynchronization.class::cast)
+					.filter(candidate -> candidate.getOwner() == this).findFirst().orElse(null);
+			if (synchronization == null) {
+				synchronization = new InvalidationSynchronization();
+				TransactionSynchronizationManager.registerSynchronization(synchronization);
+			}
+			synchronization.keys.addAll(endedKeys);
+		}
+		else {
+			this.invalidate(endedKeys);
+		}
+	}
+
+	/**
+	 * Evicts summary buckets from both levels of this node.
+	 *
+	 * @param keys Keys of the buckets.
+	 */
+	private void evict(
+			final Collection<StatisticsEventSummaryKey> keys) {
+		this.invalidations.incrementAndGet();
+		for (final StatisticsEventSummaryKey key : keys) {
+			this.localCache.evict(key);
+			if (this.centralCache != null) {
+				this.centralCache.evict(key);
+			}
+		}
+	}
+
+	/**
+	 * Evicts summary buckets and publishes them to the other nodes. Failures are
+	 * logged, not thrown: the deltas are already committed, and the buckets
+	 * still expire with their cache.
+	 *
+	 * @param keys Keys of the buckets.
+	 */
+	private void invalidate(
+			final Collection<StatisticsEventSummaryKey> keys) {
+		try {
+			this.initialize();
+			this.evict(keys);
+			final List<StatisticsEventSummaryKey> keyList = new ArrayList<>(keys);
+			for (int start = 0; start < keyList.size(); start += StatisticsEventSummaryBucketCacheServiceComponent.INVALIDATION_BATCH_SIZE) {
+				final List<StatisticsEventSummaryKey> chunk = keyList.subList(start,
+						Math.min(keyList.size(), start + StatisticsEventSummaryBucketCacheServiceComponent.INVALIDATION_BATCH_SIZE));
+				this.invalidationTemplate.convertAndSend(this.invalidationTopic, this.objectMapper.writeValueAsString(chunk));
+			}
+		}
+		catch (final Exception exception) {
+			StatisticsEventSummaryBucketCacheServiceComponent.LOGGER.error("Could not invalidate summary buckets.", exception);
+		}
+	}
+
+	/**
+	 * Evicts the summary buckets of an invalidation message. The central level is
+	 * evicted again as well, which also drops a value another node loaded before
+	 * the change and cached after its publisher evicted it.
+	 *
+	 * @param message Invalidation message.
+	 */
+	private void receiveInvalidation(
+			final Message message) {
+		try {
+			if (message instanceof final TextMessage textMessage) {
+				this.evict(this.objectMapper.readValue(textMessage.getText(), new TypeReference<List<StatisticsEventSummaryKey>>() {}));
+			}
+		}
+		catch (final Exception exception) {
+			StatisticsEventSummaryBucketCacheServiceComponent.LOGGER.error("Could not process summary bucket invalidation.", exception);
+		}
+	}
+
+}
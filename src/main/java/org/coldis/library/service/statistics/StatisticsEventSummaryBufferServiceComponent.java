@@ -4,11 +4,14 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.coldis.library.exception.BusinessException;
-import org.coldis.library.helper.BufferedReducer;
 import org.coldis.library.model.SimpleMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,11 +22,13 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
 /**
@@ -59,6 +64,22 @@ public class StatisticsEventSummaryBufferServiceComponent {
 	@Autowired
 	private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
 
+	/** Statistics event summary roll-up service component. */
+	@Autowired
+	private StatisticsEventSummaryRollupServiceComponent statisticsEventSummaryRollupServiceComponent;
+
+	/** Statistics event summary rolling window service component. */
+	@Autowired
+	private StatisticsEventSummaryRollingWindowServiceComponent statisticsEventSummaryRollingWindowServiceComponent;
+
+	/** Statistics event summary bucket cache service component. */
+	@Autowired
+	private StatisticsEventSummaryBucketCacheServiceComponent statisticsEventSummaryBucketCacheServiceComponent;
+
+	/** Statistics metrics service component. */
+	@Autowired
+	private StatisticsMetricsServiceComponent statisticsMetricsServiceComponent;
+
 	/** JMS template. */
 	@Autowired
 	private JmsTemplate jmsTemplate;
@@ -66,15 +87,121 @@ public class StatisticsEventSummaryBufferServiceComponent {
 	/** Internal queue for buffered summary delta batches. */
 	private static final String SUMMARY_DELTA_BATCH_QUEUE = "statistics-event/summary/delta/batch";
 
+	/** Apply strategy: each delta read, merged and saved through the entity. */
+	static final String APPLY_STRATEGY_ROW = "row";
+
+	/** Apply strategy: the whole batch merged by a single set-based statement. */
+	static final String APPLY_STRATEGY_SET = "set";
+
+	/**
+	 * How delta batches are applied: {@code row} (default) locks, merges and saves
+	 * one summary per delta; {@code set} applies the whole batch with one
+	 * {@code INSERT ... ON CONFLICT DO UPDATE} (see
+	 * {@link StatisticsEventSummaryRepositoryCustom#applyDeltaBatch(List)}).
+	 */
+	@Value("${org.coldis.library.service.statistics.summary.apply-strategy:" + StatisticsEventSummaryBufferServiceComponent.APPLY_STRATEGY_ROW + "}")
+	private String applyStrategy;
+
 	/** Maximum number of deltas sent in a single batch message. */
 	@Value("${org.coldis.library.service.statistics.summary.buffer.batch-size:100}")
 	private int deltaBatchSize;
 
+	/** Number of stripes of the delta buffer ({@code 0} sizes it by the available processors). */
+	@Value("${org.coldis.library.service.statistics.summary.buffer.stripes:0}")
+	private int deltaBufferStripes;
+
+	/** Decimal places kept for buffered weight deltas. */
+	@Value("${org.coldis.library.service.statistics.summary.buffer.weight-scale:6}")
+	private int deltaBufferWeightScale;
+
+	/** Buffered deltas that trigger a flush before the next scheduled one. */
+	@Value("${org.coldis.library.service.statistics.summary.buffer.max-entries:50000}")
+	private long deltaBufferMaxEntries;
+
+	/** Estimated buffered bytes that trigger a flush before the next scheduled one. */
+	@Value("${org.coldis.library.service.statistics.summary.buffer.max-bytes:16777216}")
+	private long deltaBufferMaxBytes;
+
+	/** Age of the oldest buffered delta that triggers a flush ({@code 0s} disables). */
+	@Value("${org.coldis.library.service.statistics.summary.buffer.max-age:0s}")
+	private Duration deltaBufferMaxAge;
+
+	/** Upper bound of this node's offset for scheduled and age-triggered flushes. */
+	@Value("${org.coldis.library.service.statistics.summary.buffer.jitter:30s}")
+	private Duration deltaBufferJitter;
+
+	/** If value sketches are maintained (requires the {@code row} apply strategy). */
+	@Value("${org.coldis.library.service.statistics.summary.sketch.enabled:false}")
+	private boolean sketchEnabled;
+
+	/** Values kept exactly per summary, including the evicted-values tail ({@code 0} keeps every value). */
+	@Value("${org.coldis.library.service.statistics.summary.sketch.max-values:0}")
+	private int sketchMaxValues;
+
+	/** Sketch HyperLogLog precision. */
+	@Value("${org.coldis.library.service.statistics.summary.sketch.precision:" + StatisticsEventSummarySketch.DEFAULT_PRECISION + "}")
+	private int sketchPrecision;
+
+	/** Sketch Count-Min depth. */
+	@Value("${org.coldis.library.service.statistics.summary.sketch.depth:" + StatisticsEventSummarySketch.DEFAULT_DEPTH + "}")
+	private int sketchDepth;
+
+	/** Sketch Count-Min width. */
+	@Value("${org.coldis.library.service.statistics.summary.sketch.width:" + StatisticsEventSummarySketch.DEFAULT_WIDTH + "}")
+	private int sketchWidth;
+
 	/** Local buffer for summary deltas. */
-	private final BufferedReducer<StatisticsEventSummaryKey, StatisticsEventSummaryDelta> summaryDeltaBuffer = new BufferedReducer<>();
+	private StatisticsEventSummaryDeltaAccumulator summaryDeltaBuffer;
+
+	/** Flush policy of the delta buffer. */
+	private StatisticsBufferFlushPolicy summaryDeltaBufferFlushPolicy;
 
 	/**
-	 * Buffers a summary delta for deferred processing.
+	 * Creates the delta buffer and its flush policy once their configuration is
+	 * injected. Deltas are buffered from the upsert listener, so there is no hard
+	 * cap here: producers are throttled on the event buffer instead. Sketch
+	 * settings are validated here as well, and the buffer gauges registered.
+	 */
+	@PostConstruct
+	public void initializeSummaryDeltaBuffer() {
+		if (this.sketchEnabled) {
+			// Validates the sketch parameters.
+			new StatisticsEventSummarySketch(this.sketchPrecision, this.sketchDepth, this.sketchWidth);
+			if (StatisticsEventSummaryBufferServiceComponent.APPLY_STRATEGY_SET.equalsIgnoreCase(this.applyStrategy)) {
+				throw new IllegalArgumentException("Statistics summary sketches require the '" + StatisticsEventSummaryBufferServiceComponent.APPLY_STRATEGY_ROW
+						+ "' apply strategy.");
+			}
+			if ((this.sketchMaxValues != 0) && (this.sketchMaxValues < 2)) {
+				throw new IllegalArgumentException(
+						"Invalid statistics summary sketch max values '" + this.sketchMaxValues + "': it must be 0 (unbounded) or at least 2.");
+			}
+		}
+		this.summaryDeltaBuffer = new StatisticsEventSummaryDeltaAccumulator(this.deltaBufferStripes, this.deltaBufferWeightScale);
+		this.summaryDeltaBufferFlushPolicy = new StatisticsBufferFlushPolicy(this.deltaBufferMaxEntries, this.deltaBufferMaxBytes, this.deltaBufferMaxAge, 0L,
+				this.deltaBufferJitter);
+		this.statisticsMetricsServiceComponent.registerBuffer(StatisticsMetricsServiceComponent.SUMMARY_DELTA_BUFFER, this.summaryDeltaBufferFlushPolicy);
+	}
+
+	/**
+	 * Estimates the bytes a delta retains while buffered.
+	 *
+	 * @param  key   Summary key.
+	 * @param  delta The delta.
+	 * @return       The estimated bytes.
+	 */
+	private static long estimateBufferedBytes(
+			final StatisticsEventSummaryKey key,
+			final StatisticsEventSummaryDelta delta) {
+		long bytes = 128L + StatisticsBufferFlushPolicy.estimateBytes(key.getContext()) + StatisticsBufferFlushPolicy.estimateBytes(key.getDimensionName());
+		for (final String value : delta.getCountDeltas().keySet()) {
+			bytes += 96L + StatisticsBufferFlushPolicy.estimateBytes(value);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Buffers a summary delta for deferred processing and records it in the
+	 * rolling window of its (context, dimension), if one is kept.
 	 *
 	 * @param key   Summary key.
 	 * @param delta The delta.
@@ -82,35 +209,87 @@ public class StatisticsEventSummaryBufferServiceComponent {
 	public void bufferDelta(
 			final StatisticsEventSummaryKey key,
 			final StatisticsEventSummaryDelta delta) {
-		this.summaryDeltaBuffer.reduce(key, delta);
+		this.summaryDeltaBuffer.add(key, delta);
+		this.statisticsEventSummaryRollingWindowServiceComponent.record(key, delta);
+		this.summaryDeltaBufferFlushPolicy.recordBuffered(StatisticsEventSummaryBufferServiceComponent.estimateBufferedBytes(key, delta),
+				System.currentTimeMillis());
 	}
 
 	/**
 	 * Drains the summary delta buffer and dispatches batches to the delta batch
-	 * queue. Runs on a schedule and on shutdown.
+	 * queue. Runs when the flush policy says so and on shutdown.
 	 */
 	@PreDestroy
-	@Scheduled(cron = "${org.coldis.library.service.statistics.summary.buffer.cron:0 */5 * * * *}")
 	public void flushSummaryDeltaBuffer() {
+		this.summaryDeltaBufferFlushPolicy.flush(this::drainSummaryDeltaBuffer);
+	}
+
+	/**
+	 * Requests the scheduled flush of the summary delta buffer. The flush runs
+	 * after this node's jitter, so nodes sharing the cron spread their flushes.
+	 */
+	@Scheduled(cron = "${org.coldis.library.service.statistics.summary.buffer.cron:0 */5 * * * *}")
+	public void scheduleSummaryDeltaBufferFlush() {
+		final long now = System.currentTimeMillis();
+		this.summaryDeltaBufferFlushPolicy.requestScheduledFlush(now);
+		this.summaryDeltaBufferFlushPolicy.flushIfDue(this::drainSummaryDeltaBuffer, now);
+	}
+
+	/**
+	 * Flushes the summary delta buffer when a size, age or scheduled trigger is
+	 * due.
+	 */
+	@Scheduled(fixedDelayString = "${org.coldis.library.service.statistics.summary.buffer.check-interval:1s}")
+	public void checkSummaryDeltaBuffer() {
+		this.summaryDeltaBufferFlushPolicy.flushIfDue(this::drainSummaryDeltaBuffer, System.currentTimeMillis());
+	}
+
+	/**
+	 * Drains the summary delta buffer into delta batch messages. Rolling windows
+	 * are sealed first and the messages tagged with the drain, so a reload drops
+	 * the drained deltas once their batches are confirmed applied.
+	 */
+	private void drainSummaryDeltaBuffer() {
 		StatisticsEventSummaryBufferServiceComponent.LOGGER.debug("Flushing summary delta buffer.");
-		final List<StatisticsEventSummaryDelta> drained = new ArrayList<>();
-		this.summaryDeltaBuffer.flushLocalBuffer(drained::add);
-		if (!drained.isEmpty()) {
-			final int batchSize = Math.max(1, this.deltaBatchSize);
-			for (int from = 0; from < drained.size(); from += batchSize) {
-				final int to = Math.min(from + batchSize, drained.size());
-				final ArrayList<StatisticsEventSummaryDelta> chunk = new ArrayList<>(drained.subList(from, to));
-				this.jmsTemplate.convertAndSend(StatisticsEventSummaryBufferServiceComponent.SUMMARY_DELTA_BATCH_QUEUE, chunk);
-			}
+		final long startNanos = System.nanoTime();
+		final long drain = this.statisticsEventSummaryRollingWindowServiceComponent.seal();
+		final int[] messages = { 0 };
+		final int drained = this.summaryDeltaBuffer.drain(this.deltaBatchSize, chunk -> {
+			this.jmsTemplate.convertAndSend(StatisticsEventSummaryBufferServiceComponent.SUMMARY_DELTA_BATCH_QUEUE, chunk,
+					message -> this.statisticsEventSummaryRollingWindowServiceComponent.tag(message, drain));
+			messages[0]++;
+		});
+		this.statisticsEventSummaryRollingWindowServiceComponent.drained(drain, messages[0]);
+		this.statisticsMetricsServiceComponent.recordBufferFlush(StatisticsMetricsServiceComponent.SUMMARY_DELTA_BUFFER, startNanos, drained, messages[0]);
+	}
+
+	/**
+	 * Merges the deltas of a batch per summary key, in first-seen order. Both
+	 * apply strategies apply the sum of a batch's deltas for a summary key and
+	 * value at once, so values are dropped at zero or below after the whole batch,
+	 * not after each delta.
+	 *
+	 * @param  deltas Deltas.
+	 * @return        One delta per summary key.
+	 */
+	static List<StatisticsEventSummaryDelta> mergeByKey(
+			final List<StatisticsEventSummaryDelta> deltas) {
+		final Map<StatisticsEventSummaryKey, StatisticsEventSummaryDelta> merged = new LinkedHashMap<>();
+		for (final StatisticsEventSummaryDelta delta : deltas) {
+			merged.computeIfAbsent(delta.getKey(),
+					key -> new StatisticsEventSummaryDelta(delta.getContext(), delta.getDimensionName(), delta.getDateTime())).reduce(delta);
 		}
+		return new ArrayList<>(merged.values());
 	}
 
 	/**
-	 * Processes a buffered summary delta batch from the internal JMS queue. Each
-	 * delta is applied within the same transaction; per-row locking is handled by
-	 * {@link #applyDelta}.
+	 * Processes a buffered summary delta batch message from the internal JMS
+	 * queue ({@link #processSummaryDeltaBatch(List)}), confirming it to the
+	 * rolling windows of the node that drained it once it commits.
 	 *
 	 * @param deltas The batch of deltas to apply.
+	 * @param node   Node that drained the batch ({@code null} if untagged).
+	 * @param drain  Drain of the batch ({@code null} if untagged).
 	 */
 	@Transactional(propagation = Propagation.REQUIRED)
 	@JmsListener(
@@ -118,14 +297,63 @@ public class StatisticsEventSummaryBufferServiceComponent {
 			concurrency = "${org.coldis.library.service.statistics.summary.processsummarydelta.concurrency:1}",
 			containerFactory = "${org.coldis.library.service.statistics.summary.container-factory:jmsListenerContainerFactory}"
 	)
+	public void processSummaryDeltaBatch(
+			final List<StatisticsEventSummaryDelta> deltas,
+			@Header(
+					name = StatisticsEventSummaryRollingWindowServiceComponent.NODE_PROPERTY,
+					required = false
+			) final String node,
+			@Header(
+					name = StatisticsEventSummaryRollingWindowServiceComponent.DRAIN_PROPERTY,
+					required = false
+			) final Long drain) {
+		this.processSummaryDeltaBatch(deltas);
+		this.statisticsEventSummaryRollingWindowServiceComponent.confirmAfterCommit(node, drain);
+	}
+
+	/**
+	 * Processes a buffered summary delta batch. With
+	 * the {@code row} strategy the deltas are merged per summary key
+	 * ({@link #mergeByKey}) and each is applied within the same transaction, with
+	 * per-row locking handled by {@link #applyDelta}; with the {@code set}
+	 * strategy the batch is applied set-based, locking rows in key order.
+	 * Roll-ups, when enabled, are then updated in the same transaction with the
+	 * changes the summaries received (the net change of each row: after sketch
+	 * mapping and bounding with the {@code row} strategy, and after the zero
+	 * clamp with both), and the cached buckets the batch changed are invalidated
+	 * once it commits.
+	 *
+	 * @param deltas The batch of deltas to apply.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED)
 	public void processSummaryDeltaBatch(
 			final List<StatisticsEventSummaryDelta> deltas) {
 		if ((deltas != null) && !deltas.isEmpty()) {
-			for (final StatisticsEventSummaryDelta delta : deltas) {
-				StatisticsEventSummaryBufferServiceComponent.LOGGER.debug("Processing summary delta from JMS batch: context={}, dimension={}, dateTime={}",
-						delta.getContext(), delta.getDimensionName(), delta.getDateTime());
-				this.applyDelta(delta);
+			final long startNanos = System.nanoTime();
+			final boolean setStrategy = StatisticsEventSummaryBufferServiceComponent.APPLY_STRATEGY_SET.equalsIgnoreCase(this.applyStrategy);
+			List<StatisticsEventSummaryDelta> appliedDeltas;
+			if (setStrategy) {
+				appliedDeltas = this.statisticsEventSummaryRepository.applyDeltaBatch(deltas);
+				StatisticsEventSummaryBufferServiceComponent.LOGGER.debug("Applied summary delta batch: deltas={}, changed rows={}", deltas.size(),
+						appliedDeltas.size());
+				for (final StatisticsEventSummaryDelta delta : deltas) {
+					this.statisticsMetricsServiceComponent.recordSummaryDeltaAppliedInBatch(delta.getContext());
+				}
+			}
+			else {
+				appliedDeltas = new ArrayList<>();
+				for (final StatisticsEventSummaryDelta delta : StatisticsEventSummaryBufferServiceComponent.mergeByKey(deltas)) {
+					StatisticsEventSummaryBufferServiceComponent.LOGGER.debug("Processing summary delta from JMS batch: context={}, dimension={}, dateTime={}",
+							delta.getContext(), delta.getDimensionName(), delta.getDateTime());
+					appliedDeltas.add(this.applyDelta(delta));
+				}
 			}
+			this.statisticsEventSummaryRollupServiceComponent.applyDeltaBatch(appliedDeltas);
+			this.statisticsEventSummaryBucketCacheServiceComponent
+					.invalidateAfterCommit(deltas.stream().map(StatisticsEventSummaryDelta::getKey).toList());
+			this.statisticsMetricsServiceComponent.recordSummaryDeltaBatch(
+					setStrategy ? StatisticsEventSummaryBufferServiceComponent.APPLY_STRATEGY_SET : StatisticsEventSummaryBufferServiceComponent.APPLY_STRATEGY_ROW,
+					deltas.size(), startNanos);
 		}
 	}
 
@@ -181,13 +409,28 @@ public class StatisticsEventSummaryBufferServiceComponent {
 	/**
 	 * Applies a buffered delta to a summary. Finds or creates the summary with
 	 * pessimistic locking, then applies all count and weight changes atomically.
+	 * With sketches enabled, the value sketch is updated and the value maps are
+	 * bounded to {@code summary.sketch.max-values} (see
+	 * {@link StatisticsEventSummaryHelper#sketchDelta}). The cached bucket is not
+	 * invalidated here: {@link #processSummaryDeltaBatch(List)} invalidates every
+	 * key of the batch once it commits.
 	 *
-	 * @param delta The delta to apply.
+	 * @param  sourceDelta The delta to apply.
+	 * @return             The change the summary received: the source delta after
+	 *                     sketch mapping, bounding and dropping entries at zero
+	 *                     or below.
 	 */
 	@Transactional(propagation = Propagation.REQUIRED)
-	public void applyDelta(
-			final StatisticsEventSummaryDelta delta) {
-		final StatisticsEventSummary summary = this.findOrCreate(delta.getContext(), delta.getDimensionName(), delta.getDateTime());
+	public StatisticsEventSummaryDelta applyDelta(
+			final StatisticsEventSummaryDelta sourceDelta) {
+		final long lockStartNanos = System.nanoTime();
+		final StatisticsEventSummary summary = this.findOrCreate(sourceDelta.getContext(), sourceDelta.getDimensionName(), sourceDelta.getDateTime());
+		this.statisticsMetricsServiceComponent.recordSummaryDeltaApplied(sourceDelta.getContext(), System.nanoTime() - lockStartNanos);
+		final StatisticsEventSummaryDelta delta = (this.sketchEnabled
+				? StatisticsEventSummaryHelper.sketchDelta(summary, sourceDelta, this.sketchPrecision, this.sketchDepth, this.sketchWidth)
+				: sourceDelta);
+		final Map<String, Long> previousCounts = new HashMap<>(summary.getValueCounts());
+		final Map<String, BigDecimal> previousWeights = new HashMap<>(summary.getValueWeights());
 		// Apply count deltas.
 		final Map<String, Long> counts = summary.getValueCounts();
 		for (final Map.Entry<String, Long> entry : delta.getCountDeltas().entrySet()) {
@@ -212,9 +455,32 @@ public class StatisticsEventSummaryBufferServiceComponent {
 				weights.put(entry.getKey(), newValue);
 			}
 		}
+		if (this.sketchEnabled) {
+			StatisticsEventSummaryHelper.boundValues(summary, this.sketchMaxValues);
+		}
 		// Recompute totals from maps to prevent drift.
 		summary.setTotalCount(counts.values().stream().mapToLong(Long::longValue).sum());
 		summary.setTotalWeight(weights.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
 		this.statisticsEventSummaryRepository.save(summary);
+		// The applied change (what roll-ups receive) is the difference between the new and previous maps.
+		final StatisticsEventSummaryDelta appliedDelta = new StatisticsEventSummaryDelta(summary.getContext(), summary.getDimensionName(),
+				summary.getDateTime());
+		final Set<String> countValues = new HashSet<>(previousCounts.keySet());
+		countValues.addAll(counts.keySet());
+		for (final String value : countValues) {
+			final long change = counts.getOrDefault(value, 0L) - previousCounts.getOrDefault(value, 0L);
+			if (change != 0L) {
+				appliedDelta.getCountDeltas().put(value, change);
+			}
+		}
+		final Set<String> weightValues = new HashSet<>(previousWeights.keySet());
+		weightValues.addAll(weights.keySet());
+		for (final String value : weightValues) {
+			final BigDecimal change = weights.getOrDefault(value, BigDecimal.ZERO).subtract(previousWeights.getOrDefault(value, BigDecimal.ZERO));
+			if (change.signum() != 0) {
+				appliedDelta.getWeightDeltas().put(value, change);
+			}
+		}
+		return appliedDelta;
 	}
 }
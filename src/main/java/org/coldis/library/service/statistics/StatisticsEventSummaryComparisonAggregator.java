@@ -0,0 +1,406 @@
+package org.coldis.library.service.statistics;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.model.SimpleMessage;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper.Window;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper.WindowSchedule;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Incremental drift comparison of one dimension over a sliding schedule (e.g. a rolling z-score
+ * series). Instead of merging every window and recomputing every mean and standard deviation on each
+ * call ({@link StatisticsEventSummaryHelper#computeComparison}), it keeps the merged aggregate of each
+ * window of the last schedule and running sums and sums of squares, per metric and per value, over
+ * the sample windows:
+ *
+ * <ul>
+ * <li>a sample window that is still in the next schedule is kept as is (a series stepped by the
+ * schedule step only swaps its oldest sample for the previous reference);</li>
+ * <li>a new window that overlaps a known window of the same length by at least half is derived from
+ * it by fetching only the buckets that left and entered it;</li>
+ * <li>any other window is fetched whole.</li>
+ * </ul>
+ *
+ * <p>A slide then costs the changed buckets plus one pass over the values of each changed window,
+ * instead of every bucket and value of every window. Sums are exact ({@code BigDecimal} without
+ * rounding), so removing a window leaves no residue and equal samples still have a zero standard
+ * deviation; results match {@link StatisticsEventSummaryHelper#computeComparison} up to the rounding
+ * of the last digits. Derived windows assume their buckets did not change between calls, so this is
+ * meant for settled periods. Not thread-safe: use one aggregator per series.
+ */
+public final class StatisticsEventSummaryComparisonAggregator {
+
+	/** Merged rows of one window. */
+	private static final class WindowAggregate {
+
+		/** Rows merged. */
+		private int rows;
+
+		/** Total count. */
+		private long totalCount;
+
+		/** Total weight. */
+		private BigDecimal totalWeight = BigDecimal.ZERO;
+
+		/** Value counts. */
+		private final Map<String, Long> valueCounts = new HashMap<>();
+
+		/** Value weights. */
+		private final Map<String, BigDecimal> valueWeights = new HashMap<>();
+
+		/**
+		 * Adds (or, with a negative sign, removes) rows. Values at zero or below are dropped.
+		 *
+		 * @param summaries Rows.
+		 * @param sign      {@code 1} to add, {@code -1} to remove.
+		 */
+		private void add(
+				final List<StatisticsEventSummary> summaries,
+				final int sign) {
+			for (final StatisticsEventSummary summary : summaries) {
+				this.rows = Math.max(0, this.rows + sign);
+				this.totalCount += sign * summary.getTotalCount();
+				this.totalWeight = (sign > 0 ? this.totalWeight.add(summary.getTotalWeight()) : this.totalWeight.subtract(summary.getTotalWeight()));
+				summary.getValueCounts().forEach((
+						key,
+						value) -> this.valueCounts.merge(key, sign * value, (
+								current,
+								delta) -> ((current + delta) > 0L ? current + delta : null)));
+				summary.getValueWeights().forEach((
+						key,
+						value) -> this.valueWeights.merge(key, (sign > 0 ? value : value.negate()), (
+								current,
+								delta) -> (current.add(delta).signum() > 0 ? current.add(delta) : null)));
+			}
+		}
+
+		/**
+		 * Copies the aggregate.
+		 *
+		 * @return The copy.
+		 */
+		private WindowAggregate copy() {
+			final WindowAggregate copy = new WindowAggregate();
+			copy.rows = this.rows;
+			copy.totalCount = this.totalCount;
+			copy.totalWeight = this.totalWeight;
+			copy.valueCounts.putAll(this.valueCounts);
+			copy.valueWeights.putAll(this.valueWeights);
+			return copy;
+		}
+	}
+
+	/** Running sums of one metric over the sample windows. */
+	private static final class MetricSums {
+
+		/** Sum of the window totals. */
+		private BigDecimal sumTotal = BigDecimal.ZERO;
+
+		/** Sum of the squared window totals. */
+		private BigDecimal sumSquaredTotal = BigDecimal.ZERO;
+
+		/** Per value: sum of values, of squared values, of ratios and of squared ratios. */
+		private final Map<String, BigDecimal[]> valueSums = new HashMap<>();
+
+		/**
+		 * Adds (or, with a negative sign, removes) one window.
+		 *
+		 * @param total  Window total.
+		 * @param values Window values.
+		 * @param sign   {@code 1} to add, {@code -1} to remove.
+		 */
+		private void add(
+				final BigDecimal total,
+				final Map<String, BigDecimal> values,
+				final int sign) {
+			final BigDecimal signedOne = BigDecimal.valueOf(sign);
+			this.sumTotal = this.sumTotal.add(total.multiply(signedOne));
+			this.sumSquaredTotal = this.sumSquaredTotal.add(total.multiply(total).multiply(signedOne));
+			values.forEach((
+					key,
+					value) -> {
+				final BigDecimal ratio = (total.compareTo(BigDecimal.ZERO) > 0 ? value.divide(total, StatisticsEventSummaryHelper.MATH_CONTEXT)
+						: BigDecimal.ZERO);
+				final BigDecimal[] sums = this.valueSums.computeIfAbsent(key,
+						newKey -> new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO });
+				sums[0] = sums[0].add(value.multiply(signedOne));
+				sums[1] = sums[1].add(value.multiply(value).multiply(signedOne));
+				sums[2] = sums[2].add(ratio.multiply(signedOne));
+				sums[3] = sums[3].add(ratio.multiply(ratio).multiply(signedOne));
+				// Values are positive, so a zero sum means no window has the value anymore.
+				if (sums[0].signum() == 0) {
+					this.valueSums.remove(key);
+				}
+			});
+		}
+
+		/**
+		 * Gets the population standard deviation from a sum and a sum of squares. The numerator
+		 * {@code n·Σx² − (Σx)²} is exact, so equal samples give exactly zero.
+		 *
+		 * @param  sum        Sum.
+		 * @param  sumSquared Sum of squares.
+		 * @param  size       Number of samples.
+		 * @return            The standard deviation.
+		 */
+		private static BigDecimal stdDev(
+				final BigDecimal sum,
+				final BigDecimal sumSquared,
+				final BigDecimal size) {
+			final BigDecimal variance = sumSquared.multiply(size).subtract(sum.multiply(sum)).divide(size.multiply(size),
+					StatisticsEventSummaryHelper.MATH_CONTEXT);
+			return BigDecimal.valueOf(Math.sqrt(Math.max(0.0, variance.doubleValue()))).round(StatisticsEventSummaryHelper.MATH_CONTEXT);
+		}
+
+		/**
+		 * Populates the averages and standard deviations of a metric aggregation.
+		 *
+		 * @param metric  Metric aggregation (its totals already set).
+		 * @param keys    Values to populate.
+		 * @param samples Number of sample windows.
+		 */
+		private void populate(
+				final StatisticsEventSummaryHelper.MetricAggregation metric,
+				final Iterable<String> keys,
+				final int samples) {
+			final BigDecimal size = BigDecimal.valueOf(samples);
+			metric.averageTotal = this.sumTotal.divide(size, StatisticsEventSummaryHelper.MATH_CONTEXT);
+			metric.stdDevTotal = MetricSums.stdDev(this.sumTotal, this.sumSquaredTotal, size);
+			for (final String key : keys) {
+				final BigDecimal[] sums = this.valueSums.getOrDefault(key,
+						new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO });
+				metric.averageValues.put(key, sums[0].divide(size, StatisticsEventSummaryHelper.MATH_CONTEXT));
+				metric.stdDevValues.put(key, MetricSums.stdDev(sums[0], sums[1], size));
+				metric.averageRatios.put(key, sums[2].divide(size, StatisticsEventSummaryHelper.MATH_CONTEXT));
+				metric.stdDevRatios.put(key, MetricSums.stdDev(sums[2], sums[3], size));
+			}
+		}
+	}
+
+	/** Truncation of the context in minutes ({@code 0} disables window derivation). */
+	private final long truncationMinutes;
+
+	/** Fetches the rows of an inclusive window. */
+	private final Function<Window, List<StatisticsEventSummary>> fetcher;
+
+	/** Aggregates of the windows of the last schedule. */
+	private Map<Window, WindowAggregate> windowAggregates = new HashMap<>();
+
+	/** Sample windows of the last schedule. */
+	private List<Window> samples = new ArrayList<>();
+
+	/** Count sums over the sample windows. */
+	private final MetricSums countSums = new MetricSums();
+
+	/** Weight sums over the sample windows. */
+	private final MetricSums weightSums = new MetricSums();
+
+	/** Per value: number of sample windows with a count for it. */
+	private final Map<String, Integer> keyWindows = new HashMap<>();
+
+	/**
+	 * Creates the aggregator.
+	 *
+	 * @param truncationMinutes Truncation of the context in minutes (window bounds are on its grid).
+	 * @param fetcher           Fetches the rows of one dimension in an inclusive window (truncated bounds).
+	 */
+	public StatisticsEventSummaryComparisonAggregator(
+			final long truncationMinutes,
+			final Function<Window, List<StatisticsEventSummary>> fetcher) {
+		this.truncationMinutes = truncationMinutes;
+		this.fetcher = fetcher;
+	}
+
+	/**
+	 * Fetches the rows of an inclusive range.
+	 *
+	 * @param  start Start.
+	 * @param  end   End.
+	 * @return       The rows.
+	 */
+	private List<StatisticsEventSummary> fetch(
+			final LocalDateTime start,
+			final LocalDateTime end) {
+		return (end.isBefore(start) ? List.of() : this.fetcher.apply(new Window(start, end)));
+	}
+
+	/**
+	 * Gets the last bucket before a truncated date time.
+	 *
+	 * @param  dateTime Truncated date time.
+	 * @return          The previous bucket.
+	 */
+	private LocalDateTime previousBucket(
+			final LocalDateTime dateTime) {
+		return StatisticsEvent.truncateDateTime(dateTime.minusMinutes(1), this.truncationMinutes);
+	}
+
+	/**
+	 * Gets the first bucket after a truncated date time. Truncation restarts every hour, so buckets are
+	 * at most {@code min(truncation, 60)} minutes apart.
+	 *
+	 * @param  dateTime Truncated date time.
+	 * @return          The next bucket.
+	 */
+	private LocalDateTime nextBucket(
+			final LocalDateTime dateTime) {
+		return StatisticsEvent.truncateDateTime(dateTime.plusMinutes(Math.min(this.truncationMinutes, 60L)), this.truncationMinutes);
+	}
+
+	/**
+	 * Derives the aggregate of a window from the closest known window of the same length that overlaps
+	 * it by at least half, fetching only the buckets that left and entered it.
+	 *
+	 * @param  window Window.
+	 * @return        The derived aggregate, or {@code null} if no known window qualifies.
+	 */
+	private WindowAggregate derive(
+			final Window window) {
+		if (this.truncationMinutes <= 0L) {
+			return null;
+		}
+		final Duration length = Duration.between(window.start(), window.end());
+		Window closest = null;
+		Duration closestShift = null;
+		for (final Window known : this.windowAggregates.keySet()) {
+			final Duration shift = Duration.between(known.start(), window.start()).abs();
+			if (length.equals(Duration.between(known.start(), known.end())) && (shift.multipliedBy(2).compareTo(length) <= 0)
+					&& ((closestShift == null) || (shift.compareTo(closestShift) < 0))) {
+				closest = known;
+				closestShift = shift;
+			}
+		}
+		if (closest == null) {
+			return null;
+		}
+		final WindowAggregate aggregate = this.windowAggregates.get(closest).copy();
+		if (window.start().isAfter(closest.start())) {
+			aggregate.add(this.fetch(closest.start(), this.previousBucket(window.start())), -1);
+			aggregate.add(this.fetch(this.nextBucket(closest.end()), window.end()), 1);
+		}
+		else {
+			aggregate.add(this.fetch(window.start(), this.previousBucket(closest.start())), 1);
+			aggregate.add(this.fetch(this.nextBucket(window.end()), closest.end()), -1);
+		}
+		return aggregate;
+	}
+
+	/**
+	 * Resolves the aggregate of a window: known, derived or fetched whole.
+	 *
+	 * @param  window   Window.
+	 * @param  resolved Aggregates resolved for the current schedule.
+	 * @return          The aggregate.
+	 */
+	private WindowAggregate resolve(
+			final Window window,
+			final Map<Window, WindowAggregate> resolved) {
+		WindowAggregate aggregate = resolved.get(window);
+		if (aggregate == null) {
+			aggregate = this.windowAggregates.get(window);
+			aggregate = (aggregate == null ? this.derive(window) : aggregate);
+			if (aggregate == null) {
+				aggregate = new WindowAggregate();
+				aggregate.add(this.fetch(window.start(), window.end()), 1);
+			}
+			resolved.put(window, aggregate);
+		}
+		return aggregate;
+	}
+
+	/**
+	 * Adds (or removes) a sample window to the running sums.
+	 *
+	 * @param aggregate Window aggregate.
+	 * @param sign      {@code 1} to add, {@code -1} to remove.
+	 */
+	private void accumulate(
+			final WindowAggregate aggregate,
+			final int sign) {
+		final Map<String, BigDecimal> valueCounts = new HashMap<>(aggregate.valueCounts.size());
+		aggregate.valueCounts.forEach((
+				key,
+				value) -> valueCounts.put(key, BigDecimal.valueOf(value)));
+		this.countSums.add(BigDecimal.valueOf(aggregate.totalCount), valueCounts, sign);
+		this.weightSums.add(aggregate.totalWeight, aggregate.valueWeights, sign);
+		aggregate.valueCounts.keySet().forEach(key -> this.keyWindows.merge(key, sign, (
+				current,
+				delta) -> ((current + delta) > 0 ? current + delta : null)));
+	}
+
+	/**
+	 * Slides the aggregator to a schedule and builds its drift comparison, as
+	 * {@link StatisticsEventSummaryHelper#computeComparison} would from the rows of each window.
+	 *
+	 * @param  schedule          Resolved (truncated) schedule.
+	 * @param  context           Context.
+	 * @param  dimensionName     Dimension name.
+	 * @param  windowUnit        Window unit.
+	 * @param  windowSize        Window size.
+	 * @param  stepUnit          Step unit.
+	 * @param  steps             Number of historical samples.
+	 * @return                   The comparison.
+	 * @throws BusinessException If no sample window has data.
+	 */
+	public StatisticsEventSummaryComparison compare(
+			final WindowSchedule schedule,
+			final String context,
+			final String dimensionName,
+			final ChronoUnit windowUnit,
+			final Integer windowSize,
+			final ChronoUnit stepUnit,
+			final Integer steps) throws BusinessException {
+		final Map<Window, WindowAggregate> resolved = new HashMap<>();
+		final WindowAggregate reference = this.resolve(schedule.reference(), resolved);
+		// Sample windows are a multiset: only the difference with the last schedule is applied.
+		final List<Window> removed = new ArrayList<>(this.samples);
+		final List<Window> added = new ArrayList<>();
+		for (final Window window : schedule.samples()) {
+			if (removed.remove(window)) {
+				resolved.putIfAbsent(window, this.windowAggregates.get(window));
+			}
+			else {
+				added.add(window);
+			}
+		}
+		for (final Window window : removed) {
+			this.accumulate(this.windowAggregates.get(window), -1);
+		}
+		for (final Window window : added) {
+			this.accumulate(this.resolve(window, resolved), 1);
+		}
+		this.windowAggregates = resolved;
+		this.samples = new ArrayList<>(schedule.samples());
+
+		if (this.keyWindows.isEmpty()) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.comparison.nodata"), HttpStatus.NOT_FOUND.value());
+		}
+		final StatisticsEventSummaryHelper.PeriodAggregation aggregation = new StatisticsEventSummaryHelper.PeriodAggregation();
+		aggregation.allKeys.addAll(this.keyWindows.keySet());
+		for (final Window window : this.samples) {
+			final WindowAggregate aggregate = this.windowAggregates.get(window);
+			aggregation.counts.totals.add(BigDecimal.valueOf(aggregate.totalCount));
+			aggregation.weights.totals.add(aggregate.totalWeight);
+		}
+		this.countSums.populate(aggregation.counts, aggregation.allKeys, this.samples.size());
+		this.weightSums.populate(aggregation.weights, aggregation.allKeys, this.samples.size());
+
+		final Map<String, BigDecimal> referenceValueCounts = new HashMap<>();
+		reference.valueCounts.forEach((
+				key,
+				value) -> referenceValueCounts.put(key, BigDecimal.valueOf(value)));
+		return StatisticsEventSummaryHelper.buildComparison(aggregation, (reference.rows > 0 ? BigDecimal.valueOf(reference.totalCount) : null),
+				referenceValueCounts, (reference.rows > 0 ? reference.totalWeight : null), new HashMap<>(reference.valueWeights), context, dimensionName,
+				schedule.reference().start(), windowUnit, windowSize, stepUnit, steps);
+	}
+}
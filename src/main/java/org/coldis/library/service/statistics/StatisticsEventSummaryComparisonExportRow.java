@@ -0,0 +1,45 @@
+package org.coldis.library.service.statistics;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.math.BigDecimal;
+
+/**
+ * One CSV row of a comparison export: the count and weight statistics of one dimension value of a
+ * comparison, or of its totals (no dimension value, no ratios). The reference date time is written
+ * as ISO text, whatever the CSV mapper's date settings.
+ */
+@JsonPropertyOrder({
+  "context",
+  "dimensionName",
+  "referenceDateTime",
+  "sampleSize",
+  "dimensionValue",
+  "referenceCount",
+  "averageCount",
+  "stdDevCount",
+  "zScoreCount",
+  "referenceRatio",
+  "averageRatio",
+  "zScoreRatio",
+  "referenceWeight",
+  "averageWeight",
+  "stdDevWeight",
+  "zScoreWeight"
+})
+public record StatisticsEventSummaryComparisonExportRow(
+    String context,
+    String dimensionName,
+    String referenceDateTime,
+    Integer sampleSize,
+    String dimensionValue,
+    BigDecimal referenceCount,
+    BigDecimal averageCount,
+    BigDecimal stdDevCount,
+    BigDecimal zScoreCount,
+    BigDecimal referenceRatio,
+    BigDecimal averageRatio,
+    BigDecimal zScoreRatio,
+    BigDecimal referenceWeight,
+    BigDecimal averageWeight,
+    BigDecimal stdDevWeight,
+    BigDecimal zScoreWeight) {}
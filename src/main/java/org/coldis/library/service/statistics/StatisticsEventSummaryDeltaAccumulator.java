@@ -0,0 +1,374 @@
+package org.coldis.library.service.statistics;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Striped accumulator for summary deltas. Replaces a single reducer map (where every delta for the
+ * same summary key contends on one synchronized {@link StatisticsEventSummaryDelta#reduce}) with:
+ *
+ * <ul>
+ *   <li>stripes selected by the summary key hash, each with its own map, so unrelated keys never
+ *       share a map;
+ *   <li>one cell per (summary key, dimension value) holding primitive {@code long} counters updated
+ *       with atomic adds, so concurrent deltas for the same key do not block each other;
+ *   <li>weights kept as scaled longs ({@code weight × 10^weightScale}, half-even rounded), turned
+ *       back into {@link BigDecimal} only when drained;
+ *   <li>adds that would overflow a cell's {@code long} (a weight of about {@code 9.2 × 10^(18 -
+ *       weightScale)} or more, or sums beyond it) going to exact {@link BigInteger} / {@link
+ *       BigDecimal} overflow values of the cell instead, so adding never throws nor wraps. A count
+ *       beyond the {@code long} range is drained as {@link Long#MAX_VALUE} (or {@link
+ *       Long#MIN_VALUE}) and the rest is kept for the next drain.
+ * </ul>
+ *
+ * <p>Draining swaps each stripe's map for an empty one under the stripe's write lock (writers hold
+ * the read lock only while touching the map, so the swap waits for in-flight adds and no update is
+ * lost) and emits the swapped-out entries straight into batches of the requested size.
+ */
+public final class StatisticsEventSummaryDeltaAccumulator {
+
+  /** Counters for one dimension value of one summary key. */
+  private static final class Cell {
+
+    /** Count updater. */
+    private static final AtomicLongFieldUpdater<Cell> COUNT =
+        AtomicLongFieldUpdater.newUpdater(Cell.class, "count");
+
+    /** Scaled weight updater. */
+    private static final AtomicLongFieldUpdater<Cell> SCALED_WEIGHT =
+        AtomicLongFieldUpdater.newUpdater(Cell.class, "scaledWeight");
+
+    /** Count delta. */
+    private volatile long count;
+
+    /** Weight delta, scaled. */
+    private volatile long scaledWeight;
+
+    /** Count delta beyond the {@code long} range ({@code null} for none, guarded by the cell). */
+    private BigInteger countOverflow;
+
+    /** Weight delta beyond the scaled {@code long} range ({@code null} for none, cell guarded). */
+    private BigDecimal weightOverflow;
+
+    /**
+     * Adds a count delta, to the overflow count if the sum leaves the {@code long} range.
+     *
+     * @param delta Count delta.
+     */
+    private void addCount(final long delta) {
+      for (; ; ) {
+        final long current = this.count;
+        final long next;
+        try {
+          next = Math.addExact(current, delta);
+        } catch (final ArithmeticException exception) {
+          this.addCountOverflow(BigInteger.valueOf(delta));
+          return;
+        }
+        if (Cell.COUNT.compareAndSet(this, current, next)) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Adds a scaled weight delta, to the overflow weight if it or the sum leaves the {@code long}
+     * range.
+     *
+     * @param delta Scaled weight delta.
+     */
+    private void addWeight(final BigDecimal delta) {
+      if (delta.unscaledValue().bitLength() >= Long.SIZE) {
+        this.addWeightOverflow(delta);
+        return;
+      }
+      final long scaledDelta = delta.unscaledValue().longValue();
+      for (; ; ) {
+        final long current = this.scaledWeight;
+        final long next;
+        try {
+          next = Math.addExact(current, scaledDelta);
+        } catch (final ArithmeticException exception) {
+          this.addWeightOverflow(delta);
+          return;
+        }
+        if (Cell.SCALED_WEIGHT.compareAndSet(this, current, next)) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Adds to the overflow count.
+     *
+     * @param delta Count delta.
+     */
+    private synchronized void addCountOverflow(final BigInteger delta) {
+      this.countOverflow = (this.countOverflow == null ? delta : this.countOverflow.add(delta));
+    }
+
+    /**
+     * Adds to the overflow weight.
+     *
+     * @param delta Weight delta.
+     */
+    private synchronized void addWeightOverflow(final BigDecimal delta) {
+      this.weightOverflow = (this.weightOverflow == null ? delta : this.weightOverflow.add(delta));
+    }
+
+    /**
+     * Gets the whole count delta.
+     *
+     * @return The count delta.
+     */
+    private synchronized BigInteger getCount() {
+      final BigInteger value = BigInteger.valueOf(this.count);
+      return (this.countOverflow == null ? value : value.add(this.countOverflow));
+    }
+
+    /**
+     * Gets the whole weight delta.
+     *
+     * @param weightScale Decimal places of the scaled weight.
+     * @return The weight delta.
+     */
+    private synchronized BigDecimal getWeight(final int weightScale) {
+      final BigDecimal value = BigDecimal.valueOf(this.scaledWeight, weightScale);
+      return (this.weightOverflow == null ? value : value.add(this.weightOverflow));
+    }
+  }
+
+  /** One stripe of the accumulator. */
+  private static final class Stripe {
+
+    /** Guards the swap of {@link #entries} (shared by writers, exclusive for draining). */
+    private final StampedLock lock = new StampedLock();
+
+    /** Cells per summary key and dimension value. */
+    private ConcurrentHashMap<StatisticsEventSummaryKey, ConcurrentHashMap<String, Cell>> entries =
+        new ConcurrentHashMap<>();
+  }
+
+  /** Stripes. */
+  private final Stripe[] stripes;
+
+  /** Stripe index mask (stripe count is a power of two). */
+  private final int stripeMask;
+
+  /** Decimal places kept for weights. */
+  private final int weightScale;
+
+  /**
+   * Creates an accumulator.
+   *
+   * @param stripes Number of stripes (rounded up to a power of two; {@code 0} or less uses four
+   *     per available processor).
+   * @param weightScale Decimal places kept for weights.
+   */
+  public StatisticsEventSummaryDeltaAccumulator(final int stripes, final int weightScale) {
+    final int requested =
+        (stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 4);
+    final int size = (requested <= 1 ? 1 : Integer.highestOneBit(requested - 1) << 1);
+    this.stripes = new Stripe[size];
+    for (int index = 0; index < size; index++) {
+      this.stripes[index] = new Stripe();
+    }
+    this.stripeMask = size - 1;
+    this.weightScale = weightScale;
+  }
+
+  /**
+   * Gets the stripe for a key.
+   *
+   * @param key Summary key.
+   * @return The stripe.
+   */
+  private Stripe stripe(final StatisticsEventSummaryKey key) {
+    final int hash = key.hashCode();
+    return this.stripes[(hash ^ (hash >>> 16)) & this.stripeMask];
+  }
+
+  /**
+   * Rounds a weight to the kept decimal places.
+   *
+   * @param weight Weight (null is zero).
+   * @return The scaled weight ({@code null} for zero).
+   */
+  private BigDecimal scale(final BigDecimal weight) {
+    return (weight == null || weight.signum() == 0
+        ? null
+        : weight.setScale(this.weightScale, RoundingMode.HALF_EVEN));
+  }
+
+  /**
+   * Strips the trailing zeros of a drained weight.
+   *
+   * @param weight Weight.
+   * @return The weight.
+   */
+  private static BigDecimal strip(final BigDecimal weight) {
+    final BigDecimal stripped = weight.stripTrailingZeros();
+    return (stripped.scale() < 0 ? stripped.setScale(0) : stripped);
+  }
+
+  /**
+   * Gets (creating it if needed) the cell for a dimension value of a summary key. Must be called
+   * with the stripe's read lock held.
+   *
+   * @param stripe Stripe.
+   * @param key Summary key.
+   * @param dimensionValue Dimension value.
+   * @return The cell.
+   */
+  private static Cell cell(
+      final Stripe stripe, final StatisticsEventSummaryKey key, final String dimensionValue) {
+    return stripe
+        .entries
+        .computeIfAbsent(key, ignored -> new ConcurrentHashMap<>())
+        .computeIfAbsent(dimensionValue, ignored -> new Cell());
+  }
+
+  /**
+   * Keeps the part of a drained count beyond the {@code long} range for the next drain.
+   *
+   * @param key Summary key.
+   * @param dimensionValue Dimension value.
+   * @param remainder Count remainder.
+   */
+  private void keepCountRemainder(
+      final StatisticsEventSummaryKey key,
+      final String dimensionValue,
+      final BigInteger remainder) {
+    final Stripe stripe = this.stripe(key);
+    final long stamp = stripe.lock.readLock();
+    try {
+      StatisticsEventSummaryDeltaAccumulator.cell(stripe, key, dimensionValue)
+          .addCountOverflow(remainder);
+    } finally {
+      stripe.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Adds a count and weight delta for a dimension value of a summary key.
+   *
+   * @param key Summary key.
+   * @param dimensionValue Dimension value.
+   * @param count Count delta.
+   * @param weight Weight delta.
+   */
+  public void add(
+      final StatisticsEventSummaryKey key,
+      final String dimensionValue,
+      final long count,
+      final BigDecimal weight) {
+    final BigDecimal scaledWeight = this.scale(weight);
+    final Stripe stripe = this.stripe(key);
+    final long stamp = stripe.lock.readLock();
+    try {
+      final Cell cell = StatisticsEventSummaryDeltaAccumulator.cell(stripe, key, dimensionValue);
+      cell.addCount(count);
+      if (scaledWeight != null) {
+        cell.addWeight(scaledWeight);
+      }
+    } finally {
+      stripe.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Adds every value of a delta.
+   *
+   * @param key Summary key.
+   * @param delta Delta.
+   */
+  public void add(final StatisticsEventSummaryKey key, final StatisticsEventSummaryDelta delta) {
+    final Map<String, Long> countDeltas = delta.getCountDeltas();
+    final Map<String, BigDecimal> weightDeltas = delta.getWeightDeltas();
+    for (final Map.Entry<String, Long> entry : countDeltas.entrySet()) {
+      this.add(key, entry.getKey(), entry.getValue(), weightDeltas.get(entry.getKey()));
+    }
+    for (final Map.Entry<String, BigDecimal> entry : weightDeltas.entrySet()) {
+      if (!countDeltas.containsKey(entry.getKey())) {
+        this.add(key, entry.getKey(), 0L, entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Drains the accumulator into batches of deltas (one delta per summary key). Deltas added while
+   * draining, and counts beyond the {@code long} range, are kept for the next drain.
+   *
+   * @param batchSize Maximum deltas per batch.
+   * @param batchConsumer Receives each batch.
+   * @return The number of drained deltas.
+   */
+  public int drain(
+      final int batchSize, final Consumer<ArrayList<StatisticsEventSummaryDelta>> batchConsumer) {
+    final int maximumBatchSize = Math.max(1, batchSize);
+    int drained = 0;
+    ArrayList<StatisticsEventSummaryDelta> batch = null;
+    for (final Stripe stripe : this.stripes) {
+      final ConcurrentHashMap<StatisticsEventSummaryKey, ConcurrentHashMap<String, Cell>> entries;
+      final long stamp = stripe.lock.writeLock();
+      try {
+        entries = stripe.entries;
+        if (entries.isEmpty()) {
+          continue;
+        }
+        stripe.entries = new ConcurrentHashMap<>();
+      } finally {
+        stripe.lock.unlockWrite(stamp);
+      }
+      for (final Map.Entry<StatisticsEventSummaryKey, ConcurrentHashMap<String, Cell>> entry :
+          entries.entrySet()) {
+        final StatisticsEventSummaryKey key = entry.getKey();
+        final StatisticsEventSummaryDelta delta =
+            new StatisticsEventSummaryDelta(
+                key.getContext(), key.getDimensionName(), key.getDateTime());
+        final int values = entry.getValue().size();
+        final Map<String, Long> countDeltas = new HashMap<>(values * 2);
+        final Map<String, BigDecimal> weightDeltas = new HashMap<>(values * 2);
+        for (final Map.Entry<String, Cell> cell : entry.getValue().entrySet()) {
+          final BigInteger count = cell.getValue().getCount();
+          final long drainedCount =
+              (count.bitLength() < Long.SIZE
+                  ? count.longValue()
+                  : (count.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE));
+          if (count.bitLength() >= Long.SIZE) {
+            this.keepCountRemainder(
+                key, cell.getKey(), count.subtract(BigInteger.valueOf(drainedCount)));
+          }
+          countDeltas.put(cell.getKey(), drainedCount);
+          weightDeltas.put(
+              cell.getKey(),
+              StatisticsEventSummaryDeltaAccumulator.strip(
+                  cell.getValue().getWeight(this.weightScale)));
+        }
+        delta.setCountDeltas(countDeltas);
+        delta.setWeightDeltas(weightDeltas);
+        if (batch == null) {
+          batch = new ArrayList<>(Math.min(maximumBatchSize, entries.size()));
+        }
+        batch.add(delta);
+        drained++;
+        if (batch.size() >= maximumBatchSize) {
+          batchConsumer.accept(batch);
+          batch = null;
+        }
+      }
+    }
+    if (batch != null) {
+      batchConsumer.accept(batch);
+    }
+    return drained;
+  }
+}
@@ -0,0 +1,699 @@
+package org.coldis.library.service.statistics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.Function;
+
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.model.SimpleMessage;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Opt-in {@code double} fast path of the comparison, probability and z-score reductions of
+ * {@link StatisticsEventSummaryHelper}: same inputs, same result types, same rules (empty windows
+ * count as zero samples, population standard deviation, zero z-score on zero spread, same scales on
+ * the reductions). Samples are accumulated in {@code long[]}/{@code double[]} arrays indexed by value
+ * instead of per-value {@code BigDecimal} maps, and {@code BigDecimal} is only allocated for the
+ * results.
+ *
+ * <p>Results agree with the {@code BigDecimal} path to about 1e-9 relative (counts are summed
+ * exactly in {@code long}; means, spreads and ratios carry {@code double} rounding instead of
+ * {@code DECIMAL64}). Reductions rounded to 6 decimal places may differ in the last place.
+ *
+ * <p>The z-score reductions take the flat {@code double[]} of one family
+ * ({@link #ratioZScores}, {@link #valueZScores}, {@link #totalZScores}), so a caller computing several
+ * features flattens the comparisons once.
+ *
+ * <p>Methods are ordered callees-before-callers: low-level primitives first, then the mid-level
+ * builders, then the public entry points that compose them.
+ */
+public final class StatisticsEventSummaryDoubleHelper {
+
+	private StatisticsEventSummaryDoubleHelper() {
+	}
+
+	// ---- Intermediate aggregation holders ----
+
+	/** Aggregated statistics for one metric across historical periods, one array slot per sample. */
+	private static class MetricAggregation {
+		final double[] totals;
+		final double[][] values;
+		double averageTotal;
+		double stdDevTotal;
+		final double[] averageValues;
+		final double[] stdDevValues;
+		final double[] averageRatios;
+		final double[] stdDevRatios;
+
+		MetricAggregation(final int keyCount, final int sampleCount) {
+			this.totals = new double[sampleCount];
+			this.values = new double[keyCount][sampleCount];
+			this.averageValues = new double[keyCount];
+			this.stdDevValues = new double[keyCount];
+			this.averageRatios = new double[keyCount];
+			this.stdDevRatios = new double[keyCount];
+		}
+	}
+
+	// ---- Low-level math primitives ----
+
+	/** Converts a result to {@code BigDecimal}, keeping {@link BigDecimal#ZERO} for zero. */
+	private static BigDecimal toDecimal(
+			final double value) {
+		return value == 0.0 ? BigDecimal.ZERO : BigDecimal.valueOf(value);
+	}
+
+	/** Converts a reduction result to {@code BigDecimal} at 6 decimal places. */
+	private static BigDecimal toScaledDecimal(
+			final double value) {
+		return BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
+	}
+
+	/** Computes the average of the first {@code length} values. */
+	private static double computeAverage(
+			final double[] values,
+			final int length) {
+		if (length == 0) {
+			return 0.0;
+		}
+		double sum = 0.0;
+		for (int index = 0; index < length; index++) {
+			sum += values[index];
+		}
+		return sum / length;
+	}
+
+	/**
+	 * Computes the population standard deviation of the first {@code length} values given their mean.
+	 * Exactly zero when every value is equal, so a constant series never gets a spread made of rounding
+	 * noise (which would turn its z-scores into huge values instead of zero).
+	 */
+	private static double computeStdDev(
+			final double[] values,
+			final int length,
+			final double mean) {
+		if (length == 0) {
+			return 0.0;
+		}
+		boolean constant = true;
+		double sumSquaredDiff = 0.0;
+		for (int index = 0; index < length; index++) {
+			constant &= values[index] == values[0];
+			final double difference = values[index] - mean;
+			sumSquaredDiff += difference * difference;
+		}
+		return constant ? 0.0 : Math.sqrt(sumSquaredDiff / length);
+	}
+
+	/** Computes the z-score (number of standard deviations from the mean); zero if stdDev is zero. */
+	private static double computeZScore(
+			final double observed,
+			final double mean,
+			final double stdDev) {
+		return stdDev > 0.0 ? (observed - mean) / stdDev : 0.0;
+	}
+
+	/** Two-sided-p-value surprise {@code −log(2·(1−Φ(|z|)))} for a single z-score, floored so the {@code log} stays finite. */
+	private static double surprise(
+			final double zScore) {
+		final double cdf = StatisticsEventSummaryHelper.standardNormalCdf(Math.abs(zScore));
+		final double tailProbability = Math.max(2.0 * (1.0 - cdf), 1e-300);
+		return -Math.log(tailProbability);
+	}
+
+	/** Sum of squared z-scores ({@code Σ z²}), the chi-square statistic. */
+	private static double sumOfSquares(
+			final double[] zScores) {
+		double total = 0.0;
+		for (final double zScore : zScores) {
+			total += zScore * zScore;
+		}
+		return total;
+	}
+
+	/** Sum of per-z-score Fisher surprises ({@code Σ −log(2·(1−Φ(|z|)))}). */
+	private static double fisherCombinedSum(
+			final double[] zScores) {
+		double sum = 0.0;
+		for (final double zScore : zScores) {
+			sum += StatisticsEventSummaryDoubleHelper.surprise(zScore);
+		}
+		return sum;
+	}
+
+	/** Flat array of non-null per-value z-scores across every comparison, pulled from the given metric map. */
+	private static double[] flatZScores(
+			final List<StatisticsEventSummaryComparison> comparisons,
+			final Function<MetricComparisonStats, Map<String, BigDecimal>> mapExtractor) {
+		if (comparisons == null) {
+			return new double[0];
+		}
+		double[] zScores = new double[16];
+		int size = 0;
+		for (final StatisticsEventSummaryComparison comparison : comparisons) {
+			final MetricComparisonStats stats = (comparison == null ? null : comparison.getCountStats());
+			final Map<String, BigDecimal> map = (stats == null ? null : mapExtractor.apply(stats));
+			if (map != null) {
+				for (final BigDecimal zScore : map.values()) {
+					if (zScore != null) {
+						if (size == zScores.length) {
+							zScores = Arrays.copyOf(zScores, size * 2);
+						}
+						zScores[size++] = zScore.doubleValue();
+					}
+				}
+			}
+		}
+		return Arrays.copyOf(zScores, size);
+	}
+
+	// ---- Mid-level aggregation builders ----
+
+	/** Computes avg/stdDev for total, per-value, and per-ratio on a single MetricAggregation. */
+	private static void computeMetricStats(
+			final MetricAggregation metric) {
+		final int sampleCount = metric.totals.length;
+		metric.averageTotal = StatisticsEventSummaryDoubleHelper.computeAverage(metric.totals, sampleCount);
+		metric.stdDevTotal = StatisticsEventSummaryDoubleHelper.computeStdDev(metric.totals, sampleCount, metric.averageTotal);
+		final double[] ratios = new double[sampleCount];
+		for (int keyIndex = 0; keyIndex < metric.values.length; keyIndex++) {
+			final double[] values = metric.values[keyIndex];
+			for (int sampleIndex = 0; sampleIndex < sampleCount; sampleIndex++) {
+				ratios[sampleIndex] = metric.totals[sampleIndex] > 0.0 ? values[sampleIndex] / metric.totals[sampleIndex] : 0.0;
+			}
+			metric.averageValues[keyIndex] = StatisticsEventSummaryDoubleHelper.computeAverage(values, sampleCount);
+			metric.stdDevValues[keyIndex] = StatisticsEventSummaryDoubleHelper.computeStdDev(values, sampleCount, metric.averageValues[keyIndex]);
+			metric.averageRatios[keyIndex] = StatisticsEventSummaryDoubleHelper.computeAverage(ratios, sampleCount);
+			metric.stdDevRatios[keyIndex] = StatisticsEventSummaryDoubleHelper.computeStdDev(ratios, sampleCount, metric.averageRatios[keyIndex]);
+		}
+	}
+
+	/**
+	 * Indexes every value counted in any sample window, in first-seen order.
+	 *
+	 * @param  perWindowSummaries Per-window summary lists.
+	 * @return                    The index of each value.
+	 */
+	private static Map<String, Integer> indexKeys(
+			final List<List<StatisticsEventSummary>> perWindowSummaries) {
+		final Map<String, Integer> keyIndexes = new LinkedHashMap<>();
+		for (final List<StatisticsEventSummary> summaries : perWindowSummaries) {
+			if (summaries != null) {
+				for (final StatisticsEventSummary summary : summaries) {
+					for (final String key : summary.getValueCounts().keySet()) {
+						keyIndexes.putIfAbsent(key, keyIndexes.size());
+					}
+				}
+			}
+		}
+		return keyIndexes;
+	}
+
+	/**
+	 * Aggregates already-fetched per-window summaries into the count and weight metrics, one sample per
+	 * window (an empty window is a zero-valued sample).
+	 *
+	 * @param  perWindowSummaries Per-window summary lists.
+	 * @param  keyIndexes         Index of each counted value.
+	 * @param  counts             Count metric to fill.
+	 * @param  weights            Weight metric to fill.
+	 */
+	private static void aggregatePeriods(
+			final List<List<StatisticsEventSummary>> perWindowSummaries,
+			final Map<String, Integer> keyIndexes,
+			final MetricAggregation counts,
+			final MetricAggregation weights) {
+		final long[] valueCounts = new long[keyIndexes.size()];
+		for (int sampleIndex = 0; sampleIndex < perWindowSummaries.size(); sampleIndex++) {
+			final List<StatisticsEventSummary> summaries = perWindowSummaries.get(sampleIndex);
+			long total = 0L;
+			double totalWeight = 0.0;
+			Arrays.fill(valueCounts, 0L);
+			if (summaries != null) {
+				for (final StatisticsEventSummary summary : summaries) {
+					total += summary.getTotalCount();
+					totalWeight += summary.getTotalWeight().doubleValue();
+					for (final Map.Entry<String, Long> valueCount : summary.getValueCounts().entrySet()) {
+						valueCounts[keyIndexes.get(valueCount.getKey())] += valueCount.getValue();
+					}
+					for (final Map.Entry<String, BigDecimal> valueWeight : summary.getValueWeights().entrySet()) {
+						// Weights of values never counted are not compared (same as the BigDecimal path).
+						final Integer keyIndex = keyIndexes.get(valueWeight.getKey());
+						if (keyIndex != null) {
+							weights.values[keyIndex][sampleIndex] += valueWeight.getValue().doubleValue();
+						}
+					}
+				}
+			}
+			counts.totals[sampleIndex] = total;
+			weights.totals[sampleIndex] = totalWeight;
+			for (int keyIndex = 0; keyIndex < valueCounts.length; keyIndex++) {
+				counts.values[keyIndex][sampleIndex] = valueCounts[keyIndex];
+			}
+		}
+		StatisticsEventSummaryDoubleHelper.computeMetricStats(counts);
+		StatisticsEventSummaryDoubleHelper.computeMetricStats(weights);
+	}
+
+	/**
+	 * Populates a MetricComparisonStats from its aggregation and reference: copies avg/stdDev, computes
+	 * reference ratios and z-scores.
+	 *
+	 * @param stats           Stats to populate.
+	 * @param aggregation     Aggregated samples.
+	 * @param keyIndexes      Index of each counted value.
+	 * @param referenceTotal  Reference total ({@code NaN} without reference).
+	 * @param referenceValues Reference value per key index ({@code null} without reference).
+	 */
+	private static void populateMetricComparisonStats(
+			final MetricComparisonStats stats,
+			final MetricAggregation aggregation,
+			final Map<String, Integer> keyIndexes,
+			final double referenceTotal,
+			final double[] referenceValues) {
+		stats.setAverageTotal(StatisticsEventSummaryDoubleHelper.toDecimal(aggregation.averageTotal));
+		stats.setStdDevTotal(StatisticsEventSummaryDoubleHelper.toDecimal(aggregation.stdDevTotal));
+		final Map<String, BigDecimal> averageValues = new HashMap<>(keyIndexes.size() * 2);
+		final Map<String, BigDecimal> stdDevValues = new HashMap<>(keyIndexes.size() * 2);
+		final Map<String, BigDecimal> averageRatios = new HashMap<>(keyIndexes.size() * 2);
+		final Map<String, BigDecimal> stdDevRatios = new HashMap<>(keyIndexes.size() * 2);
+		final boolean hasReference = (referenceValues != null);
+		final boolean hasReferenceValues = hasReference && !stats.getReferenceValues().isEmpty();
+		final boolean hasReferenceRatios = hasReferenceValues && (referenceTotal > 0.0);
+		final Map<String, BigDecimal> zScoreValues = (hasReferenceValues ? new HashMap<>(keyIndexes.size() * 2) : null);
+		final Map<String, BigDecimal> zScoreRatios = (hasReferenceRatios ? new HashMap<>(keyIndexes.size() * 2) : null);
+		for (final Map.Entry<String, Integer> keyIndex : keyIndexes.entrySet()) {
+			final String key = keyIndex.getKey();
+			final int index = keyIndex.getValue();
+			averageValues.put(key, StatisticsEventSummaryDoubleHelper.toDecimal(aggregation.averageValues[index]));
+			stdDevValues.put(key, StatisticsEventSummaryDoubleHelper.toDecimal(aggregation.stdDevValues[index]));
+			averageRatios.put(key, StatisticsEventSummaryDoubleHelper.toDecimal(aggregation.averageRatios[index]));
+			stdDevRatios.put(key, StatisticsEventSummaryDoubleHelper.toDecimal(aggregation.stdDevRatios[index]));
+			if (hasReferenceValues) {
+				zScoreValues.put(key, StatisticsEventSummaryDoubleHelper.toDecimal(StatisticsEventSummaryDoubleHelper.computeZScore(referenceValues[index],
+						aggregation.averageValues[index], aggregation.stdDevValues[index])));
+			}
+			if (hasReferenceRatios) {
+				zScoreRatios.put(key, StatisticsEventSummaryDoubleHelper.toDecimal(StatisticsEventSummaryDoubleHelper
+						.computeZScore(referenceValues[index] / referenceTotal, aggregation.averageRatios[index], aggregation.stdDevRatios[index])));
+			}
+		}
+		stats.setAverageValues(averageValues);
+		stats.setStdDevValues(stdDevValues);
+		stats.setAverageRatios(averageRatios);
+		stats.setStdDevRatios(stdDevRatios);
+		if (hasReference) {
+			if (referenceTotal > 0.0) {
+				final Map<String, BigDecimal> referenceRatios = new HashMap<>();
+				stats.getReferenceValues().forEach((
+						key,
+						value) -> referenceRatios.put(key, StatisticsEventSummaryDoubleHelper.toDecimal(value.doubleValue() / referenceTotal)));
+				stats.setReferenceRatios(referenceRatios);
+			}
+			stats.setZScoreTotal(StatisticsEventSummaryDoubleHelper.toDecimal(
+					StatisticsEventSummaryDoubleHelper.computeZScore(referenceTotal, aggregation.averageTotal, aggregation.stdDevTotal)));
+			stats.setZScoreValues(zScoreValues);
+			stats.setZScoreRatios(zScoreRatios);
+		}
+	}
+
+	// ---- Public compute entry points ----
+
+	/**
+	 * {@code double} fast path of
+	 * {@link StatisticsEventSummaryHelper#computeComparison(List, List, String, String, LocalDateTime, ChronoUnit, Integer, ChronoUnit, Integer)}.
+	 *
+	 * @param  referenceSummaries Summaries of the reference window.
+	 * @param  perWindowSummaries Per-window summary lists for the historical samples (excluding the
+	 *                                reference window).
+	 * @param  context            Context.
+	 * @param  dimensionName      Dimension name.
+	 * @param  referenceDateTime  Start of the (already truncated) reference window.
+	 * @param  windowUnit         Window unit.
+	 * @param  windowSize         Window size.
+	 * @param  stepUnit           Step unit.
+	 * @param  steps              Number of historical samples.
+	 * @return                    The comparison.
+	 * @throws BusinessException  If no historical period had data.
+	 */
+	public static StatisticsEventSummaryComparison computeComparison(
+			final List<StatisticsEventSummary> referenceSummaries,
+			final List<List<StatisticsEventSummary>> perWindowSummaries,
+			final String context,
+			final String dimensionName,
+			final LocalDateTime referenceDateTime,
+			final ChronoUnit windowUnit,
+			final Integer windowSize,
+			final ChronoUnit stepUnit,
+			final Integer steps) throws BusinessException {
+		final Map<String, Integer> keyIndexes = StatisticsEventSummaryDoubleHelper.indexKeys(perWindowSummaries);
+		if (keyIndexes.isEmpty()) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.comparison.nodata"), HttpStatus.NOT_FOUND.value());
+		}
+		final MetricAggregation counts = new MetricAggregation(keyIndexes.size(), perWindowSummaries.size());
+		final MetricAggregation weights = new MetricAggregation(keyIndexes.size(), perWindowSummaries.size());
+		StatisticsEventSummaryDoubleHelper.aggregatePeriods(perWindowSummaries, keyIndexes, counts, weights);
+
+		final StatisticsEventSummaryComparison comparison = new StatisticsEventSummaryComparison();
+		comparison.setContext(context);
+		comparison.setDimensionName(dimensionName);
+		comparison.setReferenceDateTime(referenceDateTime);
+		comparison.setWindowUnit(windowUnit);
+		comparison.setWindowSize(windowSize);
+		comparison.setStepUnit(stepUnit);
+		comparison.setSteps(steps);
+		comparison.setSampleSize(perWindowSummaries.size());
+
+		final MetricComparisonStats countStats = comparison.getCountStats();
+		final MetricComparisonStats weightStats = comparison.getWeightStats();
+		double referenceTotalCount = Double.NaN;
+		double referenceTotalWeight = Double.NaN;
+		double[] referenceCounts = null;
+		double[] referenceWeights = null;
+		if ((referenceSummaries != null) && !referenceSummaries.isEmpty()) {
+			long totalCount = 0L;
+			double totalWeight = 0.0;
+			final Map<String, Long> referenceValueCounts = new HashMap<>();
+			final Map<String, Double> referenceValueWeights = new HashMap<>();
+			for (final StatisticsEventSummary summary : referenceSummaries) {
+				totalCount += summary.getTotalCount();
+				totalWeight += summary.getTotalWeight().doubleValue();
+				summary.getValueCounts().forEach((
+						key,
+						value) -> referenceValueCounts.merge(key, value, Long::sum));
+				summary.getValueWeights().forEach((
+						key,
+						value) -> referenceValueWeights.merge(key, value.doubleValue(), Double::sum));
+			}
+			referenceTotalCount = totalCount;
+			referenceTotalWeight = totalWeight;
+			referenceCounts = new double[keyIndexes.size()];
+			referenceWeights = new double[keyIndexes.size()];
+			final Map<String, BigDecimal> countValues = new HashMap<>(referenceValueCounts.size() * 2);
+			final Map<String, BigDecimal> weightValues = new HashMap<>(referenceValueWeights.size() * 2);
+			for (final Map.Entry<String, Long> valueCount : referenceValueCounts.entrySet()) {
+				countValues.put(valueCount.getKey(), BigDecimal.valueOf(valueCount.getValue()));
+				final Integer keyIndex = keyIndexes.get(valueCount.getKey());
+				if (keyIndex != null) {
+					referenceCounts[keyIndex] = valueCount.getValue();
+				}
+			}
+			for (final Map.Entry<String, Double> valueWeight : referenceValueWeights.entrySet()) {
+				weightValues.put(valueWeight.getKey(), StatisticsEventSummaryDoubleHelper.toDecimal(valueWeight.getValue()));
+				final Integer keyIndex = keyIndexes.get(valueWeight.getKey());
+				if (keyIndex != null) {
+					referenceWeights[keyIndex] = valueWeight.getValue();
+				}
+			}
+			countStats.setReferenceTotal(BigDecimal.valueOf(totalCount));
+			countStats.setReferenceValues(countValues);
+			weightStats.setReferenceTotal(StatisticsEventSummaryDoubleHelper.toDecimal(totalWeight));
+			weightStats.setReferenceValues(weightValues);
+		}
+
+		StatisticsEventSummaryDoubleHelper.populateMetricComparisonStats(countStats, counts, keyIndexes, referenceTotalCount, referenceCounts);
+		StatisticsEventSummaryDoubleHelper.populateMetricComparisonStats(weightStats, weights, keyIndexes, referenceTotalWeight, referenceWeights);
+
+		return comparison;
+	}
+
+	/**
+	 * {@code double} fast path of
+	 * {@link StatisticsEventSummaryHelper#singleDimensionProbability(StatisticsEventSummary, String, double)}.
+	 *
+	 * @param  summary         The period's aggregated summary.
+	 * @param  dimensionValue  The value to evaluate.
+	 * @param  smoothingFactor Additive (Laplace) smoothing factor.
+	 * @return                 The single-dimension probability.
+	 */
+	public static StatisticsEventSingleDimensionProbability singleDimensionProbability(
+			final StatisticsEventSummary summary,
+			final String dimensionValue,
+			final double smoothingFactor) {
+		final long total = summary.getTotalCount();
+		final long valueCount = StatisticsEventSummaryHelper.estimateValueCount(summary, dimensionValue);
+		final int distinctValueCount = StatisticsEventSummaryHelper.estimateDistinctValueCount(summary);
+		final StatisticsEventSingleDimensionProbability probability = new StatisticsEventSingleDimensionProbability();
+		probability.setContext(summary.getContext());
+		probability.setDimensionName(summary.getDimensionName());
+		probability.setDimensionValue(dimensionValue);
+		probability.setDistinctValueCount(distinctValueCount);
+		probability.setProbability(total > 0L ? StatisticsEventSummaryDoubleHelper.toDecimal((double) valueCount / (double) total) : BigDecimal.ZERO);
+		final double smoothedProbability = distinctValueCount > 0
+				? (valueCount + smoothingFactor) / (total + (smoothingFactor * distinctValueCount))
+				: 0.0;
+		probability.setSmoothedProbability(StatisticsEventSummaryDoubleHelper.toDecimal(smoothedProbability));
+		final BigDecimal[] wilsonBounds = StatisticsEventSummaryHelper.wilsonInterval(valueCount, total);
+		if (wilsonBounds != null) {
+			probability.setWilsonLowerBound(wilsonBounds[0]);
+			probability.setWilsonUpperBound(wilsonBounds[1]);
+		}
+		if (distinctValueCount > 0) {
+			final BigDecimal posteriorVariance = StatisticsEventSummaryHelper.betaPosteriorVariance(valueCount, total, distinctValueCount, smoothingFactor);
+			probability.setPosteriorVariance(posteriorVariance);
+			final double credibleMargin = StatisticsEventSummaryHelper.Z_95 * Math.sqrt(Math.max(0.0, posteriorVariance.doubleValue()));
+			probability.setCredibleLowerBound(StatisticsEventSummaryDoubleHelper.toDecimal(Math.max(0.0, smoothedProbability - credibleMargin)));
+			probability.setCredibleUpperBound(StatisticsEventSummaryDoubleHelper.toDecimal(Math.min(1.0, smoothedProbability + credibleMargin)));
+			probability.setSurprisal(StatisticsEventSummaryHelper.surprisal(smoothedProbability));
+			probability.setLogOdds(StatisticsEventSummaryHelper.logOdds(smoothedProbability));
+		}
+		return probability;
+	}
+
+	/**
+	 * {@code double} fast path of
+	 * {@link StatisticsEventSummaryHelper#singleDimensionProbability(StatisticsEventSummary, String)}.
+	 *
+	 * @param  summary        The period's aggregated summary.
+	 * @param  dimensionValue The value to evaluate.
+	 * @return                The single-dimension probability.
+	 */
+	public static StatisticsEventSingleDimensionProbability singleDimensionProbability(
+			final StatisticsEventSummary summary,
+			final String dimensionValue) {
+		return StatisticsEventSummaryDoubleHelper.singleDimensionProbability(summary, dimensionValue,
+				StatisticsEventSummaryHelper.DEFAULT_SMOOTHING_FACTOR);
+	}
+
+	/**
+	 * {@code double} fast path of {@link StatisticsEventSummaryHelper#naiveMultiDimensionProbability}.
+	 *
+	 * @param  summaries         Per-dimension merged summaries (non-empty; aligned with {@code dimensionValues}).
+	 * @param  dimensionValues   The value to evaluate for each dimension (aligned with {@code summaries}).
+	 * @return                   The naive multi-dimension probability.
+	 * @throws BusinessException If {@code summaries} is null/empty or not positionally aligned with
+	 *                               {@code dimensionValues}.
+	 */
+	public static StatisticsEventNaiveMultiDimensionProbability naiveMultiDimensionProbability(
+			final List<StatisticsEventSummary> summaries,
+			final List<String> dimensionValues) throws BusinessException {
+		if ((summaries == null) || summaries.isEmpty()) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.probability.nodimensions"), HttpStatus.BAD_REQUEST.value());
+		}
+		if ((dimensionValues == null) || (dimensionValues.size() != summaries.size())) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.probability.misaligned"), HttpStatus.BAD_REQUEST.value());
+		}
+		final List<StatisticsEventSingleDimensionProbability> individualProbabilities = new ArrayList<>(summaries.size());
+		double jointProbability = 1.0;
+		double jointSmoothedProbability = 1.0;
+		double jointSmoothedLogProbability = 0.0;
+		for (int index = 0; index < summaries.size(); index++) {
+			final StatisticsEventSingleDimensionProbability individual = StatisticsEventSummaryDoubleHelper.singleDimensionProbability(summaries.get(index),
+					dimensionValues.get(index), StatisticsEventSummaryHelper.DEFAULT_SMOOTHING_FACTOR);
+			individualProbabilities.add(individual);
+			final double smoothedProbability = individual.getSmoothedProbability().doubleValue();
+			jointProbability *= individual.getProbability().doubleValue();
+			jointSmoothedProbability *= smoothedProbability;
+			jointSmoothedLogProbability += Math.log(smoothedProbability);
+		}
+		final StatisticsEventNaiveMultiDimensionProbability result = new StatisticsEventNaiveMultiDimensionProbability();
+		result.setContext(individualProbabilities.get(0).getContext());
+		result.setJointProbability(StatisticsEventSummaryDoubleHelper.toDecimal(jointProbability));
+		result.setJointSmoothedProbability(StatisticsEventSummaryDoubleHelper.toDecimal(jointSmoothedProbability));
+		result.setJointSmoothedLogProbability(StatisticsEventSummaryDoubleHelper.toScaledDecimal(jointSmoothedLogProbability));
+		result.setIndividualProbabilities(individualProbabilities);
+		return result;
+	}
+
+	/**
+	 * {@code double} fast path of {@link StatisticsEventSummaryHelper#windowedValueProbability}.
+	 *
+	 * @param  windowSummaries Per-window aggregated summaries (e.g. the {@code findByPeriod} rows).
+	 * @param  dimensionValue  The value to evaluate.
+	 * @return                 The windowed probability estimates.
+	 */
+	public static StatisticsEventWindowedProbability windowedValueProbability(
+			final List<StatisticsEventSummary> windowSummaries,
+			final String dimensionValue) {
+		final StatisticsEventWindowedProbability windowed = new StatisticsEventWindowedProbability();
+		windowed.setDimensionValue(dimensionValue);
+		final double[] perWindowRatios = new double[windowSummaries == null ? 0 : windowSummaries.size()];
+		int windowCount = 0;
+		long pooledValueCount = 0L;
+		long pooledTotal = 0L;
+		if (windowSummaries != null) {
+			for (final StatisticsEventSummary windowSummary : windowSummaries) {
+				if (windowSummary != null) {
+					if (windowed.getContext() == null) {
+						windowed.setContext(windowSummary.getContext());
+						windowed.setDimensionName(windowSummary.getDimensionName());
+					}
+					final long windowTotal = windowSummary.getTotalCount();
+					if (windowTotal > 0L) {
+						final long windowValueCount = windowSummary.getValueCounts().getOrDefault(dimensionValue, 0L);
+						perWindowRatios[windowCount++] = (double) windowValueCount / (double) windowTotal;
+						pooledValueCount += windowValueCount;
+						pooledTotal += windowTotal;
+					}
+				}
+			}
+		}
+		windowed.setWindowCount(windowCount);
+		windowed.setPooledProbability(
+				pooledTotal > 0L ? StatisticsEventSummaryDoubleHelper.toDecimal((double) pooledValueCount / (double) pooledTotal) : BigDecimal.ZERO);
+		final double macroProbability = StatisticsEventSummaryDoubleHelper.computeAverage(perWindowRatios, windowCount);
+		windowed.setMacroProbability(StatisticsEventSummaryDoubleHelper.toDecimal(macroProbability));
+		windowed.setMacroProbabilityStdDev(
+				StatisticsEventSummaryDoubleHelper.toDecimal(StatisticsEventSummaryDoubleHelper.computeStdDev(perWindowRatios, windowCount, macroProbability)));
+		return windowed;
+	}
+
+	// ---- Flat z-score families ----
+
+	/** Flat per-value ratio (share) z-scores across every comparison. */
+	public static double[] ratioZScores(
+			final List<StatisticsEventSummaryComparison> comparisons) {
+		return StatisticsEventSummaryDoubleHelper.flatZScores(comparisons, MetricComparisonStats::getZScoreRatios);
+	}
+
+	/** Flat per-value raw-count z-scores across every comparison. */
+	public static double[] valueZScores(
+			final List<StatisticsEventSummaryComparison> comparisons) {
+		return StatisticsEventSummaryDoubleHelper.flatZScores(comparisons, MetricComparisonStats::getZScoreValues);
+	}
+
+	/** Flat per-dimension total-volume z-scores across every comparison (one per dimension). */
+	public static double[] totalZScores(
+			final List<StatisticsEventSummaryComparison> comparisons) {
+		return comparisons == null ? new double[0]
+				: comparisons.stream().filter(Objects::nonNull).map(StatisticsEventSummaryComparison::getCountStats).filter(Objects::nonNull)
+						.map(MetricComparisonStats::getZScoreTotal).filter(Objects::nonNull).mapToDouble(BigDecimal::doubleValue).toArray();
+	}
+
+	// ---- Z-score reductions over a flat family. Same semantics as the BigDecimal aggregators; null on empty. ----
+
+	/** Maximum {@code |z|}. */
+	public static BigDecimal maxAbs(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toDecimal(Arrays.stream(zScores).map(Math::abs).max().getAsDouble());
+	}
+
+	/** Minimum {@code |z|}. */
+	public static BigDecimal minAbs(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toDecimal(Arrays.stream(zScores).map(Math::abs).min().getAsDouble());
+	}
+
+	/** Mean {@code |z|}, at 6 decimal places. */
+	public static BigDecimal meanAbs(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toScaledDecimal(Arrays.stream(zScores).map(Math::abs).average().getAsDouble());
+	}
+
+	/** Count of z-scores whose {@code |z|} strictly exceeds {@code threshold}. */
+	public static BigDecimal countAbsAbove(
+			final double[] zScores,
+			final double threshold) {
+		return zScores.length == 0 ? null : BigDecimal.valueOf(Arrays.stream(zScores).filter(zScore -> Math.abs(zScore) > threshold).count());
+	}
+
+	/** Count of z-scores strictly above {@code +threshold}. */
+	public static BigDecimal countAbove(
+			final double[] zScores,
+			final double threshold) {
+		return zScores.length == 0 ? null : BigDecimal.valueOf(Arrays.stream(zScores).filter(zScore -> zScore > threshold).count());
+	}
+
+	/** Count of z-scores strictly below {@code −threshold}. */
+	public static BigDecimal countBelow(
+			final double[] zScores,
+			final double threshold) {
+		return zScores.length == 0 ? null : BigDecimal.valueOf(Arrays.stream(zScores).filter(zScore -> zScore < -threshold).count());
+	}
+
+	/** Raw {@code sqrt(Σ z²)}, at 6 decimal places. */
+	public static BigDecimal rootSumSquare(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toScaledDecimal(Math.sqrt(StatisticsEventSummaryDoubleHelper.sumOfSquares(zScores)));
+	}
+
+	/** Standardized chi-square {@code (Σ z² − k)/sqrt(2k)}, at 6 decimal places. */
+	public static BigDecimal standardizedChiSquare(
+			final double[] zScores) {
+		final int count = zScores.length;
+		return count == 0 ? null
+				: StatisticsEventSummaryDoubleHelper.toScaledDecimal((StatisticsEventSummaryDoubleHelper.sumOfSquares(zScores) - count) / Math.sqrt(2.0 * count));
+	}
+
+	/** Raw Fisher combined surprise {@code Σ −log(2·(1−Φ(|z|)))}, at 6 decimal places. */
+	public static BigDecimal fisherCombined(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toScaledDecimal(StatisticsEventSummaryDoubleHelper.fisherCombinedSum(zScores));
+	}
+
+	/** Standardized Fisher {@code (S − k)/sqrt(k)}, at 6 decimal places. */
+	public static BigDecimal standardizedFisher(
+			final double[] zScores) {
+		final int count = zScores.length;
+		return count == 0 ? null
+				: StatisticsEventSummaryDoubleHelper.toScaledDecimal((StatisticsEventSummaryDoubleHelper.fisherCombinedSum(zScores) - count) / Math.sqrt(count));
+	}
+
+	/** Maximum signed z-score. */
+	public static BigDecimal maxSigned(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toDecimal(Arrays.stream(zScores).max().getAsDouble());
+	}
+
+	/** Minimum signed z-score. */
+	public static BigDecimal minSigned(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toDecimal(Arrays.stream(zScores).min().getAsDouble());
+	}
+
+	/** Mean signed z-score, at 6 decimal places. */
+	public static BigDecimal meanSigned(
+			final double[] zScores) {
+		return zScores.length == 0 ? null : StatisticsEventSummaryDoubleHelper.toScaledDecimal(Arrays.stream(zScores).average().getAsDouble());
+	}
+
+	/** Mean of the strictly-positive z-scores only ({@code 0} when none are positive), at 6 decimal places. */
+	public static BigDecimal meanPositive(
+			final double[] zScores) {
+		if (zScores.length == 0) {
+			return null;
+		}
+		final OptionalDouble mean = Arrays.stream(zScores).filter(zScore -> zScore > 0.0).average();
+		return mean.isPresent() ? StatisticsEventSummaryDoubleHelper.toScaledDecimal(mean.getAsDouble()) : BigDecimal.ZERO;
+	}
+
+	/** Mean of the strictly-negative z-scores only ({@code 0} when none are negative), at 6 decimal places. */
+	public static BigDecimal meanNegative(
+			final double[] zScores) {
+		if (zScores.length == 0) {
+			return null;
+		}
+		final OptionalDouble mean = Arrays.stream(zScores).filter(zScore -> zScore < 0.0).average();
+		return mean.isPresent() ? StatisticsEventSummaryDoubleHelper.toScaledDecimal(mean.getAsDouble()) : BigDecimal.ZERO;
+	}
+}
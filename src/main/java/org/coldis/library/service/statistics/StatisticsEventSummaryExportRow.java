@@ -0,0 +1,29 @@
+package org.coldis.library.service.statistics;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.math.BigDecimal;
+
+/**
+ * One CSV row of a summary export: a dimension value of one summary bucket, with the bucket
+ * totals repeated on every row. The date time is written as ISO text, whatever the CSV mapper's
+ * date settings.
+ */
+@JsonPropertyOrder({
+  "context",
+  "dimensionName",
+  "dateTime",
+  "dimensionValue",
+  "count",
+  "weight",
+  "totalCount",
+  "totalWeight"
+})
+public record StatisticsEventSummaryExportRow(
+    String context,
+    String dimensionName,
+    String dateTime,
+    String dimensionValue,
+    Long count,
+    BigDecimal weight,
+    Long totalCount,
+    BigDecimal totalWeight) {}
@@ -0,0 +1,136 @@
+package org.coldis.library.service.statistics;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.coldis.library.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Statistics event summary export service. Streams summaries and comparisons straight to the
+ * response as CSV or NDJSON (see {@link StatisticsEventSummaryExportServiceComponent}). Enabled with
+ * {@code org.coldis.library.service.statistics.summary.export.enabled}.
+ */
+@RestController
+@RequestMapping(path = "statistics/summary")
+@ConditionalOnProperty(
+		name = { "org.coldis.configuration.service.statistics-enabled", "org.coldis.library.service.statistics.summary.export.enabled" },
+		matchIfMissing = false
+)
+public class StatisticsEventSummaryExportService {
+
+	/** CSV media type. */
+	private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+	/** Statistics event summary export service component. */
+	@Autowired
+	private StatisticsEventSummaryExportServiceComponent statisticsEventSummaryExportServiceComponent;
+
+	/** Statistics event summary service component. */
+	@Autowired
+	private StatisticsEventSummaryServiceComponent statisticsEventSummaryServiceComponent;
+
+	/**
+	 * Gets the media type of a format.
+	 *
+	 * @param  format Format ({@code csv} or {@code ndjson}).
+	 * @return        The media type.
+	 */
+	private static MediaType getMediaType(
+			final String format) {
+		return (StatisticsEventSummaryExportServiceComponent.FORMAT_CSV.equalsIgnoreCase(format) ? StatisticsEventSummaryExportService.TEXT_CSV
+				: MediaType.APPLICATION_NDJSON);
+	}
+
+	/**
+	 * Exports the summaries of a context in a period, of one dimension or of all of them.
+	 *
+	 * @param  context           Context.
+	 * @param  dimensionName     Dimension name (all dimensions if omitted).
+	 * @param  startDateTime     Start date time (inclusive).
+	 * @param  endDateTime       End date time (inclusive).
+	 * @param  format            Format ({@code csv} or {@code ndjson}).
+	 * @return                   The streamed summaries.
+	 * @throws BusinessException If the format is not supported.
+	 */
+	@RequestMapping(
+			method = RequestMethod.GET,
+			path = "{context}/export"
+	)
+	public ResponseEntity<StreamingResponseBody> exportSummaries(
+			@PathVariable
+			final String context,
+			@RequestParam(required = false)
+			final String dimensionName,
+			@RequestParam
+			@DateTimeFormat(iso = ISO.DATE_TIME)
+			final LocalDateTime startDateTime,
+			@RequestParam
+			@DateTimeFormat(iso = ISO.DATE_TIME)
+			final LocalDateTime endDateTime,
+			@RequestParam(defaultValue = StatisticsEventSummaryExportServiceComponent.FORMAT_CSV)
+			final String format) throws BusinessException {
+		this.statisticsEventSummaryExportServiceComponent.validateFormat(format);
+		return ResponseEntity.ok().contentType(StatisticsEventSummaryExportService.getMediaType(format))
+				.body(output -> this.statisticsEventSummaryExportServiceComponent.exportSummaries(context, dimensionName, startDateTime, endDateTime,
+						format, output));
+	}
+
+	/**
+	 * Exports the comparisons of dimensions of a context (see
+	 * {@link StatisticsEventSummaryServiceComponent#compareByPeriod(String, java.util.Collection, LocalDateTime, ChronoUnit, Integer, ChronoUnit, Integer)}).
+	 * The comparisons are computed before the response starts, so a comparison without data is
+	 * still reported as an error.
+	 *
+	 * @param  context           Context.
+	 * @param  dimensionNames    Dimension names.
+	 * @param  referenceDateTime Start of the reference window.
+	 * @param  windowUnit        Unit defining the window size.
+	 * @param  windowSize        Number of window units per window.
+	 * @param  stepUnit          Unit defining how far back each sample is.
+	 * @param  steps             Number of past periods to sample.
+	 * @param  format            Format ({@code csv} or {@code ndjson}).
+	 * @return                   The streamed comparisons.
+	 * @throws BusinessException If the format is not supported or there is no data to compare.
+	 */
+	@RequestMapping(
+			method = RequestMethod.GET,
+			path = "{context}/comparison/export"
+	)
+	public ResponseEntity<StreamingResponseBody> exportComparisons(
+			@PathVariable
+			final String context,
+			@RequestParam
+			final List<String> dimensionNames,
+			@RequestParam
+			@DateTimeFormat(iso = ISO.DATE_TIME)
+			final LocalDateTime referenceDateTime,
+			@RequestParam
+			final ChronoUnit windowUnit,
+			@RequestParam
+			final Integer windowSize,
+			@RequestParam
+			final ChronoUnit stepUnit,
+			@RequestParam
+			final Integer steps,
+			@RequestParam(defaultValue = StatisticsEventSummaryExportServiceComponent.FORMAT_CSV)
+			final String format) throws BusinessException {
+		this.statisticsEventSummaryExportServiceComponent.validateFormat(format);
+		final List<StatisticsEventSummaryComparison> comparisons = this.statisticsEventSummaryServiceComponent.compareByPeriod(context, dimensionNames,
+				referenceDateTime, windowUnit, windowSize, stepUnit, steps);
+		return ResponseEntity.ok().contentType(StatisticsEventSummaryExportService.getMediaType(format))
+				.body(output -> this.statisticsEventSummaryExportServiceComponent.exportComparisons(comparisons, format, output));
+	}
+}
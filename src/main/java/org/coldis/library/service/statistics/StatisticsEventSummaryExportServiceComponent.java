@@ -0,0 +1,254 @@
+package org.coldis.library.service.statistics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.model.SimpleMessage;
+import org.coldis.library.model.view.ModelView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Statistics event summary export service component. Writes summaries and comparisons to an output
+ * stream as CSV (one row per dimension value, with a header) or NDJSON (one JSON object per line).
+ * Summaries are read through a server-side cursor
+ * ({@link StatisticsEventSummaryRepositoryCustom#streamByPeriod}) and each one is detached once
+ * written, so memory stays constant whatever the size of the period.
+ */
+@Component
+@Qualifier(StatisticsEventSummaryExportServiceComponent.QUALIFIER)
+@ConditionalOnProperty(
+		name = "org.coldis.configuration.service.statistics-enabled",
+		matchIfMissing = false
+)
+public class StatisticsEventSummaryExportServiceComponent {
+
+	/**
+	 * Bean qualifier. Pin this library bean with {@code @Qualifier(StatisticsEventSummaryExportServiceComponent.QUALIFIER)}
+	 * when an extended subclass makes injection by type ambiguous.
+	 */
+	public static final String QUALIFIER = "statisticsEventSummaryExportServiceComponent";
+
+	/** CSV format. */
+	public static final String FORMAT_CSV = "csv";
+
+	/** NDJSON format. */
+	public static final String FORMAT_NDJSON = "ndjson";
+
+	/** Statistics event summary repository. */
+	@Autowired
+	private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
+
+	/** Entity manager (streamed summaries are detached once written). */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/** JSON mapper. */
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/** CSV mapper (absent when the CSV data format is not on the class path). */
+	@Autowired(required = false)
+	@Qualifier(value = "csvMapper")
+	private CsvMapper csvMapper;
+
+	/** Summary rows fetched per cursor round-trip. */
+	@Value("${org.coldis.library.service.statistics.summary.export.fetch-size:1000}")
+	private int fetchSize;
+
+	/**
+	 * Validates an export format.
+	 *
+	 * @param  format            Format ({@code csv} or {@code ndjson}).
+	 * @throws BusinessException If the format is not supported.
+	 */
+	public void validateFormat(
+			final String format) throws BusinessException {
+		if (!StatisticsEventSummaryExportServiceComponent.FORMAT_NDJSON.equalsIgnoreCase(format)
+				&& !(StatisticsEventSummaryExportServiceComponent.FORMAT_CSV.equalsIgnoreCase(format) && (this.csvMapper != null))) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.export.format.invalid"), HttpStatus.BAD_REQUEST.value());
+		}
+	}
+
+	/**
+	 * Creates the sequence writer of a format. The output stream is left open.
+	 *
+	 * @param  format      Format ({@code csv} or {@code ndjson}).
+	 * @param  csvRowType  CSV row type.
+	 * @param  output      Output stream.
+	 * @return             The sequence writer.
+	 * @throws IOException If the writer cannot be created.
+	 */
+	private SequenceWriter createWriter(
+			final String format,
+			final Class<?> csvRowType,
+			final OutputStream output) throws IOException {
+		final ObjectWriter writer = (StatisticsEventSummaryExportServiceComponent.FORMAT_CSV.equalsIgnoreCase(format)
+				? this.csvMapper.writer(this.csvMapper.schemaFor(csvRowType).withHeader())
+				: this.objectMapper.writerWithView(ModelView.Public.class).withRootValueSeparator("\n"));
+		return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(output);
+	}
+
+	/**
+	 * Writes a summary: one row per dimension value in CSV, the summary itself in NDJSON.
+	 *
+	 * @param  writer      Writer.
+	 * @param  csv         If the format is CSV.
+	 * @param  summary     Summary.
+	 * @throws IOException If the summary cannot be written.
+	 */
+	private static void writeSummary(
+			final SequenceWriter writer,
+			final boolean csv,
+			final StatisticsEventSummary summary) throws IOException {
+		if (csv) {
+			final Set<String> dimensionValues = new LinkedHashSet<>(summary.getValueCounts().keySet());
+			dimensionValues.addAll(summary.getValueWeights().keySet());
+			for (final String dimensionValue : dimensionValues) {
+				writer.write(new StatisticsEventSummaryExportRow(summary.getContext(), summary.getDimensionName(), summary.getDateTime().toString(),
+						dimensionValue, summary.getValueCounts().get(dimensionValue), summary.getValueWeights().get(dimensionValue), summary.getTotalCount(),
+						summary.getTotalWeight()));
+			}
+		}
+		else {
+			writer.write(summary);
+		}
+	}
+
+	/**
+	 * Exports the summaries of a context in a period, of one dimension or of all of them, ordered by
+	 * dimension name and date time. Runs in a read-only transaction that holds the cursor until the
+	 * last row is written.
+	 *
+	 * @param  context       Context.
+	 * @param  dimensionName Dimension name, or {@code null} for every dimension of the context.
+	 * @param  startDateTime Start date time (inclusive).
+	 * @param  endDateTime   End date time (inclusive).
+	 * @param  format        Format ({@code csv} or {@code ndjson}), already
+	 *                           {@link #validateFormat validated}.
+	 * @param  output        Output stream (left open).
+	 * @return               The number of summaries written.
+	 * @throws IOException   If the output cannot be written.
+	 */
+	@Transactional(
+			propagation = Propagation.REQUIRED,
+			readOnly = true
+	)
+	public long exportSummaries(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime,
+			final String format,
+			final OutputStream output) throws IOException {
+		final boolean csv = StatisticsEventSummaryExportServiceComponent.FORMAT_CSV.equalsIgnoreCase(format);
+		long written = 0;
+		try (final SequenceWriter writer = this.createWriter(format, StatisticsEventSummaryExportRow.class, output);
+				final Stream<StatisticsEventSummary> summaries = this.statisticsEventSummaryRepository.streamByPeriod(context, dimensionName,
+						startDateTime, endDateTime, Math.max(1, this.fetchSize))) {
+			for (final StatisticsEventSummary summary : (Iterable<StatisticsEventSummary>) summaries::iterator) {
+				StatisticsEventSummaryExportServiceComponent.writeSummary(writer, csv, summary);
+				this.entityManager.detach(summary);
+				written++;
+			}
+		}
+		// Ends the last NDJSON line (values are only separated by new lines).
+		if (!csv && (written > 0)) {
+			output.write('\n');
+		}
+		return written;
+	}
+
+	/**
+	 * Gets a value of a map, if the map exists.
+	 *
+	 * @param  values         Values.
+	 * @param  dimensionValue Dimension value.
+	 * @return                The value, or {@code null}.
+	 */
+	private static BigDecimal getValue(
+			final Map<String, BigDecimal> values,
+			final String dimensionValue) {
+		return (values == null ? null : values.get(dimensionValue));
+	}
+
+	/**
+	 * Exports comparisons: in CSV, one row with the totals of each comparison followed by one row per
+	 * dimension value; in NDJSON, one comparison per line.
+	 *
+	 * @param  comparisons Comparisons.
+	 * @param  format      Format ({@code csv} or {@code ndjson}), already {@link #validateFormat
+	 *                         validated}.
+	 * @param  output      Output stream (left open).
+	 * @return             The number of comparisons written.
+	 * @throws IOException If the output cannot be written.
+	 */
+	public long exportComparisons(
+			final List<StatisticsEventSummaryComparison> comparisons,
+			final String format,
+			final OutputStream output) throws IOException {
+		final boolean csv = StatisticsEventSummaryExportServiceComponent.FORMAT_CSV.equalsIgnoreCase(format);
+		try (final SequenceWriter writer = this.createWriter(format, StatisticsEventSummaryComparisonExportRow.class, output)) {
+			for (final StatisticsEventSummaryComparison comparison : comparisons) {
+				if (csv) {
+					final MetricComparisonStats counts = (comparison.getCountStats() == null ? new MetricComparisonStats() : comparison.getCountStats());
+					final MetricComparisonStats weights = (comparison.getWeightStats() == null ? new MetricComparisonStats()
+							: comparison.getWeightStats());
+					final String referenceDateTime = (comparison.getReferenceDateTime() == null ? null : comparison.getReferenceDateTime().toString());
+					writer.write(new StatisticsEventSummaryComparisonExportRow(comparison.getContext(), comparison.getDimensionName(), referenceDateTime,
+							comparison.getSampleSize(), null, counts.getReferenceTotal(), counts.getAverageTotal(), counts.getStdDevTotal(),
+							counts.getZScoreTotal(), null, null, null, weights.getReferenceTotal(), weights.getAverageTotal(), weights.getStdDevTotal(),
+							weights.getZScoreTotal()));
+					final Set<String> dimensionValues = new LinkedHashSet<>(counts.getReferenceValues().keySet());
+					dimensionValues.addAll(counts.getAverageValues().keySet());
+					for (final String dimensionValue : dimensionValues) {
+						writer.write(new StatisticsEventSummaryComparisonExportRow(comparison.getContext(), comparison.getDimensionName(),
+								referenceDateTime, comparison.getSampleSize(), dimensionValue,
+								StatisticsEventSummaryExportServiceComponent.getValue(counts.getReferenceValues(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(counts.getAverageValues(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(counts.getStdDevValues(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(counts.getZScoreValues(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(counts.getReferenceRatios(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(counts.getAverageRatios(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(counts.getZScoreRatios(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(weights.getReferenceValues(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(weights.getAverageValues(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(weights.getStdDevValues(), dimensionValue),
+								StatisticsEventSummaryExportServiceComponent.getValue(weights.getZScoreValues(), dimensionValue)));
+					}
+				}
+				else {
+					writer.write(comparison);
+				}
+			}
+		}
+		// Ends the last NDJSON line (values are only separated by new lines).
+		if (!csv && !comparisons.isEmpty()) {
+			output.write('\n');
+		}
+		return comparisons.size();
+	}
+}
@@ -7,6 +7,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +32,10 @@ import org.springframework.http.HttpStatus;
  * points an extended bean can override to add caching. Callers that already hold (and cache, e.g.
  * with longer or two-layer caches) the underlying summaries can compute against them directly.
  *
+ * <p>Comparison, probability and z-score reductions run in {@code BigDecimal} here;
+ * {@link StatisticsEventSummaryDoubleHelper} is the opt-in {@code double} fast path over the same
+ * inputs and result types, and shares the package-private {@code double} primitives below.
+ *
  * <p>Methods are ordered callees-before-callers: low-level primitives first, then the mid-level
  * builders, then the public entry points that compose them.
  */
@@ -46,7 +51,7 @@ public final class StatisticsEventSummaryHelper {
 	public static final double DEFAULT_SMOOTHING_FACTOR = 1.0;
 
 	/** Standard-normal critical value for a two-sided 95% interval (Wilson / credible bounds). */
-	private static final double Z_95 = 1.959963984540054;
+	static final double Z_95 = 1.959963984540054;
 
 	/** Clamp applied to a probability before taking its logit, so {@code ln(p/(1−p))} stays finite. */
 	private static final double LOGIT_EPSILON = 1.0e-12;
@@ -54,10 +59,13 @@ public final class StatisticsEventSummaryHelper {
 	/** Maximum total window span (6 months). */
 	private static final Duration MAX_TOTAL_WINDOW = Duration.ofDays(183);
 
+	/** Origin of the roll-up tier grid: a Monday midnight, so weekly tiers start on Mondays. */
+	private static final LocalDateTime TIER_EPOCH = LocalDateTime.of(1970, 1, 5, 0, 0);
+
 	// ---- Intermediate aggregation holders ----
 
 	/** Aggregated statistics for one metric across historical periods. */
-	private static class MetricAggregation {
+	static class MetricAggregation {
 		final List<BigDecimal> totals = new ArrayList<>();
 		final List<Map<String, BigDecimal>> allValues = new ArrayList<>();
 		BigDecimal averageTotal;
@@ -69,7 +77,7 @@ public final class StatisticsEventSummaryHelper {
 	}
 
 	/** Internal holder for aggregated period data used by comparison and probability. */
-	private static class PeriodAggregation {
+	static class PeriodAggregation {
 		final MetricAggregation counts = new MetricAggregation();
 		final MetricAggregation weights = new MetricAggregation();
 		final Set<String> allKeys = new HashSet<>();
@@ -162,7 +170,7 @@ public final class StatisticsEventSummaryHelper {
 	 * {@code double}: the CDF is transcendental with no exact {@code BigDecimal} form, and its
 	 * approximation error dwarfs any float rounding.
 	 */
-	private static double standardNormalCdf(
+	static double standardNormalCdf(
 			final double value) {
 		final double a1 = 0.254829592;
 		final double a2 = -0.284496736;
@@ -454,6 +462,227 @@ public final class StatisticsEventSummaryHelper {
 		return buckets;
 	}
 
+	/**
+	 * One piece of a planned period: the rows of one roll-up tier ({@code tierMinutes > 0}) or of the
+	 * summary buckets themselves ({@code tierMinutes == 0}) with {@code date_time} in the inclusive
+	 * {@code [start, end]}.
+	 */
+	public record PeriodSegment(
+			long tierMinutes,
+			LocalDateTime start,
+			LocalDateTime end) {
+	}
+
+	/**
+	 * Truncates a date time to the start of its roll-up tier bucket. Tiers are laid on a grid anchored
+	 * on a Monday midnight, so hourly and daily tiers start on the hour and at midnight and weekly tiers
+	 * on Mondays.
+	 *
+	 * @param  dateTime    Date time.
+	 * @param  tierMinutes Tier size in minutes.
+	 * @return             The start of the tier bucket.
+	 */
+	public static LocalDateTime truncateToTier(
+			final LocalDateTime dateTime,
+			final long tierMinutes) {
+		final long minutes = ChronoUnit.MINUTES.between(StatisticsEventSummaryHelper.TIER_EPOCH, dateTime);
+		return StatisticsEventSummaryHelper.TIER_EPOCH.plusMinutes(Math.floorDiv(minutes, tierMinutes) * tierMinutes);
+	}
+
+	/**
+	 * Greedily covers the half-open {@code [from, to)} with the coarsest tier buckets that fit, then
+	 * the remaining edges with finer tiers and finally with summary buckets.
+	 */
+	private static void planPeriod(
+			final LocalDateTime from,
+			final LocalDateTime to,
+			final long truncationMinutes,
+			final List<Long> tiers,
+			final int tierIndex,
+			final List<PeriodSegment> segments) {
+		if (!from.isBefore(to)) {
+			return;
+		}
+		for (int index = tierIndex; index < tiers.size(); index++) {
+			final long tier = tiers.get(index);
+			final LocalDateTime floorFrom = StatisticsEventSummaryHelper.truncateToTier(from, tier);
+			final LocalDateTime first = (floorFrom.equals(from) ? from : floorFrom.plusMinutes(tier));
+			final LocalDateTime last = StatisticsEventSummaryHelper.truncateToTier(to, tier);
+			if (first.isBefore(last)) {
+				StatisticsEventSummaryHelper.planPeriod(from, first, truncationMinutes, tiers, index + 1, segments);
+				segments.add(new PeriodSegment(tier, first, last.minusMinutes(tier)));
+				StatisticsEventSummaryHelper.planPeriod(last, to, truncationMinutes, tiers, index + 1, segments);
+				return;
+			}
+		}
+		segments.add(new PeriodSegment(0L, from, StatisticsEvent.truncateDateTime(to.minusMinutes(1), truncationMinutes)));
+	}
+
+	/**
+	 * Plans the fewest rows covering a period: the coarsest roll-up tier buckets that fit entirely in
+	 * it, finer tiers for what is left at the edges and summary buckets for the rest. Tiers must be
+	 * multiples of an hour, each a multiple of the next finer one, so every tier bucket is made of whole
+	 * summary buckets (summary buckets never cross the hour). Tiers not coarser than the summary buckets
+	 * are skipped. Segments are returned in time order.
+	 *
+	 * @param  start             First summary bucket of the period (already truncated).
+	 * @param  end               Last summary bucket of the period, inclusive (already truncated).
+	 * @param  truncationMinutes Summary bucket size in minutes (positive).
+	 * @param  tierMinutes       Roll-up tier sizes in minutes, in any order.
+	 * @return                   The segments covering the period.
+	 */
+	public static List<PeriodSegment> planPeriod(
+			final LocalDateTime start,
+			final LocalDateTime end,
+			final long truncationMinutes,
+			final Collection<Long> tierMinutes) {
+		// Summary buckets never span more than an hour (truncation is within the hour).
+		final long bucketMinutes = Math.min(truncationMinutes, 60L);
+		final List<Long> tiers = tierMinutes.stream().filter(tier -> tier > bucketMinutes).sorted(Comparator.reverseOrder()).toList();
+		final LocalDateTime to = StatisticsEvent.truncateDateTime(end.plusMinutes(bucketMinutes), truncationMinutes);
+		final List<PeriodSegment> segments = new ArrayList<>();
+		StatisticsEventSummaryHelper.planPeriod(start, to, truncationMinutes, tiers, 0, segments);
+		return segments;
+	}
+
+	// ---- Bounded summaries: value sketches and the evicted-values tail ----
+
+	/**
+	 * Adds a delta to the value sketch of a summary (creating it when absent) and maps the delta onto
+	 * a bounded summary: a decrement of a value that is no longer kept is taken from
+	 * {@link StatisticsEventSummary#OTHER_VALUE}. A value that comes back after being evicted starts
+	 * over from its new occurrences (the evicted ones stay in the tail). Apply the returned delta as
+	 * usual, then {@link #boundValues} the summary.
+	 *
+	 * @param  summary   Summary (locked for update).
+	 * @param  delta     The delta to apply.
+	 * @param  precision Sketch HyperLogLog precision.
+	 * @param  depth     Sketch Count-Min depth.
+	 * @param  width     Sketch Count-Min width.
+	 * @return           The delta to apply to the value maps.
+	 */
+	public static StatisticsEventSummaryDelta sketchDelta(
+			final StatisticsEventSummary summary,
+			final StatisticsEventSummaryDelta delta,
+			final int precision,
+			final int depth,
+			final int width) {
+		// Changes a copy, so the entity sees a new value and the column is written (a sketch with other
+		// parameters is started over).
+		final StatisticsEventSummarySketch sketch = new StatisticsEventSummarySketch(precision, depth, width);
+		if (sketch.isMergeableWith(summary.getValueSketch())) {
+			sketch.merge(summary.getValueSketch());
+		}
+		final Map<String, Long> counts = summary.getValueCounts();
+		final boolean bounded = counts.getOrDefault(StatisticsEventSummary.OTHER_VALUE, 0L) > 0L;
+		final StatisticsEventSummaryDelta mappedDelta = new StatisticsEventSummaryDelta(delta.getContext(), delta.getDimensionName(), delta.getDateTime());
+		delta.getCountDeltas().forEach((
+				value,
+				countDelta) -> {
+			sketch.add(value, countDelta);
+			final boolean evicted = bounded && (countDelta < 0L) && !counts.containsKey(value);
+			mappedDelta.getCountDeltas().merge((evicted ? StatisticsEventSummary.OTHER_VALUE : value), countDelta, Long::sum);
+		});
+		final Map<String, BigDecimal> weights = summary.getValueWeights();
+		delta.getWeightDeltas().forEach((
+				value,
+				weightDelta) -> {
+			final boolean evicted = bounded && (weightDelta.signum() < 0) && !weights.containsKey(value);
+			mappedDelta.getWeightDeltas().merge((evicted ? StatisticsEventSummary.OTHER_VALUE : value), weightDelta, BigDecimal::add);
+		});
+		summary.setValueSketch(sketch);
+		return mappedDelta;
+	}
+
+	/**
+	 * Bounds the value maps of a summary: when there are more than {@code maxValues} values, the
+	 * lowest counts are evicted into {@link StatisticsEventSummary#OTHER_VALUE}, with their weights,
+	 * so totals are kept and the summary holds at most {@code maxValues} values.
+	 *
+	 * @param  summary   Summary.
+	 * @param  maxValues Maximum number of values, including the tail ({@code 0} does not bound).
+	 * @return           The number of values evicted.
+	 */
+	public static int boundValues(
+			final StatisticsEventSummary summary,
+			final int maxValues) {
+		final Map<String, Long> counts = summary.getValueCounts();
+		if ((maxValues < 2) || (counts.size() <= maxValues)) {
+			return 0;
+		}
+		final Map<String, BigDecimal> weights = summary.getValueWeights();
+		final List<Map.Entry<String, Long>> evicted = counts.entrySet().stream().filter(entry -> !StatisticsEventSummary.OTHER_VALUE.equals(entry.getKey()))
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey())).skip(maxValues - 1L)
+				.map(entry -> Map.entry(entry.getKey(), entry.getValue())).toList();
+		for (final Map.Entry<String, Long> entry : evicted) {
+			counts.remove(entry.getKey());
+			counts.merge(StatisticsEventSummary.OTHER_VALUE, entry.getValue(), Long::sum);
+			final BigDecimal weight = weights.remove(entry.getKey());
+			if (weight != null) {
+				weights.merge(StatisticsEventSummary.OTHER_VALUE, weight, BigDecimal::add);
+			}
+		}
+		return evicted.size();
+	}
+
+	/**
+	 * Gets the count of a value in a summary: the exact count when the value is kept, otherwise, for
+	 * a bounded summary, the sketch estimate (at most the count of the evicted values).
+	 *
+	 * @param  summary        Summary.
+	 * @param  dimensionValue Dimension value.
+	 * @return                The (estimated) count.
+	 */
+	public static long estimateValueCount(
+			final StatisticsEventSummary summary,
+			final String dimensionValue) {
+		final Map<String, Long> valueCounts = summary.getValueCounts();
+		final Long valueCount = valueCounts.get(dimensionValue);
+		if (valueCount != null) {
+			return valueCount;
+		}
+		final long otherCount = valueCounts.getOrDefault(StatisticsEventSummary.OTHER_VALUE, 0L);
+		return ((otherCount > 0L) && (summary.getValueSketch() != null) ? Math.min(summary.getValueSketch().estimateCount(dimensionValue), otherCount)
+				: 0L);
+	}
+
+	/**
+	 * Gets the number of distinct values of a summary: the size of the value counts, or, for a bounded
+	 * summary, the sketch estimate (at least the values kept plus one evicted value).
+	 *
+	 * @param  summary Summary.
+	 * @return         The (estimated) number of distinct values.
+	 */
+	public static int estimateDistinctValueCount(
+			final StatisticsEventSummary summary) {
+		final Map<String, Long> valueCounts = summary.getValueCounts();
+		final int distinctValueCount = valueCounts.size();
+		if ((summary.getValueSketch() != null) && (valueCounts.getOrDefault(StatisticsEventSummary.OTHER_VALUE, 0L) > 0L)) {
+			return (int) Math.min(Integer.MAX_VALUE, Math.max(distinctValueCount, summary.getValueSketch().estimateDistinctValueCount()));
+		}
+		return distinctValueCount;
+	}
+
+	/**
+	 * Merges the value sketches of summaries (e.g. the buckets of a period).
+	 *
+	 * @param  summaries Summaries.
+	 * @return           The merged sketch, or {@code null} if a summary has no sketch or sketches
+	 *                       cannot be merged (estimates would then miss values).
+	 */
+	public static StatisticsEventSummarySketch mergeSketches(
+			final Collection<StatisticsEventSummary> summaries) {
+		StatisticsEventSummarySketch merged = null;
+		for (final StatisticsEventSummary summary : summaries) {
+			final StatisticsEventSummarySketch sketch = summary.getValueSketch();
+			if ((sketch == null) || ((merged != null) && !merged.isMergeableWith(sketch))) {
+				return null;
+			}
+			merged = (merged == null ? sketch.copy() : merged.merge(sketch));
+		}
+		return merged;
+	}
+
 	// ---- Public validation ----
 
 	/**
@@ -510,7 +739,59 @@ public final class StatisticsEventSummaryHelper {
 		if (aggregation == null) {
 			throw new BusinessException(new SimpleMessage("statistics.event.summary.comparison.nodata"), HttpStatus.NOT_FOUND.value());
 		}
+		BigDecimal referenceTotalCount = null;
+		BigDecimal referenceTotalWeight = null;
+		final Map<String, BigDecimal> referenceValueCounts = new HashMap<>();
+		final Map<String, BigDecimal> referenceValueWeights = new HashMap<>();
+		if ((referenceSummaries != null) && !referenceSummaries.isEmpty()) {
+			referenceTotalCount = BigDecimal.ZERO;
+			referenceTotalWeight = BigDecimal.ZERO;
+			for (final StatisticsEventSummary summary : referenceSummaries) {
+				referenceTotalCount = referenceTotalCount.add(BigDecimal.valueOf(summary.getTotalCount()));
+				referenceTotalWeight = referenceTotalWeight.add(summary.getTotalWeight());
+				summary.getValueCounts().forEach((
+						key,
+						value) -> referenceValueCounts.merge(key, BigDecimal.valueOf(value), BigDecimal::add));
+				summary.getValueWeights().forEach((
+						key,
+						value) -> referenceValueWeights.merge(key, value, BigDecimal::add));
+			}
+		}
+		return StatisticsEventSummaryHelper.buildComparison(aggregation, referenceTotalCount, referenceValueCounts, referenceTotalWeight,
+				referenceValueWeights, context, dimensionName, referenceDateTime, windowUnit, windowSize, stepUnit, steps);
+	}
 
+	/**
+	 * Assembles a drift comparison from the aggregated sample windows (with their averages and
+	 * standard deviations computed) and the merged reference window.
+	 *
+	 * @param  aggregation           Aggregated sample windows.
+	 * @param  referenceTotalCount   Reference total count ({@code null} if the reference window has no rows).
+	 * @param  referenceValueCounts  Reference value counts.
+	 * @param  referenceTotalWeight  Reference total weight ({@code null} if the reference window has no rows).
+	 * @param  referenceValueWeights Reference value weights.
+	 * @param  context               Context.
+	 * @param  dimensionName         Dimension name.
+	 * @param  referenceDateTime     Start of the (already truncated) reference window.
+	 * @param  windowUnit            Window unit.
+	 * @param  windowSize            Window size.
+	 * @param  stepUnit              Step unit.
+	 * @param  steps                 Number of historical samples.
+	 * @return                       The comparison.
+	 */
+	static StatisticsEventSummaryComparison buildComparison(
+			final PeriodAggregation aggregation,
+			final BigDecimal referenceTotalCount,
+			final Map<String, BigDecimal> referenceValueCounts,
+			final BigDecimal referenceTotalWeight,
+			final Map<String, BigDecimal> referenceValueWeights,
+			final String context,
+			final String dimensionName,
+			final LocalDateTime referenceDateTime,
+			final ChronoUnit windowUnit,
+			final Integer windowSize,
+			final ChronoUnit stepUnit,
+			final Integer steps) {
 		final StatisticsEventSummaryComparison comparison = new StatisticsEventSummaryComparison();
 		comparison.setContext(context);
 		comparison.setDimensionName(dimensionName);
@@ -523,21 +804,7 @@ public final class StatisticsEventSummaryHelper {
 
 		final MetricComparisonStats countStats = comparison.getCountStats();
 		final MetricComparisonStats weightStats = comparison.getWeightStats();
-		if ((referenceSummaries != null) && !referenceSummaries.isEmpty()) {
-			BigDecimal referenceTotalCount = BigDecimal.ZERO;
-			BigDecimal referenceTotalWeight = BigDecimal.ZERO;
-			final Map<String, BigDecimal> referenceValueCounts = new HashMap<>();
-			final Map<String, BigDecimal> referenceValueWeights = new HashMap<>();
-			for (final StatisticsEventSummary summary : referenceSummaries) {
-				referenceTotalCount = referenceTotalCount.add(BigDecimal.valueOf(summary.getTotalCount()));
-				referenceTotalWeight = referenceTotalWeight.add(summary.getTotalWeight());
-				summary.getValueCounts().forEach((
-						key,
-						value) -> referenceValueCounts.merge(key, BigDecimal.valueOf(value), BigDecimal::add));
-				summary.getValueWeights().forEach((
-						key,
-						value) -> referenceValueWeights.merge(key, value, BigDecimal::add));
-			}
+		if (referenceTotalCount != null) {
 			countStats.setReferenceTotal(referenceTotalCount);
 			countStats.setReferenceValues(referenceValueCounts);
 			weightStats.setReferenceTotal(referenceTotalWeight);
@@ -556,7 +823,7 @@ public final class StatisticsEventSummaryHelper {
 	 * {@code 1/2} (n=2) reports a far wider band than {@code 500/1000}. Returns {@code null} when there
 	 * is no sample ({@code total == 0}). Computed in {@code double} (transcendental {@code sqrt}).
 	 */
-	private static BigDecimal[] wilsonInterval(
+	static BigDecimal[] wilsonInterval(
 			final long valueCount,
 			final long total) {
 		if (total <= 0L) {
@@ -577,7 +844,7 @@ public final class StatisticsEventSummaryHelper {
 	 * with {@code α' = valueCount + α} and {@code β' = (total − valueCount) + α·(V − 1)} under a symmetric
 	 * Dirichlet({@code α}) prior over {@code V = distinctValueCount} categories. {@code var = α'β' / ((α'+β')²(α'+β'+1))}.
 	 */
-	private static BigDecimal betaPosteriorVariance(
+	static BigDecimal betaPosteriorVariance(
 			final long valueCount,
 			final long total,
 			final int distinctValueCount,
@@ -590,13 +857,13 @@ public final class StatisticsEventSummaryHelper {
 	}
 
 	/** Surprisal (self-information) {@code −ln(probability)} in nats, floored at zero. */
-	private static BigDecimal surprisal(
+	static BigDecimal surprisal(
 			final double probability) {
 		return BigDecimal.valueOf(Math.max(0.0, -Math.log(probability))).round(StatisticsEventSummaryHelper.MATH_CONTEXT);
 	}
 
 	/** Log-odds {@code ln(p/(1−p))}, with {@code p} clamped to {@code [ε, 1−ε]} so the result stays finite. */
-	private static BigDecimal logOdds(
+	static BigDecimal logOdds(
 			final double probability) {
 		final double clamped = Math.min(1.0 - StatisticsEventSummaryHelper.LOGIT_EPSILON,
 				Math.max(StatisticsEventSummaryHelper.LOGIT_EPSILON, probability));
@@ -620,10 +887,9 @@ public final class StatisticsEventSummaryHelper {
 			final StatisticsEventSummary summary,
 			final String dimensionValue,
 			final double smoothingFactor) {
-		final Map<String, Long> valueCounts = summary.getValueCounts();
 		final long total = summary.getTotalCount();
-		final long valueCount = valueCounts.getOrDefault(dimensionValue, 0L);
-		final int distinctValueCount = valueCounts.size();
+		final long valueCount = StatisticsEventSummaryHelper.estimateValueCount(summary, dimensionValue);
+		final int distinctValueCount = StatisticsEventSummaryHelper.estimateDistinctValueCount(summary);
 		final StatisticsEventSingleDimensionProbability probability = new StatisticsEventSingleDimensionProbability();
 		probability.setContext(summary.getContext());
 		probability.setDimensionName(summary.getDimensionName());
@@ -721,7 +987,9 @@ public final class StatisticsEventSummaryHelper {
 	 * its {@code [0,1]} normalization by {@code ln(V)}, and the Gini-Simpson index {@code 1 − Σpᵢ²}.
 	 * A pure reduction over the merged summary's value counts — answers "how spread out is this
 	 * dimension?" rather than "how likely is one value?". Logarithms are taken in {@code double}; an
-	 * empty period yields all-zero measures.
+	 * empty period yields all-zero measures. For a bounded summary with a sketch, the distinct count
+	 * is the sketch estimate and the evicted values ({@link StatisticsEventSummary#OTHER_VALUE}) are
+	 * taken as evenly spread over the values not kept, so the measures are estimates.
 	 *
 	 * @param  summary The period's aggregated summary.
 	 * @return         The dimension's concentration measures.
@@ -730,7 +998,9 @@ public final class StatisticsEventSummaryHelper {
 			final StatisticsEventSummary summary) {
 		final Map<String, Long> valueCounts = summary.getValueCounts();
 		final long total = summary.getTotalCount();
-		final int distinctValueCount = valueCounts.size();
+		final int distinctValueCount = StatisticsEventSummaryHelper.estimateDistinctValueCount(summary);
+		// Values behind the tail of a bounded summary (the tail itself when exact).
+		final int tailValueCount = Math.max(1, (distinctValueCount - valueCounts.size()) + 1);
 		final StatisticsEventDimensionConcentration concentration = new StatisticsEventDimensionConcentration();
 		concentration.setContext(summary.getContext());
 		concentration.setDimensionName(summary.getDimensionName());
@@ -739,11 +1009,12 @@ public final class StatisticsEventSummaryHelper {
 		double entropy = 0.0;
 		double sumOfSquaredShares = 0.0;
 		if (total > 0L) {
-			for (final Long count : valueCounts.values()) {
-				if (count > 0L) {
-					final double share = (double) count / (double) total;
-					entropy -= share * Math.log(share);
-					sumOfSquaredShares += share * share;
+			for (final Map.Entry<String, Long> valueCount : valueCounts.entrySet()) {
+				if (valueCount.getValue() > 0L) {
+					final double share = (double) valueCount.getValue() / (double) total;
+					final int shareValueCount = (StatisticsEventSummary.OTHER_VALUE.equals(valueCount.getKey()) ? tailValueCount : 1);
+					entropy -= share * Math.log(share / shareValueCount);
+					sumOfSquaredShares += (share * share) / shareValueCount;
 				}
 			}
 		}
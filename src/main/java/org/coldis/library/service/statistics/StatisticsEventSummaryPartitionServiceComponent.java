@@ -0,0 +1,259 @@
+package org.coldis.library.service.statistics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.coldis.library.helper.DateTimeHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Statistics event summary partition service component. When the summary table is range
+ * partitioned by {@code date_time} (see the partitioning section of the statistics documentation),
+ * keeps partitions of {@code summary.partition.interval-days} created ahead of time and drops whole
+ * partitions once they are older than {@code summary.partition.retention-days}, so summary expiry
+ * is a metadata-only {@code DROP TABLE} instead of row deletes.
+ *
+ * <p>The event table may likewise be range partitioned by {@code expired_at}
+ * ({@code event.partition.enabled}): partitions of {@code event.partition.interval-days} are created
+ * {@code event.partition.premake} ahead (enough to cover the longest event time to live) and dropped
+ * as soon as they end, since every row in them has expired. Events without expiry, or beyond the
+ * created partitions, land in the default partition, which the expired event deletion still
+ * cleans row by row.
+ *
+ * <p>Partitions are named {@code <table>_<start>_<end>} ({@code yyyyMMdd}, end exclusive) and aligned
+ * to the roll-up tier grid ({@link StatisticsEventSummaryHelper#truncateToTier}), so weekly
+ * partitions start on Mondays. Only partitions named this way are ever dropped. Maintenance runs on
+ * startup and on {@code summary.partition.cron}; it is idempotent, so every node may run it.
+ */
+@Component
+@Qualifier(StatisticsEventSummaryPartitionServiceComponent.QUALIFIER)
+@ConditionalOnProperty(
+		name = "org.coldis.configuration.service.statistics-enabled",
+		matchIfMissing = false
+)
+public class StatisticsEventSummaryPartitionServiceComponent implements ApplicationListener<ApplicationReadyEvent> {
+
+	/**
+	 * Bean qualifier. Pin this library bean with {@code @Qualifier(StatisticsEventSummaryPartitionServiceComponent.QUALIFIER)}
+	 * when an extended subclass makes injection by type ambiguous.
+	 */
+	public static final String QUALIFIER = "statisticsEventSummaryPartitionServiceComponent";
+
+	/** Logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsEventSummaryPartitionServiceComponent.class);
+
+	/** Event partitioning property name. */
+	static final String EVENT_PARTITION_ENABLED_PROPERTY = "org.coldis.library.service.statistics.event.partition.enabled";
+
+	/** Summary partition name prefix. */
+	private static final String PARTITION_PREFIX = "statistics_event_summary_";
+
+	/** Event partition name prefix. */
+	private static final String EVENT_PARTITION_PREFIX = "statistics_event_";
+
+	/** Partition bound format in names. */
+	private static final DateTimeFormatter PARTITION_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+	/** Partition name suffix (start and exclusive end dates). */
+	private static final Pattern PARTITION_SUFFIX_PATTERN = Pattern.compile("(\\d{8})_(\\d{8})");
+
+	/** Statistics event summary repository. */
+	@Autowired
+	private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
+
+	/** Statistics event repository. */
+	@Autowired
+	private StatisticsEventRepository statisticsEventRepository;
+
+	/** If partitions are maintained. */
+	@Value("${org.coldis.library.service.statistics.summary.partition.enabled:false}")
+	private boolean enabled;
+
+	/** Days covered by each partition. */
+	@Value("${org.coldis.library.service.statistics.summary.partition.interval-days:7}")
+	private int intervalDays;
+
+	/** Partitions kept created after the current one. */
+	@Value("${org.coldis.library.service.statistics.summary.partition.premake:4}")
+	private int premake;
+
+	/** Days after which whole partitions are dropped ({@code 0} keeps every partition). */
+	@Value("${org.coldis.library.service.statistics.summary.partition.retention-days:0}")
+	private int retentionDays;
+
+	/** If event partitions are maintained. */
+	@Value("${" + StatisticsEventSummaryPartitionServiceComponent.EVENT_PARTITION_ENABLED_PROPERTY + ":false}")
+	private boolean eventEnabled;
+
+	/** Days covered by each event partition. */
+	@Value("${org.coldis.library.service.statistics.event.partition.interval-days:1}")
+	private int eventIntervalDays;
+
+	/** Event partitions kept created after the current one. */
+	@Value("${org.coldis.library.service.statistics.event.partition.premake:30}")
+	private int eventPremake;
+
+	/** Event upsert strategy. */
+	@Value("${" + StatisticsEventRepositoryImpl.UPSERT_STRATEGY_PROPERTY + ":" + StatisticsEventRepositoryImpl.STRATEGY_MERGE + "}")
+	private String eventUpsertStrategy;
+
+	/**
+	 * Validates the partition intervals once they are injected. The event table cannot have a unique
+	 * key on the event key once partitioned by expiry, so the {@code on-conflict} upsert (which needs
+	 * one) is refused with event partitioning.
+	 */
+	@PostConstruct
+	public void validatePartitionInterval() {
+		if (this.intervalDays < 1) {
+			throw new IllegalArgumentException("Invalid statistics summary partition interval '" + this.intervalDays + "': it must be at least one day.");
+		}
+		if (this.eventEnabled && (this.eventIntervalDays < 1)) {
+			throw new IllegalArgumentException("Invalid statistics event partition interval '" + this.eventIntervalDays + "': it must be at least one day.");
+		}
+		if (this.eventEnabled && StatisticsEventRepositoryImpl.STRATEGY_ON_CONFLICT.equalsIgnoreCase(this.eventUpsertStrategy)) {
+			throw new IllegalArgumentException("Statistics event partitioning does not support the '" + StatisticsEventRepositoryImpl.STRATEGY_ON_CONFLICT
+					+ "' upsert strategy: it needs a unique constraint on the event key.");
+		}
+	}
+
+	/**
+	 * Gets the name of the partition for a period.
+	 *
+	 * @param  prefix    Partition name prefix.
+	 * @param  startDate Start date (inclusive).
+	 * @param  endDate   End date (exclusive).
+	 * @return           The partition name.
+	 */
+	private static String getPartitionName(
+			final String prefix,
+			final LocalDate startDate,
+			final LocalDate endDate) {
+		return prefix + StatisticsEventSummaryPartitionServiceComponent.PARTITION_DATE_FORMAT.format(startDate) + "_"
+				+ StatisticsEventSummaryPartitionServiceComponent.PARTITION_DATE_FORMAT.format(endDate);
+	}
+
+	/**
+	 * Creates the current and the next {@code premake} partitions of a table that do not exist yet
+	 * and drops the managed partitions that ended before the cutoff. Each partition is created or
+	 * dropped in its own transaction; failures (e.g. a partition overlapping one created with another
+	 * interval, or a concurrent node) are logged and the rest goes on.
+	 *
+	 * @param  repository   Repository of the partitioned table.
+	 * @param  table        Table name.
+	 * @param  prefix       Partition name prefix.
+	 * @param  intervalDays Days covered by each partition.
+	 * @param  premake      Partitions kept created after the current one.
+	 * @param  now          Current date time.
+	 * @param  cutoff       Partitions ending on or before it are dropped ({@code null} keeps every
+	 *                          partition).
+	 * @return              The number of partitions created or dropped.
+	 */
+	private int maintainPartitions(
+			final StatisticsPartitionedRepository repository,
+			final String table,
+			final String prefix,
+			final int intervalDays,
+			final int premake,
+			final LocalDateTime now,
+			final LocalDateTime cutoff) {
+		int changed = 0;
+		if (!repository.isPartitioned()) {
+			StatisticsEventSummaryPartitionServiceComponent.LOGGER.warn("Partitioning is enabled but {} is not range partitioned. Skipping.", table);
+		}
+		else {
+			final Set<String> partitionNames = new HashSet<>(repository.findPartitionNames());
+			final LocalDateTime current = StatisticsEventSummaryHelper.truncateToTier(now, intervalDays * 1440L);
+			for (int partition = 0; partition <= Math.max(0, premake); partition++) {
+				final LocalDateTime startDateTime = current.plusDays((long) partition * intervalDays);
+				final LocalDateTime endDateTime = startDateTime.plusDays(intervalDays);
+				final String partitionName = StatisticsEventSummaryPartitionServiceComponent.getPartitionName(prefix, startDateTime.toLocalDate(),
+						endDateTime.toLocalDate());
+				if (!partitionNames.contains(partitionName)) {
+					try {
+						repository.createPartition(partitionName, startDateTime, endDateTime);
+						changed++;
+					}
+					catch (final RuntimeException exception) {
+						StatisticsEventSummaryPartitionServiceComponent.LOGGER.warn("Could not create {} partition '{}': {}", table, partitionName,
+								exception.getLocalizedMessage());
+					}
+				}
+			}
+			if (cutoff != null) {
+				for (final String partitionName : partitionNames) {
+					final Matcher matcher = StatisticsEventSummaryPartitionServiceComponent.PARTITION_SUFFIX_PATTERN
+							.matcher(partitionName.startsWith(prefix) ? partitionName.substring(prefix.length()) : "");
+					if (matcher.matches() && !LocalDate.parse(matcher.group(2), StatisticsEventSummaryPartitionServiceComponent.PARTITION_DATE_FORMAT)
+							.atStartOfDay().isAfter(cutoff)) {
+						try {
+							repository.dropPartition(partitionName);
+							changed++;
+						}
+						catch (final RuntimeException exception) {
+							StatisticsEventSummaryPartitionServiceComponent.LOGGER.warn("Could not drop {} partition '{}': {}", table, partitionName,
+									exception.getLocalizedMessage());
+						}
+					}
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Maintains the summary partitions ({@code summary.partition.*}) and, if enabled, the event
+	 * partitions ({@code event.partition.*}), which are dropped once they end.
+	 *
+	 * @return The number of partitions created or dropped.
+	 */
+	public int maintainPartitions() {
+		int changed = 0;
+		final LocalDateTime now = DateTimeHelper.getCurrentLocalDateTime();
+		if (this.enabled) {
+			changed += this.maintainPartitions(this.statisticsEventSummaryRepository, "statistics_event_summary",
+					StatisticsEventSummaryPartitionServiceComponent.PARTITION_PREFIX, this.intervalDays, this.premake, now,
+					(this.retentionDays > 0 ? now.minusDays(this.retentionDays) : null));
+		}
+		if (this.eventEnabled) {
+			changed += this.maintainPartitions(this.statisticsEventRepository, "statistics_event",
+					StatisticsEventSummaryPartitionServiceComponent.EVENT_PARTITION_PREFIX, this.eventIntervalDays, this.eventPremake, now, now);
+		}
+		StatisticsEventSummaryPartitionServiceComponent.LOGGER.debug("Maintained statistics partitions: changed={}", changed);
+		return changed;
+	}
+
+	/**
+	 * Maintains the partitions on startup, so the current one exists before summaries are written.
+	 *
+	 * @see ApplicationListener#onApplicationEvent(org.springframework.context.ApplicationEvent)
+	 */
+	@Override
+	public void onApplicationEvent(
+			final ApplicationReadyEvent event) {
+		this.maintainPartitions();
+	}
+
+	/**
+	 * Maintains the partitions on schedule.
+	 */
+	@Scheduled(cron = "${org.coldis.library.service.statistics.summary.partition.cron:0 30 2 * * *}")
+	public void scheduleMaintainPartitions() {
+		this.maintainPartitions();
+	}
+}
@@ -0,0 +1,158 @@
+package org.coldis.library.service.statistics;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * One unit of work of a summary rebuild (or verification): the summary buckets of a dimension of a
+ * context in {@code [startDateTime, endDateTime)}. Also the batch checkpoint, so chunks are
+ * ordered by dimension name and start date time.
+ */
+public class StatisticsEventSummaryRebuildChunk implements Serializable {
+
+  /** Serial. */
+  private static final long serialVersionUID = 3318720645519038241L;
+
+  /** Context. */
+  private String context;
+
+  /** Dimension name. */
+  private String dimensionName;
+
+  /** Start date time (inclusive). */
+  private LocalDateTime startDateTime;
+
+  /** End date time (exclusive). */
+  private LocalDateTime endDateTime;
+
+  /** No arguments constructor. */
+  public StatisticsEventSummaryRebuildChunk() {}
+
+  /**
+   * Full constructor.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (exclusive).
+   */
+  public StatisticsEventSummaryRebuildChunk(
+      final String context,
+      final String dimensionName,
+      final LocalDateTime startDateTime,
+      final LocalDateTime endDateTime) {
+    super();
+    this.context = context;
+    this.dimensionName = dimensionName;
+    this.startDateTime = startDateTime;
+    this.endDateTime = endDateTime;
+  }
+
+  /**
+   * Gets the context.
+   *
+   * @return The context.
+   */
+  public String getContext() {
+    return context;
+  }
+
+  /**
+   * Sets the context.
+   *
+   * @param context New context.
+   */
+  public void setContext(final String context) {
+    this.context = context;
+  }
+
+  /**
+   * Gets the dimension name.
+   *
+   * @return The dimension name.
+   */
+  public String getDimensionName() {
+    return dimensionName;
+  }
+
+  /**
+   * Sets the dimension name.
+   *
+   * @param dimensionName New dimension name.
+   */
+  public void setDimensionName(final String dimensionName) {
+    this.dimensionName = dimensionName;
+  }
+
+  /**
+   * Gets the start date time (inclusive).
+   *
+   * @return The start date time.
+   */
+  public LocalDateTime getStartDateTime() {
+    return startDateTime;
+  }
+
+  /**
+   * Sets the start date time (inclusive).
+   *
+   * @param startDateTime New start date time.
+   */
+  public void setStartDateTime(final LocalDateTime startDateTime) {
+    this.startDateTime = startDateTime;
+  }
+
+  /**
+   * Gets the end date time (exclusive).
+   *
+   * @return The end date time.
+   */
+  public LocalDateTime getEndDateTime() {
+    return endDateTime;
+  }
+
+  /**
+   * Sets the end date time (exclusive).
+   *
+   * @param endDateTime New end date time.
+   */
+  public void setEndDateTime(final LocalDateTime endDateTime) {
+    this.endDateTime = endDateTime;
+  }
+
+  /**
+   * @see Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.context, this.dimensionName, this.startDateTime, this.endDateTime);
+  }
+
+  /**
+   * @see Object#equals(Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof StatisticsEventSummaryRebuildChunk)) {
+      return false;
+    }
+    final StatisticsEventSummaryRebuildChunk other = (StatisticsEventSummaryRebuildChunk) obj;
+    return Objects.equals(this.context, other.context)
+        && Objects.equals(this.dimensionName, other.dimensionName)
+        && Objects.equals(this.startDateTime, other.startDateTime)
+        && Objects.equals(this.endDateTime, other.endDateTime);
+  }
+
+  /**
+   * @see Object#toString()
+   */
+  @Override
+  public String toString() {
+    return this.context + "/" + this.dimensionName + "/[" + this.startDateTime + ", "
+        + this.endDateTime + ")";
+  }
+}
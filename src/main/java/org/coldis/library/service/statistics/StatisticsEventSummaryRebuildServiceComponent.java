@@ -0,0 +1,388 @@
+package org.coldis.library.service.statistics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.model.SimpleMessage;
+import org.coldis.library.service.batch.BatchAction;
+import org.coldis.library.service.batch.BatchExecutor;
+import org.coldis.library.service.batch.BatchServiceComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Statistics event summary rebuild service component. Repairs summaries that
+ * drifted from their events (for instance after deltas were lost) by
+ * recomputing them from {@code statistics_event}, or only reports the drift.
+ *
+ * <p>A run is one batch ({@link BatchServiceComponent}) split into
+ * {@code summary.rebuild.partitions} partitions, resumed in parallel by the
+ * batch listeners. Each partition walks the chunks ({@link StatisticsEventSummaryRebuildChunk}) of
+ * the context in (dimension, date time) order, the key order of the event
+ * index, and takes every {@code partitions}-th of them. A chunk is verified or
+ * rebuilt with one set-based statement
+ * ({@link StatisticsEventSummaryRepositoryCustom#rebuildByPeriod}), so events
+ * are never loaded and each chunk is swapped in atomically. The last chunk of
+ * every page is the batch checkpoint, so a run survives restarts.
+ */
+@Component
+@Qualifier(StatisticsEventSummaryRebuildServiceComponent.QUALIFIER)
+@ConditionalOnProperty(
+		name = { "org.coldis.configuration.service.statistics-enabled", "org.coldis.configuration.service.batch-enabled" },
+		matchIfMissing = false
+)
+public class StatisticsEventSummaryRebuildServiceComponent {
+
+	/**
+	 * Bean qualifier (also the batch action bean name). Pin this library bean with
+	 * {@code @Qualifier(StatisticsEventSummaryRebuildServiceComponent.QUALIFIER)}
+	 * when an extended subclass makes injection by type ambiguous.
+	 */
+	public static final String QUALIFIER = "statisticsEventSummaryRebuildServiceComponent";
+
+	/** Logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsEventSummaryRebuildServiceComponent.class);
+
+	/** Batch key suffix prefix. */
+	public static final String KEY_SUFFIX_PREFIX = "statistics-event-summary-rebuild-";
+
+	/** Context argument. */
+	public static final String CONTEXT_ARGUMENT = "context";
+
+	/** Dimension name argument (absent for every dimension of the context). */
+	public static final String DIMENSION_NAME_ARGUMENT = "dimensionName";
+
+	/** Start date time argument (inclusive). */
+	public static final String START_DATE_TIME_ARGUMENT = "startDateTime";
+
+	/** End date time argument (exclusive). */
+	public static final String END_DATE_TIME_ARGUMENT = "endDateTime";
+
+	/** Chunk size argument, in minutes. */
+	public static final String CHUNK_MINUTES_ARGUMENT = "chunkMinutes";
+
+	/** Partition argument. */
+	public static final String PARTITION_ARGUMENT = BatchExecutor.PARTITION_ARGUMENT;
+
+	/** Partitions argument. */
+	public static final String PARTITIONS_ARGUMENT = BatchExecutor.PARTITIONS_ARGUMENT;
+
+	/** Batch service component. */
+	@Autowired
+	private BatchServiceComponent batchServiceComponent;
+
+	/** Statistics event summary repository. */
+	@Autowired
+	private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
+
+	/** Statistics event summary bucket cache service component. */
+	@Autowired
+	private StatisticsEventSummaryBucketCacheServiceComponent statisticsEventSummaryBucketCacheServiceComponent;
+
+	/** Partitions (run in parallel) a rebuild or verification is split into. */
+	@Value("${org.coldis.library.service.statistics.summary.rebuild.partitions:4}")
+	private int partitions;
+
+	/** Chunk size in minutes. */
+	@Value("${org.coldis.library.service.statistics.summary.rebuild.chunk-minutes:1440}")
+	private long chunkMinutes;
+
+	/** Chunks per batch page (one transaction). */
+	@Value("${org.coldis.library.service.statistics.summary.rebuild.batch-size:10}")
+	private long batchSize;
+
+	/** Delay between batch pages. */
+	@Value("${org.coldis.library.service.statistics.summary.rebuild.delay-between-runs:0s}")
+	private Duration delayBetweenRuns;
+
+	/** Deadline of a run. */
+	@Value("${org.coldis.library.service.statistics.summary.rebuild.finish-within:1d}")
+	private Duration finishWithin;
+
+	/**
+	 * Validates the rebuild configuration.
+	 */
+	@PostConstruct
+	public void validateConfiguration() {
+		if ((this.partitions < 1) || (this.chunkMinutes < 1) || (this.batchSize < 1)) {
+			throw new IllegalArgumentException("Invalid statistics summary rebuild configuration: partitions, chunk minutes and batch size must be positive.");
+		}
+	}
+
+	/**
+	 * Gets the batch key suffix of a run.
+	 *
+	 * @param  context Context.
+	 * @param  verify  If the run only verifies.
+	 * @return         The batch key suffix.
+	 */
+	public static String getKeySuffix(
+			final String context,
+			final boolean verify) {
+		return StatisticsEventSummaryRebuildServiceComponent.KEY_SUFFIX_PREFIX + (verify ? "verify-" : "") + context;
+	}
+
+	/**
+	 * Starts (or resumes) the rebuild or verification of the summaries of a
+	 * context in {@code [startDateTime, endDateTime)}, as one partitioned batch.
+	 * A verification only logs the drifted buckets of each chunk. With
+	 * {@code deleteStale}, a rebuild also deletes the summaries without events;
+	 * otherwise they are kept, since expired events are deleted without updating
+	 * summaries and only periods whose events are all kept have no such history.
+	 *
+	 * @param  context           Context.
+	 * @param  dimensionName     Dimension name, or {@code null} for every dimension
+	 *                               of the context.
+	 * @param  startDateTime     Start date time (inclusive).
+	 * @param  endDateTime       End date time (exclusive).
+	 * @param  verify            If drift is only reported.
+	 * @param  deleteStale       If a rebuild deletes the summaries without events.
+	 * @param  restart           If a previous unfinished run is restarted instead of
+	 *                               resumed.
+	 * @return                   The batch key suffix of the run.
+	 * @throws BusinessException If the period is invalid or a batch cannot be
+	 *                               started.
+	 */
+	public String start(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime,
+			final boolean verify,
+			final boolean deleteStale,
+			final boolean restart) throws BusinessException {
+		if ((context == null) || (startDateTime == null) || (endDateTime == null) || !startDateTime.isBefore(endDateTime)) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.rebuild.invalid"), HttpStatus.BAD_REQUEST.value());
+		}
+		final Map<String, String> arguments = new HashMap<>();
+		arguments.put(StatisticsEventSummaryRebuildServiceComponent.CONTEXT_ARGUMENT, context);
+		if (dimensionName != null) {
+			arguments.put(StatisticsEventSummaryRebuildServiceComponent.DIMENSION_NAME_ARGUMENT, dimensionName);
+		}
+		arguments.put(StatisticsEventSummaryRebuildServiceComponent.START_DATE_TIME_ARGUMENT, startDateTime.toString());
+		arguments.put(StatisticsEventSummaryRebuildServiceComponent.END_DATE_TIME_ARGUMENT, endDateTime.toString());
+		arguments.put(StatisticsEventSummaryRebuildServiceComponent.CHUNK_MINUTES_ARGUMENT, Long.toString(this.chunkMinutes));
+		final String keySuffix = StatisticsEventSummaryRebuildServiceComponent.getKeySuffix(context, verify);
+		final BatchExecutor<StatisticsEventSummaryRebuildChunk> executor = BatchExecutor.withFixedRate(StatisticsEventSummaryRebuildChunk.class,
+				keySuffix, this.batchSize, this.delayBetweenRuns, this.finishWithin, StatisticsEventSummaryRebuildServiceComponent.QUALIFIER,
+				Map.of(BatchAction.GET, "getChunks", BatchAction.EXECUTE, (verify ? "verifyChunk" : (deleteStale ? "rebuildChunkDeletingStale" : "rebuildChunk"))),
+				arguments);
+		executor.setPartitions(this.partitions);
+		this.batchServiceComponent.start(executor, restart, false);
+		StatisticsEventSummaryRebuildServiceComponent.LOGGER.info(
+				"Started summary {}: context={}, dimension={}, period=[{}, {}), deleteStale={}, partitions={}", (verify ? "verification" : "rebuild"), context,
+				dimensionName, startDateTime, endDateTime, deleteStale, this.partitions);
+		return keySuffix;
+	}
+
+	/**
+	 * Starts (or resumes) the rebuild or verification of the summaries of a
+	 * context in {@code [startDateTime, endDateTime)}, keeping the summaries
+	 * without events.
+	 *
+	 * @param  context           Context.
+	 * @param  dimensionName     Dimension name, or {@code null} for every dimension
+	 *                               of the context.
+	 * @param  startDateTime     Start date time (inclusive).
+	 * @param  endDateTime       End date time (exclusive).
+	 * @param  verify            If drift is only reported.
+	 * @param  restart           If a previous unfinished run is restarted instead of
+	 *                               resumed.
+	 * @return                   The batch key suffix of the run.
+	 * @throws BusinessException If the period is invalid or a batch cannot be
+	 *                               started.
+	 */
+	public String start(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime,
+			final boolean verify,
+			final boolean restart) throws BusinessException {
+		return this.start(context, dimensionName, startDateTime, endDateTime, verify, false, restart);
+	}
+
+	/**
+	 * Gets the dimension names of a context, sorted, so every page walks them in
+	 * the same order.
+	 *
+	 * @param  context       Context.
+	 * @param  dimensionName Dimension name, or {@code null} for every dimension.
+	 * @return               The dimension names.
+	 */
+	private List<String> findDimensionNames(
+			final String context,
+			final String dimensionName) {
+		return (dimensionName != null ? List.of(dimensionName)
+				: this.statisticsEventSummaryRepository.findDimensionNames(context).stream().sorted().toList());
+	}
+
+	/**
+	 * Gets the chunks of a partition that follow the last processed one (batch
+	 * {@link BatchAction#GET} delegate). Chunks are walked in (dimension, date
+	 * time) order, and the {@code index}-th chunk of a dimension belongs to
+	 * partition {@code (dimensionName.hashCode() + index) mod partitions}, so a
+	 * large dimension is spread over every partition. Dimensions created after the
+	 * run started may be skipped if they sort before the last processed one.
+	 *
+	 * @param  lastProcessed Last processed chunk ({@code null} on the first page).
+	 * @param  size          Maximum number of chunks.
+	 * @param  arguments     Run arguments.
+	 * @return               The next chunks.
+	 */
+	public List<StatisticsEventSummaryRebuildChunk> getChunks(
+			final StatisticsEventSummaryRebuildChunk lastProcessed,
+			final Long size,
+			final Map<String, String> arguments) {
+		final String context = arguments.get(StatisticsEventSummaryRebuildServiceComponent.CONTEXT_ARGUMENT);
+		final LocalDateTime startDateTime = LocalDateTime.parse(arguments.get(StatisticsEventSummaryRebuildServiceComponent.START_DATE_TIME_ARGUMENT));
+		final LocalDateTime endDateTime = LocalDateTime.parse(arguments.get(StatisticsEventSummaryRebuildServiceComponent.END_DATE_TIME_ARGUMENT));
+		final long chunkMinutes = Long.parseLong(arguments.get(StatisticsEventSummaryRebuildServiceComponent.CHUNK_MINUTES_ARGUMENT));
+		final int partition = Integer.parseInt(arguments.get(StatisticsEventSummaryRebuildServiceComponent.PARTITION_ARGUMENT));
+		final int partitions = Integer.parseInt(arguments.get(StatisticsEventSummaryRebuildServiceComponent.PARTITIONS_ARGUMENT));
+		final List<StatisticsEventSummaryRebuildChunk> chunks = new ArrayList<>();
+		for (final String dimensionName : this.findDimensionNames(context,
+				arguments.get(StatisticsEventSummaryRebuildServiceComponent.DIMENSION_NAME_ARGUMENT))) {
+			// Skips the dimensions already processed.
+			final int dimensionOrder = (lastProcessed == null ? 1 : dimensionName.compareTo(lastProcessed.getDimensionName()));
+			if (dimensionOrder < 0) {
+				continue;
+			}
+			long index = 0;
+			for (LocalDateTime chunkStart = startDateTime; chunkStart.isBefore(endDateTime); chunkStart = chunkStart.plusMinutes(chunkMinutes), index++) {
+				if (chunks.size() >= size) {
+					return chunks;
+				}
+				if (((dimensionOrder > 0) || chunkStart.isAfter(lastProcessed.getStartDateTime()))
+						&& (Math.floorMod(dimensionName.hashCode() + index, partitions) == partition)) {
+					final LocalDateTime chunkEnd = chunkStart.plusMinutes(chunkMinutes);
+					chunks.add(new StatisticsEventSummaryRebuildChunk(context, dimensionName, chunkStart,
+							(chunkEnd.isAfter(endDateTime) ? endDateTime : chunkEnd)));
+				}
+			}
+		}
+		return chunks;
+	}
+
+	/**
+	 * Rewrites the drifted summary buckets of a chunk from its events.
+	 * Rewritten buckets are invalidated in the bucket cache once the page
+	 * commits.
+	 *
+	 * @param  chunk       Chunk.
+	 * @param  deleteStale If the summaries without events are deleted.
+	 * @return             The rewritten buckets.
+	 */
+	private List<LocalDateTime> rebuild(
+			final StatisticsEventSummaryRebuildChunk chunk,
+			final boolean deleteStale) {
+		final List<LocalDateTime> buckets = this.statisticsEventSummaryRepository.rebuildByPeriod(chunk.getContext(), chunk.getDimensionName(),
+				chunk.getStartDateTime(), chunk.getEndDateTime(), deleteStale);
+		if (!buckets.isEmpty()) {
+			this.statisticsEventSummaryBucketCacheServiceComponent.invalidateAfterCommit(
+					buckets.stream().map(bucket -> new StatisticsEventSummaryKey(chunk.getContext(), chunk.getDimensionName(), bucket)).toList());
+			StatisticsEventSummaryRebuildServiceComponent.LOGGER.info("Rebuilt summary buckets: chunk={}, buckets={}", chunk, buckets.size());
+		}
+		return buckets;
+	}
+
+	/**
+	 * Rewrites the drifted summary buckets of a chunk that have events (batch
+	 * {@link BatchAction#EXECUTE} delegate of rebuilds), keeping the summaries
+	 * without events.
+	 *
+	 * @param  chunk Chunk.
+	 * @return       The rewritten buckets.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED)
+	public List<LocalDateTime> rebuildChunk(
+			final StatisticsEventSummaryRebuildChunk chunk) {
+		return this.rebuild(chunk, false);
+	}
+
+	/**
+	 * Rewrites the drifted summary buckets of a chunk and deletes the summaries
+	 * without events (batch {@link BatchAction#EXECUTE} delegate of rebuilds
+	 * with {@code deleteStale}).
+	 *
+	 * @param  chunk Chunk.
+	 * @return       The rewritten and deleted buckets.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED)
+	public List<LocalDateTime> rebuildChunkDeletingStale(
+			final StatisticsEventSummaryRebuildChunk chunk) {
+		return this.rebuild(chunk, true);
+	}
+
+	/**
+	 * Finds and logs the drifted summary buckets of a chunk without writing them
+	 * (batch {@link BatchAction#EXECUTE} delegate of verifications).
+	 *
+	 * @param  chunk Chunk.
+	 * @return       The drifted buckets.
+	 */
+	@Transactional(
+			propagation = Propagation.NOT_SUPPORTED,
+			readOnly = true
+	)
+	public List<LocalDateTime> verifyChunk(
+			final StatisticsEventSummaryRebuildChunk chunk) {
+		final List<LocalDateTime> buckets = this.statisticsEventSummaryRepository.findDriftByPeriod(chunk.getContext(), chunk.getDimensionName(),
+				chunk.getStartDateTime(), chunk.getEndDateTime());
+		if (!buckets.isEmpty()) {
+			StatisticsEventSummaryRebuildServiceComponent.LOGGER.warn("Summary drift: chunk={}, buckets={}", chunk, buckets);
+		}
+		return buckets;
+	}
+
+	/**
+	 * Finds the drifted summary buckets of a context in
+	 * {@code [startDateTime, endDateTime)} at once, one chunk query at a time.
+	 * Meant for short periods; use {@link #start} with {@code verify} for long
+	 * ones.
+	 *
+	 * @param  context       Context.
+	 * @param  dimensionName Dimension name, or {@code null} for every dimension of
+	 *                           the context.
+	 * @param  startDateTime Start date time (inclusive).
+	 * @param  endDateTime   End date time (exclusive).
+	 * @return               The keys of the drifted buckets.
+	 */
+	@Transactional(
+			propagation = Propagation.NOT_SUPPORTED,
+			readOnly = true
+	)
+	public List<StatisticsEventSummaryKey> verify(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		final List<StatisticsEventSummaryKey> drift = new ArrayList<>();
+		for (final String currentDimensionName : this.findDimensionNames(context, dimensionName)) {
+			for (LocalDateTime chunkStart = startDateTime; chunkStart.isBefore(endDateTime); chunkStart = chunkStart.plusMinutes(this.chunkMinutes)) {
+				final LocalDateTime chunkEnd = chunkStart.plusMinutes(this.chunkMinutes);
+				for (final LocalDateTime bucket : this.statisticsEventSummaryRepository.findDriftByPeriod(context, currentDimensionName, chunkStart,
+						(chunkEnd.isAfter(endDateTime) ? endDateTime : chunkEnd))) {
+					drift.add(new StatisticsEventSummaryKey(context, currentDimensionName, bucket));
+				}
+			}
+		}
+		return drift;
+	}
+
+}
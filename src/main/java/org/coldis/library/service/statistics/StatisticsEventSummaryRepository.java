@@ -3,9 +3,12 @@ package org.coldis.library.service.statistics;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import jakarta.persistence.QueryHint;
 import org.coldis.library.persistence.repository.PostgresJpaRepository;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
@@ -14,11 +17,13 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Statistics event summary repository. Row-locking and find-or-create helpers (e.g. {@code
  * findByIdForUpdateWait}, {@code findByIdForUpdateOrCreate}) come from {@link PostgresJpaRepository};
- * {@link #insertIfAbsent} is the idempotent insert they pair with.
+ * {@link #insertIfAbsent} is the idempotent insert they pair with. Set-based delta application
+ * lives in {@link StatisticsEventSummaryRepositoryCustom}.
  */
 @Repository
 public interface StatisticsEventSummaryRepository
-    extends PostgresJpaRepository<StatisticsEventSummary, StatisticsEventSummaryKey> {
+    extends PostgresJpaRepository<StatisticsEventSummary, StatisticsEventSummaryKey>,
+        StatisticsEventSummaryRepositoryCustom {
 
   /**
    * Atomically inserts a summary row if absent, no-op if a row with the same composite key already
@@ -51,7 +56,8 @@ public interface StatisticsEventSummaryRepository
    * Finds all statistics event summaries for a context and dimension within a date range — an
    * index-friendly range scan over {@code (context, dimension_name, date_time)}. Callers scope each
    * call to a single window's exact bounds (the reference or one sample window), so only in-window
-   * rows are returned and drift comparison aggregates them in the service.
+   * rows are returned and drift comparison aggregates them in the service. Rows are loaded
+   * read-only, so no dirty-checking snapshot of their value maps is taken.
    *
    * @param context Context.
    * @param dimensionName Dimension name.
@@ -59,6 +65,7 @@ public interface StatisticsEventSummaryRepository
    * @param endDateTime End date time (inclusive).
    * @return The list of summaries in the period for the dimension.
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   @Query(
       "SELECT summary FROM StatisticsEventSummary summary "
           + "WHERE context = :context "
@@ -70,4 +77,16 @@ public interface StatisticsEventSummaryRepository
       @Param("dimensionName") String dimensionName,
       @Param("startDateTime") LocalDateTime startDateTime,
       @Param("endDateTime") LocalDateTime endDateTime);
+
+  /**
+   * Finds the distinct dimension names with summaries in a context. Used to rebuild the roll-ups
+   * of a whole context.
+   *
+   * @param context Context.
+   * @return The dimension names.
+   */
+  @Query(
+      "SELECT DISTINCT summary.dimensionName FROM StatisticsEventSummary summary "
+          + "WHERE context = :context")
+  List<String> findDimensionNames(@Param("context") String context);
 }
@@ -0,0 +1,113 @@
+package org.coldis.library.service.statistics;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Custom statistics event summary repository operations not expressible as Spring Data derived
+ * queries. The partition operations apply to the summary table range partitioned by
+ * {@code date_time}.
+ */
+public interface StatisticsEventSummaryRepositoryCustom extends StatisticsPartitionedRepository {
+
+  /**
+   * Applies a batch of summary deltas set-based (one statement inserting the missing summaries,
+   * one applying the deltas). Deltas for the same summary key are summed, missing summaries are
+   * inserted and existing ones are locked and updated in key order (so concurrent batches lock rows
+   * in the same order). Follows the same rules as applying each delta on its own: value entries
+   * that drop to zero or below are removed and the totals are recomputed from the merged maps.
+   *
+   * @param deltas Deltas to apply.
+   * @return The changes the summaries received (per summary key, the new minus the previous amount
+   *     of each delta value, so values clamped at zero count only what they actually lost), without
+   *     the values left unchanged.
+   */
+  List<StatisticsEventSummaryDelta> applyDeltaBatch(List<StatisticsEventSummaryDelta> deltas);
+
+  /**
+   * Finds the summaries of several dimensions in several periods of a context in a single query:
+   * rows whose dimension is one of {@code dimensionNames} and whose date time falls in at least one
+   * of the inclusive {@code [startDateTimes[i], endDateTimes[i]]} periods. Rows in overlapping
+   * periods are returned once; rows between the periods are never read.
+   *
+   * @param context Context.
+   * @param dimensionNames Dimension names.
+   * @param startDateTimes Period starts (inclusive).
+   * @param endDateTimes Period ends (inclusive), parallel to {@code startDateTimes}.
+   * @return The summaries, in no particular order.
+   */
+  List<StatisticsEventSummary> findByPeriods(
+      String context,
+      Collection<String> dimensionNames,
+      List<LocalDateTime> startDateTimes,
+      List<LocalDateTime> endDateTimes);
+
+  /**
+   * Streams the summaries of a context in a period, of one dimension or of all of them, ordered by
+   * dimension name and date time. Rows are read through a server-side cursor of {@code fetchSize}
+   * rows and loaded read-only, so the stream must be consumed (and closed) inside a transaction.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name, or {@code null} for every dimension of the context.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (inclusive).
+   * @param fetchSize Rows fetched per cursor round-trip.
+   * @return The summaries in the period.
+   */
+  Stream<StatisticsEventSummary> streamByPeriod(
+      String context,
+      String dimensionName,
+      LocalDateTime startDateTime,
+      LocalDateTime endDateTime,
+      int fetchSize);
+
+  /**
+   * Finds the dimension names of a context with events or summaries, walking the {@code (context,
+   * dimension_name, ...)} indexes one name at a time instead of scanning every row.
+   *
+   * @param context Context.
+   * @return The dimension names, in no particular order.
+   */
+  List<String> findDimensionNames(String context);
+
+  /**
+   * Finds the summary buckets of a dimension in {@code [startDateTime, endDateTime)} that differ
+   * from the counts and weights of the current events: stored buckets with different value maps or
+   * totals, buckets with events but no summary, and non-empty summaries without events.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (exclusive).
+   * @return The drifted buckets, ordered by date time.
+   */
+  List<LocalDateTime> findDriftByPeriod(
+      String context, String dimensionName, LocalDateTime startDateTime, LocalDateTime endDateTime);
+
+  /**
+   * Rewrites the drifted summary buckets of a dimension in {@code [startDateTime, endDateTime)}
+   * (see {@link #findDriftByPeriod}) from the current events in a single statement: drifted
+   * buckets are upserted with the recomputed maps and totals (dropping their value sketch).
+   * Summaries without events are only deleted with {@code deleteStale}, since expired events are
+   * deleted without updating summaries and their buckets would otherwise lose their history.
+   * Buckets already matching their events are not written.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (exclusive).
+   * @param deleteStale If summaries without events are deleted.
+   * @return The rewritten buckets, ordered by date time.
+   */
+  @Transactional(propagation = Propagation.REQUIRED)
+  List<LocalDateTime> rebuildByPeriod(
+      String context,
+      String dimensionName,
+      LocalDateTime startDateTime,
+      LocalDateTime endDateTime,
+      boolean deleteStale);
+}
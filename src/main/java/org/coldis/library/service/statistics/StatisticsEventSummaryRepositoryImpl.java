@@ -0,0 +1,594 @@
+package org.coldis.library.service.statistics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+
+/**
+ * Custom statistics event summary repository operations. Implements the set-based delta
+ * application against Postgres with parallel-array binding via {@code unnest}: the JSONB value
+ * maps are merged with {@code jsonb_each_text} and re-aggregated with {@code jsonb_object_agg}
+ * inside {@code INSERT ... ON CONFLICT DO UPDATE}, so the read-modify-write of every row happens
+ * under the row lock the upsert already holds. Also implements the multi-dimension, multi-period
+ * fetch used by batched drift comparison, the cursor-backed summary stream of exports, the
+ * set-based verification and rebuild of summaries from their events used by
+ * {@link StatisticsEventSummaryRebuildServiceComponent}, and the partition DDL used by
+ * {@link StatisticsEventSummaryPartitionServiceComponent}.
+ */
+public class StatisticsEventSummaryRepositoryImpl implements StatisticsEventSummaryRepositoryCustom {
+
+  /**
+   * Merges the existing value maps of the conflicting row with the row's deltas, dropping entries
+   * that end at zero or below, and recomputes the totals from what is left.
+   */
+  private static final String MERGE_VALUES_SQL =
+      " (value_counts, total_count) = ("
+          + "   SELECT COALESCE(jsonb_object_agg(m.dimension_value, m.amount), '{}'::jsonb),"
+          + "          COALESCE(SUM(m.amount), 0)"
+          + "   FROM ("
+          + "     SELECT u.dimension_value, SUM(u.amount) AS amount FROM ("
+          + "       SELECT e.key AS dimension_value, CAST(e.value AS bigint) AS amount"
+          + "       FROM jsonb_each_text(COALESCE(statistics_event_summary.value_counts,"
+          + "            '{}'::jsonb)) e"
+          + "       UNION ALL"
+          + "       SELECT d.dimension_value, d.count_delta FROM deltas d"
+          + "       WHERE d.context = EXCLUDED.context"
+          + "         AND d.dimension_name = EXCLUDED.dimension_name"
+          + "         AND d.date_time = EXCLUDED.date_time"
+          + "     ) u GROUP BY u.dimension_value"
+          + "   ) m WHERE m.amount > 0"
+          + " ),"
+          + " (value_weights, total_weight) = ("
+          + "   SELECT COALESCE(jsonb_object_agg(m.dimension_value, m.amount), '{}'::jsonb),"
+          + "          COALESCE(SUM(m.amount), 0)"
+          + "   FROM ("
+          + "     SELECT u.dimension_value, SUM(u.amount) AS amount FROM ("
+          + "       SELECT e.key AS dimension_value, CAST(e.value AS numeric) AS amount"
+          + "       FROM jsonb_each_text(COALESCE(statistics_event_summary.value_weights,"
+          + "            '{}'::jsonb)) e"
+          + "       UNION ALL"
+          + "       SELECT d.dimension_value, d.weight_delta FROM deltas d"
+          + "       WHERE d.context = EXCLUDED.context"
+          + "         AND d.dimension_name = EXCLUDED.dimension_name"
+          + "         AND d.date_time = EXCLUDED.date_time"
+          + "     ) u GROUP BY u.dimension_value"
+          + "   ) m WHERE m.amount > 0"
+          + " ),"
+          + " updated_at = now()";
+
+  /** Delta rows bound as parallel arrays. */
+  private static final String DELTA_INPUT_SQL =
+      "WITH input AS ("
+          + " SELECT * FROM unnest("
+          + "  CAST(:contexts AS text[]),"
+          + "  CAST(:dimensionNames AS text[]),"
+          + "  CAST(:dateTimes AS timestamptz[]),"
+          + "  CAST(:dimensionValues AS text[]),"
+          + "  CAST(:countDeltas AS bigint[]),"
+          + "  CAST(:weightDeltas AS numeric[])"
+          + " ) AS t(context, dimension_name, date_time, dimension_value, count_delta,"
+          + "        weight_delta)"
+          + ")";
+
+  /**
+   * Inserts the missing summaries of a delta batch empty, in key order, waiting for concurrent
+   * inserts of the same keys to settle. Once it ran, every summary the batch changes is a committed
+   * or own row that {@link #APPLY_DELTA_BATCH_SQL} can lock and read before changing it.
+   */
+  private static final String ENSURE_SUMMARIES_SQL =
+      StatisticsEventSummaryRepositoryImpl.DELTA_INPUT_SQL
+          + " INSERT INTO statistics_event_summary ("
+          + "   context, dimension_name, date_time, value_counts, total_count, value_weights,"
+          + "   total_weight, created_at, updated_at"
+          + " ) SELECT DISTINCT context, dimension_name, date_time, '{}'::jsonb, 0, '{}'::jsonb,"
+          + "          0, now(), now()"
+          + "   FROM input"
+          + "   ORDER BY context, dimension_name, date_time"
+          + " ON CONFLICT (context, dimension_name, date_time) DO NOTHING";
+
+  /**
+   * Set-based delta application: one row per (summary key, dimension value) bound as parallel
+   * arrays, summed per value, then upserted per summary key. The current rows are locked and read
+   * first ({@code previous}, in key order, fully before anything is written), so the statement can
+   * return the change each value received (new minus previous amount, after the zero clamp). New
+   * rows (only when a summary was deleted after {@link #ENSURE_SUMMARIES_SQL}) get the positive
+   * deltas only (as if applied to an empty summary); conflicting rows merge their maps with
+   * {@link #MERGE_VALUES_SQL}. Native SQL bypasses {@code EntityTimestampListener}, so
+   * {@code created_at} / {@code updated_at} are set inline via {@code now()}.
+   */
+  private static final String APPLY_DELTA_BATCH_SQL =
+      StatisticsEventSummaryRepositoryImpl.DELTA_INPUT_SQL
+          + ", deltas AS ("
+          + " SELECT context, dimension_name, date_time, dimension_value,"
+          + "        SUM(count_delta) AS count_delta, SUM(weight_delta) AS weight_delta"
+          + " FROM input"
+          + " GROUP BY context, dimension_name, date_time, dimension_value"
+          + "), fresh AS ("
+          + " SELECT context, dimension_name, date_time,"
+          + "        COALESCE(jsonb_object_agg(dimension_value, count_delta)"
+          + "          FILTER (WHERE count_delta > 0), '{}'::jsonb) AS value_counts,"
+          + "        COALESCE(SUM(count_delta) FILTER (WHERE count_delta > 0), 0) AS total_count,"
+          + "        COALESCE(jsonb_object_agg(dimension_value, weight_delta)"
+          + "          FILTER (WHERE weight_delta > 0), '{}'::jsonb) AS value_weights,"
+          + "        COALESCE(SUM(weight_delta) FILTER (WHERE weight_delta > 0), 0)"
+          + "          AS total_weight"
+          + " FROM deltas"
+          + " GROUP BY context, dimension_name, date_time"
+          + "), previous AS ("
+          + " SELECT summary.context, summary.dimension_name, summary.date_time,"
+          + "        summary.value_counts, summary.value_weights"
+          + " FROM statistics_event_summary summary"
+          + " WHERE (summary.context, summary.dimension_name, summary.date_time) IN ("
+          + "   SELECT context, dimension_name, date_time FROM fresh)"
+          + " ORDER BY summary.context, summary.dimension_name, summary.date_time"
+          + " FOR UPDATE OF summary"
+          + "), written AS ("
+          + " INSERT INTO statistics_event_summary ("
+          + "   context, dimension_name, date_time, value_counts, total_count, value_weights,"
+          + "   total_weight, created_at, updated_at"
+          + " ) SELECT f.context, f.dimension_name, f.date_time, f.value_counts, f.total_count,"
+          + "          f.value_weights, f.total_weight, now(), now()"
+          + "   FROM fresh f LEFT JOIN previous p ON p.context = f.context"
+          + "     AND p.dimension_name = f.dimension_name AND p.date_time = f.date_time"
+          + "   ORDER BY f.context, f.dimension_name, f.date_time"
+          + " ON CONFLICT (context, dimension_name, date_time) DO UPDATE SET"
+          + StatisticsEventSummaryRepositoryImpl.MERGE_VALUES_SQL
+          + " RETURNING context, dimension_name, date_time, value_counts, value_weights"
+          + "), changes AS ("
+          + " SELECT w.context, w.dimension_name, w.date_time, d.dimension_value,"
+          + "        COALESCE(CAST(w.value_counts ->> d.dimension_value AS bigint), 0)"
+          + "          - COALESCE(CAST(p.value_counts ->> d.dimension_value AS bigint), 0)"
+          + "          AS count_change,"
+          + "        COALESCE(CAST(w.value_weights ->> d.dimension_value AS numeric), 0)"
+          + "          - COALESCE(CAST(p.value_weights ->> d.dimension_value AS numeric), 0)"
+          + "          AS weight_change"
+          + " FROM written w"
+          + " JOIN deltas d ON d.context = w.context AND d.dimension_name = w.dimension_name"
+          + "   AND d.date_time = w.date_time"
+          + " LEFT JOIN previous p ON p.context = w.context"
+          + "   AND p.dimension_name = w.dimension_name AND p.date_time = w.date_time"
+          + ") SELECT context, dimension_name, date_time, dimension_value, count_change,"
+          + "         weight_change"
+          + " FROM changes WHERE count_change <> 0 OR weight_change <> 0"
+          + " ORDER BY context, dimension_name, date_time";
+
+  /**
+   * Multi-dimension, multi-period fetch. The periods are bound as parallel arrays and matched with
+   * {@code EXISTS}, so overlapping periods do not duplicate rows and each row is still found through
+   * the {@code (context, dimension_name, date_time)} index.
+   */
+  private static final String FIND_BY_PERIODS_SQL =
+      "SELECT summary.* FROM statistics_event_summary summary"
+          + " WHERE summary.context = :context"
+          + "   AND summary.dimension_name = ANY(CAST(:dimensionNames AS text[]))"
+          + "   AND EXISTS ("
+          + "     SELECT 1 FROM unnest("
+          + "       CAST(:startDateTimes AS timestamptz[]),"
+          + "       CAST(:endDateTimes AS timestamptz[])"
+          + "     ) AS period(start_date_time, end_date_time)"
+          + "     WHERE summary.date_time BETWEEN period.start_date_time AND period.end_date_time"
+          + "   )";
+
+  /**
+   * Dimension names of a context, from events and summaries. Each recursive step jumps to the next
+   * name through the index led by {@code (context, dimension_name)} (a loose index scan), so the
+   * cost follows the number of dimensions, not of rows.
+   */
+  private static final String FIND_DIMENSION_NAMES_SQL =
+      "WITH RECURSIVE event_dimension AS ("
+          + " (SELECT dimension_name FROM statistics_event"
+          + "  WHERE context = :context ORDER BY dimension_name LIMIT 1)"
+          + " UNION ALL"
+          + " SELECT (SELECT e.dimension_name FROM statistics_event e"
+          + "   WHERE e.context = :context AND e.dimension_name > d.dimension_name"
+          + "   ORDER BY e.dimension_name LIMIT 1)"
+          + " FROM event_dimension d WHERE d.dimension_name IS NOT NULL"
+          + "), summary_dimension AS ("
+          + " (SELECT dimension_name FROM statistics_event_summary"
+          + "  WHERE context = :context ORDER BY dimension_name LIMIT 1)"
+          + " UNION ALL"
+          + " SELECT (SELECT s.dimension_name FROM statistics_event_summary s"
+          + "   WHERE s.context = :context AND s.dimension_name > d.dimension_name"
+          + "   ORDER BY s.dimension_name LIMIT 1)"
+          + " FROM summary_dimension d WHERE d.dimension_name IS NOT NULL"
+          + ") SELECT dimension_name FROM event_dimension WHERE dimension_name IS NOT NULL"
+          + " UNION"
+          + " SELECT dimension_name FROM summary_dimension WHERE dimension_name IS NOT NULL";
+
+  /**
+   * Buckets of a dimension in a period whose summary differs from its events. Events are counted
+   * and weighed per (bucket, value) through the {@code (context, dimension_name, date_time)} index
+   * and aggregated with the same rules as applying deltas (weights at zero or below dropped), then
+   * compared with the stored rows. Empty summaries without events (left behind when every value of
+   * a bucket was decremented) are not drift.
+   */
+  private static final String DRIFT_SQL =
+      "WITH counted AS ("
+          + " SELECT date_time, dimension_value, COUNT(*) AS amount,"
+          + "        SUM(COALESCE(weight, 1)) AS weight"
+          + " FROM statistics_event"
+          + " WHERE context = :context AND dimension_name = :dimensionName"
+          + "   AND date_time >= :startDateTime AND date_time < :endDateTime"
+          + " GROUP BY date_time, dimension_value"
+          + "), fresh AS ("
+          + " SELECT date_time,"
+          + "        jsonb_object_agg(dimension_value, amount) AS value_counts,"
+          + "        SUM(amount) AS total_count,"
+          + "        COALESCE(jsonb_object_agg(dimension_value, weight)"
+          + "          FILTER (WHERE weight > 0), '{}'::jsonb) AS value_weights,"
+          + "        COALESCE(SUM(weight) FILTER (WHERE weight > 0), 0) AS total_weight"
+          + " FROM counted"
+          + " GROUP BY date_time"
+          + "), stored AS ("
+          + " SELECT date_time, value_counts, total_count, value_weights, total_weight"
+          + " FROM statistics_event_summary"
+          + " WHERE context = :context AND dimension_name = :dimensionName"
+          + "   AND date_time >= :startDateTime AND date_time < :endDateTime"
+          + "), drift AS ("
+          + " SELECT COALESCE(f.date_time, s.date_time) AS date_time, f.date_time IS NULL AS stale,"
+          + "        f.value_counts, f.total_count, f.value_weights, f.total_weight"
+          + " FROM fresh f FULL JOIN stored s ON s.date_time = f.date_time"
+          + " WHERE (f.value_counts, f.total_count, f.value_weights, f.total_weight)"
+          + "       IS DISTINCT FROM"
+          + "       (s.value_counts, s.total_count, s.value_weights, s.total_weight)"
+          + "   AND NOT (f.date_time IS NULL AND s.total_count = 0 AND s.total_weight = 0)"
+          + ")";
+
+  /** Drifted buckets of a dimension in a period. */
+  private static final String FIND_DRIFT_BY_PERIOD_SQL =
+      StatisticsEventSummaryRepositoryImpl.DRIFT_SQL
+          + " SELECT date_time FROM drift ORDER BY date_time";
+
+  /**
+   * Upserts the drifted buckets of a dimension in a period that have events with the recomputed
+   * maps. The value sketch no longer matches the rewritten maps, so it is dropped.
+   */
+  private static final String REBUILD_WRITTEN_SQL =
+      ", written AS ("
+          + " INSERT INTO statistics_event_summary ("
+          + "   context, dimension_name, date_time, value_counts, total_count, value_weights,"
+          + "   total_weight, created_at, updated_at"
+          + " ) SELECT CAST(:context AS text), CAST(:dimensionName AS text), date_time,"
+          + "          value_counts, total_count, value_weights, total_weight, now(), now()"
+          + "   FROM drift WHERE NOT drift.stale"
+          + "   ORDER BY date_time"
+          + " ON CONFLICT (context, dimension_name, date_time) DO UPDATE SET"
+          + "   value_counts = EXCLUDED.value_counts,"
+          + "   total_count = EXCLUDED.total_count,"
+          + "   value_weights = EXCLUDED.value_weights,"
+          + "   total_weight = EXCLUDED.total_weight,"
+          + "   value_sketch = NULL,"
+          + "   updated_at = now()"
+          + " RETURNING date_time"
+          + ")";
+
+  /**
+   * Rewrites the drifted buckets of a dimension in a period that have events, in one statement (one
+   * snapshot of the events, one atomic swap). Summaries without events are kept, since their events
+   * may have expired.
+   */
+  private static final String REBUILD_BY_PERIOD_SQL =
+      StatisticsEventSummaryRepositoryImpl.DRIFT_SQL
+          + StatisticsEventSummaryRepositoryImpl.REBUILD_WRITTEN_SQL
+          + " SELECT date_time FROM written ORDER BY date_time";
+
+  /**
+   * Rewrites the drifted buckets of a dimension in a period like {@link #REBUILD_BY_PERIOD_SQL}, and
+   * also deletes the summaries without events, in the same statement.
+   */
+  private static final String REBUILD_BY_PERIOD_DELETING_STALE_SQL =
+      StatisticsEventSummaryRepositoryImpl.DRIFT_SQL
+          + ", removed AS ("
+          + " DELETE FROM statistics_event_summary summary USING drift"
+          + " WHERE drift.stale AND summary.context = :context"
+          + "   AND summary.dimension_name = :dimensionName"
+          + "   AND summary.date_time = drift.date_time"
+          + " RETURNING summary.date_time"
+          + ")"
+          + StatisticsEventSummaryRepositoryImpl.REBUILD_WRITTEN_SQL
+          + " SELECT date_time FROM removed UNION ALL SELECT date_time FROM written"
+          + " ORDER BY date_time";
+
+  /** Streams the summaries of a context in a period (a dimension filter may be appended). */
+  private static final String STREAM_BY_PERIOD_JPQL =
+      "SELECT summary FROM StatisticsEventSummary summary"
+          + " WHERE summary.context = :context"
+          + " AND summary.dateTime >= :startDateTime"
+          + " AND summary.dateTime <= :endDateTime";
+
+  /** Dimension filter of the summary stream. */
+  private static final String STREAM_BY_PERIOD_DIMENSION_JPQL =
+      " AND summary.dimensionName = :dimensionName";
+
+  /** Order of the summary stream. */
+  private static final String STREAM_BY_PERIOD_ORDER_JPQL =
+      " ORDER BY summary.dimensionName, summary.dateTime";
+
+  /** Checks if the summary table is range partitioned. */
+  private static final String IS_PARTITIONED_SQL =
+      "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table"
+          + " WHERE partrelid = to_regclass('statistics_event_summary'))";
+
+  /** Lists the partitions attached to the summary table. */
+  private static final String FIND_PARTITION_NAMES_SQL =
+      "SELECT CAST(child.relname AS text) FROM pg_inherits"
+          + " JOIN pg_class child ON child.oid = pg_inherits.inhrelid"
+          + " WHERE pg_inherits.inhparent = to_regclass('statistics_event_summary')";
+
+  /** Entity manager. */
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Binds delta rows as parallel arrays.
+   *
+   * @param query Query.
+   * @param contexts Contexts.
+   * @param dimensionNames Dimension names.
+   * @param dateTimes Date times.
+   * @param dimensionValues Dimension values.
+   * @param countDeltas Count deltas.
+   * @param weightDeltas Weight deltas.
+   * @return The query.
+   */
+  private static Query bindDeltas(
+      final Query query,
+      final List<String> contexts,
+      final List<String> dimensionNames,
+      final List<LocalDateTime> dateTimes,
+      final List<String> dimensionValues,
+      final List<Long> countDeltas,
+      final List<BigDecimal> weightDeltas) {
+    query.setParameter("contexts", contexts.toArray(String[]::new));
+    query.setParameter("dimensionNames", dimensionNames.toArray(String[]::new));
+    query.setParameter("dateTimes", dateTimes.toArray(LocalDateTime[]::new));
+    query.setParameter("dimensionValues", dimensionValues.toArray(String[]::new));
+    query.setParameter("countDeltas", countDeltas.toArray(Long[]::new));
+    query.setParameter("weightDeltas", weightDeltas.toArray(BigDecimal[]::new));
+    return query;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<StatisticsEventSummaryDelta> applyDeltaBatch(
+      final List<StatisticsEventSummaryDelta> deltas) {
+    if (deltas == null || deltas.isEmpty()) {
+      return List.of();
+    }
+    final List<String> contexts = new ArrayList<>();
+    final List<String> dimensionNames = new ArrayList<>();
+    final List<LocalDateTime> dateTimes = new ArrayList<>();
+    final List<String> dimensionValues = new ArrayList<>();
+    final List<Long> countDeltas = new ArrayList<>();
+    final List<BigDecimal> weightDeltas = new ArrayList<>();
+    for (final StatisticsEventSummaryDelta delta : deltas) {
+      // Count and weight deltas are recorded together, but a value may still miss from one map.
+      final Set<String> values = new LinkedHashSet<>(delta.getCountDeltas().keySet());
+      values.addAll(delta.getWeightDeltas().keySet());
+      for (final String value : values) {
+        contexts.add(delta.getContext());
+        dimensionNames.add(delta.getDimensionName());
+        dateTimes.add(delta.getDateTime());
+        dimensionValues.add(value);
+        countDeltas.add(delta.getCountDeltas().getOrDefault(value, 0L));
+        weightDeltas.add(delta.getWeightDeltas().getOrDefault(value, BigDecimal.ZERO));
+      }
+    }
+    if (contexts.isEmpty()) {
+      return List.of();
+    }
+    StatisticsEventSummaryRepositoryImpl.bindDeltas(
+            this.entityManager.createNativeQuery(
+                StatisticsEventSummaryRepositoryImpl.ENSURE_SUMMARIES_SQL),
+            contexts,
+            dimensionNames,
+            dateTimes,
+            dimensionValues,
+            countDeltas,
+            weightDeltas)
+        .executeUpdate();
+    final List<Object[]> rows =
+        StatisticsEventSummaryRepositoryImpl.bindDeltas(
+                this.entityManager.createNativeQuery(
+                    StatisticsEventSummaryRepositoryImpl.APPLY_DELTA_BATCH_SQL),
+                contexts,
+                dimensionNames,
+                dateTimes,
+                dimensionValues,
+                countDeltas,
+                weightDeltas)
+            .getResultList();
+    final Map<StatisticsEventSummaryKey, StatisticsEventSummaryDelta> changes =
+        new LinkedHashMap<>();
+    for (final Object[] row : rows) {
+      final StatisticsEventSummaryKey key =
+          new StatisticsEventSummaryKey(
+              (String) row[0],
+              (String) row[1],
+              StatisticsEventRepositoryImpl.toLocalDateTime(row[2]));
+      changes
+          .computeIfAbsent(
+              key,
+              ignored ->
+                  new StatisticsEventSummaryDelta(
+                      key.getContext(), key.getDimensionName(), key.getDateTime()))
+          .addDelta(
+              (String) row[3], ((Number) row[4]).longValue(), (BigDecimal) row[5]);
+    }
+    return new ArrayList<>(changes.values());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<StatisticsEventSummary> findByPeriods(
+      final String context,
+      final Collection<String> dimensionNames,
+      final List<LocalDateTime> startDateTimes,
+      final List<LocalDateTime> endDateTimes) {
+    if (dimensionNames == null
+        || dimensionNames.isEmpty()
+        || startDateTimes == null
+        || startDateTimes.isEmpty()) {
+      return List.of();
+    }
+    final Query query =
+        this.entityManager.createNativeQuery(
+            StatisticsEventSummaryRepositoryImpl.FIND_BY_PERIODS_SQL, StatisticsEventSummary.class);
+    query.setHint(HibernateHints.HINT_READ_ONLY, true);
+    query.setParameter("context", context);
+    query.setParameter("dimensionNames", dimensionNames.toArray(String[]::new));
+    query.setParameter("startDateTimes", startDateTimes.toArray(LocalDateTime[]::new));
+    query.setParameter("endDateTimes", endDateTimes.toArray(LocalDateTime[]::new));
+    return query.getResultList();
+  }
+
+  @Override
+  public Stream<StatisticsEventSummary> streamByPeriod(
+      final String context,
+      final String dimensionName,
+      final LocalDateTime startDateTime,
+      final LocalDateTime endDateTime,
+      final int fetchSize) {
+    final TypedQuery<StatisticsEventSummary> query =
+        this.entityManager.createQuery(
+            StatisticsEventSummaryRepositoryImpl.STREAM_BY_PERIOD_JPQL
+                + (dimensionName == null
+                    ? ""
+                    : StatisticsEventSummaryRepositoryImpl.STREAM_BY_PERIOD_DIMENSION_JPQL)
+                + StatisticsEventSummaryRepositoryImpl.STREAM_BY_PERIOD_ORDER_JPQL,
+            StatisticsEventSummary.class);
+    query.setParameter("context", context);
+    query.setParameter("startDateTime", startDateTime);
+    query.setParameter("endDateTime", endDateTime);
+    if (dimensionName != null) {
+      query.setParameter("dimensionName", dimensionName);
+    }
+    query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+    query.setHint(HibernateHints.HINT_READ_ONLY, true);
+    return query.getResultStream();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<String> findDimensionNames(final String context) {
+    return this.entityManager
+        .createNativeQuery(StatisticsEventSummaryRepositoryImpl.FIND_DIMENSION_NAMES_SQL)
+        .setParameter("context", context)
+        .getResultList();
+  }
+
+  /**
+   * Runs a drift query of a dimension in a period and reads the bucket of each row.
+   *
+   * @param sql Drift query.
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (exclusive).
+   * @return The buckets.
+   */
+  private List<LocalDateTime> findBuckets(
+      final String sql,
+      final String context,
+      final String dimensionName,
+      final LocalDateTime startDateTime,
+      final LocalDateTime endDateTime) {
+    final List<?> rows =
+        this.entityManager
+            .createNativeQuery(sql)
+            .setParameter("context", context)
+            .setParameter("dimensionName", dimensionName)
+            .setParameter("startDateTime", startDateTime)
+            .setParameter("endDateTime", endDateTime)
+            .getResultList();
+    final List<LocalDateTime> buckets = new ArrayList<>(rows.size());
+    for (final Object row : rows) {
+      buckets.add(StatisticsEventRepositoryImpl.toLocalDateTime(row));
+    }
+    return buckets;
+  }
+
+  @Override
+  public List<LocalDateTime> findDriftByPeriod(
+      final String context,
+      final String dimensionName,
+      final LocalDateTime startDateTime,
+      final LocalDateTime endDateTime) {
+    return this.findBuckets(
+        StatisticsEventSummaryRepositoryImpl.FIND_DRIFT_BY_PERIOD_SQL,
+        context,
+        dimensionName,
+        startDateTime,
+        endDateTime);
+  }
+
+  @Override
+  public List<LocalDateTime> rebuildByPeriod(
+      final String context,
+      final String dimensionName,
+      final LocalDateTime startDateTime,
+      final LocalDateTime endDateTime,
+      final boolean deleteStale) {
+    return this.findBuckets(
+        deleteStale
+            ? StatisticsEventSummaryRepositoryImpl.REBUILD_BY_PERIOD_DELETING_STALE_SQL
+            : StatisticsEventSummaryRepositoryImpl.REBUILD_BY_PERIOD_SQL,
+        context,
+        dimensionName,
+        startDateTime,
+        endDateTime);
+  }
+
+  @Override
+  public boolean isPartitioned() {
+    return Boolean.TRUE.equals(
+        this.entityManager
+            .createNativeQuery(StatisticsEventSummaryRepositoryImpl.IS_PARTITIONED_SQL)
+            .getSingleResult());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<String> findPartitionNames() {
+    return this.entityManager
+        .createNativeQuery(StatisticsEventSummaryRepositoryImpl.FIND_PARTITION_NAMES_SQL)
+        .getResultList();
+  }
+
+  @Override
+  public void createPartition(
+      final String partitionName,
+      final LocalDateTime startDateTime,
+      final LocalDateTime endDateTime) {
+    this.entityManager
+        .createNativeQuery(
+            "CREATE TABLE IF NOT EXISTS "
+                + StatisticsEventRepositoryImpl.validatePartitionName(partitionName)
+                + " PARTITION OF statistics_event_summary FOR VALUES FROM ('"
+                + StatisticsEventRepositoryImpl.PARTITION_BOUND_FORMAT.format(startDateTime)
+                + "') TO ('"
+                + StatisticsEventRepositoryImpl.PARTITION_BOUND_FORMAT.format(endDateTime)
+                + "')")
+        .executeUpdate();
+  }
+
+  @Override
+  public void dropPartition(final String partitionName) {
+    this.entityManager
+        .createNativeQuery(
+            "DROP TABLE IF EXISTS "
+                + StatisticsEventRepositoryImpl.validatePartitionName(partitionName))
+        .executeUpdate();
+  }
+}
@@ -0,0 +1,261 @@
+package org.coldis.library.service.statistics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory rolling window of summaries for one (context, dimension): the last
+ * database snapshot of its recent truncation buckets plus an overlay of the
+ * deltas this node buffered since. Reads merge both, so recent periods are
+ * served without a round-trip.
+ *
+ * <p>The overlay is split in segments. Deltas go to the open segment;
+ * {@link #seal(long)} closes it when the delta buffer is drained (its deltas are
+ * then on their way to the database, tagged with the drain) and opens a new one.
+ * A {@link #reload(LocalDateTime, Collection, long) reload} replaces the snapshot
+ * and drops the segments of the drains confirmed applied before the database
+ * read started, which the new snapshot includes. Segments still in flight stay
+ * in the overlay until a later reload, so they are never missing from reads.
+ * Deltas buffered by other nodes show up on the next reload, so the window lags
+ * the database by up to one reconcile interval.
+ */
+public final class StatisticsEventSummaryRollingWindow {
+
+	/**
+	 * Database snapshot.
+	 *
+	 * @param start   First bucket covered by the window.
+	 * @param buckets Summaries per bucket.
+	 */
+	private record Snapshot(
+			LocalDateTime start,
+			Map<LocalDateTime, StatisticsEventSummary> buckets
+	) {}
+
+	/**
+	 * Sealed overlay segment.
+	 *
+	 * @param drain  Drain the segment was sealed for.
+	 * @param deltas Deltas per bucket.
+	 */
+	private record Segment(
+			long drain,
+			ConcurrentHashMap<LocalDateTime, StatisticsEventSummaryDelta> deltas
+	) {}
+
+	/** Context. */
+	private final String context;
+
+	/** Dimension name. */
+	private final String dimensionName;
+
+	/** Last database snapshot ({@code null} until the first reload). */
+	private volatile Snapshot snapshot;
+
+	/** Deltas per bucket of the open overlay segment. */
+	private final AtomicReference<ConcurrentHashMap<LocalDateTime, StatisticsEventSummaryDelta>> openSegment;
+
+	/** Sealed overlay segments, oldest first. */
+	private final ConcurrentLinkedDeque<Segment> sealedSegments = new ConcurrentLinkedDeque<>();
+
+	/** Last time the window was read (epoch millis). */
+	private volatile long lastReadAt;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param context       Context.
+	 * @param dimensionName Dimension name.
+	 */
+	public StatisticsEventSummaryRollingWindow(final String context, final String dimensionName) {
+		this.context = context;
+		this.dimensionName = dimensionName;
+		this.openSegment = new AtomicReference<>(new ConcurrentHashMap<>());
+		this.lastReadAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * Gets the context.
+	 *
+	 * @return The context.
+	 */
+	public String getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Gets the dimension name.
+	 *
+	 * @return The dimension name.
+	 */
+	public String getDimensionName() {
+		return this.dimensionName;
+	}
+
+	/**
+	 * Gets the first bucket covered by the window.
+	 *
+	 * @return The first bucket, or {@code null} before the first reload.
+	 */
+	public LocalDateTime getStart() {
+		final Snapshot current = this.snapshot;
+		return (current == null ? null : current.start());
+	}
+
+	/**
+	 * Gets the last time the window was read.
+	 *
+	 * @return The last read time (epoch millis).
+	 */
+	public long getLastReadAt() {
+		return this.lastReadAt;
+	}
+
+	/**
+	 * Adds a delta to the open overlay segment.
+	 *
+	 * @param dateTime Bucket of the delta (already truncated).
+	 * @param delta    The delta.
+	 */
+	public void record(
+			final LocalDateTime dateTime,
+			final StatisticsEventSummaryDelta delta) {
+		this.openSegment.get().compute(dateTime, (
+				bucket,
+				current) -> {
+			final StatisticsEventSummaryDelta merged = (current == null ? new StatisticsEventSummaryDelta(this.context, this.dimensionName, bucket) : current);
+			merged.reduce(delta);
+			return merged;
+		});
+	}
+
+	/**
+	 * Seals the open overlay segment and opens a new one.
+	 *
+	 * @param drain Drain the sealed deltas are sent with.
+	 */
+	public void seal(
+			final long drain) {
+		this.sealedSegments.addLast(new Segment(drain, this.openSegment.getAndSet(new ConcurrentHashMap<>())));
+	}
+
+	/**
+	 * Replaces the database snapshot and drops the overlay segments it already
+	 * includes.
+	 *
+	 * @param start          First bucket covered by the window.
+	 * @param summaries      Summaries read from the database from {@code start}.
+	 * @param confirmedDrain Last drain whose deltas (and every earlier drain's)
+	 *                           were confirmed applied when the read started.
+	 */
+	public void reload(
+			final LocalDateTime start,
+			final Collection<StatisticsEventSummary> summaries,
+			final long confirmedDrain) {
+		final Map<LocalDateTime, StatisticsEventSummary> buckets = new HashMap<>();
+		for (final StatisticsEventSummary summary : summaries) {
+			buckets.put(summary.getDateTime(), summary);
+		}
+		this.snapshot = new Snapshot(start, Map.copyOf(buckets));
+		this.sealedSegments.removeIf(segment -> segment.drain() <= confirmedDrain);
+	}
+
+	/**
+	 * Merges an overlay delta into a summary: entries at zero or below are
+	 * dropped and totals are recomputed from the maps (same rules as applying the
+	 * delta to the database).
+	 *
+	 * @param  dateTime Bucket.
+	 * @param  summary  Snapshot summary of the bucket (copied, never changed),
+	 *                      or {@code null}.
+	 * @param  deltas   Overlay deltas of the bucket.
+	 * @return          The merged summary.
+	 */
+	private StatisticsEventSummary merge(
+			final LocalDateTime dateTime,
+			final StatisticsEventSummary summary,
+			final List<StatisticsEventSummaryDelta> deltas) {
+		final StatisticsEventSummary merged = new StatisticsEventSummary(this.context, this.dimensionName, dateTime);
+		final Map<String, Long> counts = new HashMap<>(summary == null ? Map.of() : summary.getValueCounts());
+		final Map<String, BigDecimal> weights = new HashMap<>(summary == null ? Map.of() : summary.getValueWeights());
+		for (final StatisticsEventSummaryDelta delta : deltas) {
+			// Reduce is synchronized on the delta, so this reads a consistent copy.
+			synchronized (delta) {
+				delta.getCountDeltas().forEach((
+						value,
+						count) -> counts.merge(value, count, Long::sum));
+				delta.getWeightDeltas().forEach((
+						value,
+						weight) -> weights.merge(value, weight, BigDecimal::add));
+			}
+		}
+		counts.values().removeIf(count -> count <= 0);
+		weights.values().removeIf(weight -> weight.compareTo(BigDecimal.ZERO) <= 0);
+		merged.setValueCounts(counts);
+		merged.setValueWeights(weights);
+		merged.setTotalCount(counts.values().stream().mapToLong(Long::longValue).sum());
+		merged.setTotalWeight(weights.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+		return merged;
+	}
+
+	/**
+	 * Gets the summaries of a period, if the window covers it.
+	 *
+	 * @param  startDateTime Start date time (truncated).
+	 * @param  endDateTime   End date time (truncated).
+	 * @return               The summaries in the period ordered by bucket, or
+	 *                       {@code null} if the period starts before the window
+	 *                       (or the window is not loaded yet).
+	 */
+	public List<StatisticsEventSummary> findByPeriod(
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		final Snapshot current = this.snapshot;
+		if ((current == null) || startDateTime.isBefore(current.start())) {
+			return null;
+		}
+		this.lastReadAt = System.currentTimeMillis();
+		// Collects the overlay deltas per bucket in the period.
+		final Map<LocalDateTime, List<StatisticsEventSummaryDelta>> overlay = new HashMap<>();
+		final List<Map<LocalDateTime, StatisticsEventSummaryDelta>> segments = new ArrayList<>();
+		this.sealedSegments.forEach(segment -> segments.add(segment.deltas()));
+		segments.add(this.openSegment.get());
+		for (final Map<LocalDateTime, StatisticsEventSummaryDelta> segment : segments) {
+			segment.forEach((
+					bucket,
+					delta) -> {
+				if (!bucket.isBefore(startDateTime) && !bucket.isAfter(endDateTime)) {
+					overlay.computeIfAbsent(bucket, key -> new ArrayList<>()).add(delta);
+				}
+			});
+		}
+		// Snapshot rows are shared as they are; buckets with overlay deltas are merged into copies.
+		final Map<LocalDateTime, StatisticsEventSummary> summaries = new TreeMap<>();
+		current.buckets().forEach((
+				bucket,
+				summary) -> {
+			if (!bucket.isBefore(startDateTime) && !bucket.isAfter(endDateTime)) {
+				summaries.put(bucket, summary);
+			}
+		});
+		overlay.forEach((
+				bucket,
+				deltas) -> {
+			final StatisticsEventSummary summary = summaries.get(bucket);
+			final StatisticsEventSummary merged = this.merge(bucket, summary, deltas);
+			if ((summary != null) || (merged.getTotalCount() > 0L) || (merged.getTotalWeight().signum() > 0)) {
+				summaries.put(bucket, merged);
+			}
+		});
+		return List.copyOf(summaries.values());
+	}
+}
@@ -0,0 +1,486 @@
+package org.coldis.library.service.statistics;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.coldis.library.helper.DateTimeHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import jakarta.jms.TextMessage;
+
+/**
+ * Statistics event summary rolling window service component. Keeps the last
+ * {@code summary.rolling-window.buckets} truncation buckets of hot (context,
+ * dimension) pairs in memory (see {@link StatisticsEventSummaryRollingWindow}),
+ * so {@link StatisticsEventSummaryServiceComponent} serves reads of recent
+ * periods without a database round-trip.
+ *
+ * <p>Only contexts listed in {@code summary.rolling-window.contexts} are kept. A
+ * window is created on the first read of its pair (that read still goes to the
+ * database), fed with the deltas buffered by
+ * {@link StatisticsEventSummaryBufferServiceComponent#bufferDelta}, and reloaded
+ * from the database every {@code summary.rolling-window.reconcile-interval}.
+ * Windows not read for two intervals are dropped.
+ *
+ * <p>Every drain of the delta buffer seals the open overlay segments and tags
+ * its messages with this node and the drain. Once a batch commits, the applying
+ * node confirms it (directly, or on the {@code summary.rolling-window.confirmation-topic}
+ * JMS topic when the batch came from another node). A reload only drops the
+ * segments of drains whose batches were all confirmed before its read, so
+ * deltas still on their way to the database stay in the overlay. Drains not
+ * confirmed within {@code summary.rolling-window.confirm-timeout} (a lost
+ * confirmation) are taken as applied.
+ */
+@Component
+@Qualifier(StatisticsEventSummaryRollingWindowServiceComponent.QUALIFIER)
+@ConditionalOnProperty(
+		name = "org.coldis.configuration.service.statistics-enabled",
+		matchIfMissing = false
+)
+public class StatisticsEventSummaryRollingWindowServiceComponent {
+
+	/**
+	 * Bean qualifier. Pin this library bean with {@code @Qualifier(StatisticsEventSummaryRollingWindowServiceComponent.QUALIFIER)}
+	 * when an extended subclass makes injection by type ambiguous.
+	 */
+	public static final String QUALIFIER = "statisticsEventSummaryRollingWindowServiceComponent";
+
+	/** Logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsEventSummaryRollingWindowServiceComponent.class);
+
+	/** Message property with the node that drained a delta batch. */
+	public static final String NODE_PROPERTY = "statisticsRollingWindowNode";
+
+	/** Message property with the drain of a delta batch. */
+	public static final String DRAIN_PROPERTY = "statisticsRollingWindowDrain";
+
+	/**
+	 * Window key.
+	 *
+	 * @param context       Context.
+	 * @param dimensionName Dimension name.
+	 */
+	private record WindowKey(
+			String context,
+			String dimensionName
+	) {}
+
+	/**
+	 * Drain whose delta batches are not all confirmed yet.
+	 */
+	private static final class PendingDrain {
+
+		/** When the drain sealed the windows (epoch millis). */
+		private final long sealedAt = System.currentTimeMillis();
+
+		/** Messages sent by the drain ({@code -1} while it is sending). */
+		private volatile int messages = -1;
+
+		/** Messages confirmed applied. */
+		private final AtomicInteger applied = new AtomicInteger();
+
+		/**
+		 * Checks if every message of the drain is confirmed applied.
+		 *
+		 * @return If every message of the drain is confirmed applied.
+		 */
+		private boolean isApplied() {
+			final int sent = this.messages;
+			return (sent >= 0) && (this.applied.get() >= sent);
+		}
+
+	}
+
+	/** Statistics context configuration service component. */
+	@Autowired
+	private StatisticsContextConfigurationServiceComponent statisticsContextConfigurationServiceComponent;
+
+	/** Statistics event summary repository. */
+	@Autowired
+	private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
+
+	/** JMS template (its connection factory carries the confirmation topic). */
+	@Autowired
+	private JmsTemplate jmsTemplate;
+
+	/** If rolling windows are kept. */
+	@Value("${org.coldis.library.service.statistics.summary.rolling-window.enabled:false}")
+	private boolean enabled;
+
+	/** Comma-separated contexts whose dimensions are kept in rolling windows. */
+	@Value("${org.coldis.library.service.statistics.summary.rolling-window.contexts:}")
+	private String contextList;
+
+	/** Truncation buckets kept per window, including the current one. */
+	@Value("${org.coldis.library.service.statistics.summary.rolling-window.buckets:8}")
+	private int bucketCount;
+
+	/** Interval between database reloads of the windows. */
+	@Value("${org.coldis.library.service.statistics.summary.rolling-window.reconcile-interval:30s}")
+	private Duration reconcileInterval;
+
+	/** Time after which an unconfirmed drain is taken as applied. */
+	@Value("${org.coldis.library.service.statistics.summary.rolling-window.confirm-timeout:5m}")
+	private Duration confirmTimeout;
+
+	/** Confirmation topic. */
+	@Value("${org.coldis.library.service.statistics.summary.rolling-window.confirmation-topic:statistics-event/summary/rolling-window/confirmation}")
+	private String confirmationTopic;
+
+	/** Node identifier (drains are confirmed to the node that sent them). */
+	private final String node = UUID.randomUUID().toString();
+
+	/** Contexts kept in rolling windows. */
+	private Set<String> contexts;
+
+	/** Windows per (context, dimension). */
+	private final Map<WindowKey, StatisticsEventSummaryRollingWindow> windows = new ConcurrentHashMap<>();
+
+	/** Last drain. */
+	private final AtomicLong lastDrain = new AtomicLong();
+
+	/** Drains not confirmed yet, oldest first. */
+	private final ConcurrentSkipListMap<Long, PendingDrain> pendingDrains = new ConcurrentSkipListMap<>();
+
+	/** Last drain confirmed along with every earlier one. */
+	private volatile long confirmedDrain;
+
+	/** Confirmation topic template (created on first use). */
+	private volatile JmsTemplate confirmationTemplate;
+
+	/** Confirmation topic listener. */
+	private DefaultMessageListenerContainer confirmationListener;
+
+	/**
+	 * Parses the configured contexts once they are injected and, when windows
+	 * are kept, listens to the confirmation topic. The listener is a plain
+	 * (non-durable) topic subscription: confirmations for a stopped node are not
+	 * needed, its windows are gone.
+	 */
+	@PostConstruct
+	public void initializeRollingWindows() {
+		this.contexts = Arrays.stream(this.contextList.split(",")).map(String::trim).filter(context -> !context.isEmpty())
+				.collect(Collectors.toUnmodifiableSet());
+		if (this.enabled && (this.bucketCount > 0) && !this.contexts.isEmpty()) {
+			final DefaultMessageListenerContainer listener = new DefaultMessageListenerContainer();
+			listener.setConnectionFactory(this.jmsTemplate.getConnectionFactory());
+			listener.setPubSubDomain(true);
+			listener.setDestinationName(this.confirmationTopic);
+			listener.setMessageListener((MessageListener) this::receiveConfirmation);
+			listener.afterPropertiesSet();
+			listener.start();
+			this.confirmationListener = listener;
+		}
+	}
+
+	/** Stops listening to the confirmation topic. */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (this.confirmationListener != null) {
+			this.confirmationListener.shutdown();
+			this.confirmationListener = null;
+		}
+	}
+
+	/**
+	 * Checks if a context is kept in rolling windows.
+	 *
+	 * @param  context Context.
+	 * @return         If the context is kept in rolling windows.
+	 */
+	public boolean isRollingContext(
+			final String context) {
+		return this.enabled && (this.bucketCount > 0) && this.contexts.contains(context);
+	}
+
+	/**
+	 * Adds a buffered delta to the window of its pair, if there is one.
+	 *
+	 * @param key   Summary key.
+	 * @param delta The delta.
+	 */
+	public void record(
+			final StatisticsEventSummaryKey key,
+			final StatisticsEventSummaryDelta delta) {
+		if (this.enabled && !this.windows.isEmpty()) {
+			final StatisticsEventSummaryRollingWindow window = this.windows.get(new WindowKey(key.getContext(), key.getDimensionName()));
+			if (window != null) {
+				window.record(key.getDateTime(), delta);
+			}
+		}
+	}
+
+	/**
+	 * Seals the open overlay segment of every window. Called right before the
+	 * delta buffer is drained, so the sealed deltas are the ones on their way to
+	 * the database.
+	 *
+	 * @return The drain to tag the drained messages with ({@code -1} when there
+	 *         is no window).
+	 */
+	public long seal() {
+		if (this.windows.isEmpty()) {
+			return -1L;
+		}
+		final long drain = this.lastDrain.incrementAndGet();
+		this.pendingDrains.put(drain, new PendingDrain());
+		this.windows.values().forEach(window -> window.seal(drain));
+		return drain;
+	}
+
+	/**
+	 * Tags a drained delta batch message with this node and the drain.
+	 *
+	 * @param  message       The message.
+	 * @param  drain         The drain ({@code -1} for none).
+	 * @return               The message.
+	 * @throws JMSException If the message cannot be tagged.
+	 */
+	public Message tag(
+			final Message message,
+			final long drain) throws JMSException {
+		if (drain >= 0L) {
+			message.setStringProperty(StatisticsEventSummaryRollingWindowServiceComponent.NODE_PROPERTY, this.node);
+			message.setLongProperty(StatisticsEventSummaryRollingWindowServiceComponent.DRAIN_PROPERTY, drain);
+		}
+		return message;
+	}
+
+	/**
+	 * Records the number of messages a drain sent. The drain is confirmed once
+	 * as many of its messages are.
+	 *
+	 * @param drain    The drain ({@code -1} for none).
+	 * @param messages Messages sent.
+	 */
+	public void drained(
+			final long drain,
+			final int messages) {
+		final PendingDrain pendingDrain = this.pendingDrains.get(drain);
+		if (pendingDrain != null) {
+			pendingDrain.messages = messages;
+		}
+	}
+
+	/**
+	 * Confirms a delta batch message once the current transaction commits (at
+	 * once without one). Batches drained by this node are confirmed directly;
+	 * the others are published on the confirmation topic. Messages without a
+	 * drain are ignored.
+	 *
+	 * @param node  Node that drained the batch.
+	 * @param drain Drain of the batch.
+	 */
+	public void confirmAfterCommit(
+			final String node,
+			final Long drain) {
+		if (StringUtils.isBlank(node) || (drain == null)) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				/**
+				 * @see org.springframework.transaction.support.TransactionSynchronization#afterCommit()
+				 */
+				@Override
+				public void afterCommit() {
+					StatisticsEventSummaryRollingWindowServiceComponent.this.confirm(node, drain);
+				}
+
+			});
+		}
+		else {
+			this.confirm(node, drain);
+		}
+	}
+
+	/**
+	 * Confirms a delta batch message. Failures to publish are logged, not thrown:
+	 * the batch is already committed, and the drain times out instead.
+	 *
+	 * @param node  Node that drained the batch.
+	 * @param drain Drain of the batch.
+	 */
+	private void confirm(
+			final String node,
+			final long drain) {
+		if (this.node.equals(node)) {
+			this.confirmLocal(drain);
+		}
+		else {
+			try {
+				if (this.confirmationTemplate == null) {
+					final JmsTemplate template = new JmsTemplate(this.jmsTemplate.getConnectionFactory());
+					template.setPubSubDomain(true);
+					this.confirmationTemplate = template;
+				}
+				this.confirmationTemplate.convertAndSend(this.confirmationTopic, node + ":" + drain);
+			}
+			catch (final Exception exception) {
+				StatisticsEventSummaryRollingWindowServiceComponent.LOGGER.error("Could not publish rolling window confirmation.", exception);
+			}
+		}
+	}
+
+	/**
+	 * Confirms a delta batch message drained by this node.
+	 *
+	 * @param drain Drain of the batch.
+	 */
+	private void confirmLocal(
+			final long drain) {
+		final PendingDrain pendingDrain = this.pendingDrains.get(drain);
+		if (pendingDrain != null) {
+			pendingDrain.applied.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Confirms the delta batch message of a confirmation topic message, if it
+	 * was drained by this node.
+	 *
+	 * @param message Confirmation message.
+	 */
+	private void receiveConfirmation(
+			final Message message) {
+		try {
+			if (message instanceof final TextMessage textMessage) {
+				final String[] confirmation = textMessage.getText().split(":");
+				if ((confirmation.length == 2) && this.node.equals(confirmation[0])) {
+					this.confirmLocal(Long.parseLong(confirmation[1]));
+				}
+			}
+		}
+		catch (final Exception exception) {
+			StatisticsEventSummaryRollingWindowServiceComponent.LOGGER.error("Could not process rolling window confirmation.", exception);
+		}
+	}
+
+	/**
+	 * Gets the last drain confirmed along with every earlier one. Drains not
+	 * confirmed within the confirm timeout are taken as applied.
+	 *
+	 * @return The last confirmed drain.
+	 */
+	private synchronized long getConfirmedDrain() {
+		final long timedOutBefore = System.currentTimeMillis() - this.confirmTimeout.toMillis();
+		for (Map.Entry<Long, PendingDrain> oldest = this.pendingDrains.firstEntry(); (oldest != null)
+				&& (oldest.getValue().isApplied() || (oldest.getValue().sealedAt < timedOutBefore)); oldest = this.pendingDrains.firstEntry()) {
+			if (!oldest.getValue().isApplied()) {
+				StatisticsEventSummaryRollingWindowServiceComponent.LOGGER.warn("Rolling window drain not confirmed in time: drain={}", oldest.getKey());
+			}
+			this.pendingDrains.remove(oldest.getKey());
+			this.confirmedDrain = oldest.getKey();
+		}
+		return this.confirmedDrain;
+	}
+
+	/**
+	 * Reloads a window from the database: the last {@code buckets} truncation
+	 * buckets up to the current one.
+	 *
+	 * @param window The window.
+	 */
+	private void reload(
+			final StatisticsEventSummaryRollingWindow window) {
+		final long truncationMinutes = this.statisticsContextConfigurationServiceComponent.getTruncationMinutes(window.getContext());
+		final LocalDateTime current = StatisticsEvent.truncateDateTime(DateTimeHelper.getCurrentLocalDateTime(), truncationMinutes);
+		final LocalDateTime start = current.minusMinutes(truncationMinutes * (this.bucketCount - 1));
+		// The confirmed drain is taken before the read, so the read includes every batch of it.
+		final long confirmedDrain = this.getConfirmedDrain();
+		window.reload(start, this.statisticsEventSummaryRepository.findByPeriod(window.getContext(), window.getDimensionName(), start, current),
+				confirmedDrain);
+	}
+
+	/**
+	 * Gets the summaries of a recent period from memory.
+	 *
+	 * @param  context       Context.
+	 * @param  dimensionName Dimension name.
+	 * @param  startDateTime Start date time (truncated).
+	 * @param  endDateTime   End date time (truncated).
+	 * @return               The summaries in the period, or {@code null} if the
+	 *                       period is not in a loaded window (the caller then
+	 *                       reads the database).
+	 */
+	public List<StatisticsEventSummary> findByPeriod(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		if (!this.isRollingContext(context)) {
+			return null;
+		}
+		final WindowKey key = new WindowKey(context, dimensionName);
+		StatisticsEventSummaryRollingWindow window = this.windows.get(key);
+		if (window == null) {
+			// Registers the window before loading it, so deltas buffered during the load are recorded.
+			final StatisticsEventSummaryRollingWindow created = new StatisticsEventSummaryRollingWindow(context, dimensionName);
+			window = this.windows.putIfAbsent(key, created);
+			if (window == null) {
+				try {
+					this.reload(created);
+				}
+				catch (final Exception exception) {
+					this.windows.remove(key, created);
+					StatisticsEventSummaryRollingWindowServiceComponent.LOGGER.warn("Could not load rolling window: context={}, dimension={}", context,
+							dimensionName, exception);
+				}
+				return null;
+			}
+		}
+		return window.findByPeriod(startDateTime, endDateTime);
+	}
+
+	/**
+	 * Reloads every window from the database and drops the ones not read since
+	 * two intervals.
+	 */
+	@Scheduled(fixedDelayString = "${org.coldis.library.service.statistics.summary.rolling-window.reconcile-interval:30s}")
+	public void reconcileRollingWindows() {
+		final long idleSince = System.currentTimeMillis() - (2 * this.reconcileInterval.toMillis());
+		for (final Map.Entry<WindowKey, StatisticsEventSummaryRollingWindow> entry : this.windows.entrySet()) {
+			final StatisticsEventSummaryRollingWindow window = entry.getValue();
+			if (window.getLastReadAt() < idleSince) {
+				this.windows.remove(entry.getKey(), window);
+			}
+			else {
+				try {
+					this.reload(window);
+				}
+				catch (final Exception exception) {
+					StatisticsEventSummaryRollingWindowServiceComponent.LOGGER.warn("Could not reconcile rolling window: context={}, dimension={}",
+							window.getContext(), window.getDimensionName(), exception);
+				}
+			}
+		}
+	}
+}
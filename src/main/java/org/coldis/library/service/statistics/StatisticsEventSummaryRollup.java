@@ -0,0 +1,336 @@
+package org.coldis.library.service.statistics;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonView;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.coldis.library.helper.DateTimeHelper;
+import org.coldis.library.model.view.ModelView;
+import org.coldis.library.persistence.model.AbstractTimestampableEntity;
+
+/**
+ * Statistics event summary roll-up. Aggregates the {@link StatisticsEventSummary} rows of a context
+ * and dimension over one bucket of a coarser tier (e.g. an hour, a day or a week), kept up to date
+ * as summary deltas are applied. Long periods are read from the roll-ups that fit in them instead
+ * of every summary bucket.
+ */
+@Entity
+@IdClass(value = StatisticsEventSummaryRollupKey.class)
+@Table(
+    indexes = {
+      @Index(
+          name = "idx_statistics_event_summary_rollup_context_dimension_tier_datetime",
+          columnList = "context, dimension_name, tier_minutes, date_time")
+    })
+public class StatisticsEventSummaryRollup extends AbstractTimestampableEntity {
+
+  /** Serial. */
+  private static final long serialVersionUID = 2215874390617402958L;
+
+  /** Context. */
+  private String context;
+
+  /** Dimension name. */
+  private String dimensionName;
+
+  /** Tier size in minutes. */
+  private Long tierMinutes;
+
+  /** Date time. */
+  private LocalDateTime dateTime;
+
+  /** Value counts. */
+  private Map<String, Long> valueCounts;
+
+  /** Total count. */
+  private Long totalCount;
+
+  /** Accumulated weight per dimension value. */
+  private Map<String, BigDecimal> valueWeights;
+
+  /** Total accumulated weight. */
+  private BigDecimal totalWeight;
+
+  /** No arguments constructor. */
+  public StatisticsEventSummaryRollup() {}
+
+  /**
+   * Full constructor.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param tierMinutes Tier size in minutes.
+   * @param dateTime Date time (start of the tier bucket).
+   */
+  public StatisticsEventSummaryRollup(
+      final String context,
+      final String dimensionName,
+      final Long tierMinutes,
+      final LocalDateTime dateTime) {
+    super();
+    this.context = context;
+    this.dimensionName = dimensionName;
+    this.tierMinutes = tierMinutes;
+    this.dateTime = dateTime;
+  }
+
+  /**
+   * Returns the composite id.
+   *
+   * @return The composite id.
+   */
+  @Transient
+  @JsonIgnore
+  public StatisticsEventSummaryRollupKey getId() {
+    return new StatisticsEventSummaryRollupKey(
+        this.getContext(), this.getDimensionName(), this.getTierMinutes(), this.getDateTime());
+  }
+
+  /**
+   * Gets the context.
+   *
+   * @return The context.
+   */
+  @Id
+  @NotNull
+  @NotEmpty
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public String getContext() {
+    return context;
+  }
+
+  /**
+   * Sets the context.
+   *
+   * @param context New context.
+   */
+  public void setContext(final String context) {
+    this.context = context;
+  }
+
+  /**
+   * Gets the dimension name.
+   *
+   * @return The dimension name.
+   */
+  @Id
+  @NotNull
+  @NotEmpty
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public String getDimensionName() {
+    return dimensionName;
+  }
+
+  /**
+   * Sets the dimension name.
+   *
+   * @param dimensionName New dimension name.
+   */
+  public void setDimensionName(final String dimensionName) {
+    this.dimensionName = dimensionName;
+  }
+
+  /**
+   * Gets the tier size in minutes.
+   *
+   * @return The tier size in minutes.
+   */
+  @Id
+  @NotNull
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public Long getTierMinutes() {
+    return this.tierMinutes;
+  }
+
+  /**
+   * Sets the tier size in minutes.
+   *
+   * @param tierMinutes New tier size in minutes.
+   */
+  public void setTierMinutes(final Long tierMinutes) {
+    this.tierMinutes = tierMinutes;
+  }
+
+  /**
+   * Gets the date time (start of the tier bucket).
+   *
+   * @return The date time.
+   */
+  @Id
+  @NotNull
+  @Column(name = "date_time", columnDefinition = "TIMESTAMPTZ")
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public LocalDateTime getDateTime() {
+    return this.dateTime;
+  }
+
+  /**
+   * Sets the date time.
+   *
+   * @param dateTime New date time.
+   */
+  public void setDateTime(final LocalDateTime dateTime) {
+    this.dateTime = dateTime;
+  }
+
+  /**
+   * Gets the value counts map. Each key is a dimension value and its value is the occurrence count.
+   *
+   * @return The value counts.
+   */
+  @Column(columnDefinition = "JSONB")
+  @Convert(converter = MapStringLongJsonConverter.class)
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public Map<String, Long> getValueCounts() {
+    // Makes sure the map is initialized.
+    this.valueCounts = (this.valueCounts == null ? new HashMap<>() : this.valueCounts);
+    return this.valueCounts;
+  }
+
+  /**
+   * Sets the value counts.
+   *
+   * @param valueCounts New value counts.
+   */
+  public void setValueCounts(final Map<String, Long> valueCounts) {
+    this.valueCounts = valueCounts;
+  }
+
+  /**
+   * Gets the total count across all dimension values.
+   *
+   * @return The total count.
+   */
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public Long getTotalCount() {
+    // Makes sure the count is initialized.
+    this.totalCount = (this.totalCount == null ? 0L : this.totalCount);
+    return this.totalCount;
+  }
+
+  /**
+   * Sets the total count.
+   *
+   * @param totalCount New total count.
+   */
+  public void setTotalCount(final Long totalCount) {
+    this.totalCount = totalCount;
+  }
+
+  /**
+   * Gets the accumulated weight per dimension value.
+   *
+   * @return The value weights.
+   */
+  @Column(columnDefinition = "JSONB")
+  @Convert(converter = MapStringBigDecimalJsonConverter.class)
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public Map<String, BigDecimal> getValueWeights() {
+    this.valueWeights = (this.valueWeights == null ? new HashMap<>() : this.valueWeights);
+    return this.valueWeights;
+  }
+
+  /**
+   * Sets the value weights.
+   *
+   * @param valueWeights New value weights.
+   */
+  public void setValueWeights(final Map<String, BigDecimal> valueWeights) {
+    this.valueWeights = valueWeights;
+  }
+
+  /**
+   * Gets the total accumulated weight.
+   *
+   * @return The total weight.
+   */
+  @JsonView({ModelView.Persistent.class, ModelView.Public.class})
+  public BigDecimal getTotalWeight() {
+    this.totalWeight = (this.totalWeight == null ? BigDecimal.ZERO : this.totalWeight);
+    return this.totalWeight;
+  }
+
+  /**
+   * Sets the total weight.
+   *
+   * @param totalWeight New total weight.
+   */
+  public void setTotalWeight(final BigDecimal totalWeight) {
+    this.totalWeight = totalWeight;
+  }
+
+  /**
+   * Converts the roll-up into a summary dated at the start of its tier bucket, so it can be
+   * aggregated with (and in place of) the summaries it covers.
+   *
+   * @return The summary.
+   */
+  public StatisticsEventSummary toSummary() {
+    final StatisticsEventSummary summary =
+        new StatisticsEventSummary(this.getContext(), this.getDimensionName(), this.getDateTime());
+    summary.setValueCounts(this.getValueCounts());
+    summary.setTotalCount(this.getTotalCount());
+    summary.setValueWeights(this.getValueWeights());
+    summary.setTotalWeight(this.getTotalWeight());
+    return summary;
+  }
+
+  /**
+   * @see Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = super.hashCode();
+    result =
+        (prime * result)
+            + Objects.hash(
+                this.context,
+                this.dimensionName,
+                this.tierMinutes,
+                this.dateTime,
+                this.valueCounts,
+                this.totalCount,
+                this.valueWeights,
+                this.totalWeight);
+    return result;
+  }
+
+  /**
+   * @see Object#equals(Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!super.equals(obj)) {
+      return false;
+    }
+    if (!(obj instanceof StatisticsEventSummaryRollup)) {
+      return false;
+    }
+    final StatisticsEventSummaryRollup other = (StatisticsEventSummaryRollup) obj;
+    return Objects.equals(this.context, other.context)
+        && Objects.equals(this.dimensionName, other.dimensionName)
+        && Objects.equals(this.tierMinutes, other.tierMinutes)
+        && Objects.equals(this.dateTime, other.dateTime)
+        && Objects.equals(this.valueCounts, other.valueCounts)
+        && Objects.equals(this.totalCount, other.totalCount)
+        && Objects.equals(this.valueWeights, other.valueWeights)
+        && Objects.equals(this.totalWeight, other.totalWeight);
+  }
+}
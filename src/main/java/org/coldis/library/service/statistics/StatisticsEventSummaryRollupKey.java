@@ -0,0 +1,145 @@
+package org.coldis.library.service.statistics;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/** Composite key for {@link StatisticsEventSummaryRollup}. */
+public class StatisticsEventSummaryRollupKey implements Serializable {
+
+  /** Serial. */
+  private static final long serialVersionUID = 4728160395518273406L;
+
+  /** Context. */
+  private String context;
+
+  /** Dimension name. */
+  private String dimensionName;
+
+  /** Tier size in minutes. */
+  private Long tierMinutes;
+
+  /** Date time. */
+  private LocalDateTime dateTime;
+
+  /** No arguments constructor. */
+  public StatisticsEventSummaryRollupKey() {}
+
+  /**
+   * Full constructor.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param tierMinutes Tier size in minutes.
+   * @param dateTime Date time.
+   */
+  public StatisticsEventSummaryRollupKey(
+      final String context,
+      final String dimensionName,
+      final Long tierMinutes,
+      final LocalDateTime dateTime) {
+    super();
+    this.context = context;
+    this.dimensionName = dimensionName;
+    this.tierMinutes = tierMinutes;
+    this.dateTime = dateTime;
+  }
+
+  /**
+   * Gets the context.
+   *
+   * @return The context.
+   */
+  public String getContext() {
+    return context;
+  }
+
+  /**
+   * Sets the context.
+   *
+   * @param context New context.
+   */
+  public void setContext(final String context) {
+    this.context = context;
+  }
+
+  /**
+   * Gets the dimension name.
+   *
+   * @return The dimension name.
+   */
+  public String getDimensionName() {
+    return dimensionName;
+  }
+
+  /**
+   * Sets the dimension name.
+   *
+   * @param dimensionName New dimension name.
+   */
+  public void setDimensionName(final String dimensionName) {
+    this.dimensionName = dimensionName;
+  }
+
+  /**
+   * Gets the tier size in minutes.
+   *
+   * @return The tier size in minutes.
+   */
+  public Long getTierMinutes() {
+    return tierMinutes;
+  }
+
+  /**
+   * Sets the tier size in minutes.
+   *
+   * @param tierMinutes New tier size in minutes.
+   */
+  public void setTierMinutes(final Long tierMinutes) {
+    this.tierMinutes = tierMinutes;
+  }
+
+  /**
+   * Gets the date time.
+   *
+   * @return The date time.
+   */
+  public LocalDateTime getDateTime() {
+    return dateTime;
+  }
+
+  /**
+   * Sets the date time.
+   *
+   * @param dateTime New date time.
+   */
+  public void setDateTime(final LocalDateTime dateTime) {
+    this.dateTime = dateTime;
+  }
+
+  /**
+   * @see Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.context, this.dimensionName, this.tierMinutes, this.dateTime);
+  }
+
+  /**
+   * @see Object#equals(Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof StatisticsEventSummaryRollupKey)) {
+      return false;
+    }
+    final StatisticsEventSummaryRollupKey other = (StatisticsEventSummaryRollupKey) obj;
+    return Objects.equals(this.context, other.context)
+        && Objects.equals(this.dimensionName, other.dimensionName)
+        && Objects.equals(this.tierMinutes, other.tierMinutes)
+        && Objects.equals(this.dateTime, other.dateTime);
+  }
+}
@@ -0,0 +1,79 @@
+package org.coldis.library.service.statistics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import jakarta.persistence.QueryHint;
+import org.coldis.library.persistence.repository.PostgresJpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Statistics event summary roll-up repository. Set-based delta application lives in {@link
+ * StatisticsEventSummaryRollupRepositoryCustom}.
+ */
+@Repository
+public interface StatisticsEventSummaryRollupRepository
+    extends PostgresJpaRepository<StatisticsEventSummaryRollup, StatisticsEventSummaryRollupKey>,
+        StatisticsEventSummaryRollupRepositoryCustom {
+
+  /**
+   * Finds the roll-ups of one tier for a context and dimension within a date range — an
+   * index-friendly range scan over {@code (context, dimension_name, tier_minutes, date_time)},
+   * loaded read-only.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param tierMinutes Tier size in minutes.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (inclusive).
+   * @return The list of roll-ups in the period for the dimension and tier.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query(
+      "SELECT rollup FROM StatisticsEventSummaryRollup rollup "
+          + "WHERE context = :context "
+          + "AND dimensionName = :dimensionName "
+          + "AND tierMinutes = :tierMinutes "
+          + "AND dateTime >= :startDateTime "
+          + "AND dateTime <= :endDateTime")
+  List<StatisticsEventSummaryRollup> findByPeriod(
+      @Param("context") String context,
+      @Param("dimensionName") String dimensionName,
+      @Param("tierMinutes") Long tierMinutes,
+      @Param("startDateTime") LocalDateTime startDateTime,
+      @Param("endDateTime") LocalDateTime endDateTime);
+
+  /**
+   * Deletes the roll-ups of one tier for a context and dimension within a date range. Used by the
+   * rebuild before the range is written again.
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @param tierMinutes Tier size in minutes.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (inclusive).
+   * @return The number of deleted roll-ups.
+   */
+  @Modifying
+  @Transactional(propagation = Propagation.REQUIRED)
+  @Query(
+      "DELETE FROM StatisticsEventSummaryRollup rollup "
+          + "WHERE context = :context "
+          + "AND dimensionName = :dimensionName "
+          + "AND tierMinutes = :tierMinutes "
+          + "AND dateTime >= :startDateTime "
+          + "AND dateTime <= :endDateTime")
+  int deleteByPeriod(
+      @Param("context") String context,
+      @Param("dimensionName") String dimensionName,
+      @Param("tierMinutes") Long tierMinutes,
+      @Param("startDateTime") LocalDateTime startDateTime,
+      @Param("endDateTime") LocalDateTime endDateTime);
+}
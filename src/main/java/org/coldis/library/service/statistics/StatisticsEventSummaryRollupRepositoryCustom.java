@@ -0,0 +1,35 @@
+package org.coldis.library.service.statistics;
+
+import java.util.List;
+
+/**
+ * Custom statistics event summary roll-up repository operations not expressible as Spring Data
+ * derived queries.
+ */
+public interface StatisticsEventSummaryRollupRepositoryCustom {
+
+  /**
+   * Applies a batch of summary deltas to the roll-ups of every tier in a single statement, with the
+   * same rules as {@link StatisticsEventSummaryRepositoryCustom#applyDeltaBatch(List)}: deltas are
+   * summed per roll-up key, missing roll-ups are inserted and existing ones are updated in key
+   * order, value entries that drop to zero or below are removed and the totals are recomputed from
+   * the merged maps.
+   *
+   * @param deltas Deltas to apply.
+   * @param tierMinutes Tier sizes in minutes.
+   * @return The number of roll-up rows inserted or updated.
+   */
+  int applyDeltaBatch(List<StatisticsEventSummaryDelta> deltas, List<Long> tierMinutes);
+
+  /**
+   * Takes the transaction-level advisory locks of the roll-ups of some dimensions, in lock key
+   * order: shared to apply deltas (so delta batches do not wait on each other), exclusive to
+   * rebuild (so no delta reaches the roll-ups of a dimension between a rebuild reading its
+   * summaries and writing its roll-ups).
+   *
+   * @param contexts Contexts.
+   * @param dimensionNames Dimension names, parallel to {@code contexts}.
+   * @param exclusive If the locks are exclusive.
+   */
+  void lockDimensions(List<String> contexts, List<String> dimensionNames, boolean exclusive);
+}
@@ -0,0 +1,204 @@
+package org.coldis.library.service.statistics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Custom statistics event summary roll-up repository operations. Same set-based approach as
+ * {@link StatisticsEventSummaryRepositoryImpl}: parallel arrays bound via {@code unnest}, JSONB
+ * maps merged with {@code jsonb_each_text} and re-aggregated with {@code jsonb_object_agg} inside
+ * {@code INSERT ... ON CONFLICT DO UPDATE}. Each delta is bound once per tier, with its tier bucket
+ * already computed by {@link StatisticsEventSummaryHelper#truncateToTier}. Applying deltas and
+ * rebuilding are kept apart per dimension with transaction-level advisory locks.
+ */
+public class StatisticsEventSummaryRollupRepositoryImpl
+    implements StatisticsEventSummaryRollupRepositoryCustom {
+
+  /** Roll-up deltas of the conflicting row. */
+  private static final String CONFLICTING_DELTAS_SQL =
+      "       WHERE d.context = EXCLUDED.context"
+          + "         AND d.dimension_name = EXCLUDED.dimension_name"
+          + "         AND d.tier_minutes = EXCLUDED.tier_minutes"
+          + "         AND d.date_time = EXCLUDED.date_time";
+
+  /**
+   * Merges the existing value maps of the conflicting roll-up with its deltas, dropping entries
+   * that end at zero or below, and recomputes the totals from what is left.
+   */
+  private static final String MERGE_VALUES_SQL =
+      " (value_counts, total_count) = ("
+          + "   SELECT COALESCE(jsonb_object_agg(m.dimension_value, m.amount), '{}'::jsonb),"
+          + "          COALESCE(SUM(m.amount), 0)"
+          + "   FROM ("
+          + "     SELECT u.dimension_value, SUM(u.amount) AS amount FROM ("
+          + "       SELECT e.key AS dimension_value, CAST(e.value AS bigint) AS amount"
+          + "       FROM jsonb_each_text(COALESCE(statistics_event_summary_rollup.value_counts,"
+          + "            '{}'::jsonb)) e"
+          + "       UNION ALL"
+          + "       SELECT d.dimension_value, d.count_delta FROM deltas d"
+          + StatisticsEventSummaryRollupRepositoryImpl.CONFLICTING_DELTAS_SQL
+          + "     ) u GROUP BY u.dimension_value"
+          + "   ) m WHERE m.amount > 0"
+          + " ),"
+          + " (value_weights, total_weight) = ("
+          + "   SELECT COALESCE(jsonb_object_agg(m.dimension_value, m.amount), '{}'::jsonb),"
+          + "          COALESCE(SUM(m.amount), 0)"
+          + "   FROM ("
+          + "     SELECT u.dimension_value, SUM(u.amount) AS amount FROM ("
+          + "       SELECT e.key AS dimension_value, CAST(e.value AS numeric) AS amount"
+          + "       FROM jsonb_each_text(COALESCE(statistics_event_summary_rollup.value_weights,"
+          + "            '{}'::jsonb)) e"
+          + "       UNION ALL"
+          + "       SELECT d.dimension_value, d.weight_delta FROM deltas d"
+          + StatisticsEventSummaryRollupRepositoryImpl.CONFLICTING_DELTAS_SQL
+          + "     ) u GROUP BY u.dimension_value"
+          + "   ) m WHERE m.amount > 0"
+          + " ),"
+          + " updated_at = now()";
+
+  /**
+   * Set-based roll-up delta application: one row per (roll-up key, dimension value) bound as
+   * parallel arrays, summed per value, then upserted per roll-up key in key order.
+   */
+  private static final String APPLY_DELTA_BATCH_SQL =
+      "WITH input AS ("
+          + " SELECT * FROM unnest("
+          + "  CAST(:contexts AS text[]),"
+          + "  CAST(:dimensionNames AS text[]),"
+          + "  CAST(:tierMinutes AS bigint[]),"
+          + "  CAST(:dateTimes AS timestamptz[]),"
+          + "  CAST(:dimensionValues AS text[]),"
+          + "  CAST(:countDeltas AS bigint[]),"
+          + "  CAST(:weightDeltas AS numeric[])"
+          + " ) AS t(context, dimension_name, tier_minutes, date_time, dimension_value,"
+          + "        count_delta, weight_delta)"
+          + "), deltas AS ("
+          + " SELECT context, dimension_name, tier_minutes, date_time, dimension_value,"
+          + "        SUM(count_delta) AS count_delta, SUM(weight_delta) AS weight_delta"
+          + " FROM input"
+          + " GROUP BY context, dimension_name, tier_minutes, date_time, dimension_value"
+          + "), fresh AS ("
+          + " SELECT context, dimension_name, tier_minutes, date_time,"
+          + "        COALESCE(jsonb_object_agg(dimension_value, count_delta)"
+          + "          FILTER (WHERE count_delta > 0), '{}'::jsonb) AS value_counts,"
+          + "        COALESCE(SUM(count_delta) FILTER (WHERE count_delta > 0), 0) AS total_count,"
+          + "        COALESCE(jsonb_object_agg(dimension_value, weight_delta)"
+          + "          FILTER (WHERE weight_delta > 0), '{}'::jsonb) AS value_weights,"
+          + "        COALESCE(SUM(weight_delta) FILTER (WHERE weight_delta > 0), 0)"
+          + "          AS total_weight"
+          + " FROM deltas"
+          + " GROUP BY context, dimension_name, tier_minutes, date_time"
+          + ") INSERT INTO statistics_event_summary_rollup ("
+          + "   context, dimension_name, tier_minutes, date_time, value_counts, total_count,"
+          + "   value_weights, total_weight, created_at, updated_at"
+          + " ) SELECT context, dimension_name, tier_minutes, date_time, value_counts,"
+          + "          total_count, value_weights, total_weight, now(), now()"
+          + "   FROM fresh"
+          + "   ORDER BY context, dimension_name, tier_minutes, date_time"
+          + " ON CONFLICT (context, dimension_name, tier_minutes, date_time) DO UPDATE SET"
+          + StatisticsEventSummaryRollupRepositoryImpl.MERGE_VALUES_SQL;
+
+  /** Takes shared advisory locks, in the order of the bound keys. */
+  private static final String LOCK_DIMENSIONS_SHARED_SQL =
+      "SELECT count(*) FROM ("
+          + " SELECT pg_advisory_xact_lock_shared(k) FROM unnest(CAST(:keys AS bigint[])) AS t(k)"
+          + ") locked";
+
+  /** Takes exclusive advisory locks, in the order of the bound keys. */
+  private static final String LOCK_DIMENSIONS_EXCLUSIVE_SQL =
+      "SELECT count(*) FROM ("
+          + " SELECT pg_advisory_xact_lock(k) FROM unnest(CAST(:keys AS bigint[])) AS t(k)"
+          + ") locked";
+
+  /** Entity manager. */
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public int applyDeltaBatch(
+      final List<StatisticsEventSummaryDelta> deltas, final List<Long> tierMinutes) {
+    if (deltas == null || deltas.isEmpty() || tierMinutes == null || tierMinutes.isEmpty()) {
+      return 0;
+    }
+    final List<String> contexts = new ArrayList<>();
+    final List<String> dimensionNames = new ArrayList<>();
+    final List<Long> tiers = new ArrayList<>();
+    final List<LocalDateTime> dateTimes = new ArrayList<>();
+    final List<String> dimensionValues = new ArrayList<>();
+    final List<Long> countDeltas = new ArrayList<>();
+    final List<BigDecimal> weightDeltas = new ArrayList<>();
+    for (final StatisticsEventSummaryDelta delta : deltas) {
+      // Count and weight deltas are recorded together, but a value may still miss from one map.
+      final Set<String> values = new LinkedHashSet<>(delta.getCountDeltas().keySet());
+      values.addAll(delta.getWeightDeltas().keySet());
+      for (final Long tier : tierMinutes) {
+        final LocalDateTime tierDateTime =
+            StatisticsEventSummaryHelper.truncateToTier(delta.getDateTime(), tier);
+        for (final String value : values) {
+          contexts.add(delta.getContext());
+          dimensionNames.add(delta.getDimensionName());
+          tiers.add(tier);
+          dateTimes.add(tierDateTime);
+          dimensionValues.add(value);
+          countDeltas.add(delta.getCountDeltas().getOrDefault(value, 0L));
+          weightDeltas.add(delta.getWeightDeltas().getOrDefault(value, BigDecimal.ZERO));
+        }
+      }
+    }
+    if (contexts.isEmpty()) {
+      return 0;
+    }
+    final Query query =
+        this.entityManager.createNativeQuery(
+            StatisticsEventSummaryRollupRepositoryImpl.APPLY_DELTA_BATCH_SQL);
+    query.setParameter("contexts", contexts.toArray(String[]::new));
+    query.setParameter("dimensionNames", dimensionNames.toArray(String[]::new));
+    query.setParameter("tierMinutes", tiers.toArray(Long[]::new));
+    query.setParameter("dateTimes", dateTimes.toArray(LocalDateTime[]::new));
+    query.setParameter("dimensionValues", dimensionValues.toArray(String[]::new));
+    query.setParameter("countDeltas", countDeltas.toArray(Long[]::new));
+    query.setParameter("weightDeltas", weightDeltas.toArray(BigDecimal[]::new));
+    return query.executeUpdate();
+  }
+
+  /**
+   * Gets the advisory lock key of the roll-ups of a dimension (context hash in the high half,
+   * dimension name hash in the low half; a collision only makes two dimensions share a lock).
+   *
+   * @param context Context.
+   * @param dimensionName Dimension name.
+   * @return The lock key.
+   */
+  private static long getLockKey(final String context, final String dimensionName) {
+    return ((long) Objects.hashCode(context) << 32)
+        | (Objects.hashCode(dimensionName) & 0xFFFFFFFFL);
+  }
+
+  @Override
+  public void lockDimensions(
+      final List<String> contexts, final List<String> dimensionNames, final boolean exclusive) {
+    final TreeSet<Long> keys = new TreeSet<>();
+    for (int index = 0; index < contexts.size(); index++) {
+      keys.add(
+          StatisticsEventSummaryRollupRepositoryImpl.getLockKey(
+              contexts.get(index), dimensionNames.get(index)));
+    }
+    if (!keys.isEmpty()) {
+      this.entityManager
+          .createNativeQuery(
+              exclusive
+                  ? StatisticsEventSummaryRollupRepositoryImpl.LOCK_DIMENSIONS_EXCLUSIVE_SQL
+                  : StatisticsEventSummaryRollupRepositoryImpl.LOCK_DIMENSIONS_SHARED_SQL)
+          .setParameter("keys", keys.toArray(Long[]::new))
+          .getSingleResult();
+    }
+  }
+}
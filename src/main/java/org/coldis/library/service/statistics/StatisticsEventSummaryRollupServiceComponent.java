@@ -0,0 +1,244 @@
+package org.coldis.library.service.statistics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Statistics event summary roll-up service component. Keeps coarser tiers of
+ * summaries ({@link StatisticsEventSummaryRollup}, hourly/daily/weekly by
+ * default) up to date as delta batches are applied, rebuilds them from the
+ * summaries, and reads them for the period planner of
+ * {@link StatisticsEventSummaryServiceComponent}
+ * (see {@link StatisticsEventSummaryHelper#planPeriod}).
+ *
+ * <p>Maintenance ({@code summary.rollup.enabled}) and reads
+ * ({@code summary.rollup.read-enabled}) are switched on separately: roll-ups
+ * only cover what was applied after maintenance started, so history is
+ * {@link #rebuildRollups rebuilt} before reads are enabled. Rebuilds may run
+ * while maintenance is on: applying deltas takes a shared advisory lock per
+ * dimension and rebuilding an exclusive one, so delta batches for a dimension
+ * being rebuilt wait for the rebuild to commit.
+ */
+@Component
+@Qualifier(StatisticsEventSummaryRollupServiceComponent.QUALIFIER)
+@ConditionalOnProperty(
+		name = "org.coldis.configuration.service.statistics-enabled",
+		matchIfMissing = false
+)
+public class StatisticsEventSummaryRollupServiceComponent {
+
+	/**
+	 * Bean qualifier. Pin this library bean with {@code @Qualifier(StatisticsEventSummaryRollupServiceComponent.QUALIFIER)}
+	 * when an extended subclass makes injection by type ambiguous.
+	 */
+	public static final String QUALIFIER = "statisticsEventSummaryRollupServiceComponent";
+
+	/** Logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsEventSummaryRollupServiceComponent.class);
+
+	/** Statistics event summary repository. */
+	@Autowired
+	private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
+
+	/** Statistics event summary roll-up repository. */
+	@Autowired
+	private StatisticsEventSummaryRollupRepository statisticsEventSummaryRollupRepository;
+
+	/** If roll-ups are kept up to date as deltas are applied. */
+	@Value("${org.coldis.library.service.statistics.summary.rollup.enabled:false}")
+	private boolean enabled;
+
+	/** If period reads are planned over the roll-ups. */
+	@Value("${org.coldis.library.service.statistics.summary.rollup.read-enabled:false}")
+	private boolean readEnabled;
+
+	/** Comma-separated tier sizes in minutes. */
+	@Value("${org.coldis.library.service.statistics.summary.rollup.tiers:60,1440,10080}")
+	private String tierList;
+
+	/** Tier sizes in minutes, finest first. */
+	private List<Long> tiers;
+
+	/**
+	 * Parses and validates the tiers once they are injected: each tier must be a
+	 * multiple of an hour and of the next finer tier, so tier buckets are made of
+	 * whole summary buckets and of whole finer tier buckets.
+	 */
+	@PostConstruct
+	public void initializeRollupTiers() {
+		final List<Long> parsedTiers = Arrays.stream(this.tierList.split(",")).map(String::trim).filter(tier -> !tier.isEmpty()).map(Long::valueOf)
+				.distinct().sorted().toList();
+		long finerTier = 60L;
+		for (final Long tier : parsedTiers) {
+			if ((tier % finerTier) != 0L) {
+				throw new IllegalArgumentException("Invalid statistics summary roll-up tier '" + tier + "': it must be a multiple of " + finerTier + ".");
+			}
+			finerTier = tier;
+		}
+		this.tiers = parsedTiers;
+	}
+
+	/**
+	 * Gets the tier sizes in minutes, finest first.
+	 *
+	 * @return The tier sizes in minutes.
+	 */
+	public List<Long> getTiers() {
+		return this.tiers;
+	}
+
+	/**
+	 * Checks if period reads are planned over the roll-ups.
+	 *
+	 * @return If period reads are planned over the roll-ups.
+	 */
+	public boolean isReadEnabled() {
+		return this.readEnabled && !this.tiers.isEmpty();
+	}
+
+	/**
+	 * Applies a delta batch to the roll-ups of every tier, in the transaction
+	 * that applies it to the summaries, holding the shared locks of its
+	 * dimensions.
+	 *
+	 * @param  deltas Deltas.
+	 * @return        The number of roll-up rows inserted or updated.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int applyDeltaBatch(
+			final List<StatisticsEventSummaryDelta> deltas) {
+		int applied = 0;
+		if (this.enabled && (deltas != null) && !deltas.isEmpty() && !this.tiers.isEmpty()) {
+			this.statisticsEventSummaryRollupRepository.lockDimensions(deltas.stream().map(StatisticsEventSummaryDelta::getContext).toList(),
+					deltas.stream().map(StatisticsEventSummaryDelta::getDimensionName).toList(), false);
+			applied = this.statisticsEventSummaryRollupRepository.applyDeltaBatch(deltas, this.tiers);
+		}
+		return applied;
+	}
+
+	/**
+	 * Finds the roll-ups of one tier in a period, as summaries dated at the start
+	 * of their tier bucket.
+	 *
+	 * @param  context       Context.
+	 * @param  dimensionName Dimension name.
+	 * @param  tierMinutes   Tier size in minutes.
+	 * @param  startDateTime First tier bucket (inclusive).
+	 * @param  endDateTime   Last tier bucket (inclusive).
+	 * @return               The roll-ups in the period.
+	 */
+	@Transactional(
+			propagation = Propagation.NOT_SUPPORTED,
+			readOnly = true
+	)
+	public List<StatisticsEventSummary> findByPeriod(
+			final String context,
+			final String dimensionName,
+			final long tierMinutes,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		return this.statisticsEventSummaryRollupRepository.findByPeriod(context, dimensionName, tierMinutes, startDateTime, endDateTime).stream()
+				.map(StatisticsEventSummaryRollup::toSummary).toList();
+	}
+
+	/**
+	 * Rebuilds the roll-ups of every tier for a context and dimension from its
+	 * summaries. The period is widened to whole buckets of the coarsest tier,
+	 * which are rebuilt one at a time (one summary read each): the roll-ups of
+	 * each tier in the bucket are deleted and written again. The exclusive lock
+	 * of the dimension is held until the transaction ends, so deltas applied
+	 * meanwhile wait and then add to the rebuilt roll-ups.
+	 *
+	 * @param  context       Context.
+	 * @param  dimensionName Dimension name.
+	 * @param  startDateTime Start date time.
+	 * @param  endDateTime   End date time.
+	 * @return               The number of roll-up rows written.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED)
+	public int rebuildRollups(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		int written = 0;
+		if (!this.tiers.isEmpty()) {
+			this.statisticsEventSummaryRollupRepository.lockDimensions(List.of(context), List.of(dimensionName), true);
+			final long coarsestTier = this.tiers.get(this.tiers.size() - 1);
+			for (LocalDateTime chunk = StatisticsEventSummaryHelper.truncateToTier(startDateTime, coarsestTier); !chunk.isAfter(endDateTime); chunk = chunk
+					.plusMinutes(coarsestTier)) {
+				final LocalDateTime chunkEnd = chunk.plusMinutes(coarsestTier).minusMinutes(1);
+				final List<StatisticsEventSummary> summaries = this.statisticsEventSummaryRepository.findByPeriod(context, dimensionName, chunk, chunkEnd);
+				for (final Long tier : this.tiers) {
+					this.statisticsEventSummaryRollupRepository.deleteByPeriod(context, dimensionName, tier, chunk, chunkEnd);
+					final Map<LocalDateTime, StatisticsEventSummaryRollup> rollups = new HashMap<>();
+					for (final StatisticsEventSummary summary : summaries) {
+						final StatisticsEventSummaryRollup rollup = rollups.computeIfAbsent(
+								StatisticsEventSummaryHelper.truncateToTier(summary.getDateTime(), tier),
+								tierDateTime -> new StatisticsEventSummaryRollup(context, dimensionName, tier, tierDateTime));
+						summary.getValueCounts().forEach((
+								value,
+								count) -> rollup.getValueCounts().merge(value, count, Long::sum));
+						summary.getValueWeights().forEach((
+								value,
+								weight) -> rollup.getValueWeights().merge(value, weight, BigDecimal::add));
+					}
+					for (final StatisticsEventSummaryRollup rollup : rollups.values()) {
+						rollup.getValueCounts().values().removeIf(count -> count <= 0);
+						rollup.getValueWeights().values().removeIf(weight -> weight.compareTo(BigDecimal.ZERO) <= 0);
+						rollup.setTotalCount(rollup.getValueCounts().values().stream().mapToLong(Long::longValue).sum());
+						rollup.setTotalWeight(rollup.getValueWeights().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+					}
+					this.statisticsEventSummaryRollupRepository.saveAll(new ArrayList<>(rollups.values()));
+					written += rollups.size();
+				}
+			}
+		}
+		StatisticsEventSummaryRollupServiceComponent.LOGGER.debug("Rebuilt summary roll-ups: context={}, dimension={}, rows={}", context, dimensionName,
+				written);
+		return written;
+	}
+
+	/**
+	 * Rebuilds the roll-ups of every tier for every dimension of a context (see
+	 * {@link #rebuildRollups(String, String, LocalDateTime, LocalDateTime)}), in
+	 * a single transaction. The locks of every dimension are taken up front, in
+	 * lock key order.
+	 *
+	 * @param  context       Context.
+	 * @param  startDateTime Start date time.
+	 * @param  endDateTime   End date time.
+	 * @return               The number of roll-up rows written.
+	 */
+	@Transactional(propagation = Propagation.REQUIRED)
+	public int rebuildRollups(
+			final String context,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		int written = 0;
+		final List<String> dimensionNames = this.statisticsEventSummaryRepository.findDimensionNames(context);
+		this.statisticsEventSummaryRollupRepository.lockDimensions(Collections.nCopies(dimensionNames.size(), context), dimensionNames, true);
+		for (final String dimensionName : dimensionNames) {
+			written += this.rebuildRollups(context, dimensionName, startDateTime, endDateTime);
+		}
+		return written;
+	}
+}
@@ -1,26 +1,39 @@
 package org.coldis.library.service.statistics;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.coldis.library.exception.BusinessException;
 import org.coldis.library.model.SimpleMessage;
 import org.coldis.library.service.statistics.StatisticsEventSummaryHelper.WindowSchedule;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 /**
  * Statistics event summary computation service component. Read/query side:
- * period queries ({@link #findByPeriod}/{@link #summarizePeriod}) and drift comparison.
+ * period queries ({@link #findByPeriod}/{@link #summarizePeriod}), multi-dimension scoring
+ * ({@link #naiveMultiDimensionProbability}) and drift comparison.
  * The write path (buffering, flushing, applying deltas, single-key lookup/creation) lives in
  * {@link StatisticsEventSummaryBufferServiceComponent}; the probability and cross-dimension
  * z-score reductions are pure static methods on {@link StatisticsEventSummaryHelper}.
@@ -29,22 +42,43 @@ import org.springframework.transaction.annotation.Transactional;
  * front, then delegates to a {@code protected ...Cacheable} sibling that does no
  * truncation. That keeps the seams usable for caching — an extended bean can
  * {@code @Override} one and add {@code @Cacheable} on the already-truncated key. The
- * base bean does not cache.
+ * seams carry no {@code @Cacheable} themselves; what the base bean caches is described below.
  *
- * <p>The whole read side is built on one fetch seam — {@link #findByPeriodCacheable}, a
- * {@code WHERE date_time BETWEEN} range query scoped to exact bounds so no out-of-window rows are
- * read. {@link #findByPeriod} returns the rows, {@link #summarizePeriod} merges them into one
- * summary, and drift comparison fetches the reference and each sample window and aggregates them in
- * the service via {@link StatisticsEventSummaryHelper#computeComparison} (window bucketing,
- * mean/std-dev/ratio and z-scores all in {@code BigDecimal} — nothing is aggregated in the database).
+ * <p>Period reads go through {@link #fetchPeriodCacheable}, which takes each part of a period
+ * from the cheapest source:
+ * <ul>
+ * <li>recent buckets of the contexts in {@code summary.rolling-window.contexts}, from memory
+ * ({@link StatisticsEventSummaryRollingWindowServiceComponent});</li>
+ * <li>with {@code summary.rollup.read-enabled}, whole hours, days and weeks from the roll-up tiers
+ * ({@link #findRollupsByPeriodCacheable}), summed in the database as deltas are applied;</li>
+ * <li>the rest from the summary rows ({@link #findByPeriodCacheable}, a {@code date_time} range
+ * query with exact bounds), as one range or, with {@code useTruncationBuckets}, one truncation
+ * bucket at a time through the bucket cache.</li>
+ * </ul>
+ * Multi-dimension scoring fetches the dimensions not served from memory in one query
+ * ({@link #findByDimensionsCacheable}), and drift comparison with {@code summary.compare.batch-fetch}
+ * fetches every dimension and window in one query ({@link #findByScheduleCacheable}) when all of
+ * them would come from summary range queries. The rows read are merged in the service:
+ * {@link #summarizePeriod} into one summary, scoring by
+ * {@link StatisticsEventSummaryHelper#naiveMultiDimensionProbability}, and drift comparison by
+ * {@link StatisticsEventSummaryHelper#computeComparison} (window bucketing, mean/std-dev/ratio and
+ * z-scores in {@code BigDecimal}), or by {@link StatisticsEventSummaryDoubleHelper} in
+ * {@code double} with {@code summary.math-mode=double}.
  *
  * <p>Each public read method takes two fetch-strategy flags (defaulting to {@code true}/{@code false}
  * in the convenience overloads): {@code useTruncationBuckets} fetches one truncation bucket at a time
  * ({@link #findByPeriodCacheable} called with {@code start == end == bucket}) instead of a single
  * range query, so a bucket cached once is reused by every window or period that contains it — across
- * calls and across the summarize/compare paths; {@code parallel} runs those per-bucket (or, for
- * compare, per-window) reads concurrently. Bucket mode falls back to a range query when the context
- * has no positive truncation.
+ * calls and across the summarize/compare paths; {@code parallel} runs the reads concurrently (the
+ * per-bucket reads of a period, or every dimension and window of a comparison) on the bounded
+ * {@link StatisticsReadExecutor}, unless {@code summary.read.executor.enabled} is off. Bucket mode
+ * falls back to a range query when the context has no positive truncation.
+ *
+ * <p>What is cached: with {@code summary.bucket-cache.enabled}, closed truncation buckets read in
+ * bucket mode are kept by the two-level {@link StatisticsEventSummaryBucketCacheServiceComponent}
+ * (a local near-cache plus an optional central one), invalidated as deltas are applied; open
+ * buckets, range queries, roll-ups and the batched queries are read from the database every time,
+ * except for what the rolling window keeps in memory.
  *
  * <p>Methods are ordered callees-before-callers: each {@code ...Cacheable} seam ahead of
  * the public entry point that wraps it.
@@ -71,6 +105,95 @@ public class StatisticsEventSummaryServiceComponent {
 	@Autowired
 	private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
 
+	/** Statistics event summary rolling window service component. */
+	@Autowired
+	private StatisticsEventSummaryRollingWindowServiceComponent statisticsEventSummaryRollingWindowServiceComponent;
+
+	/** Statistics event summary roll-up service component. */
+	@Autowired
+	private StatisticsEventSummaryRollupServiceComponent statisticsEventSummaryRollupServiceComponent;
+
+	/** Statistics event summary bucket cache service component. */
+	@Autowired
+	private StatisticsEventSummaryBucketCacheServiceComponent statisticsEventSummaryBucketCacheServiceComponent;
+
+	/**
+	 * If drift comparison fetches every dimension and window in one query
+	 * ({@link #findByScheduleCacheable}) instead of one fetch per dimension and window.
+	 */
+	@Value("${org.coldis.library.service.statistics.summary.compare.batch-fetch:false}")
+	private boolean compareBatchFetch;
+
+	/** Math mode: drift comparison computed in {@code BigDecimal} by {@link StatisticsEventSummaryHelper}. */
+	static final String MATH_MODE_DECIMAL = "decimal";
+
+	/** Math mode: drift comparison computed in {@code double} by {@link StatisticsEventSummaryDoubleHelper}. */
+	static final String MATH_MODE_DOUBLE = "double";
+
+	/**
+	 * How drift comparison is computed: {@code decimal} (default) in {@code BigDecimal}; {@code double}
+	 * through the {@code double} fast path (same result types, agreeing to about 1e-9 relative).
+	 */
+	@Value("${org.coldis.library.service.statistics.summary.math-mode:" + StatisticsEventSummaryServiceComponent.MATH_MODE_DECIMAL + "}")
+	private String mathMode;
+
+	/**
+	 * If parallel reads run on the bounded {@link StatisticsReadExecutor} (otherwise on the common
+	 * {@code ForkJoinPool}, with no deadline).
+	 */
+	@Value("${org.coldis.library.service.statistics.summary.read.executor.enabled:true}")
+	private boolean readExecutorEnabled;
+
+	/** If parallel reads run on virtual threads. */
+	@Value("${org.coldis.library.service.statistics.summary.read.executor.virtual:false}")
+	private boolean readExecutorVirtual;
+
+	/** Parallel reads running at once ({@code 0} for twice the available processors). */
+	@Value("${org.coldis.library.service.statistics.summary.read.executor.max-concurrency:0}")
+	private int readExecutorMaxConcurrency;
+
+	/** Deadline of the parallel reads of one call ({@code 0s} for none). */
+	@Value("${org.coldis.library.service.statistics.summary.read.timeout:0s}")
+	private Duration readTimeout;
+
+	/** Executor of the parallel reads ({@code null} when disabled). */
+	private StatisticsReadExecutor readExecutor;
+
+	/** Creates the read executor, if enabled. */
+	@PostConstruct
+	public void initializeReadExecutor() {
+		if (this.readExecutorEnabled) {
+			this.readExecutor = new StatisticsReadExecutor("statistics-read-thread", this.readExecutorVirtual, this.readExecutorMaxConcurrency,
+					this.readTimeout);
+		}
+	}
+
+	/** Stops the read executor. */
+	@PreDestroy
+	public void shutdownReadExecutor() {
+		if (this.readExecutor != null) {
+			this.readExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Runs a batch of reads: in order on the caller thread, or, when {@code parallel}, concurrently on
+	 * the read executor (within its deadline) or, when it is disabled, on the common pool.
+	 *
+	 * @param  <T>      Result type.
+	 * @param  reads    Reads.
+	 * @param  parallel If the reads run concurrently.
+	 * @return          The results, in the order of the reads.
+	 */
+	private <T> List<T> readAll(
+			final List<Supplier<T>> reads,
+			final boolean parallel) {
+		if (!parallel || (reads.size() < 2)) {
+			return reads.stream().map(Supplier::get).toList();
+		}
+		return (this.readExecutor == null ? reads.parallelStream().map(Supplier::get).toList() : this.readExecutor.readAll(reads));
+	}
+
 	// ---- Raw fetch ----
 
 	/**
@@ -102,12 +225,84 @@ public class StatisticsEventSummaryServiceComponent {
 		return this.statisticsEventSummaryRepository.findByPeriod(context, dimensionName, startDateTime, endDateTime);
 	}
 
+	/**
+	 * Fetch over one roll-up tier for one dimension: the {@link StatisticsEventSummaryRollup} rows of
+	 * {@code tierMinutes} in {@code [startDateTime, endDateTime]}, as summaries dated at the start of
+	 * their tier bucket. <strong>Cache candidate</strong> at the tier grain, keyed on all five arguments;
+	 * the period planner always asks for whole tier buckets, so entries are shared by every window that
+	 * contains them.
+	 *
+	 * @param  context       Context.
+	 * @param  dimensionName Dimension name.
+	 * @param  tierMinutes   Tier size in minutes.
+	 * @param  startDateTime First tier bucket.
+	 * @param  endDateTime   Last tier bucket (inclusive).
+	 * @return               The roll-ups in the period, as summaries.
+	 */
+	@Transactional(
+			propagation = Propagation.NOT_SUPPORTED,
+			readOnly = true
+	)
+	protected List<StatisticsEventSummary> findRollupsByPeriodCacheable(
+			final String context,
+			final String dimensionName,
+			final long tierMinutes,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		return this.statisticsEventSummaryRollupServiceComponent.findByPeriod(context, dimensionName, tierMinutes, startDateTime, endDateTime);
+	}
+
+	/**
+	 * Fetches one truncation bucket ({@link #findByPeriodCacheable} with {@code start == end == bucket})
+	 * through the built-in bucket cache ({@link StatisticsEventSummaryBucketCacheServiceComponent}), which
+	 * reads straight through when it is disabled or the bucket is still open.
+	 */
+	private List<StatisticsEventSummary> findBucket(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime bucket) {
+		return this.statisticsEventSummaryBucketCacheServiceComponent.get(new StatisticsEventSummaryKey(context, dimensionName, bucket),
+				() -> this.findByPeriodCacheable(context, dimensionName, bucket, bucket));
+	}
+
+	/**
+	 * Fetches summary rows as a single range query or one truncation bucket at a time (see
+	 * {@link #fetchPeriodCacheable}).
+	 */
+	private List<StatisticsEventSummary> fetchSummaries(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime,
+			final boolean useTruncationBuckets,
+			final boolean parallel) {
+		final List<StatisticsEventSummary> summaries;
+		final long truncationMinutes = useTruncationBuckets ? this.statisticsContextConfigurationServiceComponent.getTruncationMinutes(context) : 0L;
+		// Bucket mode needs a positive truncation to enumerate the grid; without one, fall back to the
+		// single range query (a degenerate step would otherwise miss every bucket after the first).
+		if (useTruncationBuckets && (truncationMinutes > 0L)) {
+			final List<LocalDateTime> buckets = StatisticsEventSummaryHelper.bucketsBetween(startDateTime, endDateTime, truncationMinutes);
+			summaries = this.readAll(buckets.stream()
+					.<Supplier<List<StatisticsEventSummary>>>map(bucket -> () -> this.findBucket(context, dimensionName, bucket)).toList(),
+					parallel).stream().flatMap(List::stream).toList();
+		}
+		else {
+			summaries = this.findByPeriodCacheable(context, dimensionName, startDateTime, endDateTime);
+		}
+		return summaries;
+	}
+
 	/**
 	 * Fetches one window's summaries either as a single range query (one {@link #findByPeriodCacheable}
 	 * over {@code [start, end]}) or, when {@code useTruncationBuckets} is set, as one
 	 * {@link #findByPeriodCacheable} per truncation bucket — each called with {@code start == end == bucket},
 	 * so the bucket cache entry is reused by every window or period that contains it. When {@code parallel}
-	 * is set the per-bucket reads run concurrently.
+	 * is set the per-bucket reads run concurrently. Periods inside the rolling window of a hot context
+	 * (see {@link StatisticsEventSummaryRollingWindowServiceComponent}) are served from memory instead.
+	 * With roll-up reads enabled, the period is first planned over the roll-up tiers
+	 * ({@link StatisticsEventSummaryHelper#planPeriod}): whole tier buckets inside it are read from
+	 * {@link #findRollupsByPeriodCacheable} and only the edges from the summary rows, so a long period
+	 * costs a handful of rows per tier instead of one per truncation bucket.
 	 *
 	 * <p><strong>Cache candidate at the window grain.</strong> The result depends only on the
 	 * value-independent {@code (context, dimensionName, startDateTime, endDateTime)} — {@code
@@ -136,19 +331,27 @@ public class StatisticsEventSummaryServiceComponent {
 			final LocalDateTime endDateTime,
 			final boolean useTruncationBuckets,
 			final boolean parallel) {
-		final List<StatisticsEventSummary> summaries;
-		final long truncationMinutes = useTruncationBuckets ? this.statisticsContextConfigurationServiceComponent.getTruncationMinutes(context) : 0L;
-		// Bucket mode needs a positive truncation to enumerate the grid; without one, fall back to the
-		// single range query (a degenerate step would otherwise miss every bucket after the first).
-		if (useTruncationBuckets && (truncationMinutes > 0L)) {
-			final List<LocalDateTime> buckets = StatisticsEventSummaryHelper.bucketsBetween(startDateTime, endDateTime, truncationMinutes);
-			summaries = (parallel ? buckets.parallelStream() : buckets.stream())
-					.flatMap(bucket -> this.findByPeriodCacheable(context, dimensionName, bucket, bucket).stream()).toList();
+		final List<StatisticsEventSummary> recentSummaries = this.statisticsEventSummaryRollingWindowServiceComponent.findByPeriod(context,
+				dimensionName, startDateTime, endDateTime);
+		if (recentSummaries != null) {
+			return recentSummaries;
 		}
-		else {
-			summaries = this.findByPeriodCacheable(context, dimensionName, startDateTime, endDateTime);
+		if (this.statisticsEventSummaryRollupServiceComponent.isReadEnabled()) {
+			final long truncationMinutes = this.statisticsContextConfigurationServiceComponent.getTruncationMinutes(context);
+			if (truncationMinutes > 0L) {
+				final List<StatisticsEventSummaryHelper.PeriodSegment> segments = StatisticsEventSummaryHelper.planPeriod(startDateTime, endDateTime,
+						truncationMinutes, this.statisticsEventSummaryRollupServiceComponent.getTiers());
+				// Periods shorter than the finest tier plan to summary rows only, read as before.
+				if (segments.stream().anyMatch(segment -> segment.tierMinutes() > 0L)) {
+					return segments.stream()
+							.flatMap(segment -> (segment.tierMinutes() > 0L
+									? this.findRollupsByPeriodCacheable(context, dimensionName, segment.tierMinutes(), segment.start(), segment.end())
+									: this.fetchSummaries(context, dimensionName, segment.start(), segment.end(), useTruncationBuckets, parallel)).stream())
+							.toList();
+				}
+			}
 		}
-		return summaries;
+		return this.fetchSummaries(context, dimensionName, startDateTime, endDateTime, useTruncationBuckets, parallel);
 	}
 
 	/**
@@ -197,6 +400,39 @@ public class StatisticsEventSummaryServiceComponent {
 
 	// ---- Period aggregation ----
 
+	/**
+	 * Merges the summaries of one dimension in a period into one aggregated summary.
+	 *
+	 * @param  context           Context.
+	 * @param  dimensionName     Dimension name.
+	 * @param  startDateTime     Start date time (date of the merged summary).
+	 * @param  summaries         Summaries in the period.
+	 * @return                   The aggregated statistics event summary.
+	 * @throws BusinessException If there are no summaries.
+	 */
+	private static StatisticsEventSummary mergePeriod(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime startDateTime,
+			final List<StatisticsEventSummary> summaries) throws BusinessException {
+		if ((summaries == null) || summaries.isEmpty()) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.notfound"), HttpStatus.NOT_FOUND.value());
+		}
+		final StatisticsEventSummary merged = new StatisticsEventSummary(context, dimensionName, startDateTime);
+		for (final StatisticsEventSummary summary : summaries) {
+			merged.setTotalCount(merged.getTotalCount() + summary.getTotalCount());
+			summary.getValueCounts().forEach((
+					key,
+					value) -> merged.getValueCounts().merge(key, value, Long::sum));
+			merged.setTotalWeight(merged.getTotalWeight().add(summary.getTotalWeight()));
+			summary.getValueWeights().forEach((
+					key,
+					value) -> merged.getValueWeights().merge(key, value, BigDecimal::add));
+		}
+		merged.setValueSketch(StatisticsEventSummaryHelper.mergeSketches(summaries));
+		return merged;
+	}
+
 	/**
 	 * Merges every summary for a context and dimension across the (already truncated) range into one
 	 * aggregated summary. <strong>Good cache candidate:</strong> keyed on the value-independent
@@ -220,22 +456,8 @@ public class StatisticsEventSummaryServiceComponent {
 			final LocalDateTime endDateTime,
 			final boolean useTruncationBuckets,
 			final boolean parallel) throws BusinessException {
-		final List<StatisticsEventSummary> summaries = this.fetchPeriodCacheable(context, dimensionName, startDateTime, endDateTime, useTruncationBuckets, parallel);
-		if ((summaries == null) || summaries.isEmpty()) {
-			throw new BusinessException(new SimpleMessage("statistics.event.summary.notfound"), HttpStatus.NOT_FOUND.value());
-		}
-		final StatisticsEventSummary merged = new StatisticsEventSummary(context, dimensionName, startDateTime);
-		for (final StatisticsEventSummary summary : summaries) {
-			merged.setTotalCount(merged.getTotalCount() + summary.getTotalCount());
-			summary.getValueCounts().forEach((
-					key,
-					value) -> merged.getValueCounts().merge(key, value, Long::sum));
-			merged.setTotalWeight(merged.getTotalWeight().add(summary.getTotalWeight()));
-			summary.getValueWeights().forEach((
-					key,
-					value) -> merged.getValueWeights().merge(key, value, BigDecimal::add));
-		}
-		return merged;
+		return StatisticsEventSummaryServiceComponent.mergePeriod(context, dimensionName, startDateTime,
+				this.fetchPeriodCacheable(context, dimensionName, startDateTime, endDateTime, useTruncationBuckets, parallel));
 	}
 
 	/**
@@ -285,17 +507,212 @@ public class StatisticsEventSummaryServiceComponent {
 		return this.summarizePeriod(context, dimensionName, startDateTime, endDateTime, true, false);
 	}
 
+	// ---- Probability ----
+
+	/**
+	 * Single fetch of several dimensions over one period — one round-trip for every dimension of a
+	 * scoring call, reading only in-period rows (see
+	 * {@link StatisticsEventSummaryRepositoryCustom#findByPeriods}). <strong>Cache candidate</strong>
+	 * keyed on {@code (context, dimensionNames, startDateTime, endDateTime)}.
+	 *
+	 * @param  context        Context.
+	 * @param  dimensionNames Distinct dimension names.
+	 * @param  startDateTime  Start date time (truncated before the call).
+	 * @param  endDateTime    End date time (truncated before the call).
+	 * @return                The summaries of the period per dimension name.
+	 */
+	@Transactional(
+			propagation = Propagation.NOT_SUPPORTED,
+			readOnly = true
+	)
+	protected Map<String, List<StatisticsEventSummary>> findByDimensionsCacheable(
+			final String context,
+			final Collection<String> dimensionNames,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) {
+		return this.statisticsEventSummaryRepository.findByPeriods(context, dimensionNames, List.of(startDateTime), List.of(endDateTime)).stream()
+				.collect(Collectors.groupingBy(StatisticsEventSummary::getDimensionName));
+	}
+
+	/**
+	 * Scores a dimension-value vector over one (already truncated) period: fetches every dimension,
+	 * merges each into its period summary and derives the single and naive joint probabilities in one
+	 * pass, in the configured math mode. Dimensions inside the rolling window of a hot context are read
+	 * from memory; the others are fetched together in one query ({@link #findByDimensionsCacheable}) or,
+	 * with roll-up reads enabled, each through {@link #fetchPeriodCacheable} (planned over the tiers) on
+	 * the read executor. The result carries the fetch time and, per dimension, the time of its own read
+	 * (when from the rolling window or the roll-ups) and merge, in microseconds.
+	 *
+	 * @param  context           Context.
+	 * @param  dimensionValues   Value to evaluate per dimension name (in result order).
+	 * @param  startDateTime     Start date time (truncated before the call).
+	 * @param  endDateTime       End date time (truncated before the call).
+	 * @return                   The naive multi-dimension probability.
+	 * @throws BusinessException If no summaries are found in the period for a dimension.
+	 */
+	protected StatisticsEventNaiveMultiDimensionProbability naiveMultiDimensionProbabilityCacheable(
+			final String context,
+			final Map<String, String> dimensionValues,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) throws BusinessException {
+		final List<String> dimensionNames = new ArrayList<>(dimensionValues.keySet());
+		final Map<String, Long> dimensionNanos = new ConcurrentHashMap<>();
+		final Map<String, List<StatisticsEventSummary>> summariesByDimension = new HashMap<>();
+		final long fetchStart = System.nanoTime();
+		if (this.statisticsEventSummaryRollupServiceComponent.isReadEnabled()) {
+			final List<List<StatisticsEventSummary>> summaries = this.readAll(dimensionNames.stream()
+					.<Supplier<List<StatisticsEventSummary>>>map(dimensionName -> () -> {
+						final long readStart = System.nanoTime();
+						final List<StatisticsEventSummary> dimensionSummaries = this.fetchPeriodCacheable(context, dimensionName, startDateTime, endDateTime,
+								true, false);
+						dimensionNanos.put(dimensionName, System.nanoTime() - readStart);
+						return dimensionSummaries;
+					}).toList(), true);
+			for (int index = 0; index < dimensionNames.size(); index++) {
+				summariesByDimension.put(dimensionNames.get(index), summaries.get(index));
+			}
+		}
+		else {
+			final List<String> databaseDimensionNames = new ArrayList<>();
+			for (final String dimensionName : dimensionNames) {
+				final long readStart = System.nanoTime();
+				final List<StatisticsEventSummary> recentSummaries = this.statisticsEventSummaryRollingWindowServiceComponent.findByPeriod(context,
+						dimensionName, startDateTime, endDateTime);
+				if (recentSummaries == null) {
+					databaseDimensionNames.add(dimensionName);
+				}
+				else {
+					summariesByDimension.put(dimensionName, recentSummaries);
+					dimensionNanos.put(dimensionName, System.nanoTime() - readStart);
+				}
+			}
+			if (!databaseDimensionNames.isEmpty()) {
+				summariesByDimension.putAll(this.findByDimensionsCacheable(context, databaseDimensionNames, startDateTime, endDateTime));
+			}
+		}
+		final long fetchNanos = System.nanoTime() - fetchStart;
+		final List<StatisticsEventSummary> mergedSummaries = new ArrayList<>(dimensionNames.size());
+		for (final String dimensionName : dimensionNames) {
+			final long mergeStart = System.nanoTime();
+			mergedSummaries.add(StatisticsEventSummaryServiceComponent.mergePeriod(context, dimensionName, startDateTime,
+					summariesByDimension.get(dimensionName)));
+			dimensionNanos.merge(dimensionName, System.nanoTime() - mergeStart, Long::sum);
+		}
+		final List<String> values = dimensionNames.stream().map(dimensionValues::get).toList();
+		final StatisticsEventNaiveMultiDimensionProbability probability = StatisticsEventSummaryServiceComponent.MATH_MODE_DOUBLE
+				.equalsIgnoreCase(this.mathMode) ? StatisticsEventSummaryDoubleHelper.naiveMultiDimensionProbability(mergedSummaries, values)
+						: StatisticsEventSummaryHelper.naiveMultiDimensionProbability(mergedSummaries, values);
+		probability.setFetchMicros(TimeUnit.NANOSECONDS.toMicros(fetchNanos));
+		final Map<String, Long> dimensionMicros = new LinkedHashMap<>();
+		dimensionNames.forEach(dimensionName -> dimensionMicros.put(dimensionName, TimeUnit.NANOSECONDS.toMicros(dimensionNanos.get(dimensionName))));
+		probability.setDimensionMicros(dimensionMicros);
+		return probability;
+	}
+
+	/**
+	 * Scores an entity's dimension-value vector over a period in one call: the per-dimension and naive
+	 * joint (independence) probabilities of {@link StatisticsEventSummaryHelper#naiveMultiDimensionProbability},
+	 * with every dimension fetched together instead of one {@link #summarizePeriod} per dimension.
+	 * Truncates the bounds, then delegates to {@link #naiveMultiDimensionProbabilityCacheable}.
+	 *
+	 * @param  context           Context.
+	 * @param  dimensionValues   Value to evaluate per dimension name (in result order).
+	 * @param  startDateTime     Start date time.
+	 * @param  endDateTime       End date time.
+	 * @return                   The naive multi-dimension probability, with timings.
+	 * @throws BusinessException If there are no dimensions, or no summaries are found in the period for a
+	 *                               dimension.
+	 */
+	public StatisticsEventNaiveMultiDimensionProbability naiveMultiDimensionProbability(
+			final String context,
+			final Map<String, String> dimensionValues,
+			final LocalDateTime startDateTime,
+			final LocalDateTime endDateTime) throws BusinessException {
+		if ((dimensionValues == null) || dimensionValues.isEmpty()) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.probability.nodimensions"), HttpStatus.BAD_REQUEST.value());
+		}
+		return this.naiveMultiDimensionProbabilityCacheable(context, dimensionValues,
+				this.statisticsContextConfigurationServiceComponent.truncateDateTime(context, startDateTime),
+				this.statisticsContextConfigurationServiceComponent.truncateDateTime(context, endDateTime));
+	}
+
 	// ---- Comparison ----
 
+	/**
+	 * Single fetch of every requested dimension over every window of a schedule — one round-trip for
+	 * the whole comparison, reading only in-window rows (see
+	 * {@link StatisticsEventSummaryRepositoryCustom#findByPeriods}). <strong>Cache candidate</strong>
+	 * keyed on {@code (context, dimensionNames, schedule)}. Reads summary rows directly: neither the
+	 * rolling window nor the roll-up tiers are used.
+	 *
+	 * @param  context        Context.
+	 * @param  dimensionNames Distinct dimension names.
+	 * @param  schedule       Resolved (truncated) sampling schedule.
+	 * @return                The summaries of the schedule per dimension name.
+	 */
+	@Transactional(
+			propagation = Propagation.NOT_SUPPORTED,
+			readOnly = true
+	)
+	protected Map<String, List<StatisticsEventSummary>> findByScheduleCacheable(
+			final String context,
+			final Collection<String> dimensionNames,
+			final WindowSchedule schedule) {
+		final List<StatisticsEventSummaryHelper.Window> windows = new ArrayList<>();
+		windows.add(schedule.reference());
+		windows.addAll(schedule.samples());
+		return this.statisticsEventSummaryRepository
+				.findByPeriods(context, dimensionNames, windows.stream().map(StatisticsEventSummaryHelper.Window::start).toList(),
+						windows.stream().map(StatisticsEventSummaryHelper.Window::end).toList())
+				.stream().collect(Collectors.groupingBy(StatisticsEventSummary::getDimensionName));
+	}
+
+	/**
+	 * The summaries of one window among already-fetched rows.
+	 *
+	 * @param  summaries Summaries.
+	 * @param  window    Window (inclusive bounds).
+	 * @return           The summaries in the window.
+	 */
+	private static List<StatisticsEventSummary> inWindow(
+			final List<StatisticsEventSummary> summaries,
+			final StatisticsEventSummaryHelper.Window window) {
+		return summaries.stream().filter(summary -> !summary.getDateTime().isBefore(window.start()) && !summary.getDateTime().isAfter(window.end()))
+				.toList();
+	}
+
+	/** Computes one dimension's drift comparison from its fetched summaries, in the configured math mode. */
+	private StatisticsEventSummaryComparison computeComparison(
+			final List<StatisticsEventSummary> referenceSummaries,
+			final List<List<StatisticsEventSummary>> perWindowSummaries,
+			final String context,
+			final String dimensionName,
+			final LocalDateTime referenceDateTime,
+			final ChronoUnit windowUnit,
+			final Integer windowSize,
+			final ChronoUnit stepUnit,
+			final Integer steps) throws BusinessException {
+		return StatisticsEventSummaryServiceComponent.MATH_MODE_DOUBLE.equalsIgnoreCase(this.mathMode)
+				? StatisticsEventSummaryDoubleHelper.computeComparison(referenceSummaries, perWindowSummaries, context, dimensionName, referenceDateTime,
+						windowUnit, windowSize, stepUnit, steps)
+				: StatisticsEventSummaryHelper.computeComparison(referenceSummaries, perWindowSummaries, context, dimensionName, referenceDateTime,
+						windowUnit, windowSize, stepUnit, steps);
+	}
+
 	/**
 	 * Builds the drift comparison per dimension by fetching each window's summaries and aggregating in
 	 * the service: one indexed range query per window ({@link #findByPeriodCacheable}, scoped to that
 	 * window's exact {@code [start, end]} so no out-of-window rows are fetched or discarded) for the
 	 * reference and every sample window, then {@link StatisticsEventSummaryHelper#computeComparison}
-	 * derives averages, std-devs, ratios and z-scores in {@code BigDecimal}. Returns one comparison per
+	 * derives averages, std-devs, ratios and z-scores in {@code BigDecimal} (or, with
+	 * {@code summary.math-mode=double}, {@link StatisticsEventSummaryDoubleHelper#computeComparison} in
+	 * {@code double}). Returns one comparison per
 	 * distinct dimension, in request order. Does no truncation — the schedule is already resolved and
 	 * truncated by the caller. Each per-window fetch is the cache seam, so repeated windows reuse one
-	 * cache entry.
+	 * cache entry. With {@code summary.compare.batch-fetch} every dimension and window is fetched in one
+	 * query ({@link #findByScheduleCacheable}) and the rows are partitioned per window in memory instead,
+	 * unless the reads would not come from summary range queries alone: with {@code useTruncationBuckets},
+	 * roll-up reads or a rolling window context, the windows go through {@link #fetchPeriodCacheable}.
 	 *
 	 * @param  context              Context.
 	 * @param  dimensionNames       Dimension names to compare.
@@ -306,8 +723,7 @@ public class StatisticsEventSummaryServiceComponent {
 	 * @param  steps                Number of past periods sampled (excluding reference).
 	 * @param  useTruncationBuckets Fetch/cache one truncation bucket at a time (higher cache reuse)
 	 *                                  instead of one range query per window.
-	 * @param  parallel             Fetch the windows (and, in bucket mode, the reference's buckets)
-	 *                                  concurrently.
+	 * @param  parallel             Fetch the windows of every dimension concurrently.
 	 * @return                      One comparison per distinct dimension, in request order.
 	 * @throws BusinessException    If no data is found in any of the sampled periods for any dimension.
 	 */
@@ -322,17 +738,38 @@ public class StatisticsEventSummaryServiceComponent {
 			final boolean useTruncationBuckets,
 			final boolean parallel) throws BusinessException {
 		final List<StatisticsEventSummaryComparison> comparisons = new ArrayList<>();
-		for (final String dimensionName : dimensionNames.stream().distinct().toList()) {
-			final List<StatisticsEventSummary> referenceSummaries =
-					this.fetchPeriodCacheable(context, dimensionName, schedule.reference().start(), schedule.reference().end(), useTruncationBuckets, parallel);
-			// Sample windows are fetched concurrently when parallel; each window's own buckets stay
-			// sequential to avoid nested parallelism. Window order does not affect the aggregation.
-			final List<StatisticsEventSummaryHelper.Window> samples = schedule.samples();
-			final List<List<StatisticsEventSummary>> perWindowSummaries =
-					(parallel ? samples.parallelStream() : samples.stream())
-							.map(window -> this.fetchPeriodCacheable(context, dimensionName, window.start(), window.end(), useTruncationBuckets, false)).toList();
-			comparisons.add(StatisticsEventSummaryHelper.computeComparison(referenceSummaries, perWindowSummaries, context, dimensionName,
-					schedule.reference().start(), windowUnit, windowSize, stepUnit, steps));
+		if (this.compareBatchFetch && !useTruncationBuckets && !this.statisticsEventSummaryRollupServiceComponent.isReadEnabled()
+				&& !this.statisticsEventSummaryRollingWindowServiceComponent.isRollingContext(context)) {
+			final List<String> distinctDimensionNames = dimensionNames.stream().distinct().toList();
+			final Map<String, List<StatisticsEventSummary>> summariesByDimension = this.findByScheduleCacheable(context, distinctDimensionNames, schedule);
+			for (final String dimensionName : distinctDimensionNames) {
+				final List<StatisticsEventSummary> summaries = summariesByDimension.getOrDefault(dimensionName, List.of());
+				comparisons.add(this.computeComparison(
+						StatisticsEventSummaryServiceComponent.inWindow(summaries, schedule.reference()),
+						schedule.samples().stream().map(window -> StatisticsEventSummaryServiceComponent.inWindow(summaries, window)).toList(), context,
+						dimensionName, schedule.reference().start(), windowUnit, windowSize, stepUnit, steps));
+			}
+			return comparisons;
+		}
+		// One batch of reads for every dimension and window (reference first), so when parallel a
+		// multi-dimension comparison takes about as long as its slowest read. Each window's own buckets
+		// stay sequential to avoid nested parallelism.
+		final List<String> distinctDimensionNames = dimensionNames.stream().distinct().toList();
+		final List<StatisticsEventSummaryHelper.Window> windows = new ArrayList<>();
+		windows.add(schedule.reference());
+		windows.addAll(schedule.samples());
+		final List<Supplier<List<StatisticsEventSummary>>> reads = new ArrayList<>();
+		for (final String dimensionName : distinctDimensionNames) {
+			for (final StatisticsEventSummaryHelper.Window window : windows) {
+				reads.add(() -> this.fetchPeriodCacheable(context, dimensionName, window.start(), window.end(), useTruncationBuckets, false));
+			}
+		}
+		final List<List<StatisticsEventSummary>> windowSummaries = this.readAll(reads, parallel);
+		for (int dimensionIndex = 0; dimensionIndex < distinctDimensionNames.size(); dimensionIndex++) {
+			final List<List<StatisticsEventSummary>> dimensionSummaries =
+					windowSummaries.subList(dimensionIndex * windows.size(), (dimensionIndex + 1) * windows.size());
+			comparisons.add(this.computeComparison(dimensionSummaries.get(0), dimensionSummaries.subList(1, windows.size()), context,
+					distinctDimensionNames.get(dimensionIndex), schedule.reference().start(), windowUnit, windowSize, stepUnit, steps));
 		}
 		return comparisons;
 	}
@@ -376,6 +813,55 @@ public class StatisticsEventSummaryServiceComponent {
 		return this.compareByPeriodCacheable(context, dimensionNames, schedule, windowUnit, windowSize, stepUnit, steps, useTruncationBuckets, parallel);
 	}
 
+	/**
+	 * Compares one dimension at a series of reference windows (e.g. a rolling z-score series), the
+	 * {@code n}-th reference being {@code n} series units after the first. Each point is what
+	 * {@link #compareByPeriod(String, String, LocalDateTime, ChronoUnit, Integer, ChronoUnit, Integer)}
+	 * returns for its reference (up to the rounding of the last digits), but the points are computed by
+	 * one {@link StatisticsEventSummaryComparisonAggregator}: windows shared between points are merged
+	 * once and shifted windows only fetch the buckets that changed. Always computed in
+	 * {@code BigDecimal}, whatever {@code summary.math-mode}.
+	 *
+	 * @param  context                Context.
+	 * @param  dimensionName          Dimension name.
+	 * @param  firstReferenceDateTime Start of the first reference window.
+	 * @param  seriesUnit             Unit between two consecutive reference windows.
+	 * @param  points                 Number of points in the series.
+	 * @param  windowUnit             Unit defining the window size.
+	 * @param  windowSize             Number of window units per window.
+	 * @param  stepUnit               Unit defining how far back each sample is.
+	 * @param  steps                  Number of past periods to sample (excluding reference).
+	 * @return                        One comparison per point, in series order.
+	 * @throws BusinessException      If the series is invalid, or if no data is found in the sampled
+	 *                                    periods of a point.
+	 */
+	public List<StatisticsEventSummaryComparison> compareSeries(
+			final String context,
+			final String dimensionName,
+			final LocalDateTime firstReferenceDateTime,
+			final ChronoUnit seriesUnit,
+			final Integer points,
+			final ChronoUnit windowUnit,
+			final Integer windowSize,
+			final ChronoUnit stepUnit,
+			final Integer steps) throws BusinessException {
+		if ((seriesUnit == null) || (points == null) || (points < 1)) {
+			throw new BusinessException(new SimpleMessage("statistics.event.summary.series.invalid"), HttpStatus.BAD_REQUEST.value());
+		}
+		StatisticsEventSummaryHelper.validateTotalWindow(windowUnit, windowSize, stepUnit, steps);
+		final long truncationMinutes = this.statisticsContextConfigurationServiceComponent.getTruncationMinutes(context);
+		final StatisticsEventSummaryComparisonAggregator aggregator = new StatisticsEventSummaryComparisonAggregator(truncationMinutes,
+				window -> this.fetchPeriodCacheable(context, dimensionName, window.start(), window.end(), false, false));
+		final List<StatisticsEventSummaryComparison> comparisons = new ArrayList<>(points);
+		for (int point = 0; point < points; point++) {
+			final LocalDateTime referenceStart = StatisticsEvent.truncateDateTime(firstReferenceDateTime.plus(point, seriesUnit), truncationMinutes);
+			final WindowSchedule schedule = StatisticsEventSummaryHelper.historicalSchedule(referenceStart, windowUnit, windowSize, stepUnit, steps,
+					truncationMinutes);
+			comparisons.add(aggregator.compare(schedule, context, dimensionName, windowUnit, windowSize, stepUnit, steps));
+		}
+		return comparisons;
+	}
+
 	/**
 	 * Compares a reference window against historical periods for every requested dimension — the
 	 * convenience form (per-truncation-bucket fetching on, sequential), delegating to
@@ -0,0 +1,302 @@
+package org.coldis.library.service.statistics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Approximate, mergeable state of the values of a summary bucket: a HyperLogLog of the distinct
+ * values and a Count-Min sketch of the value counts. Both are fixed-size whatever the cardinality
+ * of the dimension, and merging the sketches of two buckets gives the sketch of their union (the
+ * register-wise maximum and the counter-wise sum).
+ *
+ * <p>Count deltas may be negative (turnstile): the Count-Min counters are decremented, so an
+ * estimate never falls below the true count while counts stay non-negative. The HyperLogLog only
+ * sees additions, so the distinct estimate counts every value seen in the bucket, including values
+ * whose count later went back to zero.
+ */
+public final class StatisticsEventSummarySketch implements Serializable {
+
+  /** Serial. */
+  private static final long serialVersionUID = 4183920571640276315L;
+
+  /** Serialization format version. */
+  private static final byte VERSION = 1;
+
+  /** Default HyperLogLog precision (2^10 registers, about 3% standard error). */
+  public static final int DEFAULT_PRECISION = 10;
+
+  /** Default Count-Min depth (hash rows). */
+  public static final int DEFAULT_DEPTH = 4;
+
+  /** Default Count-Min width (counters per row). */
+  public static final int DEFAULT_WIDTH = 256;
+
+  /** HyperLogLog precision. */
+  private final int precision;
+
+  /** HyperLogLog registers. */
+  private final byte[] registers;
+
+  /** Count-Min depth. */
+  private final int depth;
+
+  /** Count-Min width. */
+  private final int width;
+
+  /** Count-Min counters (row-major). */
+  private final long[] counters;
+
+  /**
+   * Creates an empty sketch.
+   *
+   * @param precision HyperLogLog precision (4 to 16).
+   * @param depth Count-Min depth (1 to 16).
+   * @param width Count-Min width (at least 1).
+   */
+  public StatisticsEventSummarySketch(final int precision, final int depth, final int width) {
+    if ((precision < 4) || (precision > 16) || (depth < 1) || (depth > 16) || (width < 1)) {
+      throw new IllegalArgumentException(
+          "Invalid statistics summary sketch: precision="
+              + precision
+              + ", depth="
+              + depth
+              + ", width="
+              + width
+              + ".");
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+    this.depth = depth;
+    this.width = width;
+    this.counters = new long[depth * width];
+  }
+
+  /** Creates an empty sketch with the default parameters. */
+  public StatisticsEventSummarySketch() {
+    this(
+        StatisticsEventSummarySketch.DEFAULT_PRECISION,
+        StatisticsEventSummarySketch.DEFAULT_DEPTH,
+        StatisticsEventSummarySketch.DEFAULT_WIDTH);
+  }
+
+  /**
+   * Hashes a value to 64 bits (FNV-1a over the characters, then the MurmurHash3 finalizer).
+   *
+   * @param value Value.
+   * @return The hash.
+   */
+  private static long hash(final String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int index = 0; index < value.length(); index++) {
+      hash ^= value.charAt(index);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= (hash >>> 33);
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= (hash >>> 33);
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= (hash >>> 33);
+    return hash;
+  }
+
+  /**
+   * Gets the Count-Min counter of a value in a row.
+   *
+   * @param hash Value hash.
+   * @param row Row.
+   * @return The counter index.
+   */
+  private int counterIndex(final long hash, final int row) {
+    final int hash1 = (int) hash;
+    final int hash2 = (int) (hash >>> 32);
+    return (row * this.width) + Math.floorMod(hash1 + (row * hash2), this.width);
+  }
+
+  /**
+   * Adds a count delta of a value.
+   *
+   * @param value Value.
+   * @param countDelta Count delta (negative when occurrences are removed).
+   */
+  public void add(final String value, final long countDelta) {
+    final long hash = StatisticsEventSummarySketch.hash(value);
+    if (countDelta > 0) {
+      final int register = (int) (hash >>> (64 - this.precision));
+      final byte rank =
+          (byte) (Long.numberOfLeadingZeros((hash << this.precision) | (1L << (this.precision - 1))) + 1);
+      if (this.registers[register] < rank) {
+        this.registers[register] = rank;
+      }
+    }
+    for (int row = 0; row < this.depth; row++) {
+      this.counters[this.counterIndex(hash, row)] += countDelta;
+    }
+  }
+
+  /**
+   * Estimates the count of a value: the smallest of its counters, never below the true count.
+   *
+   * @param value Value.
+   * @return The estimated count.
+   */
+  public long estimateCount(final String value) {
+    final long hash = StatisticsEventSummarySketch.hash(value);
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < this.depth; row++) {
+      estimate = Math.min(estimate, this.counters[this.counterIndex(hash, row)]);
+    }
+    return Math.max(0L, estimate);
+  }
+
+  /**
+   * Estimates the number of distinct values added (linear counting while registers are empty).
+   *
+   * @return The estimated number of distinct values.
+   */
+  public long estimateDistinctValueCount() {
+    final int registerCount = this.registers.length;
+    double inverseSum = 0.0;
+    int emptyRegisters = 0;
+    for (final byte register : this.registers) {
+      inverseSum += 1.0 / (1L << register);
+      if (register == 0) {
+        emptyRegisters++;
+      }
+    }
+    final double alpha = 0.7213 / (1.0 + (1.079 / registerCount));
+    double estimate = (alpha * registerCount * registerCount) / inverseSum;
+    if ((estimate <= (2.5 * registerCount)) && (emptyRegisters > 0)) {
+      estimate = registerCount * Math.log((double) registerCount / emptyRegisters);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * Checks if another sketch has the same parameters (and can be merged into this one).
+   *
+   * @param other Other sketch.
+   * @return If the sketches can be merged.
+   */
+  public boolean isMergeableWith(final StatisticsEventSummarySketch other) {
+    return (other != null)
+        && (other.precision == this.precision)
+        && (other.depth == this.depth)
+        && (other.width == this.width);
+  }
+
+  /**
+   * Merges another sketch into this one, so it sketches the values of both.
+   *
+   * @param other Other sketch (same parameters).
+   * @return This sketch.
+   */
+  public StatisticsEventSummarySketch merge(final StatisticsEventSummarySketch other) {
+    if (!this.isMergeableWith(other)) {
+      throw new IllegalArgumentException(
+          "Statistics summary sketches with different parameters cannot be merged.");
+    }
+    for (int register = 0; register < this.registers.length; register++) {
+      this.registers[register] = (byte) Math.max(this.registers[register], other.registers[register]);
+    }
+    for (int counter = 0; counter < this.counters.length; counter++) {
+      this.counters[counter] += other.counters[counter];
+    }
+    return this;
+  }
+
+  /**
+   * Copies the sketch.
+   *
+   * @return The copy.
+   */
+  public StatisticsEventSummarySketch copy() {
+    return new StatisticsEventSummarySketch(this.precision, this.depth, this.width).merge(this);
+  }
+
+  /**
+   * Serializes the sketch: version, precision, depth and width, then the registers and the
+   * counters as zig-zag variable-length longs.
+   *
+   * @return The serialized sketch.
+   */
+  public byte[] toBytes() {
+    final ByteArrayOutputStream output =
+        new ByteArrayOutputStream(8 + this.registers.length + (this.counters.length * 2));
+    output.write(StatisticsEventSummarySketch.VERSION);
+    output.write(this.precision);
+    output.write(this.depth);
+    output.writeBytes(ByteBuffer.allocate(4).putInt(this.width).array());
+    output.writeBytes(this.registers);
+    for (final long counter : this.counters) {
+      long zigZag = (counter << 1) ^ (counter >> 63);
+      while ((zigZag & ~0x7FL) != 0) {
+        output.write((int) ((zigZag & 0x7F) | 0x80));
+        zigZag >>>= 7;
+      }
+      output.write((int) zigZag);
+    }
+    return output.toByteArray();
+  }
+
+  /**
+   * Deserializes a sketch.
+   *
+   * @param bytes Serialized sketch.
+   * @return The sketch.
+   */
+  public static StatisticsEventSummarySketch fromBytes(final byte[] bytes) {
+    try {
+      final ByteBuffer input = ByteBuffer.wrap(bytes);
+      if (input.get() != StatisticsEventSummarySketch.VERSION) {
+        throw new IllegalArgumentException("Unsupported statistics summary sketch version.");
+      }
+      final int precision = input.get();
+      final int depth = input.get();
+      final StatisticsEventSummarySketch sketch =
+          new StatisticsEventSummarySketch(precision, depth, input.getInt());
+      input.get(sketch.registers);
+      for (int counter = 0; counter < sketch.counters.length; counter++) {
+        long zigZag = 0;
+        int shift = 0;
+        byte current;
+        do {
+          current = input.get();
+          zigZag |= (long) (current & 0x7F) << shift;
+          shift += 7;
+        } while ((current & 0x80) != 0);
+        sketch.counters[counter] = (zigZag >>> 1) ^ -(zigZag & 1);
+      }
+      return sketch;
+    } catch (final BufferUnderflowException exception) {
+      throw new IllegalArgumentException("Truncated statistics summary sketch.", exception);
+    }
+  }
+
+  /**
+   * @see Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return (31 * Arrays.hashCode(this.registers)) + Arrays.hashCode(this.counters);
+  }
+
+  /**
+   * @see Object#equals(Object)
+   */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof StatisticsEventSummarySketch)) {
+      return false;
+    }
+    final StatisticsEventSummarySketch other = (StatisticsEventSummarySketch) obj;
+    return this.isMergeableWith(other)
+        && Arrays.equals(this.registers, other.registers)
+        && Arrays.equals(this.counters, other.counters);
+  }
+}
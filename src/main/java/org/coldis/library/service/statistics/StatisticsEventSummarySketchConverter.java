@@ -0,0 +1,26 @@
+package org.coldis.library.service.statistics;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Statistics event summary sketch from/to bytes converter (see {@link StatisticsEventSummarySketch#toBytes()}). */
+@Converter
+public class StatisticsEventSummarySketchConverter
+    implements AttributeConverter<StatisticsEventSummarySketch, byte[]> {
+
+  /**
+   * @see AttributeConverter#convertToDatabaseColumn(Object)
+   */
+  @Override
+  public byte[] convertToDatabaseColumn(final StatisticsEventSummarySketch entityAttribute) {
+    return (entityAttribute == null ? null : entityAttribute.toBytes());
+  }
+
+  /**
+   * @see AttributeConverter#convertToEntityAttribute(Object)
+   */
+  @Override
+  public StatisticsEventSummarySketch convertToEntityAttribute(final byte[] databaseColumn) {
+    return (databaseColumn == null ? null : StatisticsEventSummarySketch.fromBytes(databaseColumn));
+  }
+}
@@ -0,0 +1,349 @@
+package org.coldis.library.service.statistics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Micrometer meters of the statistics write path: buffer sizes, flush
+ * durations, JMS batch sizes, upsert lock waits and MERGE latency, stale
+ * upserts and summary delta lock waits. Meters are registered on the
+ * application {@link MeterRegistry} (the global one when there is none), so
+ * they are exported with the other actuator metrics.
+ *
+ * <p>Per-event and per-delta meters are tagged by context. At most
+ * {@code metrics.max-contexts} distinct contexts are tagged; further contexts
+ * share the {@value #OTHER_CONTEXT} tag, so a runaway context name cannot blow
+ * up the series cardinality. The meters of a context tag are looked up once
+ * and kept ({@link ContextMeters}), so the per-event path does not build meter
+ * keys. Batch-level meters (lock waits and MERGE of an upsert batch, flushes,
+ * batch applies) span several contexts and are not tagged by context.
+ */
+@Component
+@Qualifier(StatisticsMetricsServiceComponent.QUALIFIER)
+@ConditionalOnProperty(
+		name = "org.coldis.configuration.service.statistics-enabled",
+		matchIfMissing = false
+)
+public class StatisticsMetricsServiceComponent {
+
+	/**
+	 * Bean qualifier. Pin this library bean with {@code @Qualifier(StatisticsMetricsServiceComponent.QUALIFIER)}
+	 * when an extended subclass makes injection by type ambiguous.
+	 */
+	public static final String QUALIFIER = "statisticsMetricsServiceComponent";
+
+	/** Buffer tag value of the event upsert buffer. */
+	public static final String EVENT_BUFFER = "event";
+
+	/** Buffer tag value of the summary delta buffer. */
+	public static final String SUMMARY_DELTA_BUFFER = "summary-delta";
+
+	/** Context tag value shared by the contexts past {@code metrics.max-contexts}. */
+	public static final String OTHER_CONTEXT = "other";
+
+	/** Context tag. */
+	private static final String CONTEXT_TAG = "context";
+
+	/** Buffer tag. */
+	private static final String BUFFER_TAG = "buffer";
+
+	/** Meter registry of the application (the global one is used when there is none). */
+	@Autowired(required = false)
+	private MeterRegistry applicationMeterRegistry;
+
+	/** If the meters are recorded. */
+	@Value("${org.coldis.library.service.statistics.metrics.enabled:true}")
+	private boolean enabled;
+
+	/** Maximum distinct contexts used as tags. */
+	@Value("${org.coldis.library.service.statistics.metrics.max-contexts:100}")
+	private int maxContexts;
+
+	/** Registry the meters are registered on. */
+	private MeterRegistry meterRegistry;
+
+	/** Contexts used as tags. */
+	private final Set<String> taggedContexts = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Meters tagged by context.
+	 *
+	 * @param eventBuffered        Buffered events.
+	 * @param eventUpsertApplied   Applied event upserts.
+	 * @param eventUpsertStale     Stale event upserts.
+	 * @param summaryDeltaLockWait Summary delta lock waits.
+	 * @param summaryDeltaApplied  Applied summary deltas.
+	 */
+	private record ContextMeters(
+			Counter eventBuffered,
+			Counter eventUpsertApplied,
+			Counter eventUpsertStale,
+			Timer summaryDeltaLockWait,
+			Counter summaryDeltaApplied) {}
+
+	/** Meters by context tag. */
+	private final Map<String, ContextMeters> contextMeters = new ConcurrentHashMap<>();
+
+	/** Counters by name and tags. */
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	/** Timers by name and tags. */
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+	/** Distribution summaries by name and tags. */
+	private final Map<String, DistributionSummary> distributionSummaries = new ConcurrentHashMap<>();
+
+	/**
+	 * Resolves the registry. When disabled, meters are registered on an empty
+	 * composite registry, which records nothing.
+	 */
+	@PostConstruct
+	public void initialize() {
+		if (this.maxContexts < 0) {
+			throw new IllegalArgumentException("Invalid statistics metrics max contexts '" + this.maxContexts + "': it must not be negative.");
+		}
+		this.meterRegistry = (this.enabled ? (this.applicationMeterRegistry == null ? Metrics.globalRegistry : this.applicationMeterRegistry)
+				: new CompositeMeterRegistry());
+	}
+
+	/**
+	 * Gets the registry the meters are registered on.
+	 *
+	 * @return The meter registry.
+	 */
+	public MeterRegistry getMeterRegistry() {
+		return this.meterRegistry;
+	}
+
+	/**
+	 * Gets the tag value of a context.
+	 *
+	 * @param  context Context.
+	 * @return         The context, or {@value #OTHER_CONTEXT} once
+	 *                 {@code metrics.max-contexts} contexts are tagged.
+	 */
+	private String getContextTag(
+			final String context) {
+		final String actualContext = (context == null ? "" : context);
+		if (this.taggedContexts.contains(actualContext)) {
+			return actualContext;
+		}
+		if ((this.taggedContexts.size() < this.maxContexts) && this.taggedContexts.add(actualContext)) {
+			return actualContext;
+		}
+		return (this.taggedContexts.contains(actualContext) ? actualContext : StatisticsMetricsServiceComponent.OTHER_CONTEXT);
+	}
+
+	/**
+	 * Gets (registering on first use) the meters of a context.
+	 *
+	 * @param  context Context.
+	 * @return         The meters of the context tag.
+	 */
+	private ContextMeters getContextMeters(
+			final String context) {
+		return this.contextMeters.computeIfAbsent(this.getContextTag(context), contextTag -> {
+			final String tag = StatisticsMetricsServiceComponent.CONTEXT_TAG;
+			return new ContextMeters(Counter.builder("statistics.event.buffered").tag(tag, contextTag).register(this.meterRegistry),
+					Counter.builder("statistics.event.upsert").tags(tag, contextTag, "result", "applied").register(this.meterRegistry),
+					Counter.builder("statistics.event.upsert").tags(tag, contextTag, "result", "stale").register(this.meterRegistry),
+					Timer.builder("statistics.summary.delta.lock.wait").tag(tag, contextTag).register(this.meterRegistry),
+					Counter.builder("statistics.summary.delta.applied").tag(tag, contextTag).register(this.meterRegistry));
+		});
+	}
+
+	/**
+	 * Gets (registering on first use) a counter.
+	 *
+	 * @param  name Meter name.
+	 * @param  tags Tag keys and values.
+	 * @return      The counter.
+	 */
+	private Counter getCounter(
+			final String name,
+			final String... tags) {
+		return this.counters.computeIfAbsent(name + "|" + String.join("|", tags), key -> Counter.builder(name).tags(tags).register(this.meterRegistry));
+	}
+
+	/**
+	 * Gets (registering on first use) a timer.
+	 *
+	 * @param  name Meter name.
+	 * @param  tags Tag keys and values.
+	 * @return      The timer.
+	 */
+	private Timer getTimer(
+			final String name,
+			final String... tags) {
+		return this.timers.computeIfAbsent(name + "|" + String.join("|", tags), key -> Timer.builder(name).tags(tags).register(this.meterRegistry));
+	}
+
+	/**
+	 * Gets (registering on first use) a distribution summary.
+	 *
+	 * @param  name     Meter name.
+	 * @param  baseUnit Base unit.
+	 * @param  tags     Tag keys and values.
+	 * @return          The distribution summary.
+	 */
+	private DistributionSummary getDistributionSummary(
+			final String name,
+			final String baseUnit,
+			final String... tags) {
+		return this.distributionSummaries.computeIfAbsent(name + "|" + String.join("|", tags),
+				key -> DistributionSummary.builder(name).baseUnit(baseUnit).tags(tags).register(this.meterRegistry));
+	}
+
+	/**
+	 * Registers the gauges of a buffer: {@code statistics.buffer.entries},
+	 * {@code statistics.buffer.bytes} and {@code statistics.buffer.oldest.age}.
+	 *
+	 * @param buffer      Buffer tag value.
+	 * @param flushPolicy Flush policy of the buffer.
+	 */
+	public void registerBuffer(
+			final String buffer,
+			final StatisticsBufferFlushPolicy flushPolicy) {
+		Gauge.builder("statistics.buffer.entries", flushPolicy, StatisticsBufferFlushPolicy::getBufferedEntries)
+				.tag(StatisticsMetricsServiceComponent.BUFFER_TAG, buffer).baseUnit("entries").register(this.meterRegistry);
+		Gauge.builder("statistics.buffer.bytes", flushPolicy, StatisticsBufferFlushPolicy::getBufferedBytes)
+				.tag(StatisticsMetricsServiceComponent.BUFFER_TAG, buffer).baseUnit(BaseUnits.BYTES).register(this.meterRegistry);
+		TimeGauge
+				.builder("statistics.buffer.oldest.age", flushPolicy, TimeUnit.MILLISECONDS,
+						policy -> policy.getOldestBufferedAgeMillis(System.currentTimeMillis()))
+				.tag(StatisticsMetricsServiceComponent.BUFFER_TAG, buffer).register(this.meterRegistry);
+	}
+
+	/**
+	 * Records a buffer flush: its duration ({@code statistics.buffer.flush}) and
+	 * the items and JMS messages it sent ({@code statistics.buffer.flush.items}
+	 * and {@code statistics.buffer.flush.messages}).
+	 *
+	 * @param buffer     Buffer tag value.
+	 * @param startNanos {@link System#nanoTime()} when the flush started.
+	 * @param items      Drained items.
+	 * @param messages   Sent messages.
+	 */
+	public void recordBufferFlush(
+			final String buffer,
+			final long startNanos,
+			final int items,
+			final int messages) {
+		this.getTimer("statistics.buffer.flush", StatisticsMetricsServiceComponent.BUFFER_TAG, buffer).record(System.nanoTime() - startNanos,
+				TimeUnit.NANOSECONDS);
+		this.getDistributionSummary("statistics.buffer.flush.items", "items", StatisticsMetricsServiceComponent.BUFFER_TAG, buffer).record(items);
+		this.getCounter("statistics.buffer.flush.messages", StatisticsMetricsServiceComponent.BUFFER_TAG, buffer).increment(messages);
+	}
+
+	/**
+	 * Records an event buffered for upsert ({@code statistics.event.buffered}).
+	 *
+	 * @param context Context.
+	 */
+	public void recordEventBuffered(
+			final String context) {
+		this.getContextMeters(context).eventBuffered().increment();
+	}
+
+	/**
+	 * Records an upsert batch consumed from JMS: its size
+	 * ({@code statistics.event.upsert.batch.size}), the wait for its key locks
+	 * ({@code statistics.event.upsert.lock.wait}, skipped when sharded) and its
+	 * MERGE latency ({@code statistics.event.upsert.merge}).
+	 *
+	 * @param events        Events in the batch.
+	 * @param lockWaitNanos Lock wait, or a negative value when no locks were
+	 *                          taken.
+	 * @param mergeNanos    MERGE latency.
+	 */
+	public void recordEventUpsertBatch(
+			final int events,
+			final long lockWaitNanos,
+			final long mergeNanos) {
+		this.getDistributionSummary("statistics.event.upsert.batch.size", "events").record(events);
+		if (lockWaitNanos >= 0) {
+			this.getTimer("statistics.event.upsert.lock.wait").record(lockWaitNanos, TimeUnit.NANOSECONDS);
+		}
+		this.getTimer("statistics.event.upsert.merge").record(mergeNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the result of an upserted event ({@code statistics.event.upsert}
+	 * tagged {@code result=applied|stale}). Stale events were superseded by a
+	 * later emission and are dropped.
+	 *
+	 * @param context Context.
+	 * @param applied If the event was applied.
+	 */
+	public void recordEventUpsert(
+			final String context,
+			final boolean applied) {
+		final ContextMeters meters = this.getContextMeters(context);
+		(applied ? meters.eventUpsertApplied() : meters.eventUpsertStale()).increment();
+	}
+
+	/**
+	 * Records a summary delta batch consumed from JMS: its size
+	 * ({@code statistics.summary.delta.batch.size}) and the time to apply it
+	 * ({@code statistics.summary.delta.batch.apply}), tagged by apply strategy.
+	 *
+	 * @param strategy   Apply strategy.
+	 * @param deltas     Deltas in the batch.
+	 * @param startNanos {@link System#nanoTime()} when the apply started.
+	 */
+	public void recordSummaryDeltaBatch(
+			final String strategy,
+			final int deltas,
+			final long startNanos) {
+		this.getDistributionSummary("statistics.summary.delta.batch.size", "deltas", "strategy", strategy).record(deltas);
+		this.getTimer("statistics.summary.delta.batch.apply", "strategy", strategy).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a summary delta applied row by row
+	 * ({@code statistics.summary.delta.applied}) and the wait to find (or
+	 * create) and lock its summary ({@code statistics.summary.delta.lock.wait}).
+	 *
+	 * @param context       Context.
+	 * @param lockWaitNanos Lock wait.
+	 */
+	public void recordSummaryDeltaApplied(
+			final String context,
+			final long lockWaitNanos) {
+		final ContextMeters meters = this.getContextMeters(context);
+		meters.summaryDeltaLockWait().record(lockWaitNanos, TimeUnit.NANOSECONDS);
+		meters.summaryDeltaApplied().increment();
+	}
+
+	/**
+	 * Records a summary delta applied within a set-based batch
+	 * ({@code statistics.summary.delta.applied}), which takes no per-summary
+	 * lock wait.
+	 *
+	 * @param context Context.
+	 */
+	public void recordSummaryDeltaAppliedInBatch(
+			final String context) {
+		this.getContextMeters(context).summaryDeltaApplied().increment();
+	}
+
+}
@@ -0,0 +1,46 @@
+package org.coldis.library.service.statistics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Partition maintenance operations of a statistics table that may be range partitioned (see
+ * {@link StatisticsEventSummaryPartitionServiceComponent}).
+ */
+public interface StatisticsPartitionedRepository {
+
+  /**
+   * Checks if the table is range partitioned.
+   *
+   * @return If the table is partitioned.
+   */
+  boolean isPartitioned();
+
+  /**
+   * Finds the names of the partitions attached to the table.
+   *
+   * @return The partition names.
+   */
+  List<String> findPartitionNames();
+
+  /**
+   * Creates a partition of the table for {@code [startDateTime, endDateTime)}, unless a table with
+   * its name already exists.
+   *
+   * @param partitionName Partition name.
+   * @param startDateTime Start date time (inclusive).
+   * @param endDateTime End date time (exclusive).
+   */
+  @Transactional(propagation = Propagation.REQUIRED)
+  void createPartition(String partitionName, LocalDateTime startDateTime, LocalDateTime endDateTime);
+
+  /**
+   * Drops a partition of the table with all its rows.
+   *
+   * @param partitionName Partition name.
+   */
+  @Transactional(propagation = Propagation.REQUIRED)
+  void dropPartition(String partitionName);
+}
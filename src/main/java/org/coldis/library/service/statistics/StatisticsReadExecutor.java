@@ -0,0 +1,155 @@
+package org.coldis.library.service.statistics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.coldis.library.exception.IntegrationException;
+import org.coldis.library.model.SimpleMessage;
+import org.coldis.library.thread.DynamicThreadPoolFactory;
+
+/**
+ * Bounded executor for the fan-out of statistics reads (per window, per dimension, per truncation
+ * bucket), so parallel reads do not run on the common {@code ForkJoinPool} shared with request
+ * threads and other libraries. At most {@code maxConcurrency} reads run at once: on a pool of
+ * platform threads ({@link DynamicThreadPoolFactory}), or on virtual threads gated by a semaphore.
+ *
+ * <p>{@link #readAll(List)} runs a batch of reads and returns their results in order. With a
+ * positive {@code timeout}, the batch must finish within it: otherwise its unfinished reads are
+ * cancelled (interrupted) and the call fails. Reads are awaited as they complete, so the first
+ * failing read also cancels the rest, whatever its position.
+ * Reads must not themselves call {@link #readAll(List)}, or a saturated pool could wait on itself.
+ */
+public final class StatisticsReadExecutor {
+
+  /** Reads running at once. */
+  private final int maxConcurrency;
+
+  /** Deadline of each batch of reads, in nanos (zero for none). */
+  private final long timeoutNanos;
+
+  /** Executor. */
+  private final ExecutorService executor;
+
+  /** Gate of the virtual-thread executor ({@code null} on the platform pool, which is bounded). */
+  private final Semaphore permits;
+
+  /**
+   * Creates the executor.
+   *
+   * @param name Thread name prefix.
+   * @param virtual If reads run on virtual threads.
+   * @param maxConcurrency Reads running at once ({@code 0} or less for twice the processors).
+   * @param timeout Deadline of each batch of reads ({@code null} or zero for none).
+   */
+  public StatisticsReadExecutor(
+      final String name, final boolean virtual, final int maxConcurrency, final Duration timeout) {
+    this.maxConcurrency =
+        (maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors() * 2);
+    this.timeoutNanos = (timeout == null ? 0L : Math.max(0L, timeout.toNanos()));
+    this.executor =
+        (ExecutorService)
+            new DynamicThreadPoolFactory()
+                .withName(name)
+                .withVirtual(virtual)
+                .withCorePoolSize(this.maxConcurrency)
+                .withMaxPoolSize(this.maxConcurrency)
+                .withKeepAlive(Duration.ofSeconds(60))
+                .build();
+    this.permits = (virtual ? new Semaphore(this.maxConcurrency) : null);
+  }
+
+  /**
+   * Gets the number of reads running at once.
+   *
+   * @return The maximum concurrency.
+   */
+  public int getMaxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  /**
+   * Runs one read, holding a permit on the virtual-thread executor.
+   *
+   * @param <T> Result type.
+   * @param read Read.
+   * @return The result.
+   * @throws InterruptedException If interrupted while waiting for a permit.
+   */
+  private <T> T run(final Supplier<T> read) throws InterruptedException {
+    if (this.permits == null) {
+      return read.get();
+    }
+    this.permits.acquire();
+    try {
+      return read.get();
+    } finally {
+      this.permits.release();
+    }
+  }
+
+  /**
+   * Runs a batch of reads concurrently, within the deadline.
+   *
+   * @param <T> Result type.
+   * @param reads Reads.
+   * @return The results, in the order of the reads.
+   */
+  public <T> List<T> readAll(final List<Supplier<T>> reads) {
+    final long deadline = System.nanoTime() + this.timeoutNanos;
+    final CompletionService<T> completionService = new ExecutorCompletionService<>(this.executor);
+    final Map<Future<T>, Integer> futures = new IdentityHashMap<>(reads.size());
+    try {
+      for (final Supplier<T> read : reads) {
+        futures.put(completionService.submit(() -> this.run(read)), futures.size());
+      }
+      @SuppressWarnings("unchecked")
+      final T[] results = (T[]) new Object[reads.size()];
+      for (int completed = 0; completed < reads.size(); completed++) {
+        final Future<T> future =
+            this.timeoutNanos > 0L
+                ? completionService.poll(
+                    Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                : completionService.take();
+        if (future == null) {
+          throw new TimeoutException();
+        }
+        results[futures.get(future)] = future.get();
+      }
+      return new ArrayList<>(Arrays.asList(results));
+    } catch (final TimeoutException | CancellationException exception) {
+      futures.keySet().forEach(future -> future.cancel(true));
+      throw new IntegrationException(new SimpleMessage("statistics.read.timeout"), exception);
+    } catch (final InterruptedException exception) {
+      futures.keySet().forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IntegrationException(new SimpleMessage("statistics.read.interrupted"), exception);
+    } catch (final ExecutionException exception) {
+      futures.keySet().forEach(future -> future.cancel(true));
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      }
+      if (exception.getCause() instanceof Error) {
+        throw (Error) exception.getCause();
+      }
+      throw new IntegrationException(new SimpleMessage("statistics.read.error"), exception.getCause());
+    }
+  }
+
+  /** Cancels running reads and stops the executor. */
+  public void shutdown() {
+    this.executor.shutdownNow();
+  }
+}
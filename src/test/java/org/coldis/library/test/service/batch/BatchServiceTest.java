@@ -5,6 +5,8 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -13,9 +15,11 @@ import org.coldis.library.exception.BusinessException;
 import org.coldis.library.helper.DateTimeHelper;
 import org.coldis.library.persistence.LockBehavior;
 import org.coldis.library.persistence.keyvalue.KeyValueServiceComponent;
+import org.coldis.library.service.batch.BatchAction;
 import org.coldis.library.service.batch.BatchExecutor;
 import org.coldis.library.service.batch.BatchService;
 import org.coldis.library.service.batch.BatchServiceComponent;
+import org.coldis.library.service.batch.BatchTransactionScope;
 import org.coldis.library.test.StartTestWithContainerExtension;
 import org.coldis.library.test.TestHelper;
 import org.coldis.library.test.TestWithContainer;
@@ -338,6 +342,189 @@ public class BatchServiceTest extends ContainerTestHelper {
 
 	}
 
+	/**
+	 * Tests a batch with the items of each page executed in parallel, each in a
+	 * transaction of its own.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testBatchParallelItems() throws Exception {
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchParallelItems", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestService",
+				Map.of(BatchAction.START, "start", BatchAction.RESUME, "resume", BatchAction.GET, "get", BatchAction.EXECUTE, "executeConcurrently",
+						BatchAction.FINISH, "finish"),
+				null);
+		testBatchExecutor.setParallelism(4);
+		testBatchExecutor.setTransactionScope(BatchTransactionScope.ITEM);
+		this.testBatch(testBatchExecutor, 100L, 100L);
+		Assertions.assertTrue(BatchTestService.maxExecuting.get() > 1);
+		Assertions.assertTrue(BatchTestService.maxExecuting.get() <= 4);
+	}
+
+	/**
+	 * Tests a batch executing the items of each page at once, with a failed item
+	 * in the first page: the items before it are kept and the batch resumes from
+	 * it (so 5 items plus 10 pages of 10 are processed).
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testBatchExecuteAll() throws Exception {
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchExecuteAll", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestService",
+				Map.of(BatchAction.START, "start", BatchAction.RESUME, "resume", BatchAction.GET, "get", BatchAction.EXECUTE_ALL, "executeAll",
+						BatchAction.FINISH, "finish"),
+				null);
+		BatchTestService.executeAllFailedIndex = 5;
+		this.testBatch(testBatchExecutor, 105L, 105L);
+		Assertions.assertNull(BatchTestService.executeAllFailedIndex);
+	}
+
+	/**
+	 * Tests a batch running several pages per resume, fetching each page while
+	 * the previous one executes.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testBatchPagesPerResume() throws Exception {
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchPagesPerResume", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestService",
+				Map.of(BatchAction.GET, "getPartitioned", BatchAction.EXECUTE, "executeConcurrently"), null);
+		testBatchExecutor.setPagesPerResume(4);
+		this.testBatch(testBatchExecutor, 100L, 100L);
+	}
+
+	/**
+	 * Tests a batch with delegate methods of another bean (bean name and method
+	 * name separated by a dot).
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testBatchQualifiedDelegateMethods() throws Exception {
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchQualifiedDelegateMethods", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestDelegate",
+				Map.of(BatchAction.START, "batchTestService.start", BatchAction.RESUME, "batchTestService.resume", BatchAction.GET, "batchTestService.get",
+						BatchAction.EXECUTE, "batchTestService.execute", BatchAction.FINISH, "batchTestService.finish"),
+				null);
+		this.testBatch(testBatchExecutor, 100L, 100L);
+	}
+
+	/**
+	 * Tests a batch with a typed delegate (no delegate method names).
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testBatchTypedDelegate() throws Exception {
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchTypedDelegate", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestDelegate", Map.of(), null);
+		this.testBatch(testBatchExecutor, 100L, 100L);
+	}
+
+	/**
+	 * Tests a batch with a typed delegate executing the items of each page at
+	 * once, with a failed item in the first page (so 5 items plus 10 pages of 10
+	 * are processed).
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	public void testBatchTypedDelegateExecuteAll() throws Exception {
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchTypedDelegateExecuteAll", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestBulkDelegate", Map.of(), null);
+		Assertions.assertTrue(testBatchExecutor.isExecutedAtOnce());
+		BatchTestService.executeAllFailedIndex = 5;
+		this.testBatch(testBatchExecutor, 105L, 105L);
+		Assertions.assertNull(BatchTestService.executeAllFailedIndex);
+	}
+
+	/**
+	 * Tests a partitioned batch: every partition processes its own items, and the
+	 * batch aggregates their progress and finishes once all of them have.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBatchPartitions() throws Exception {
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchPartitions", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestService",
+				Map.of(BatchAction.GET, "getPartitioned", BatchAction.EXECUTE, "executeConcurrently"), null);
+		testBatchExecutor.setPartitions(3);
+		this.batchService.start(testBatchExecutor, false, false);
+
+		// Waits until the batch is finished.
+		final String batchKey = this.batchServiceComponent.getKey(testBatchExecutor.getKeySuffix());
+		TestHelper.waitUntilValid(() -> {
+			try {
+				return (BatchExecutor<BatchObject>) this.keyValueService.findById(batchKey, LockBehavior.NO_LOCK, false).getValue();
+			}
+			catch (final BusinessException exception) {
+				return null;
+			}
+		}, record -> (record != null) && record.isFinished(), TestHelper.LONG_WAIT, TestHelper.VERY_SHORT_WAIT);
+		final BatchExecutor<BatchObject> batchRecord = (BatchExecutor<BatchObject>) this.keyValueService.findById(batchKey, LockBehavior.NO_LOCK, false)
+				.getValue();
+		Assertions.assertEquals(100L, batchRecord.getLastProcessedCount());
+		Assertions.assertEquals(100L, BatchTestService.processedAlways);
+
+		// Every partition processed only its own items.
+		long partitionsProcessedCount = 0L;
+		for (int partition = 0; partition < 3; partition++) {
+			final BatchExecutor<BatchObject> partitionRecord = (BatchExecutor<BatchObject>) this.keyValueService
+					.findById(this.batchServiceComponent.getKey(testBatchExecutor.getPartitionKeySuffix(partition)), LockBehavior.NO_LOCK, false).getValue();
+			Assertions.assertTrue(partitionRecord.isFinished());
+			Assertions.assertEquals(testBatchExecutor.getKeySuffix(), partitionRecord.getParentKeySuffix());
+			Assertions.assertTrue(BatchExecutor.isInPartition(Integer.parseInt(partitionRecord.getLastProcessed().getAttribute()),
+					partitionRecord.getArguments()));
+			partitionsProcessedCount += partitionRecord.getLastProcessedCount();
+		}
+		Assertions.assertEquals(100L, partitionsProcessedCount);
+	}
+
+	/**
+	 * Tests a partitioned batch with a typed delegate: the partitions process
+	 * every item, and the start and finish delegates only run once, for the
+	 * partitioned batch.
+	 *
+	 * @throws Exception If the test fails.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBatchPartitionsTypedDelegate() throws Exception {
+		BatchTestPartitionedDelegate.starts.set(0);
+		BatchTestPartitionedDelegate.finishes.set(0);
+		final BatchExecutor<BatchObject> testBatchExecutor = BatchExecutor.withFixedRate(BatchObject.class, "testBatchPartitionsTypedDelegate", 10L,
+				Duration.ofMillis(100), Duration.ofMinutes(1), "batchTestPartitionedDelegate", Map.of(), null);
+		testBatchExecutor.setPartitions(3);
+		this.batchService.start(testBatchExecutor, false, false);
+
+		// Waits until the batch is finished.
+		final String batchKey = this.batchServiceComponent.getKey(testBatchExecutor.getKeySuffix());
+		TestHelper.waitUntilValid(() -> {
+			try {
+				return (BatchExecutor<BatchObject>) this.keyValueService.findById(batchKey, LockBehavior.NO_LOCK, false).getValue();
+			}
+			catch (final BusinessException exception) {
+				return null;
+			}
+		}, record -> (record != null) && record.isFinished(), TestHelper.LONG_WAIT, TestHelper.VERY_SHORT_WAIT);
+		final BatchExecutor<BatchObject> batchRecord = (BatchExecutor<BatchObject>) this.keyValueService.findById(batchKey, LockBehavior.NO_LOCK, false)
+				.getValue();
+		Assertions.assertEquals(100L, batchRecord.getLastProcessedCount());
+		Assertions.assertEquals(100L, BatchTestService.processedAlways);
+		Assertions.assertEquals(1, BatchTestPartitionedDelegate.starts.get());
+		Assertions.assertEquals(1, BatchTestPartitionedDelegate.finishes.get());
+		for (int partition = 0; partition < 3; partition++) {
+			final BatchExecutor<BatchObject> partitionRecord = (BatchExecutor<BatchObject>) this.keyValueService
+					.findById(this.batchServiceComponent.getKey(testBatchExecutor.getPartitionKeySuffix(partition)), LockBehavior.NO_LOCK, false).getValue();
+			Assertions.assertEquals(Set.of(BatchAction.START, BatchAction.FINISH, BatchAction.PARTITION), partitionRecord.getDisabledActions());
+		}
+	}
+
 	/**
 	 * Verifies that a concurrent resume attempt on a running batch is dropped immediately (SKIP
 	 * LOCKED) rather than blocking until the running transaction commits (WAIT_AND_LOCK). The test
@@ -0,0 +1,77 @@
+package org.coldis.library.test.service.batch;
+
+import java.util.List;
+import java.util.Map;
+
+import org.coldis.library.service.batch.BatchActionDelegate;
+import org.coldis.library.service.batch.BatchItemException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Typed test delegate executing the items of a page at once.
+ */
+@Component
+public class BatchTestBulkDelegate implements BatchActionDelegate<BatchObject> {
+
+	/**
+	 * Test service.
+	 */
+	@Autowired
+	private BatchTestService batchTestService;
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#start()
+	 */
+	@Override
+	public void start() {
+		this.batchTestService.start();
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#resume()
+	 */
+	@Override
+	public void resume() {
+		this.batchTestService.resume();
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#get(java.lang.Object,
+	 *      java.lang.Long, java.util.Map)
+	 */
+	@Override
+	public List<BatchObject> get(
+			final BatchObject lastProcessed,
+			final Long size,
+			final Map<String, String> arguments) {
+		return this.batchTestService.get(lastProcessed, size, arguments);
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#execute(java.lang.Object)
+	 */
+	@Override
+	public void execute(
+			final BatchObject item) {
+		this.batchTestService.execute(item);
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#isExecutedAtOnce()
+	 */
+	@Override
+	public Boolean isExecutedAtOnce() {
+		return true;
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#executeAll(java.util.List)
+	 */
+	@Override
+	public void executeAll(
+			final List<BatchObject> items) throws BatchItemException {
+		this.batchTestService.executeAll(items);
+	}
+
+}
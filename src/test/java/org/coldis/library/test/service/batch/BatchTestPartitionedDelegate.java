@@ -0,0 +1,73 @@
+package org.coldis.library.test.service.batch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.coldis.library.service.batch.BatchActionDelegate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Typed test delegate of partitioned batches, counting its starts and
+ * finishes.
+ */
+@Component
+public class BatchTestPartitionedDelegate implements BatchActionDelegate<BatchObject> {
+
+	/**
+	 * Starts.
+	 */
+	public static final AtomicInteger starts = new AtomicInteger();
+
+	/**
+	 * Finishes.
+	 */
+	public static final AtomicInteger finishes = new AtomicInteger();
+
+	/**
+	 * Test service.
+	 */
+	@Autowired
+	private BatchTestService batchTestService;
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#start()
+	 */
+	@Override
+	public void start() {
+		BatchTestPartitionedDelegate.starts.incrementAndGet();
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#get(java.lang.Object,
+	 *      java.lang.Long, java.util.Map)
+	 */
+	@Override
+	public List<BatchObject> get(
+			final BatchObject lastProcessed,
+			final Long size,
+			final Map<String, String> arguments) {
+		return this.batchTestService.getPartitioned(lastProcessed, size, arguments);
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#execute(java.lang.Object)
+	 */
+	@Override
+	public void execute(
+			final BatchObject item) {
+		synchronized (BatchTestService.class) {
+			BatchTestService.processedAlways++;
+		}
+	}
+
+	/**
+	 * @see org.coldis.library.service.batch.BatchActionDelegate#finish()
+	 */
+	@Override
+	public void finish() {
+		BatchTestPartitionedDelegate.finishes.incrementAndGet();
+	}
+
+}
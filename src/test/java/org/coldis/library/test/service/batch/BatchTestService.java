@@ -6,9 +6,13 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.coldis.library.exception.IntegrationException;
 import org.coldis.library.helper.DateTimeHelper;
+import org.coldis.library.service.batch.BatchExecutor;
+import org.coldis.library.service.batch.BatchItemException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -35,6 +39,15 @@ public class BatchTestService {
 	/** Batch awaits on this before processing each item (used to hold the row lock open). */
 	public static volatile CountDownLatch holdLatch = null;
 
+	/** Index of the item the next page executed at once fails at (once). */
+	public static volatile Integer executeAllFailedIndex = null;
+
+	/** Items being executed concurrently. */
+	public static final AtomicInteger executing = new AtomicInteger();
+
+	/** Most items executed concurrently. */
+	public static final AtomicInteger maxExecuting = new AtomicInteger();
+
 	/**
 	 * @see org.coldis.library.persistence.batch.BatchExecutor#start()
 	 */
@@ -44,6 +57,9 @@ public class BatchTestService {
 		BatchTestService.processedLatestPartialBatch = 0L;
 		BatchTestService.executingSignal = null;
 		BatchTestService.holdLatch = null;
+		BatchTestService.executeAllFailedIndex = null;
+		BatchTestService.executing.set(0);
+		BatchTestService.maxExecuting.set(0);
 	}
 
 	/**
@@ -79,6 +95,24 @@ public class BatchTestService {
 		) : List.of();
 	}
 
+	/**
+	 * Gets the next items of a partition, out of the items {@code 0} to
+	 * {@code 99}.
+	 *
+	 * @param  object    Last processed object.
+	 * @param  size      Size.
+	 * @param  arguments Arguments.
+	 * @return           The next items.
+	 */
+	public List<BatchObject> getPartitioned(
+			final BatchObject object,
+			final Long size,
+			final Map<String, String> arguments) {
+		return IntStream.range((object == null ? 0 : Integer.parseInt(object.getAttribute()) + 1), 100)
+				.filter(item -> BatchExecutor.isInPartition(item, arguments)).limit(size).mapToObj(item -> new BatchObject(Integer.toString(item)))
+				.toList();
+	}
+
 	/**
 	 * @see org.coldis.library.persistence.batch.BatchExecutor#finish()
 	 */
@@ -117,4 +151,45 @@ public class BatchTestService {
 		BatchTestService.LOGGER.info("Batch item processed. Total of {} items processed.",
 				BatchTestService.processedLatestCompleteBatch);
 	}
+
+	/**
+	 * Executes the items of a page at once.
+	 *
+	 * @param  objects             Objects.
+	 * @throws BatchItemException If an item fails.
+	 */
+	public synchronized void executeAll(
+			final List<BatchObject> objects) throws BatchItemException {
+		final Integer failedIndex = BatchTestService.executeAllFailedIndex;
+		BatchTestService.executeAllFailedIndex = null;
+		final int processed = (failedIndex == null ? objects.size() : failedIndex);
+		BatchTestService.processedAlways += processed;
+		BatchTestService.processedLatestCompleteBatch += processed;
+		BatchTestService.processedLatestPartialBatch += processed;
+		if (failedIndex != null) {
+			throw new BatchItemException(failedIndex);
+		}
+	}
+
+	/**
+	 * Executes one item of a parallel batch, tracking how many run at once.
+	 *
+	 * @param  object               Object.
+	 * @throws InterruptedException If interrupted.
+	 */
+	public void executeConcurrently(
+			final BatchObject object) throws InterruptedException {
+		BatchTestService.maxExecuting.accumulateAndGet(BatchTestService.executing.incrementAndGet(), Math::max);
+		try {
+			Thread.sleep(20);
+			synchronized (BatchTestService.class) {
+				BatchTestService.processedAlways++;
+				BatchTestService.processedLatestCompleteBatch++;
+				BatchTestService.processedLatestPartialBatch++;
+			}
+		}
+		finally {
+			BatchTestService.executing.decrementAndGet();
+		}
+	}
 }
@@ -0,0 +1,79 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import org.coldis.library.service.statistics.LazyJsonValueMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Pure unit tests for the lazily decoded summary value maps ({@link LazyJsonValueMap}). */
+public class LazyJsonValueMapTest {
+
+  /** Counts as written by {@code jsonb_object_agg}. */
+  private static final String COUNTS = "{\"BR\": 3, \"US\": 12, \"a\\\"b\": 1, \"\\u00e9\": 0}";
+
+  @Test
+  @DisplayName("Decoding yields the same map Jackson would")
+  public void testDecode() {
+    Assertions.assertEquals(
+        Map.of("BR", 3L, "US", 12L, "a\"b", 1L, "\u00e9", 0L),
+        new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf));
+    Assertions.assertEquals(
+        Map.of("x", new BigDecimal("1.50"), "y", new BigDecimal("2")),
+        new LazyJsonValueMap<>("{\"x\":1.50,\"y\":\"2\"}", BigDecimal::new));
+    Assertions.assertTrue(new LazyJsonValueMap<>(" { } ", Long::valueOf).isEmpty());
+    Assertions.assertEquals(0, new LazyJsonValueMap<>("{}", Long::valueOf).size());
+  }
+
+  @Test
+  @DisplayName("A single lookup scans the JSON without decoding the map")
+  public void testSingleLookup() {
+    final LazyJsonValueMap<Long> counts =
+        new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf);
+    Assertions.assertEquals(12L, counts.get("US"));
+    Assertions.assertEquals(LazyJsonValueMapTest.COUNTS, counts.getJson());
+    Assertions.assertFalse(
+        new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf).containsKey("AR"));
+    Assertions.assertEquals(
+        7L,
+        new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf)
+            .getOrDefault("AR", 7L));
+    Assertions.assertEquals(
+        1L, new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf).get("a\"b"));
+
+    // The second lookup decodes the map.
+    Assertions.assertEquals(3L, counts.get("BR"));
+    Assertions.assertNull(counts.getJson());
+    Assertions.assertEquals(12L, counts.get("US"));
+  }
+
+  @Test
+  @DisplayName("Changes decode the map and undecoded maps compare by their JSON")
+  public void testChangesAndEquality() {
+    final LazyJsonValueMap<Long> counts =
+        new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf);
+    final LazyJsonValueMap<Long> snapshot =
+        new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf);
+    Assertions.assertEquals(
+        snapshot, new LazyJsonValueMap<>(LazyJsonValueMapTest.COUNTS, Long::valueOf));
+    Assertions.assertNotNull(snapshot.getJson());
+
+    counts.merge("BR", 1L, Long::sum);
+    counts.values().removeIf(count -> count <= 0);
+    Assertions.assertNull(counts.getJson());
+    Assertions.assertEquals(Map.of("BR", 4L, "US", 12L, "a\"b", 1L), counts);
+    Assertions.assertNotEquals(snapshot, counts);
+  }
+
+  @Test
+  @DisplayName("Malformed JSON is rejected")
+  public void testInvalid() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new LazyJsonValueMap<>("{\"BR\": 3", Long::valueOf).size());
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new LazyJsonValueMap<>("[1]", Long::valueOf).get("BR"));
+  }
+}
@@ -0,0 +1,153 @@
+package org.coldis.library.test.service.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.sql.DataSource;
+import org.coldis.library.service.statistics.PostgresBinaryCopyWriter;
+import org.coldis.library.test.StartTestWithContainerExtension;
+import org.coldis.library.test.TestWithContainer;
+import org.coldis.library.test.service.ContainerTestHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+
+/**
+ * Round-trips {@link PostgresBinaryCopyWriter} values through a binary {@code COPY} into the
+ * container database and back, covering the numeric and timestamptz encodings at their edges.
+ */
+@TestWithContainer(reuse = true)
+@ExtendWith(StartTestWithContainerExtension.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public class PostgresBinaryCopyWriterTest extends ContainerTestHelper {
+
+  /** Numeric edge values: zero, scales, negative numbers and base-10000 digit boundaries. */
+  private static final List<BigDecimal> NUMERICS =
+      List.of(
+          BigDecimal.ZERO,
+          new BigDecimal("0.00"),
+          new BigDecimal("-0.5"),
+          new BigDecimal("1"),
+          new BigDecimal("-1"),
+          new BigDecimal("9999"),
+          new BigDecimal("10000"),
+          new BigDecimal("-10000.0001"),
+          new BigDecimal("0.0000000001"),
+          new BigDecimal("-12345.6789"),
+          new BigDecimal("123456789012.000001"),
+          new BigDecimal("1E+5"));
+
+  /** Timestamp edge values: before and at the Unix and Postgres epochs, and microseconds. */
+  private static final List<LocalDateTime> TIMESTAMPS =
+      List.of(
+          LocalDateTime.of(1969, 7, 20, 20, 17, 40),
+          LocalDateTime.of(1970, 1, 1, 0, 0, 0),
+          LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_999_000),
+          LocalDateTime.of(2000, 1, 1, 0, 0, 0),
+          LocalDateTime.of(2000, 1, 1, 0, 0, 0, 1_000),
+          LocalDateTime.of(2026, 1, 15, 10, 30, 15, 123_456_000));
+
+  /** Data source. */
+  @Autowired private DataSource dataSource;
+
+  /**
+   * Writes the numeric edge values (and nulls) and reads them back.
+   *
+   * @throws Exception If the test fails.
+   */
+  @Test
+  public void testNumericRoundTrip() throws Exception {
+    final PostgresBinaryCopyWriter writer = new PostgresBinaryCopyWriter();
+    for (final BigDecimal value : PostgresBinaryCopyWriterTest.NUMERICS) {
+      writer.startRow(2);
+      writer.writeText(value.toPlainString());
+      writer.writeNumeric(value);
+    }
+    writer.startRow(2);
+    writer.writeText("null");
+    writer.writeNumeric(null);
+    try (Connection connection = this.dataSource.getConnection()) {
+      this.copy(connection, "value_text text, value_numeric numeric", writer.finish());
+      try (Statement statement = connection.createStatement();
+          ResultSet resultSet =
+              statement.executeQuery("SELECT value_text, value_numeric FROM copy_round_trip")) {
+        int rows = 0;
+        while (resultSet.next()) {
+          rows++;
+          final BigDecimal actual = resultSet.getBigDecimal(2);
+          if ("null".equals(resultSet.getString(1))) {
+            Assertions.assertNull(actual);
+          } else {
+            final BigDecimal expected = new BigDecimal(resultSet.getString(1));
+            Assertions.assertEquals(0, expected.compareTo(actual), resultSet.getString(1));
+            Assertions.assertEquals(Math.max(0, expected.scale()), actual.scale());
+          }
+        }
+        Assertions.assertEquals(PostgresBinaryCopyWriterTest.NUMERICS.size() + 1, rows);
+      }
+    }
+  }
+
+  /**
+   * Writes the timestamp edge values (and nulls) and reads them back.
+   *
+   * @throws Exception If the test fails.
+   */
+  @Test
+  public void testTimestampRoundTrip() throws Exception {
+    final PostgresBinaryCopyWriter writer = new PostgresBinaryCopyWriter();
+    for (int index = 0; index < PostgresBinaryCopyWriterTest.TIMESTAMPS.size(); index++) {
+      writer.startRow(2);
+      writer.writeLong(index);
+      writer.writeTimestamp(PostgresBinaryCopyWriterTest.TIMESTAMPS.get(index));
+    }
+    writer.startRow(2);
+    writer.writeLong(-1);
+    writer.writeTimestamp(null);
+    try (Connection connection = this.dataSource.getConnection()) {
+      this.copy(connection, "value_index int8, value_timestamp timestamptz", writer.finish());
+      try (Statement statement = connection.createStatement();
+          ResultSet resultSet =
+              statement.executeQuery(
+                  "SELECT value_index, value_timestamp FROM copy_round_trip ORDER BY value_index")) {
+        Assertions.assertTrue(resultSet.next());
+        Assertions.assertEquals(-1L, resultSet.getLong(1));
+        Assertions.assertNull(resultSet.getTimestamp(2));
+        for (final LocalDateTime expected : PostgresBinaryCopyWriterTest.TIMESTAMPS) {
+          Assertions.assertTrue(resultSet.next());
+          Assertions.assertEquals(expected, resultSet.getTimestamp(2).toLocalDateTime());
+        }
+        Assertions.assertFalse(resultSet.next());
+      }
+    }
+  }
+
+  /**
+   * Copies a payload into a fresh temporary table.
+   *
+   * @param connection Connection.
+   * @param columns Column definitions.
+   * @param payload Binary COPY payload.
+   * @throws Exception If the copy fails.
+   */
+  private void copy(final Connection connection, final String columns, final byte[] payload)
+      throws Exception {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS copy_round_trip");
+      statement.execute("CREATE TEMPORARY TABLE copy_round_trip (" + columns + ")");
+    }
+    connection
+        .unwrap(PGConnection.class)
+        .getCopyAPI()
+        .copyIn(
+            "COPY copy_round_trip FROM STDIN (FORMAT binary)", new ByteArrayInputStream(payload));
+  }
+}
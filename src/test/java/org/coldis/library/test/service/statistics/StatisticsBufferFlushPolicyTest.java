@@ -0,0 +1,96 @@
+package org.coldis.library.test.service.statistics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.coldis.library.service.statistics.StatisticsBufferFlushPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pure unit tests for {@link StatisticsBufferFlushPolicy}: size, bytes, age and scheduled
+ * triggers, the per-node jitter bounds, and hard-cap backpressure.
+ */
+public class StatisticsBufferFlushPolicyTest {
+
+  /** Fixed clock reading used by the tests. */
+  private static final long NOW = 1_000_000L;
+
+  @Test
+  @DisplayName("Size and bytes limits trigger a flush and the flush resets the counters")
+  public void testSizeAndBytesTriggers() {
+    final StatisticsBufferFlushPolicy bySize =
+        new StatisticsBufferFlushPolicy(3, 0, Duration.ZERO, 0, Duration.ZERO);
+    final AtomicInteger flushes = new AtomicInteger();
+    bySize.recordBuffered(10, StatisticsBufferFlushPolicyTest.NOW);
+    bySize.recordBuffered(10, StatisticsBufferFlushPolicyTest.NOW);
+    Assertions.assertFalse(
+        bySize.flushIfDue(flushes::incrementAndGet, StatisticsBufferFlushPolicyTest.NOW));
+    bySize.recordBuffered(10, StatisticsBufferFlushPolicyTest.NOW);
+    Assertions.assertEquals(3, bySize.getBufferedEntries());
+    Assertions.assertEquals(30, bySize.getBufferedBytes());
+    Assertions.assertEquals(
+        500, bySize.getOldestBufferedAgeMillis(StatisticsBufferFlushPolicyTest.NOW + 500));
+    Assertions.assertTrue(
+        bySize.flushIfDue(flushes::incrementAndGet, StatisticsBufferFlushPolicyTest.NOW));
+    Assertions.assertEquals(1, flushes.get());
+    Assertions.assertFalse(bySize.isFlushDue(StatisticsBufferFlushPolicyTest.NOW));
+    Assertions.assertEquals(0, bySize.getBufferedEntries());
+    Assertions.assertEquals(0, bySize.getBufferedBytes());
+    Assertions.assertEquals(
+        0, bySize.getOldestBufferedAgeMillis(StatisticsBufferFlushPolicyTest.NOW + 500));
+
+    final StatisticsBufferFlushPolicy byBytes =
+        new StatisticsBufferFlushPolicy(0, 100, Duration.ZERO, 0, Duration.ZERO);
+    byBytes.recordBuffered(60, StatisticsBufferFlushPolicyTest.NOW);
+    Assertions.assertFalse(byBytes.isFlushDue(StatisticsBufferFlushPolicyTest.NOW));
+    byBytes.recordBuffered(60, StatisticsBufferFlushPolicyTest.NOW);
+    Assertions.assertTrue(byBytes.isFlushDue(StatisticsBufferFlushPolicyTest.NOW));
+  }
+
+  @Test
+  @DisplayName("Age limit counts from the oldest buffered operation plus the node jitter")
+  public void testAgeTrigger() {
+    final StatisticsBufferFlushPolicy policy =
+        new StatisticsBufferFlushPolicy(0, 0, Duration.ofSeconds(5), 0, Duration.ofSeconds(2));
+    Assertions.assertFalse(policy.isFlushDue(StatisticsBufferFlushPolicyTest.NOW + 60_000));
+    policy.recordBuffered(10, StatisticsBufferFlushPolicyTest.NOW);
+    policy.recordBuffered(10, StatisticsBufferFlushPolicyTest.NOW + 4_000);
+    final long dueAt = StatisticsBufferFlushPolicyTest.NOW + 5_000 + policy.getJitterMillis();
+    Assertions.assertFalse(policy.isFlushDue(dueAt - 1));
+    Assertions.assertTrue(policy.isFlushDue(dueAt));
+  }
+
+  @Test
+  @DisplayName("Scheduled flushes run after this node's jitter, which stays within its bound")
+  public void testScheduledFlushJitter() {
+    for (int attempt = 0; attempt < 100; attempt++) {
+      final StatisticsBufferFlushPolicy policy =
+          new StatisticsBufferFlushPolicy(0, 0, Duration.ZERO, 0, Duration.ofSeconds(10));
+      Assertions.assertTrue(policy.getJitterMillis() >= 0);
+      Assertions.assertTrue(policy.getJitterMillis() <= 10_000);
+      policy.requestScheduledFlush(StatisticsBufferFlushPolicyTest.NOW);
+      Assertions.assertTrue(
+          policy.isFlushDue(StatisticsBufferFlushPolicyTest.NOW + policy.getJitterMillis()));
+      if (policy.getJitterMillis() > 0) {
+        Assertions.assertFalse(policy.isFlushDue(StatisticsBufferFlushPolicyTest.NOW));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Hard cap makes the producer flush, and only while over the cap")
+  public void testHardCapBackpressure() {
+    final StatisticsBufferFlushPolicy policy =
+        new StatisticsBufferFlushPolicy(0, 0, Duration.ZERO, 2, Duration.ZERO);
+    final AtomicInteger flushes = new AtomicInteger();
+    policy.recordBuffered(10, StatisticsBufferFlushPolicyTest.NOW);
+    policy.awaitCapacity(flushes::incrementAndGet);
+    Assertions.assertEquals(0, flushes.get());
+    policy.recordBuffered(10, StatisticsBufferFlushPolicyTest.NOW);
+    Assertions.assertTrue(policy.isOverHardCap());
+    policy.awaitCapacity(flushes::incrementAndGet);
+    Assertions.assertEquals(1, flushes.get());
+    Assertions.assertFalse(policy.isOverHardCap());
+  }
+}
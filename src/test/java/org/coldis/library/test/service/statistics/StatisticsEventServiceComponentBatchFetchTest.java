@@ -0,0 +1,22 @@
+package org.coldis.library.test.service.statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Re-runs every test in {@link StatisticsEventServiceComponentTest} with drift comparison fetching
+ * every dimension and window in one query (partitioned per window in memory) instead of one fetch
+ * per dimension and window, so both paths must yield the same comparisons.
+ *
+ * <p>Shares the parent's Spring context; the flag is flipped via {@link ReflectionTestUtils} (the
+ * parent's {@code setUp} restores the default).
+ */
+public class StatisticsEventServiceComponentBatchFetchTest
+    extends StatisticsEventServiceComponentTest {
+
+  @BeforeEach
+  public void useCompareBatchFetch() {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryServiceComponent, "compareBatchFetch", true);
+  }
+}
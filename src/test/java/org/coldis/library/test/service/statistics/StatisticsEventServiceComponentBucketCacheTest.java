@@ -0,0 +1,99 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.coldis.library.service.statistics.StatisticsEventSummary;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDelta;
+import org.coldis.library.service.statistics.StatisticsEventSummaryKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Re-runs every test in {@link StatisticsEventServiceComponentTest} with closed summary buckets
+ * read through the built-in bucket cache, so deltas applied between reads must invalidate it and
+ * both paths must yield the same results.
+ *
+ * <p>Shares the parent's Spring context; the flag is flipped via {@link ReflectionTestUtils} (the
+ * parent's {@code setUp} restores the default and clears the caches).
+ */
+public class StatisticsEventServiceComponentBucketCacheTest
+    extends StatisticsEventServiceComponentTest {
+
+  @BeforeEach
+  public void useBucketCache() {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBucketCacheServiceComponent, "enabled", true);
+  }
+
+  /**
+   * Applies a delta of one count to a value of a bucket.
+   *
+   * @param context Context.
+   * @param dateTime Bucket.
+   * @param value Dimension value.
+   */
+  private void applyDelta(final String context, final LocalDateTime dateTime, final String value) {
+    final StatisticsEventSummaryDelta delta = new StatisticsEventSummaryDelta(context, "city", dateTime);
+    delta.addDelta(value, 1L, BigDecimal.ONE);
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(List.of(delta));
+  }
+
+  /**
+   * Gets the count of a value in a bucket, read through the service.
+   *
+   * @param context Context.
+   * @param dateTime Bucket.
+   * @param value Dimension value.
+   * @return The count.
+   */
+  private Long readCount(final String context, final LocalDateTime dateTime, final String value) {
+    final List<StatisticsEventSummary> summaries =
+        this.statisticsEventSummaryServiceComponent.findByPeriod(context, "city", dateTime, dateTime);
+    Assertions.assertEquals(1, summaries.size());
+    return summaries.getFirst().getValueCounts().get(value);
+  }
+
+  /**
+   * A closed bucket is served from the cache (a row changed behind the service is not seen), and a
+   * delta applied to it invalidates the cached rows once committed.
+   */
+  @Test
+  public void testClosedBucketCachedAndInvalidatedByDelta() {
+    final String context = "test-bucket-cache";
+    final LocalDateTime bucket = LocalDateTime.of(2026, 1, 15, 10, 0);
+    this.applyDelta(context, bucket, "sao-paulo");
+    Assertions.assertEquals(1L, this.readCount(context, bucket, "sao-paulo"));
+
+    // Changes the row directly: the cached bucket is still served.
+    new TransactionTemplate(this.transactionManager)
+        .executeWithoutResult(
+            status -> {
+              final StatisticsEventSummary summary =
+                  this.statisticsEventSummaryRepository
+                      .findById(new StatisticsEventSummaryKey(context, "city", bucket))
+                      .orElseThrow();
+              summary.getValueCounts().put("sao-paulo", 5L);
+              summary.setTotalCount(5L);
+              this.statisticsEventSummaryRepository.save(summary);
+            });
+    Assertions.assertEquals(1L, this.readCount(context, bucket, "sao-paulo"));
+
+    // A delta to the bucket invalidates it.
+    this.applyDelta(context, bucket, "sao-paulo");
+    Assertions.assertEquals(6L, this.readCount(context, bucket, "sao-paulo"));
+
+    // Open buckets are never cached.
+    final LocalDateTime now = LocalDateTime.now();
+    final LocalDateTime openBucket =
+        now.truncatedTo(ChronoUnit.HOURS).withMinute((now.getMinute() / 15) * 15);
+    this.applyDelta(context, openBucket, "rio");
+    Assertions.assertEquals(1L, this.readCount(context, openBucket, "rio"));
+    this.applyDelta(context, openBucket, "rio");
+    Assertions.assertEquals(2L, this.readCount(context, openBucket, "rio"));
+  }
+}
@@ -0,0 +1,20 @@
+package org.coldis.library.test.service.statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Re-runs every test in {@link StatisticsEventServiceComponentTest} against the {@code copy}
+ * upsert strategy (binary {@code COPY} into a staging table, then {@code MERGE} from it), so the
+ * staged path must produce exactly the same upsert results and summary deltas as the
+ * parameter-bound ones.
+ *
+ * <p>Shares the parent's Spring context; the strategy is flipped via {@link ReflectionTestUtils}.
+ */
+public class StatisticsEventServiceComponentCopyTest extends StatisticsEventServiceComponentTest {
+
+  @BeforeEach
+  public void useCopyStrategy() {
+    ReflectionTestUtils.setField(this.statisticsEventRepositoryImpl, "upsertStrategy", "copy");
+  }
+}
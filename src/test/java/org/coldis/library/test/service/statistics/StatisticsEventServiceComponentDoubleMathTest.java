@@ -0,0 +1,20 @@
+package org.coldis.library.test.service.statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Re-runs every test in {@link StatisticsEventServiceComponentTest} with drift comparison computed
+ * by the {@code double} fast path instead of {@code BigDecimal}; the parent's assertions are
+ * tolerance-based, so both paths must yield the same comparisons.
+ *
+ * <p>Shares the parent's Spring context; the mode is flipped via {@link ReflectionTestUtils} (the
+ * parent's {@code setUp} restores the default).
+ */
+public class StatisticsEventServiceComponentDoubleMathTest extends StatisticsEventServiceComponentTest {
+
+  @BeforeEach
+  public void useDoubleMath() {
+    ReflectionTestUtils.setField(this.statisticsEventSummaryServiceComponent, "mathMode", "double");
+  }
+}
@@ -0,0 +1,231 @@
+package org.coldis.library.test.service.statistics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.coldis.library.service.statistics.StatisticsEventSummary;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDelta;
+import org.coldis.library.service.statistics.StatisticsEventSummaryKey;
+import org.coldis.library.service.statistics.StatisticsEventSummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Re-runs every test in {@link StatisticsEventServiceComponentTest} with summary roll-ups kept up
+ * to date and period reads planned over them, so whole hours (and days and weeks) are read from the
+ * roll-up tiers instead of the summary buckets and both paths must yield the same results.
+ *
+ * <p>Shares the parent's Spring context; the flags are flipped via {@link ReflectionTestUtils} (the
+ * parent's {@code setUp} restores the defaults). Summaries seeded directly get their roll-ups
+ * rebuilt.
+ */
+public class StatisticsEventServiceComponentRollupTest extends StatisticsEventServiceComponentTest {
+
+  @BeforeEach
+  public void useRollups() {
+    ReflectionTestUtils.setField(this.statisticsEventSummaryRollupServiceComponent, "enabled", true);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryRollupServiceComponent, "readEnabled", true);
+  }
+
+  @AfterEach
+  public void disableSketches() {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBufferServiceComponent, "sketchEnabled", false);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBufferServiceComponent, "sketchMaxValues", 0);
+  }
+
+  @Override
+  protected void seedParitySummaries(final String context, final List<SummarySpec> specs) {
+    super.seedParitySummaries(context, specs);
+    this.statisticsEventSummaryRollupServiceComponent.rebuildRollups(
+        context,
+        specs.stream().map(SummarySpec::dateTime).min(Comparator.naturalOrder()).orElseThrow(),
+        specs.stream().map(SummarySpec::dateTime).max(Comparator.naturalOrder()).orElseThrow());
+  }
+
+  /**
+   * Roll-ups receive the changes the summaries received: with bounded summaries, evicted values are
+   * rolled up in the tail, like in the summary, instead of as the raw deltas.
+   */
+  @Test
+  public void testRollupsFollowBoundedSummaries() {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBufferServiceComponent, "sketchEnabled", true);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBufferServiceComponent, "sketchMaxValues", 2);
+    final String context = "test-rollup-bounded";
+    final LocalDateTime dateTime = LocalDateTime.of(2026, 1, 15, 10, 0, 0);
+    final StatisticsEventSummaryDelta delta =
+        new StatisticsEventSummaryDelta(context, "city", dateTime);
+    delta.addDelta("sp", 3L, BigDecimal.valueOf(3));
+    delta.addDelta("rio", 2L, BigDecimal.valueOf(2));
+    delta.addDelta("bh", 1L, BigDecimal.ONE);
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(List.of(delta));
+    final StatisticsEventSummaryDelta decrement =
+        new StatisticsEventSummaryDelta(context, "city", dateTime);
+    decrement.addDelta("rio", -1L, BigDecimal.ONE.negate());
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(
+        List.of(decrement));
+
+    final StatisticsEventSummary summary =
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "city", dateTime))
+            .orElseThrow();
+    Assertions.assertEquals(2, summary.getValueCounts().size());
+    final List<StatisticsEventSummary> rollups =
+        this.statisticsEventSummaryRollupServiceComponent.findByPeriod(
+            context, "city", 60L, dateTime, dateTime);
+    Assertions.assertEquals(1, rollups.size());
+    Assertions.assertEquals(summary.getValueCounts(), rollups.get(0).getValueCounts());
+    Assertions.assertEquals(summary.getTotalCount(), rollups.get(0).getTotalCount());
+    Assertions.assertEquals(
+        0, summary.getTotalWeight().compareTo(rollups.get(0).getTotalWeight()));
+  }
+
+  /**
+   * With the {@code set} strategy, roll-ups also receive the changes the summaries received: a
+   * decrement clamped at zero in one bucket only takes from the roll-up what that bucket lost, so
+   * the roll-up keeps matching the sum of its buckets.
+   */
+  @Test
+  public void testRollupsFollowClampedSetSummaries() {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBufferServiceComponent, "applyStrategy", "set");
+    final String context = "test-rollup-set-clamped";
+    final LocalDateTime dateTime = LocalDateTime.of(2026, 1, 15, 10, 0, 0);
+    final StatisticsEventSummaryDelta first =
+        new StatisticsEventSummaryDelta(context, "city", dateTime);
+    first.addDelta("sp", 1L, BigDecimal.ONE);
+    final StatisticsEventSummaryDelta second =
+        new StatisticsEventSummaryDelta(context, "city", dateTime.plusMinutes(30));
+    second.addDelta("sp", 5L, BigDecimal.valueOf(5));
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(
+        List.of(first, second));
+    final StatisticsEventSummaryDelta decrement =
+        new StatisticsEventSummaryDelta(context, "city", dateTime);
+    decrement.addDelta("sp", -3L, BigDecimal.valueOf(-3));
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(
+        List.of(decrement));
+
+    Assertions.assertTrue(
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "city", dateTime))
+            .orElseThrow()
+            .getValueCounts()
+            .isEmpty());
+    for (final Long tier : this.statisticsEventSummaryRollupServiceComponent.getTiers()) {
+      final List<StatisticsEventSummary> rollups =
+          this.statisticsEventSummaryRollupServiceComponent.findByPeriod(
+              context, "city", tier, dateTime.minusDays(7), dateTime);
+      Assertions.assertEquals(1, rollups.size());
+      Assertions.assertEquals(5L, rollups.get(0).getValueCounts().get("sp"));
+      Assertions.assertEquals(5L, rollups.get(0).getTotalCount());
+      Assertions.assertEquals(
+          0, BigDecimal.valueOf(5).compareTo(rollups.get(0).getTotalWeight()));
+    }
+  }
+
+  /**
+   * A delta batch applied while a rebuild is between reading the summaries and writing the
+   * roll-ups waits for the rebuild to commit, and then adds to the rebuilt roll-ups instead of
+   * being overwritten by them.
+   *
+   * @throws Exception If the test fails.
+   */
+  @Test
+  public void testDeltaAppliedDuringRebuildIsKept() throws Exception {
+    final String context = "test-rollup-rebuild-race";
+    final LocalDateTime dateTime = LocalDateTime.of(2026, 1, 15, 10, 0, 0);
+    final StatisticsEventSummaryDelta first =
+        new StatisticsEventSummaryDelta(context, "city", dateTime);
+    first.addDelta("sp", 1L, BigDecimal.ONE);
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(List.of(first));
+
+    // Pauses the rebuild right after it reads the summaries.
+    final CountDownLatch read = new CountDownLatch(1);
+    final CountDownLatch resume = new CountDownLatch(1);
+    final AtomicBoolean armed = new AtomicBoolean(true);
+    final StatisticsEventSummaryRepository repository = this.statisticsEventSummaryRepository;
+    final StatisticsEventSummaryRepository pausingRepository =
+        (StatisticsEventSummaryRepository)
+            Proxy.newProxyInstance(
+                StatisticsEventSummaryRepository.class.getClassLoader(),
+                new Class<?>[] {StatisticsEventSummaryRepository.class},
+                (proxy, method, arguments) -> {
+                  final Object result;
+                  try {
+                    result = method.invoke(repository, arguments);
+                  } catch (final InvocationTargetException exception) {
+                    throw exception.getCause();
+                  }
+                  if ("findByPeriod".equals(method.getName()) && armed.compareAndSet(true, false)) {
+                    read.countDown();
+                    resume.await(1, TimeUnit.MINUTES);
+                  }
+                  return result;
+                });
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryRollupServiceComponent,
+        "statisticsEventSummaryRepository",
+        pausingRepository);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Integer> rebuild =
+          executor.submit(
+              () ->
+                  this.statisticsEventSummaryRollupServiceComponent.rebuildRollups(
+                      context, "city", dateTime, dateTime));
+      Assertions.assertTrue(read.await(1, TimeUnit.MINUTES));
+      final StatisticsEventSummaryDelta second =
+          new StatisticsEventSummaryDelta(context, "city", dateTime);
+      second.addDelta("sp", 1L, BigDecimal.ONE);
+      final Future<?> apply =
+          executor.submit(
+              () ->
+                  this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(
+                      List.of(second)));
+      Assertions.assertThrows(TimeoutException.class, () -> apply.get(2, TimeUnit.SECONDS));
+      resume.countDown();
+      rebuild.get(1, TimeUnit.MINUTES);
+      apply.get(1, TimeUnit.MINUTES);
+    } finally {
+      resume.countDown();
+      executor.shutdownNow();
+      ReflectionTestUtils.setField(
+          this.statisticsEventSummaryRollupServiceComponent,
+          "statisticsEventSummaryRepository",
+          repository);
+    }
+
+    Assertions.assertEquals(
+        2L,
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "city", dateTime))
+            .orElseThrow()
+            .getValueCounts()
+            .get("sp"));
+    for (final Long tier : this.statisticsEventSummaryRollupServiceComponent.getTiers()) {
+      final List<StatisticsEventSummary> rollups =
+          this.statisticsEventSummaryRollupServiceComponent.findByPeriod(
+              context, "city", tier, dateTime.minusDays(7), dateTime);
+      Assertions.assertEquals(1, rollups.size());
+      Assertions.assertEquals(2L, rollups.get(0).getValueCounts().get("sp"));
+      Assertions.assertEquals(2L, rollups.get(0).getTotalCount());
+    }
+  }
+}
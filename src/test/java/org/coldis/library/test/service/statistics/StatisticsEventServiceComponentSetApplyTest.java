@@ -0,0 +1,23 @@
+package org.coldis.library.test.service.statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Re-runs every test in {@link StatisticsEventServiceComponentTest} with summary deltas applied by
+ * the {@code set} strategy (set-based {@code INSERT ... ON CONFLICT} statements per batch, merging
+ * the JSONB maps in SQL) instead of the default per-row read-modify-write, so both paths must yield
+ * the same summaries.
+ *
+ * <p>Shares the parent's Spring context; the strategy is flipped via {@link ReflectionTestUtils}
+ * (the parent's {@code setUp} restores the default).
+ */
+public class StatisticsEventServiceComponentSetApplyTest
+    extends StatisticsEventServiceComponentTest {
+
+  @BeforeEach
+  public void useSetApplyStrategy() {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBufferServiceComponent, "applyStrategy", "set");
+  }
+}
@@ -0,0 +1,23 @@
+package org.coldis.library.test.service.statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Re-runs every test in {@link StatisticsEventServiceComponentTest} with upserts routed by shard:
+ * batches are sent in per-shard message groups and the listener takes one lock per shard instead of
+ * one per key.
+ *
+ * <p>Shares the parent's Spring context; the strategy is flipped via {@link ReflectionTestUtils}
+ * (the parent's {@code setUp} restores the default).
+ */
+public class StatisticsEventServiceComponentShardedRoutingTest
+    extends StatisticsEventServiceComponentTest {
+
+  @BeforeEach
+  public void useShardedRouting() {
+    ReflectionTestUtils.setField(
+        this.statisticsEventServiceComponent, "routingStrategy", "sharded");
+    ReflectionTestUtils.setField(this.statisticsEventServiceComponent, "shardCount", 4);
+  }
+}
@@ -1,15 +1,23 @@
 package org.coldis.library.test.service.statistics;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.coldis.library.exception.BusinessException;
 import org.coldis.library.persistence.lock.LockType;
@@ -22,12 +30,19 @@ import org.coldis.library.service.statistics.StatisticsEventRepositoryImpl;
 import org.coldis.library.service.statistics.StatisticsEventServiceComponent;
 import org.coldis.library.service.statistics.StatisticsEventSingleDimensionProbability;
 import org.coldis.library.service.statistics.StatisticsEventSummary;
+import org.coldis.library.service.statistics.StatisticsEventSummaryBucketCacheServiceComponent;
 import org.coldis.library.service.statistics.StatisticsEventSummaryComparison;
+import org.coldis.library.service.statistics.StatisticsEventSummaryExportServiceComponent;
 import org.coldis.library.service.statistics.StatisticsEventSummaryBufferServiceComponent;
 import org.coldis.library.service.statistics.StatisticsEventSummaryHelper;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDelta;
 import org.coldis.library.service.statistics.StatisticsEventSummaryKey;
+import org.coldis.library.service.statistics.StatisticsEventSummaryRebuildChunk;
+import org.coldis.library.service.statistics.StatisticsEventSummaryRebuildServiceComponent;
 import org.coldis.library.service.statistics.StatisticsEventSummaryRepository;
+import org.coldis.library.service.statistics.StatisticsEventSummaryRollupServiceComponent;
 import org.coldis.library.service.statistics.StatisticsEventSummaryServiceComponent;
+import org.coldis.library.service.statistics.StatisticsMetricsServiceComponent;
 import org.coldis.library.test.StartTestWithContainerExtension;
 import org.coldis.library.test.TestHelper;
 import org.coldis.library.test.TestWithContainer;
@@ -68,6 +83,22 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
   @Autowired
   protected StatisticsEventSummaryBufferServiceComponent statisticsEventSummaryBufferServiceComponent;
 
+  /** Statistics event summary roll-up service component (flipped on by the roll-up subclass). */
+  @Autowired
+  protected StatisticsEventSummaryRollupServiceComponent statisticsEventSummaryRollupServiceComponent;
+
+  /** Statistics event summary bucket cache service component (flipped on by the bucket cache subclass). */
+  @Autowired
+  protected StatisticsEventSummaryBucketCacheServiceComponent statisticsEventSummaryBucketCacheServiceComponent;
+
+  /** Statistics event summary rebuild service component. */
+  @Autowired
+  protected StatisticsEventSummaryRebuildServiceComponent statisticsEventSummaryRebuildServiceComponent;
+
+  /** Statistics event summary export service component. */
+  @Autowired
+  protected StatisticsEventSummaryExportServiceComponent statisticsEventSummaryExportServiceComponent;
+
   /** Statistics event repository custom impl (for reflective strategy override in subclasses). */
   @Autowired
   protected StatisticsEventRepositoryImpl statisticsEventRepositoryImpl;
@@ -80,6 +111,10 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
   @Autowired
   protected ObjectMapper objectMapper;
 
+  /** Statistics metrics service component. */
+  @Autowired
+  protected StatisticsMetricsServiceComponent statisticsMetricsServiceComponent;
+
   /** Transaction manager (the parity test seeds summaries inside a transaction). */
   @Autowired
   protected PlatformTransactionManager transactionManager;
@@ -125,7 +160,7 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
   private static final BigDecimal TOLERANCE = new BigDecimal("0.001");
 
   /**
-   * Cleans statistics tables, clears caches, and resets upsert strategy + lock type to defaults
+   * Cleans statistics tables, clears caches, and resets upsert/apply strategies + lock type to defaults
    * before each test. Subclasses add their own {@code @BeforeEach} to override these defaults
    * (runs after this one) — keeps a single Spring context shared across all combinations instead
    * of dirtying via {@code @TestPropertySource}.
@@ -133,10 +168,25 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
   @BeforeEach
   public void setUp() {
     this.purgeAllArtemisQueues();
-    this.truncateTables("statistics_event", "statistics_event_summary", "statistics_context_configuration");
+    this.truncateTables(
+        "statistics_event",
+        "statistics_event_summary",
+        "statistics_event_summary_rollup",
+        "statistics_context_configuration");
     this.cacheHelper.clearCaches();
     ReflectionTestUtils.setField(this.statisticsEventServiceComponent, "lockType", LockType.ADVISORY);
+    ReflectionTestUtils.setField(this.statisticsEventServiceComponent, "routingStrategy", "lock");
     ReflectionTestUtils.setField(this.statisticsEventRepositoryImpl, "upsertStrategy", "merge");
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBufferServiceComponent, "applyStrategy", "row");
+    ReflectionTestUtils.setField(this.statisticsEventSummaryRollupServiceComponent, "enabled", false);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryRollupServiceComponent, "readEnabled", false);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryServiceComponent, "compareBatchFetch", false);
+    ReflectionTestUtils.setField(this.statisticsEventSummaryServiceComponent, "mathMode", "decimal");
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryBucketCacheServiceComponent, "enabled", false);
   }
 
   /**
@@ -514,6 +564,51 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
                 LocalDateTime.of(2026, 6, 1, 1, 0, 0)));
   }
 
+  /** Tests the streaming summary export as CSV (one row per value) and NDJSON (one per summary). */
+  @Test
+  public void testExportSummaries() throws Exception {
+    final LocalDateTime time1 = LocalDateTime.of(2026, 1, 15, 10, 0, 0);
+    final LocalDateTime time2 = LocalDateTime.of(2026, 1, 15, 10, 15, 0);
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent("test-export", "owner-1", time1, "city", "sao-paulo", new BigDecimal("10.00")));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent("test-export", "owner-2", time1, "city", "rio", new BigDecimal("20.00")));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent("test-export", "owner-3", time2, "city", "rio", new BigDecimal("5.00")));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent("test-export", "owner-1", time1, "device", "mobile"));
+    this.waitForSummary("test-export", "city", time1, 2L);
+    this.waitForSummary("test-export", "city", time2, 1L);
+    this.waitForSummary("test-export", "device", time1, 1L);
+
+    // CSV of one dimension: a header and one row per value of each bucket.
+    final ByteArrayOutputStream csv = new ByteArrayOutputStream();
+    Assertions.assertEquals(
+        2L,
+        this.statisticsEventSummaryExportServiceComponent.exportSummaries(
+            "test-export", "city", time1, time2, StatisticsEventSummaryExportServiceComponent.FORMAT_CSV, csv));
+    final List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+    Assertions.assertEquals(4, lines.size());
+    Assertions.assertTrue(lines.get(0).startsWith("context,dimensionName,dateTime,dimensionValue,count,weight"));
+    Assertions.assertTrue(lines.stream().skip(1).allMatch(line -> line.startsWith("test-export,city,")));
+
+    // NDJSON of the whole context: one summary per line, ordered by dimension and date time.
+    final ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+    Assertions.assertEquals(
+        3L,
+        this.statisticsEventSummaryExportServiceComponent.exportSummaries(
+            "test-export", null, time1, time2, StatisticsEventSummaryExportServiceComponent.FORMAT_NDJSON, ndjson));
+    final List<String> objects = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+    Assertions.assertEquals(3, objects.size());
+    final JsonNode first = this.objectMapper.readTree(objects.get(0));
+    Assertions.assertEquals("city", first.get("dimensionName").asText());
+    Assertions.assertEquals(2L, first.get("totalCount").asLong());
+    Assertions.assertEquals("device", this.objectMapper.readTree(objects.get(2)).get("dimensionName").asText());
+
+    Assertions.assertThrows(
+        BusinessException.class, () -> this.statisticsEventSummaryExportServiceComponent.validateFormat("xml"));
+  }
+
   /**
    * Tests compareByPeriod: computes moving average and std dev of the same 1-hour window across
    * multiple days, and compares against the reference window with z-scores.
@@ -1137,6 +1232,79 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
     Assertions.assertEquals(1.0 / 11.0, unseenProbability.getSmoothedProbability().doubleValue(), 1e-9);
   }
 
+  /**
+   * Tests the one-call naiveMultiDimensionProbability: every dimension of the vector fetched
+   * together must score exactly as one summarizePeriod per dimension fed to the helper, with the
+   * timings of each dimension in request order.
+   */
+  @Test
+  public void testNaiveMultiDimensionProbabilityInOneCall() throws Exception {
+    final String context = "test-joint-one-call";
+    this.seedParitySummaries(
+        context,
+        this.objectMapper.readValue(
+            this.getClass().getResourceAsStream("/statistics/comparison-parity-summaries.json"),
+            new TypeReference<List<SummarySpec>>() {}));
+    final LocalDateTime start = LocalDateTime.of(2026, 1, 3, 10, 0);
+    final LocalDateTime end = LocalDateTime.of(2026, 1, 12, 10, 0);
+    final Map<String, String> dimensionValues = new LinkedHashMap<>();
+    dimensionValues.put("device", "tablet");
+    dimensionValues.put("city", "sao-paulo");
+    dimensionValues.put("bigcount", "alpha");
+
+    final StatisticsEventNaiveMultiDimensionProbability scored =
+        this.statisticsEventSummaryServiceComponent.naiveMultiDimensionProbability(
+            context, dimensionValues, start, end);
+    final List<StatisticsEventSummary> merged = new ArrayList<>();
+    for (final String dimensionName : dimensionValues.keySet()) {
+      merged.add(
+          this.statisticsEventSummaryServiceComponent.summarizePeriod(
+              context, dimensionName, start, end));
+    }
+    final StatisticsEventNaiveMultiDimensionProbability expected =
+        StatisticsEventSummaryHelper.naiveMultiDimensionProbability(
+            merged, List.copyOf(dimensionValues.values()));
+
+    Assertions.assertEquals(expected.getContext(), scored.getContext());
+    Assertions.assertEquals(
+        expected.getIndividualProbabilities(), scored.getIndividualProbabilities());
+    for (int index = 0; index < dimensionValues.size(); index++) {
+      assertBigDecimalEquals(
+          expected.getIndividualProbabilities().get(index).getProbability(),
+          scored.getIndividualProbabilities().get(index).getProbability(),
+          PARITY_TOLERANCE);
+      assertBigDecimalEquals(
+          expected.getIndividualProbabilities().get(index).getSmoothedProbability(),
+          scored.getIndividualProbabilities().get(index).getSmoothedProbability(),
+          PARITY_TOLERANCE);
+    }
+    assertBigDecimalEquals(
+        expected.getJointProbability(), scored.getJointProbability(), PARITY_TOLERANCE);
+    assertBigDecimalEquals(
+        expected.getJointSmoothedProbability(),
+        scored.getJointSmoothedProbability(),
+        PARITY_TOLERANCE);
+    assertBigDecimalEquals(
+        expected.getJointSmoothedLogProbability(),
+        scored.getJointSmoothedLogProbability(),
+        PARITY_TOLERANCE);
+    Assertions.assertNotNull(scored.getFetchMicros());
+    Assertions.assertEquals(
+        List.copyOf(dimensionValues.keySet()), List.copyOf(scored.getDimensionMicros().keySet()));
+
+    // No dimensions, or a dimension without summaries in the period, fails the call.
+    Assertions.assertThrows(
+        BusinessException.class,
+        () ->
+            this.statisticsEventSummaryServiceComponent.naiveMultiDimensionProbability(
+                context, Map.of(), start, end));
+    Assertions.assertThrows(
+        BusinessException.class,
+        () ->
+            this.statisticsEventSummaryServiceComponent.naiveMultiDimensionProbability(
+                context, Map.of("city", "rio", "no-dimension", "none"), start, end));
+  }
+
   /**
    * Tests that upsertAllStatisticsEvents sends events through the buffered path and they are
    * eventually persisted and the summary is updated.
@@ -1336,7 +1504,7 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
   }
 
   /** One seeded per-window summary, loaded from the parity resource. */
-  private record SummarySpec(
+  protected record SummarySpec(
       String dimensionName,
       LocalDateTime dateTime,
       Map<String, Long> valueCounts,
@@ -1416,7 +1584,7 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
   }
 
   /** Seeds the parity summaries directly (inside a transaction, since the assigned-key save merges). */
-  private void seedParitySummaries(final String context, final List<SummarySpec> specs) {
+  protected void seedParitySummaries(final String context, final List<SummarySpec> specs) {
     new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
       for (final SummarySpec spec : specs) {
         final StatisticsEventSummary summary =
@@ -1461,6 +1629,86 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
     }
   }
 
+  /**
+   * Parallel multi-dimension comparison: fanning every dimension and window out on the read executor
+   * must give, per dimension and in request order, the sequential single-dimension comparison.
+   */
+  @Test
+  public void testCompareByPeriodParallelMultiDimension() throws Exception {
+    final String context = "test-comparison-parallel";
+    final List<SummarySpec> specs =
+        this.objectMapper.readValue(
+            this.getClass().getResourceAsStream("/statistics/comparison-parity-summaries.json"),
+            new TypeReference<List<SummarySpec>>() {});
+    this.seedParitySummaries(context, specs);
+    this.cacheHelper.clearCaches();
+
+    final LocalDateTime reference = LocalDateTime.of(2026, 1, 16, 10, 0, 0);
+    final List<String> dimensions = List.of("bigcount", "city", "device", "city");
+    for (final boolean useTruncationBuckets : List.of(false, true)) {
+      final List<StatisticsEventSummaryComparison> parallel =
+          this.statisticsEventSummaryServiceComponent.compareByPeriod(
+              context, dimensions, reference, ChronoUnit.HOURS, 1, ChronoUnit.DAYS, 15, useTruncationBuckets, true);
+      Assertions.assertEquals(3, parallel.size());
+      for (int index = 0; index < 3; index++) {
+        final String dimension = dimensions.get(index);
+        Assertions.assertEquals(dimension, parallel.get(index).getDimensionName());
+        this.assertComparisonsClose(
+            dimension + " parallel",
+            this.statisticsEventSummaryServiceComponent.compareByPeriod(
+                context, dimension, reference, ChronoUnit.HOURS, 1, ChronoUnit.DAYS, 15, useTruncationBuckets, false),
+            parallel.get(index));
+      }
+    }
+  }
+
+  /**
+   * Incremental series parity: every point of {@code compareSeries} must match {@code compareByPeriod}
+   * at the same reference, both when consecutive points share whole windows (stepped by days) and when
+   * their windows are derived by shifting a known window (stepped by hours).
+   */
+  @Test
+  public void testCompareSeriesParityAgainstCompareByPeriod() throws Exception {
+    final String context = "test-comparison-series";
+    final List<SummarySpec> specs =
+        this.objectMapper.readValue(
+            this.getClass().getResourceAsStream("/statistics/comparison-parity-summaries.json"),
+            new TypeReference<List<SummarySpec>>() {});
+    this.seedParitySummaries(context, specs);
+
+    for (final String dimension : List.of("city", "device", "bigcount")) {
+      // Jan 12..Jan 16 at 10:00, 1-hour windows, 10 daily samples each.
+      this.cacheHelper.clearCaches();
+      final LocalDateTime firstDailyReference = LocalDateTime.of(2026, 1, 12, 10, 0, 0);
+      final List<StatisticsEventSummaryComparison> dailySeries =
+          this.statisticsEventSummaryServiceComponent.compareSeries(
+              context, dimension, firstDailyReference, ChronoUnit.DAYS, 5, ChronoUnit.HOURS, 1, ChronoUnit.DAYS, 10);
+      Assertions.assertEquals(5, dailySeries.size());
+      for (int point = 0; point < 5; point++) {
+        this.assertComparisonsClose(
+            dimension + " daily point " + point,
+            this.statisticsEventSummaryServiceComponent.compareByPeriod(
+                context, dimension, firstDailyReference.plusDays(point), ChronoUnit.HOURS, 1, ChronoUnit.DAYS, 10),
+            dailySeries.get(point));
+      }
+
+      // Jan 16 07:00..10:00, 4-hour windows (all covering the 10:00 rows), 7 daily samples each.
+      this.cacheHelper.clearCaches();
+      final LocalDateTime firstHourlyReference = LocalDateTime.of(2026, 1, 16, 7, 0, 0);
+      final List<StatisticsEventSummaryComparison> hourlySeries =
+          this.statisticsEventSummaryServiceComponent.compareSeries(
+              context, dimension, firstHourlyReference, ChronoUnit.HOURS, 4, ChronoUnit.HOURS, 4, ChronoUnit.DAYS, 7);
+      Assertions.assertEquals(4, hourlySeries.size());
+      for (int point = 0; point < 4; point++) {
+        this.assertComparisonsClose(
+            dimension + " hourly point " + point,
+            this.statisticsEventSummaryServiceComponent.compareByPeriod(
+                context, dimension, firstHourlyReference.plusHours(point), ChronoUnit.HOURS, 4, ChronoUnit.DAYS, 7),
+            hourlySeries.get(point));
+      }
+    }
+  }
+
   /**
    * Comparison when the reference window has no data but the sample windows do: it must not throw
    * {@code nodata} (the samples carry the baseline), and the reference / z-score stats must stay unset
@@ -1577,4 +1825,243 @@ public class StatisticsEventServiceComponentTest extends ContainerTestHelper {
     this.assertComparisonsClose(
         "city (steps=1)", this.inMemoryComparisonOracle(context, "city", reference, 1), sql);
   }
+
+  /**
+   * Drifted summaries (a changed bucket, a bucket without events and a missing bucket) are reported
+   * by the verification and repaired by the partitioned rebuild batches, whose chunks cover every
+   * (dimension, period) exactly once. The bucket without events is only deleted when asked to.
+   */
+  @Test
+  public void testRebuildAndVerifySummaries() throws Exception {
+    final String context = "test-rebuild";
+    final LocalDateTime nextBucket = TEST_DATE_TIME.plusMinutes(15);
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent(context, "owner-a", TEST_DATE_TIME, "city", "rio"));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent(context, "owner-b", TEST_DATE_TIME, "city", "rio", new BigDecimal("2.5")));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent(context, "owner-c", nextBucket, "city", "sao-paulo"));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(
+        createEvent(context, "owner-a", TEST_DATE_TIME, "device", "mobile"));
+    this.waitForSummary(context, "city", TEST_DATE_TIME, 2L);
+    this.waitForSummary(context, "city", nextBucket, 1L);
+    this.waitForSummary(context, "device", TEST_DATE_TIME, 1L);
+    final LocalDateTime startDateTime = TEST_DATE_TIME.minusDays(1);
+    final LocalDateTime endDateTime = TEST_DATE_TIME.plusDays(1);
+    Assertions.assertTrue(
+        this.statisticsEventSummaryRebuildServiceComponent
+            .verify(context, null, startDateTime, endDateTime)
+            .isEmpty());
+
+    // Drifts three buckets.
+    final LocalDateTime phantomBucket = TEST_DATE_TIME.plusMinutes(30);
+    new TransactionTemplate(this.transactionManager)
+        .executeWithoutResult(
+            status -> {
+              final StatisticsEventSummary summary =
+                  this.statisticsEventSummaryRepository
+                      .findById(new StatisticsEventSummaryKey(context, "city", TEST_DATE_TIME))
+                      .orElseThrow();
+              summary.getValueCounts().put("rio", 5L);
+              summary.setTotalCount(5L);
+              this.statisticsEventSummaryRepository.save(summary);
+              this.statisticsEventSummaryRepository.deleteById(
+                  new StatisticsEventSummaryKey(context, "device", TEST_DATE_TIME));
+            });
+    this.seedParitySummaries(
+        context,
+        List.of(
+            new SummarySpec(
+                "city", phantomBucket, Map.of("rio", 3L), Map.of("rio", new BigDecimal("3")))));
+    Assertions.assertEquals(
+        Set.of(
+            new StatisticsEventSummaryKey(context, "city", TEST_DATE_TIME),
+            new StatisticsEventSummaryKey(context, "city", phantomBucket),
+            new StatisticsEventSummaryKey(context, "device", TEST_DATE_TIME)),
+        new HashSet<>(
+            this.statisticsEventSummaryRebuildServiceComponent.verify(
+                context, null, startDateTime, endDateTime)));
+
+    // The partitions split the chunks (two dimensions, two days) without overlap.
+    final Set<StatisticsEventSummaryRebuildChunk> chunks = new HashSet<>();
+    for (int partition = 0; partition < 3; partition++) {
+      final Map<String, String> arguments =
+          Map.of(
+              StatisticsEventSummaryRebuildServiceComponent.CONTEXT_ARGUMENT, context,
+              StatisticsEventSummaryRebuildServiceComponent.START_DATE_TIME_ARGUMENT,
+              startDateTime.toString(),
+              StatisticsEventSummaryRebuildServiceComponent.END_DATE_TIME_ARGUMENT,
+              endDateTime.toString(),
+              StatisticsEventSummaryRebuildServiceComponent.CHUNK_MINUTES_ARGUMENT, "1440",
+              StatisticsEventSummaryRebuildServiceComponent.PARTITION_ARGUMENT,
+              Integer.toString(partition),
+              StatisticsEventSummaryRebuildServiceComponent.PARTITIONS_ARGUMENT, "3");
+      StatisticsEventSummaryRebuildChunk lastProcessed = null;
+      for (List<StatisticsEventSummaryRebuildChunk> page =
+              this.statisticsEventSummaryRebuildServiceComponent.getChunks(null, 1L, arguments);
+          !page.isEmpty();
+          page =
+              this.statisticsEventSummaryRebuildServiceComponent.getChunks(
+                  lastProcessed, 1L, arguments)) {
+        lastProcessed = page.getFirst();
+        Assertions.assertTrue(chunks.add(lastProcessed));
+      }
+    }
+    Assertions.assertEquals(4, chunks.size());
+
+    // Rebuilds the summaries and waits for every partition to finish: the bucket without events is
+    // kept, as its events may have expired.
+    this.statisticsEventSummaryRebuildServiceComponent.start(
+        context, null, startDateTime, endDateTime, false, true);
+    Assertions.assertTrue(
+        TestHelper.waitUntilValid(
+            () ->
+                this.statisticsEventSummaryRebuildServiceComponent.verify(
+                    context, null, startDateTime, endDateTime),
+            List.of(new StatisticsEventSummaryKey(context, "city", phantomBucket))::equals,
+            TestHelper.LONG_WAIT,
+            TestHelper.SHORT_WAIT));
+    Assertions.assertTrue(
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "city", phantomBucket))
+            .isPresent());
+
+    // Rebuilds again deleting the summaries without events.
+    this.statisticsEventSummaryRebuildServiceComponent.start(
+        context, null, startDateTime, endDateTime, false, true, true);
+    Assertions.assertTrue(
+        TestHelper.waitUntilValid(
+            () ->
+                this.statisticsEventSummaryRebuildServiceComponent.verify(
+                    context, null, startDateTime, endDateTime),
+            List::isEmpty,
+            TestHelper.LONG_WAIT,
+            TestHelper.SHORT_WAIT));
+    final StatisticsEventSummary city =
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "city", TEST_DATE_TIME))
+            .orElseThrow();
+    Assertions.assertEquals(2L, city.getTotalCount());
+    Assertions.assertEquals(2L, city.getValueCounts().get("rio"));
+    assertBigDecimalEquals(new BigDecimal("3.5"), city.getValueWeights().get("rio"), TOLERANCE);
+    Assertions.assertTrue(
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "city", phantomBucket))
+            .isEmpty());
+    Assertions.assertEquals(
+        1L,
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "device", TEST_DATE_TIME))
+            .orElseThrow()
+            .getValueCounts()
+            .get("mobile"));
+  }
+
+  /**
+   * Gets the count of a write path counter.
+   *
+   * @param name Counter name.
+   * @param tags Tag keys and values.
+   * @return The count ({@code 0} when the counter is not registered yet).
+   */
+  private double getCount(final String name, final String... tags) {
+    final Counter counter =
+        this.statisticsMetricsServiceComponent.getMeterRegistry().find(name).tags(tags).counter();
+    return counter == null ? 0D : counter.count();
+  }
+
+  /**
+   * Tests the write path metrics: buffered, applied and stale upserts and applied deltas are
+   * counted by context, and the buffer gauges and batch timers are registered.
+   */
+  @Test
+  public void testWritePathMetrics() throws Exception {
+    final String context = "test-metrics";
+    final double buffered = this.getCount("statistics.event.buffered", "context", context);
+    final double applied =
+        this.getCount("statistics.event.upsert", "context", context, "result", "applied");
+    final double stale =
+        this.getCount("statistics.event.upsert", "context", context, "result", "stale");
+    final double deltas = this.getCount("statistics.summary.delta.applied", "context", context);
+
+    // Upserts an event and then an older emission of it, which is dropped as stale.
+    final StatisticsEvent event = createEvent(context, "owner-1", TEST_DATE_TIME, "city", "rio");
+    event.setEmittedAt(TEST_DATE_TIME.plusMinutes(10));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(event);
+    this.waitForSummary(context, "city", TEST_DATE_TIME, 1L);
+    final StatisticsEvent staleEvent =
+        createEvent(context, "owner-1", TEST_DATE_TIME, "city", "sao-paulo");
+    staleEvent.setEmittedAt(TEST_DATE_TIME.plusMinutes(5));
+    this.statisticsEventServiceComponent.upsertStatisticsEvent(staleEvent);
+    Assertions.assertTrue(
+        TestHelper.waitUntilValid(
+            () -> {
+              this.statisticsEventServiceComponent.flushEventBuffer();
+              return this.getCount(
+                  "statistics.event.upsert", "context", context, "result", "stale");
+            },
+            count -> count == stale + 1,
+            TestHelper.LONG_WAIT,
+            TestHelper.SHORT_WAIT));
+    Assertions.assertEquals(
+        1L,
+        this.waitForSummary(context, "city", TEST_DATE_TIME, 1L).getValueCounts().get("rio"));
+
+    // Verifies the counters.
+    Assertions.assertEquals(
+        buffered + 2, this.getCount("statistics.event.buffered", "context", context));
+    Assertions.assertEquals(
+        applied + 1,
+        this.getCount("statistics.event.upsert", "context", context, "result", "applied"));
+    Assertions.assertEquals(
+        deltas + 1, this.getCount("statistics.summary.delta.applied", "context", context));
+
+    // Verifies the gauges and timers.
+    final MeterRegistry meterRegistry = this.statisticsMetricsServiceComponent.getMeterRegistry();
+    for (final String buffer :
+        List.of(
+            StatisticsMetricsServiceComponent.EVENT_BUFFER,
+            StatisticsMetricsServiceComponent.SUMMARY_DELTA_BUFFER)) {
+      Assertions.assertNotNull(
+          meterRegistry.find("statistics.buffer.entries").tag("buffer", buffer).gauge());
+      Assertions.assertNotNull(
+          meterRegistry.find("statistics.buffer.oldest.age").tag("buffer", buffer).timeGauge());
+      Assertions.assertTrue(
+          meterRegistry.find("statistics.buffer.flush").tag("buffer", buffer).timer().count() > 0);
+    }
+    Assertions.assertTrue(meterRegistry.find("statistics.event.upsert.merge").timer().count() > 0);
+    Assertions.assertTrue(
+        meterRegistry.find("statistics.summary.delta.batch.apply").timer().count() > 0);
+  }
+
+  /**
+   * A batch is clamped at zero after its net change, with either apply strategy: a decrement below
+   * zero followed by an increment of the same value in one batch leaves the value out.
+   */
+  @Test
+  public void testDeltaBatchClampedAfterNetChange() {
+    final String context = "test-delta-batch-clamp";
+    final StatisticsEventSummaryDelta initial =
+        new StatisticsEventSummaryDelta(context, "city", TEST_DATE_TIME);
+    initial.addDelta("rio", 1L, BigDecimal.ONE);
+    initial.addDelta("sp", 1L, BigDecimal.ONE);
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(List.of(initial));
+    final StatisticsEventSummaryDelta decrement =
+        new StatisticsEventSummaryDelta(context, "city", TEST_DATE_TIME);
+    decrement.addDelta("rio", -2L, BigDecimal.valueOf(-2));
+    final StatisticsEventSummaryDelta increment =
+        new StatisticsEventSummaryDelta(context, "city", TEST_DATE_TIME);
+    increment.addDelta("rio", 1L, BigDecimal.ONE);
+    this.statisticsEventSummaryBufferServiceComponent.processSummaryDeltaBatch(
+        List.of(decrement, increment));
+
+    final StatisticsEventSummary summary =
+        this.statisticsEventSummaryRepository
+            .findById(new StatisticsEventSummaryKey(context, "city", TEST_DATE_TIME))
+            .orElseThrow();
+    Assertions.assertNull(summary.getValueCounts().get("rio"));
+    Assertions.assertNull(summary.getValueWeights().get("rio"));
+    Assertions.assertEquals(1L, summary.getTotalCount());
+    Assertions.assertEquals(0, BigDecimal.ONE.compareTo(summary.getTotalWeight()));
+  }
 }
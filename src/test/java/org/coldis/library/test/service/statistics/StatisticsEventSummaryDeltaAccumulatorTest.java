@@ -0,0 +1,263 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDelta;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDeltaAccumulator;
+import org.coldis.library.service.statistics.StatisticsEventSummaryKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pure unit tests for {@link StatisticsEventSummaryDeltaAccumulator}: merging per key and value,
+ * batching on drain, weight scaling, overflow, and no lost updates when adding and draining
+ * concurrently.
+ */
+public class StatisticsEventSummaryDeltaAccumulatorTest {
+
+  /** Bucket used by the tests. */
+  private static final LocalDateTime DATE_TIME = LocalDateTime.of(2026, 1, 15, 10, 0, 0);
+
+  /**
+   * Creates a summary key in the test bucket.
+   *
+   * @param dimensionName Dimension name.
+   * @return The key.
+   */
+  private static StatisticsEventSummaryKey key(final String dimensionName) {
+    return new StatisticsEventSummaryKey(
+        "ctx", dimensionName, StatisticsEventSummaryDeltaAccumulatorTest.DATE_TIME);
+  }
+
+  /**
+   * Drains everything into a single list.
+   *
+   * @param accumulator Accumulator.
+   * @return The drained deltas.
+   */
+  private static List<StatisticsEventSummaryDelta> drainAll(
+      final StatisticsEventSummaryDeltaAccumulator accumulator) {
+    final List<StatisticsEventSummaryDelta> drained = new ArrayList<>();
+    accumulator.drain(Integer.MAX_VALUE, drained::addAll);
+    return drained;
+  }
+
+  @Test
+  @DisplayName("Deltas for the same key and value are summed into one delta per key")
+  public void testMergesPerKeyAndValue() {
+    final StatisticsEventSummaryDeltaAccumulator accumulator =
+        new StatisticsEventSummaryDeltaAccumulator(4, 6);
+    final StatisticsEventSummaryKey city =
+        StatisticsEventSummaryDeltaAccumulatorTest.key("city");
+    final StatisticsEventSummaryKey device =
+        StatisticsEventSummaryDeltaAccumulatorTest.key("device");
+    accumulator.add(city, "sp", 1, new BigDecimal("10.50"));
+    accumulator.add(city, "sp", 1, new BigDecimal("4.50"));
+    accumulator.add(city, "rj", -1, new BigDecimal("-2"));
+    accumulator.add(device, "mobile", 1, BigDecimal.ONE);
+    final List<StatisticsEventSummaryDelta> drained =
+        StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator);
+    Assertions.assertEquals(2, drained.size());
+    final StatisticsEventSummaryDelta cityDelta =
+        drained.stream()
+            .filter(delta -> "city".equals(delta.getDimensionName()))
+            .findFirst()
+            .get();
+    Assertions.assertEquals(city, cityDelta.getKey());
+    Assertions.assertEquals(2L, cityDelta.getCountDeltas().get("sp"));
+    Assertions.assertEquals(-1L, cityDelta.getCountDeltas().get("rj"));
+    Assertions.assertEquals(
+        0, new BigDecimal("15").compareTo(cityDelta.getWeightDeltas().get("sp")));
+    Assertions.assertEquals(
+        0, new BigDecimal("-2").compareTo(cityDelta.getWeightDeltas().get("rj")));
+    Assertions.assertTrue(StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Whole deltas are added value by value, including weight-only values")
+  public void testAddsWholeDelta() {
+    final StatisticsEventSummaryDeltaAccumulator accumulator =
+        new StatisticsEventSummaryDeltaAccumulator(1, 6);
+    final StatisticsEventSummaryDelta delta =
+        new StatisticsEventSummaryDelta(
+            "ctx", "city", StatisticsEventSummaryDeltaAccumulatorTest.DATE_TIME);
+    delta.addDelta("sp", 1, BigDecimal.ONE);
+    delta.getWeightDeltas().put("rj", new BigDecimal("0.25"));
+    accumulator.add(delta.getKey(), delta);
+    accumulator.add(delta.getKey(), delta);
+    final StatisticsEventSummaryDelta drained =
+        StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator).get(0);
+    Assertions.assertEquals(2L, drained.getCountDeltas().get("sp"));
+    Assertions.assertEquals(0L, drained.getCountDeltas().get("rj"));
+    Assertions.assertEquals(
+        0, new BigDecimal("0.5").compareTo(drained.getWeightDeltas().get("rj")));
+  }
+
+  @Test
+  @DisplayName("Weights are kept at the configured scale, rounded half-even")
+  public void testWeightScale() {
+    final StatisticsEventSummaryDeltaAccumulator accumulator =
+        new StatisticsEventSummaryDeltaAccumulator(1, 2);
+    final StatisticsEventSummaryKey key =
+        StatisticsEventSummaryDeltaAccumulatorTest.key("city");
+    accumulator.add(key, "sp", 1, new BigDecimal("0.125"));
+    accumulator.add(key, "sp", 1, new BigDecimal("100"));
+    Assertions.assertEquals(
+        new BigDecimal("100.12"),
+        StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator).get(0).getWeightDeltas().get("sp"));
+  }
+
+  @Test
+  @DisplayName("Weights beyond the scaled long range are added exactly instead of throwing")
+  public void testWeightNearLongLimit() {
+    final StatisticsEventSummaryDeltaAccumulator accumulator =
+        new StatisticsEventSummaryDeltaAccumulator(1, 6);
+    final StatisticsEventSummaryKey key =
+        StatisticsEventSummaryDeltaAccumulatorTest.key("city");
+    accumulator.add(key, "sp", 1, new BigDecimal("9300000000000.123456"));
+    accumulator.add(key, "sp", 1, new BigDecimal("9000000000000"));
+    accumulator.add(key, "sp", 1, new BigDecimal("9000000000000"));
+    accumulator.add(key, "sp", 1, new BigDecimal("-0.5"));
+    final StatisticsEventSummaryDelta drained =
+        StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator).get(0);
+    Assertions.assertEquals(4L, drained.getCountDeltas().get("sp"));
+    Assertions.assertEquals(
+        0,
+        new BigDecimal("27299999999999.623456")
+            .compareTo(drained.getWeightDeltas().get("sp")));
+  }
+
+  @Test
+  @DisplayName("Many adds to one key neither wrap nor throw, and excess counts wait for the next drain")
+  public void testManyAddsToOneKey() throws Exception {
+    final StatisticsEventSummaryDeltaAccumulator accumulator =
+        new StatisticsEventSummaryDeltaAccumulator(1, 6);
+    final StatisticsEventSummaryKey key =
+        StatisticsEventSummaryDeltaAccumulatorTest.key("city");
+    final int threads = 4;
+    final int addsPerThread = 1_000;
+    final long count = Long.MAX_VALUE / 2_000;
+    final BigDecimal weight = new BigDecimal("10000000000.5");
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<?>> writers = new ArrayList<>();
+      for (int thread = 0; thread < threads; thread++) {
+        writers.add(
+            executor.submit(
+                () -> {
+                  for (int index = 0; index < addsPerThread; index++) {
+                    accumulator.add(key, "sp", count, weight);
+                  }
+                  return null;
+                }));
+      }
+      for (final Future<?> writer : writers) {
+        writer.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    final long adds = (long) threads * addsPerThread;
+    final StatisticsEventSummaryDelta first =
+        StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator).get(0);
+    Assertions.assertEquals(Long.MAX_VALUE, first.getCountDeltas().get("sp"));
+    Assertions.assertEquals(
+        0, weight.multiply(BigDecimal.valueOf(adds)).compareTo(first.getWeightDeltas().get("sp")));
+    final StatisticsEventSummaryDelta second =
+        StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator).get(0);
+    Assertions.assertEquals(
+        BigInteger.valueOf(count).multiply(BigInteger.valueOf(adds)),
+        BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.valueOf(second.getCountDeltas().get("sp"))));
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(second.getWeightDeltas().get("sp")));
+    Assertions.assertTrue(StatisticsEventSummaryDeltaAccumulatorTest.drainAll(accumulator).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Drain emits batches of at most the requested size")
+  public void testDrainBatches() {
+    final StatisticsEventSummaryDeltaAccumulator accumulator =
+        new StatisticsEventSummaryDeltaAccumulator(8, 6);
+    for (int index = 0; index < 25; index++) {
+      accumulator.add(
+          StatisticsEventSummaryDeltaAccumulatorTest.key("dimension-" + index),
+          "value",
+          1,
+          BigDecimal.ONE);
+    }
+    final List<Integer> batchSizes = new ArrayList<>();
+    final int drained = accumulator.drain(10, batch -> batchSizes.add(batch.size()));
+    Assertions.assertEquals(25, drained);
+    Assertions.assertEquals(List.of(10, 10, 5), batchSizes);
+  }
+
+  @Test
+  @DisplayName("Concurrent adds and drains lose no update")
+  public void testConcurrentAddAndDrain() throws Exception {
+    final StatisticsEventSummaryDeltaAccumulator accumulator =
+        new StatisticsEventSummaryDeltaAccumulator(0, 6);
+    final int threads = 8;
+    final int addsPerThread = 20_000;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicBoolean adding = new AtomicBoolean(true);
+    final List<StatisticsEventSummaryDelta> drained = new ArrayList<>();
+    try {
+      final List<Future<?>> writers = new ArrayList<>();
+      for (int thread = 0; thread < threads; thread++) {
+        writers.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int index = 0; index < addsPerThread; index++) {
+                    accumulator.add(
+                        StatisticsEventSummaryDeltaAccumulatorTest.key("dimension-" + (index % 16)),
+                        "value-" + (index % 3),
+                        1,
+                        new BigDecimal("0.5"));
+                  }
+                  return null;
+                }));
+      }
+      final Future<?> drainer =
+          executor.submit(
+              () -> {
+                start.await();
+                while (adding.get()) {
+                  accumulator.drain(100, drained::addAll);
+                }
+                return null;
+              });
+      start.countDown();
+      for (final Future<?> writer : writers) {
+        writer.get(1, TimeUnit.MINUTES);
+      }
+      adding.set(false);
+      drainer.get(1, TimeUnit.MINUTES);
+      accumulator.drain(100, drained::addAll);
+    } finally {
+      executor.shutdownNow();
+    }
+    final long totalCount =
+        drained.stream()
+            .flatMap(delta -> delta.getCountDeltas().values().stream())
+            .mapToLong(Long::longValue)
+            .sum();
+    final BigDecimal totalWeight =
+        drained.stream()
+            .flatMap(delta -> delta.getWeightDeltas().values().stream())
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    Assertions.assertEquals((long) threads * addsPerThread, totalCount);
+    Assertions.assertEquals(
+        0, BigDecimal.valueOf(threads * addsPerThread, 1).multiply(BigDecimal.valueOf(5)).compareTo(totalWeight));
+  }
+}
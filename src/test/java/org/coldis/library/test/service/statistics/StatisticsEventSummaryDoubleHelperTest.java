@@ -0,0 +1,336 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.coldis.library.exception.BusinessException;
+import org.coldis.library.service.statistics.MetricComparisonStats;
+import org.coldis.library.service.statistics.StatisticsEventNaiveMultiDimensionProbability;
+import org.coldis.library.service.statistics.StatisticsEventSingleDimensionProbability;
+import org.coldis.library.service.statistics.StatisticsEventSummary;
+import org.coldis.library.service.statistics.StatisticsEventSummaryComparison;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDoubleHelper;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper;
+import org.coldis.library.service.statistics.StatisticsEventWindowedProbability;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Precision-tolerance tests of the {@code double} fast path ({@link
+ * StatisticsEventSummaryDoubleHelper}) against the {@code BigDecimal} reference ({@link
+ * StatisticsEventSummaryHelper}) over seeded random summaries: every comparison, probability and
+ * z-score reduction result must agree within {@link #TOLERANCE} (relative, or absolute below 1).
+ */
+public class StatisticsEventSummaryDoubleHelperTest {
+
+  /** Relative tolerance (absolute for magnitudes below 1). */
+  private static final double TOLERANCE = 1e-9;
+
+  /** Random cases per test. */
+  private static final int CASES = 500;
+
+  /** Dimension values drawn by the random summaries. */
+  private static final List<String> VALUES = List.of("sp", "rj", "mg", "ba", "pr", "rs", "pe");
+
+  /** Asserts two results agree within the tolerance (both null, or both present). */
+  private static void assertClose(final String name, final BigDecimal expected, final BigDecimal actual) {
+    if ((expected == null) || (actual == null)) {
+      Assertions.assertEquals(expected, actual, name);
+      return;
+    }
+    final double difference = Math.abs(expected.doubleValue() - actual.doubleValue());
+    Assertions.assertTrue(
+        difference <= (StatisticsEventSummaryDoubleHelperTest.TOLERANCE
+            * Math.max(1.0, Math.abs(expected.doubleValue()))),
+        () -> name + ": expected " + expected + " but was " + actual);
+  }
+
+  /** Asserts two result maps have the same keys and values within the tolerance. */
+  private static void assertClose(
+      final String name, final Map<String, BigDecimal> expected, final Map<String, BigDecimal> actual) {
+    if ((expected == null) || (actual == null)) {
+      Assertions.assertEquals(expected, actual, name);
+      return;
+    }
+    Assertions.assertEquals(expected.keySet(), actual.keySet(), name);
+    expected.forEach(
+        (key, value) ->
+            StatisticsEventSummaryDoubleHelperTest.assertClose(name + "." + key, value, actual.get(key)));
+  }
+
+  /** Asserts two metric stats agree field by field. */
+  private static void assertClose(
+      final String name, final MetricComparisonStats expected, final MetricComparisonStats actual) {
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".averageTotal", expected.getAverageTotal(), actual.getAverageTotal());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".stdDevTotal", expected.getStdDevTotal(), actual.getStdDevTotal());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".averageValues", expected.getAverageValues(), actual.getAverageValues());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".stdDevValues", expected.getStdDevValues(), actual.getStdDevValues());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".averageRatios", expected.getAverageRatios(), actual.getAverageRatios());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".stdDevRatios", expected.getStdDevRatios(), actual.getStdDevRatios());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".referenceTotal", expected.getReferenceTotal(), actual.getReferenceTotal());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".referenceValues", expected.getReferenceValues(), actual.getReferenceValues());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".referenceRatios", expected.getReferenceRatios(), actual.getReferenceRatios());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".zScoreTotal", expected.getZScoreTotal(), actual.getZScoreTotal());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".zScoreValues", expected.getZScoreValues(), actual.getZScoreValues());
+    StatisticsEventSummaryDoubleHelperTest.assertClose(
+        name + ".zScoreRatios", expected.getZScoreRatios(), actual.getZScoreRatios());
+  }
+
+  /** Creates a random summary: each value present with probability 3/4, weights with 2 decimals. */
+  private static StatisticsEventSummary randomSummary(final Random random) {
+    final StatisticsEventSummary summary = new StatisticsEventSummary("ctx", "city", null);
+    for (final String value : StatisticsEventSummaryDoubleHelperTest.VALUES) {
+      if (random.nextInt(4) > 0) {
+        final int count = 1 + random.nextInt(50);
+        for (int increment = 0; increment < count; increment++) {
+          summary.incrementValueCount(value);
+        }
+        summary.incrementValueWeight(value, BigDecimal.valueOf(random.nextInt(100000), 2));
+      }
+    }
+    return summary;
+  }
+
+  /** Creates up to {@code maxSize} random summaries (possibly none). */
+  private static List<StatisticsEventSummary> randomSummaries(
+      final Random random, final int maxSize) {
+    final List<StatisticsEventSummary> summaries = new ArrayList<>();
+    final int size = random.nextInt(maxSize + 1);
+    for (int index = 0; index < size; index++) {
+      summaries.add(StatisticsEventSummaryDoubleHelperTest.randomSummary(random));
+    }
+    return summaries;
+  }
+
+  /** Computes a comparison in {@code BigDecimal} or {@code double} ({@code null} on no data). */
+  private static StatisticsEventSummaryComparison compare(
+      final boolean fast,
+      final List<StatisticsEventSummary> reference,
+      final List<List<StatisticsEventSummary>> samples) {
+    try {
+      return fast
+          ? StatisticsEventSummaryDoubleHelper.computeComparison(
+              reference, samples, "ctx", "city", null, null, 1, null, samples.size())
+          : StatisticsEventSummaryHelper.computeComparison(
+              reference, samples, "ctx", "city", null, null, 1, null, samples.size());
+    } catch (final BusinessException exception) {
+      return null;
+    }
+  }
+
+  @Test
+  @DisplayName("Comparisons match the BigDecimal path, including empty windows and no reference")
+  public void testComparison() {
+    final Random random = new Random(42);
+    for (int testCase = 0; testCase < StatisticsEventSummaryDoubleHelperTest.CASES; testCase++) {
+      final List<List<StatisticsEventSummary>> samples = new ArrayList<>();
+      final int sampleCount = 1 + random.nextInt(8);
+      for (int sampleIndex = 0; sampleIndex < sampleCount; sampleIndex++) {
+        samples.add(StatisticsEventSummaryDoubleHelperTest.randomSummaries(random, 3));
+      }
+      final List<StatisticsEventSummary> reference =
+          StatisticsEventSummaryDoubleHelperTest.randomSummaries(random, 2);
+      final StatisticsEventSummaryComparison expected =
+          StatisticsEventSummaryDoubleHelperTest.compare(false, reference, samples);
+      final StatisticsEventSummaryComparison actual =
+          StatisticsEventSummaryDoubleHelperTest.compare(true, reference, samples);
+      if (expected == null) {
+        Assertions.assertNull(actual);
+        continue;
+      }
+      Assertions.assertEquals(expected.getSampleSize(), actual.getSampleSize());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "countStats", expected.getCountStats(), actual.getCountStats());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "weightStats", expected.getWeightStats(), actual.getWeightStats());
+    }
+  }
+
+  @Test
+  @DisplayName("A series with no spread gets zero z-scores, not rounding noise")
+  public void testConstantSeries() throws Exception {
+    final List<List<StatisticsEventSummary>> samples = new ArrayList<>();
+    for (int sampleIndex = 0; sampleIndex < 3; sampleIndex++) {
+      final StatisticsEventSummary summary = new StatisticsEventSummary("ctx", "city", null);
+      summary.incrementValueCount("sp");
+      summary.incrementValueCount("rj");
+      summary.incrementValueCount("rj");
+      samples.add(List.of(summary));
+    }
+    final StatisticsEventSummary reference = new StatisticsEventSummary("ctx", "city", null);
+    reference.incrementValueCount("sp");
+    final StatisticsEventSummaryComparison comparison =
+        StatisticsEventSummaryDoubleHelper.computeComparison(
+            List.of(reference), samples, "ctx", "city", null, null, 1, null, 3);
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(comparison.getCountStats().getStdDevRatios().get("rj")));
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(comparison.getCountStats().getZScoreRatios().get("sp")));
+    Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(comparison.getCountStats().getZScoreTotal()));
+  }
+
+  @Test
+  @DisplayName("No sample data throws the same not-found error as the BigDecimal path")
+  public void testNoData() {
+    final BusinessException exception =
+        Assertions.assertThrows(
+            BusinessException.class,
+            () ->
+                StatisticsEventSummaryDoubleHelper.computeComparison(
+                    List.of(), List.of(List.of(), List.of()), "ctx", "city", null, null, 1, null, 2));
+    Assertions.assertEquals(HttpStatus.NOT_FOUND.value(), exception.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("Single-dimension, naive joint and windowed probabilities match the BigDecimal path")
+  public void testProbabilities() throws Exception {
+    final Random random = new Random(7);
+    for (int testCase = 0; testCase < StatisticsEventSummaryDoubleHelperTest.CASES; testCase++) {
+      final List<StatisticsEventSummary> summaries =
+          StatisticsEventSummaryDoubleHelperTest.randomSummaries(random, 6);
+      final String value =
+          StatisticsEventSummaryDoubleHelperTest.VALUES.get(
+              random.nextInt(StatisticsEventSummaryDoubleHelperTest.VALUES.size()));
+      final StatisticsEventWindowedProbability expectedWindowed =
+          StatisticsEventSummaryHelper.windowedValueProbability(summaries, value);
+      final StatisticsEventWindowedProbability actualWindowed =
+          StatisticsEventSummaryDoubleHelper.windowedValueProbability(summaries, value);
+      Assertions.assertEquals(expectedWindowed.getWindowCount(), actualWindowed.getWindowCount());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "pooled", expectedWindowed.getPooledProbability(), actualWindowed.getPooledProbability());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "macro", expectedWindowed.getMacroProbability(), actualWindowed.getMacroProbability());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "macroStdDev",
+          expectedWindowed.getMacroProbabilityStdDev(),
+          actualWindowed.getMacroProbabilityStdDev());
+      if (summaries.isEmpty()) {
+        continue;
+      }
+      final StatisticsEventSingleDimensionProbability expected =
+          StatisticsEventSummaryHelper.singleDimensionProbability(summaries.get(0), value);
+      final StatisticsEventSingleDimensionProbability actual =
+          StatisticsEventSummaryDoubleHelper.singleDimensionProbability(summaries.get(0), value);
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "probability", expected.getProbability(), actual.getProbability());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "smoothed", expected.getSmoothedProbability(), actual.getSmoothedProbability());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "wilsonLower", expected.getWilsonLowerBound(), actual.getWilsonLowerBound());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "credibleUpper", expected.getCredibleUpperBound(), actual.getCredibleUpperBound());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "surprisal", expected.getSurprisal(), actual.getSurprisal());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "logOdds", expected.getLogOdds(), actual.getLogOdds());
+      final List<String> values = summaries.stream().map(summary -> value).toList();
+      final StatisticsEventNaiveMultiDimensionProbability expectedJoint =
+          StatisticsEventSummaryHelper.naiveMultiDimensionProbability(summaries, values);
+      final StatisticsEventNaiveMultiDimensionProbability actualJoint =
+          StatisticsEventSummaryDoubleHelper.naiveMultiDimensionProbability(summaries, values);
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "joint", expectedJoint.getJointProbability(), actualJoint.getJointProbability());
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "jointSmoothed",
+          expectedJoint.getJointSmoothedProbability(),
+          actualJoint.getJointSmoothedProbability());
+      // Both are rounded to 6 places, so they may differ by one unit in the last place.
+      Assertions.assertEquals(
+          expectedJoint.getJointSmoothedLogProbability().doubleValue(),
+          actualJoint.getJointSmoothedLogProbability().doubleValue(),
+          1e-6);
+    }
+  }
+
+  @Test
+  @DisplayName("Z-score reductions over flat double arrays match the BigDecimal aggregators")
+  public void testReductions() {
+    final Random random = new Random(11);
+    for (int testCase = 0; testCase < StatisticsEventSummaryDoubleHelperTest.CASES; testCase++) {
+      final List<List<StatisticsEventSummary>> samples = new ArrayList<>();
+      for (int sampleIndex = 0; sampleIndex < 6; sampleIndex++) {
+        samples.add(StatisticsEventSummaryDoubleHelperTest.randomSummaries(random, 2));
+      }
+      final List<StatisticsEventSummary> reference =
+          List.of(StatisticsEventSummaryDoubleHelperTest.randomSummary(random));
+      final StatisticsEventSummaryComparison comparison =
+          StatisticsEventSummaryDoubleHelperTest.compare(false, reference, samples);
+      final List<StatisticsEventSummaryComparison> comparisons =
+          (comparison == null ? List.of() : List.of(comparison));
+      final double[] ratios = StatisticsEventSummaryDoubleHelper.ratioZScores(comparisons);
+      final double[] values = StatisticsEventSummaryDoubleHelper.valueZScores(comparisons);
+      final double[] totals = StatisticsEventSummaryDoubleHelper.totalZScores(comparisons);
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "maxAbs",
+          StatisticsEventSummaryHelper.maxAbsRatioZScore(comparisons),
+          StatisticsEventSummaryDoubleHelper.maxAbs(ratios));
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "minSigned",
+          StatisticsEventSummaryHelper.minSignedValueZScore(comparisons),
+          StatisticsEventSummaryDoubleHelper.minSigned(values));
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "countAbsAbove",
+          StatisticsEventSummaryHelper.countAbsRatioZScoreAbove(comparisons, 2.0),
+          StatisticsEventSummaryDoubleHelper.countAbsAbove(ratios, 2.0));
+      StatisticsEventSummaryDoubleHelperTest.assertClose(
+          "countBelow",
+          StatisticsEventSummaryHelper.countValueZScoreBelow(comparisons, 1.0),
+          StatisticsEventSummaryDoubleHelper.countBelow(values, 1.0));
+      // The remaining reductions are rounded to 6 places: one unit in the last place is allowed.
+      final List<BigDecimal[]> scaled =
+          List.of(
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.meanAbsRatioZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.meanAbs(ratios)
+              },
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.rootSumSquareRatioZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.rootSumSquare(ratios)
+              },
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.standardizedChiSquareValueZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.standardizedChiSquare(values)
+              },
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.fisherCombinedRatioZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.fisherCombined(ratios)
+              },
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.standardizedFisherValueZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.standardizedFisher(values)
+              },
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.meanPositiveRatioZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.meanPositive(ratios)
+              },
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.meanNegativeValueZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.meanNegative(values)
+              },
+              new BigDecimal[] {
+                StatisticsEventSummaryHelper.meanSignedTotalZScore(comparisons),
+                StatisticsEventSummaryDoubleHelper.meanSigned(totals)
+              });
+      for (final BigDecimal[] pair : scaled) {
+        if ((pair[0] == null) || (pair[1] == null)) {
+          Assertions.assertEquals(pair[0], pair[1]);
+        } else {
+          Assertions.assertEquals(pair[0].doubleValue(), pair[1].doubleValue(), 1.000001e-6);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,258 @@
+package org.coldis.library.test.service.statistics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import javax.sql.DataSource;
+import org.coldis.library.helper.DateTimeHelper;
+import org.coldis.library.service.statistics.StatisticsEventRepository;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper;
+import org.coldis.library.service.statistics.StatisticsEventSummaryPartitionServiceComponent;
+import org.coldis.library.service.statistics.StatisticsEventSummaryRepository;
+import org.coldis.library.test.StartTestWithContainerExtension;
+import org.coldis.library.test.TestWithContainer;
+import org.coldis.library.test.service.ContainerTestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Maintains the summary and event partitions against the container database. The tables created by
+ * the schema generation are set aside and replaced by range partitioned copies (summaries by {@code
+ * date_time}, events by {@code expired_at}, each with a default partition) for every test, and put
+ * back afterwards.
+ */
+@TestWithContainer(reuse = true)
+@ExtendWith(StartTestWithContainerExtension.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public class StatisticsEventSummaryPartitionServiceComponentTest extends ContainerTestHelper {
+
+  /** Partition bound format in names. */
+  private static final DateTimeFormatter PARTITION_DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+  /** Data source. */
+  @Autowired private DataSource dataSource;
+
+  /** Partition service. */
+  @Autowired
+  private StatisticsEventSummaryPartitionServiceComponent
+      statisticsEventSummaryPartitionServiceComponent;
+
+  /** Summary repository. */
+  @Autowired private StatisticsEventSummaryRepository statisticsEventSummaryRepository;
+
+  /** Event repository. */
+  @Autowired private StatisticsEventRepository statisticsEventRepository;
+
+  /**
+   * Runs DDL statements on their own connection.
+   *
+   * @param statements Statements.
+   * @throws Exception If a statement fails.
+   */
+  private void execute(final String... statements) throws Exception {
+    try (Connection connection = this.dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      for (final String sql : statements) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  /**
+   * Counts the rows of a table.
+   *
+   * @param table Table.
+   * @return The number of rows.
+   * @throws Exception If the count fails.
+   */
+  private long count(final String table) throws Exception {
+    try (Connection connection = this.dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM " + table)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+
+  /**
+   * Inserts an event.
+   *
+   * @param ownerKey Owner key.
+   * @param expiredAt Expiry ({@code null} for none).
+   * @throws Exception If the insert fails.
+   */
+  private void insertEvent(final String ownerKey, final LocalDateTime expiredAt)
+      throws Exception {
+    try (Connection connection = this.dataSource.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement(
+                "INSERT INTO statistics_event (context, owner_key, dimension_name, date_time,"
+                    + " expired_at, created_at, updated_at) VALUES ('test-partition', ?, 'city',"
+                    + " now(), ?, now(), now())")) {
+      statement.setString(1, ownerKey);
+      statement.setTimestamp(2, (expiredAt == null ? null : Timestamp.valueOf(expiredAt)));
+      statement.executeUpdate();
+    }
+  }
+
+  /**
+   * Gets the name of a partition.
+   *
+   * @param prefix Partition name prefix.
+   * @param start Start.
+   * @param intervalDays Days covered by the partition.
+   * @return The partition name.
+   */
+  private static String getPartitionName(
+      final String prefix, final LocalDateTime start, final int intervalDays) {
+    return prefix
+        + StatisticsEventSummaryPartitionServiceComponentTest.PARTITION_DATE_FORMAT.format(start)
+        + "_"
+        + StatisticsEventSummaryPartitionServiceComponentTest.PARTITION_DATE_FORMAT.format(
+            start.plusDays(intervalDays));
+  }
+
+  /**
+   * Replaces the tables by range partitioned copies.
+   *
+   * @throws Exception If the tables cannot be replaced.
+   */
+  @BeforeEach
+  public void partitionTables() throws Exception {
+    this.execute(
+        "ALTER TABLE statistics_event_summary RENAME TO statistics_event_summary_original",
+        "CREATE TABLE statistics_event_summary (LIKE statistics_event_summary_original"
+            + " INCLUDING DEFAULTS) PARTITION BY RANGE (date_time)",
+        "CREATE TABLE statistics_event_summary_default PARTITION OF statistics_event_summary"
+            + " DEFAULT",
+        "ALTER TABLE statistics_event RENAME TO statistics_event_original",
+        "CREATE TABLE statistics_event (LIKE statistics_event_original INCLUDING DEFAULTS)"
+            + " PARTITION BY RANGE (expired_at)",
+        "CREATE INDEX idx_statistics_event_partitioned_key ON statistics_event"
+            + " (context, owner_key, dimension_name)",
+        "CREATE TABLE statistics_event_default PARTITION OF statistics_event DEFAULT");
+  }
+
+  /**
+   * Puts the original tables back and disables the partition maintenance.
+   *
+   * @throws Exception If the tables cannot be put back.
+   */
+  @AfterEach
+  public void restoreTables() throws Exception {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "enabled", false);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "eventEnabled", false);
+    this.execute(
+        "DROP TABLE IF EXISTS statistics_event_summary CASCADE",
+        "ALTER TABLE statistics_event_summary_original RENAME TO statistics_event_summary",
+        "DROP TABLE IF EXISTS statistics_event CASCADE",
+        "ALTER TABLE statistics_event_original RENAME TO statistics_event");
+  }
+
+  /**
+   * Creates the current and the premade summary partitions, keeps the ones within the retention
+   * and drops the older ones.
+   *
+   * @throws Exception If the test fails.
+   */
+  @Test
+  public void testMaintainSummaryPartitions() throws Exception {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "enabled", true);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "intervalDays", 7);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "premake", 2);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "retentionDays", 30);
+    final LocalDateTime current =
+        StatisticsEventSummaryHelper.truncateToTier(
+            DateTimeHelper.getCurrentLocalDateTime(), 7 * 1440L);
+    final String expiredPartition =
+        StatisticsEventSummaryPartitionServiceComponentTest.getPartitionName(
+            "statistics_event_summary_", current.minusDays(70), 7);
+    final String retainedPartition =
+        StatisticsEventSummaryPartitionServiceComponentTest.getPartitionName(
+            "statistics_event_summary_", current.minusDays(7), 7);
+    this.statisticsEventSummaryRepository.createPartition(
+        expiredPartition, current.minusDays(70), current.minusDays(63));
+    this.statisticsEventSummaryRepository.createPartition(
+        retainedPartition, current.minusDays(7), current);
+
+    Assertions.assertEquals(
+        4, this.statisticsEventSummaryPartitionServiceComponent.maintainPartitions());
+    final List<String> partitionNames =
+        this.statisticsEventSummaryRepository.findPartitionNames();
+    for (int partition = 0; partition <= 2; partition++) {
+      Assertions.assertTrue(
+          partitionNames.contains(
+              StatisticsEventSummaryPartitionServiceComponentTest.getPartitionName(
+                  "statistics_event_summary_", current.plusDays(7L * partition), 7)));
+    }
+    Assertions.assertTrue(partitionNames.contains(retainedPartition));
+    Assertions.assertTrue(partitionNames.contains("statistics_event_summary_default"));
+    Assertions.assertFalse(partitionNames.contains(expiredPartition));
+    Assertions.assertEquals(
+        0, this.statisticsEventSummaryPartitionServiceComponent.maintainPartitions());
+  }
+
+  /**
+   * Creates the current and the premade event partitions, drops the ended ones with their expired
+   * events, and deletes the expired events of the default partition row by row.
+   *
+   * @throws Exception If the test fails.
+   */
+  @Test
+  public void testMaintainEventPartitions() throws Exception {
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "eventEnabled", true);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "eventIntervalDays", 1);
+    ReflectionTestUtils.setField(
+        this.statisticsEventSummaryPartitionServiceComponent, "eventPremake", 3);
+    final LocalDateTime now = DateTimeHelper.getCurrentLocalDateTime();
+    final LocalDateTime current = StatisticsEventSummaryHelper.truncateToTier(now, 1440L);
+    final String endedPartition =
+        StatisticsEventSummaryPartitionServiceComponentTest.getPartitionName(
+            "statistics_event_", current.minusDays(2), 1);
+    this.statisticsEventRepository.createPartition(
+        endedPartition, current.minusDays(2), current.minusDays(1));
+    this.insertEvent("ended", current.minusDays(2).plusHours(1));
+    this.insertEvent("expired-default", current.minusDays(5));
+    this.insertEvent("not-expiring", null);
+
+    Assertions.assertEquals(
+        5, this.statisticsEventSummaryPartitionServiceComponent.maintainPartitions());
+    final List<String> partitionNames = this.statisticsEventRepository.findPartitionNames();
+    for (int partition = 0; partition <= 3; partition++) {
+      Assertions.assertTrue(
+          partitionNames.contains(
+              StatisticsEventSummaryPartitionServiceComponentTest.getPartitionName(
+                  "statistics_event_", current.plusDays(partition), 1)));
+    }
+    Assertions.assertFalse(partitionNames.contains(endedPartition));
+    Assertions.assertEquals(2, this.count("statistics_event"));
+
+    // Events expiring within the created partitions land in them, not in the default one.
+    this.insertEvent("expiring", now.plusDays(1));
+    Assertions.assertEquals(2, this.count("statistics_event_default"));
+    Assertions.assertEquals(
+        1, this.statisticsEventRepository.deleteExpiredFromDefaultPartition(now, 100));
+    Assertions.assertEquals(1, this.count("statistics_event_default"));
+    Assertions.assertEquals(2, this.count("statistics_event"));
+  }
+}
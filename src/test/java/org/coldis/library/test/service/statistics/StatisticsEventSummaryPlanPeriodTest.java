@@ -0,0 +1,91 @@
+package org.coldis.library.test.service.statistics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper.PeriodSegment;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pure unit tests for the roll-up period planner ({@link StatisticsEventSummaryHelper#planPeriod})
+ * and the tier grid ({@link StatisticsEventSummaryHelper#truncateToTier}).
+ */
+public class StatisticsEventSummaryPlanPeriodTest {
+
+  /** Default tiers: hourly, daily and weekly. */
+  private static final List<Long> TIERS = List.of(60L, 1440L, 10080L);
+
+  @Test
+  @DisplayName("Tier buckets start on the hour, at midnight and on Mondays")
+  public void testTruncateToTier() {
+    final LocalDateTime dateTime = LocalDateTime.of(2026, 1, 15, 10, 45);
+    Assertions.assertEquals(
+        LocalDateTime.of(2026, 1, 15, 10, 0),
+        StatisticsEventSummaryHelper.truncateToTier(dateTime, 60L));
+    Assertions.assertEquals(
+        LocalDateTime.of(2026, 1, 15, 0, 0),
+        StatisticsEventSummaryHelper.truncateToTier(dateTime, 1440L));
+    final LocalDateTime week = StatisticsEventSummaryHelper.truncateToTier(dateTime, 10080L);
+    Assertions.assertEquals(LocalDateTime.of(2026, 1, 12, 0, 0), week);
+    Assertions.assertEquals(DayOfWeek.MONDAY, week.getDayOfWeek());
+  }
+
+  @Test
+  @DisplayName("An hour-long window reads one hourly roll-up and its inclusive end bucket")
+  public void testHourWindow() {
+    final List<PeriodSegment> segments =
+        StatisticsEventSummaryHelper.planPeriod(
+            LocalDateTime.of(2026, 1, 15, 10, 0),
+            LocalDateTime.of(2026, 1, 15, 11, 0),
+            15L,
+            StatisticsEventSummaryPlanPeriodTest.TIERS);
+    Assertions.assertEquals(
+        List.of(
+            new PeriodSegment(
+                60L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 10, 0)),
+            new PeriodSegment(
+                0L, LocalDateTime.of(2026, 1, 15, 11, 0), LocalDateTime.of(2026, 1, 15, 11, 0))),
+        segments);
+  }
+
+  @Test
+  @DisplayName("A long window uses the coarsest tiers inside and finer ones at the edges")
+  public void testLongWindow() {
+    final List<PeriodSegment> segments =
+        StatisticsEventSummaryHelper.planPeriod(
+            LocalDateTime.of(2026, 1, 4, 22, 30),
+            LocalDateTime.of(2026, 1, 19, 0, 45),
+            15L,
+            StatisticsEventSummaryPlanPeriodTest.TIERS);
+    Assertions.assertEquals(
+        List.of(
+            new PeriodSegment(
+                0L, LocalDateTime.of(2026, 1, 4, 22, 30), LocalDateTime.of(2026, 1, 4, 22, 45)),
+            new PeriodSegment(
+                60L, LocalDateTime.of(2026, 1, 4, 23, 0), LocalDateTime.of(2026, 1, 4, 23, 0)),
+            new PeriodSegment(
+                10080L, LocalDateTime.of(2026, 1, 5, 0, 0), LocalDateTime.of(2026, 1, 12, 0, 0)),
+            new PeriodSegment(
+                60L, LocalDateTime.of(2026, 1, 19, 0, 0), LocalDateTime.of(2026, 1, 19, 0, 0))),
+        segments);
+  }
+
+  @Test
+  @DisplayName("Tiers not coarser than the summary buckets are skipped")
+  public void testSkipsFineTiers() {
+    final List<PeriodSegment> segments =
+        StatisticsEventSummaryHelper.planPeriod(
+            LocalDateTime.of(2026, 1, 15, 10, 0),
+            LocalDateTime.of(2026, 1, 15, 12, 0),
+            60L,
+            StatisticsEventSummaryPlanPeriodTest.TIERS);
+    Assertions.assertEquals(
+        List.of(
+            new PeriodSegment(
+                0L, LocalDateTime.of(2026, 1, 15, 10, 0), LocalDateTime.of(2026, 1, 15, 12, 0))),
+        segments);
+  }
+}
@@ -0,0 +1,206 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.coldis.library.service.statistics.StatisticsEventSummary;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDelta;
+import org.coldis.library.service.statistics.StatisticsEventSummaryRollingWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pure unit tests for {@link StatisticsEventSummaryRollingWindow}: coverage of the window, merging
+ * the overlay into the snapshot, and dropping confirmed segments on reload.
+ */
+public class StatisticsEventSummaryRollingWindowTest {
+
+  /** First bucket of the window. */
+  private static final LocalDateTime START = LocalDateTime.of(2026, 1, 15, 10, 0, 0);
+
+  /** Second bucket of the window. */
+  private static final LocalDateTime NEXT =
+      StatisticsEventSummaryRollingWindowTest.START.plusMinutes(15);
+
+  /**
+   * Creates a summary with one value.
+   *
+   * @param dateTime Bucket.
+   * @param value Dimension value.
+   * @param count Count.
+   * @return The summary.
+   */
+  private static StatisticsEventSummary summary(
+      final LocalDateTime dateTime, final String value, final long count) {
+    final StatisticsEventSummary summary = new StatisticsEventSummary("ctx", "city", dateTime);
+    for (long increment = 0; increment < count; increment++) {
+      summary.incrementValueCount(value);
+      summary.incrementValueWeight(value, BigDecimal.ONE);
+    }
+    return summary;
+  }
+
+  /**
+   * Creates a delta with one value.
+   *
+   * @param dateTime Bucket.
+   * @param value Dimension value.
+   * @param count Count (and weight) delta.
+   * @return The delta.
+   */
+  private static StatisticsEventSummaryDelta delta(
+      final LocalDateTime dateTime, final String value, final long count) {
+    final StatisticsEventSummaryDelta delta =
+        new StatisticsEventSummaryDelta("ctx", "city", dateTime);
+    delta.addDelta(value, count, BigDecimal.valueOf(count));
+    return delta;
+  }
+
+  @Test
+  @DisplayName("Periods are served only once loaded and when they start inside the window")
+  public void testCoverage() {
+    final StatisticsEventSummaryRollingWindow window =
+        new StatisticsEventSummaryRollingWindow("ctx", "city");
+    Assertions.assertNull(
+        window.findByPeriod(
+            StatisticsEventSummaryRollingWindowTest.START,
+            StatisticsEventSummaryRollingWindowTest.NEXT));
+    window.reload(
+        StatisticsEventSummaryRollingWindowTest.START,
+        List.of(
+            StatisticsEventSummaryRollingWindowTest.summary(
+                StatisticsEventSummaryRollingWindowTest.START, "sp", 2)),
+        0L);
+    Assertions.assertNull(
+        window.findByPeriod(
+            StatisticsEventSummaryRollingWindowTest.START.minusMinutes(15),
+            StatisticsEventSummaryRollingWindowTest.NEXT));
+    final List<StatisticsEventSummary> summaries =
+        window.findByPeriod(
+            StatisticsEventSummaryRollingWindowTest.START,
+            StatisticsEventSummaryRollingWindowTest.NEXT);
+    Assertions.assertEquals(1, summaries.size());
+    Assertions.assertEquals(2L, summaries.get(0).getTotalCount());
+    Assertions.assertTrue(
+        window
+            .findByPeriod(
+                StatisticsEventSummaryRollingWindowTest.NEXT,
+                StatisticsEventSummaryRollingWindowTest.NEXT)
+            .isEmpty());
+  }
+
+  @Test
+  @DisplayName("Overlay deltas are merged into the snapshot, dropping values at zero or below")
+  public void testMergesOverlay() {
+    final StatisticsEventSummaryRollingWindow window =
+        new StatisticsEventSummaryRollingWindow("ctx", "city");
+    final StatisticsEventSummary snapshot =
+        StatisticsEventSummaryRollingWindowTest.summary(
+            StatisticsEventSummaryRollingWindowTest.START, "sp", 2);
+    snapshot.incrementValueCount("rj");
+    snapshot.incrementValueWeight("rj", BigDecimal.ONE);
+    window.reload(
+        StatisticsEventSummaryRollingWindowTest.START,
+        List.of(snapshot),
+        0L);
+    window.record(
+        StatisticsEventSummaryRollingWindowTest.START,
+        StatisticsEventSummaryRollingWindowTest.delta(
+            StatisticsEventSummaryRollingWindowTest.START, "sp", 3));
+    window.record(
+        StatisticsEventSummaryRollingWindowTest.START,
+        StatisticsEventSummaryRollingWindowTest.delta(
+            StatisticsEventSummaryRollingWindowTest.START, "rj", -1));
+    window.record(
+        StatisticsEventSummaryRollingWindowTest.NEXT,
+        StatisticsEventSummaryRollingWindowTest.delta(
+            StatisticsEventSummaryRollingWindowTest.NEXT, "bh", 1));
+    final List<StatisticsEventSummary> summaries =
+        window.findByPeriod(
+            StatisticsEventSummaryRollingWindowTest.START,
+            StatisticsEventSummaryRollingWindowTest.NEXT);
+    Assertions.assertEquals(2, summaries.size());
+    Assertions.assertEquals(
+        StatisticsEventSummaryRollingWindowTest.START, summaries.get(0).getDateTime());
+    Assertions.assertEquals(5L, summaries.get(0).getValueCounts().get("sp"));
+    Assertions.assertFalse(summaries.get(0).getValueCounts().containsKey("rj"));
+    Assertions.assertEquals(5L, summaries.get(0).getTotalCount());
+    Assertions.assertEquals(0, new BigDecimal("5").compareTo(summaries.get(0).getTotalWeight()));
+    Assertions.assertEquals(1L, summaries.get(1).getTotalCount());
+    // The snapshot row itself is never changed.
+    Assertions.assertEquals(3L, snapshot.getTotalCount());
+  }
+
+  @Test
+  @DisplayName("A reload drops the segments of confirmed drains and keeps the later ones")
+  public void testReloadDropsConfirmedSegments() {
+    final StatisticsEventSummaryRollingWindow window =
+        new StatisticsEventSummaryRollingWindow("ctx", "city");
+    window.reload(StatisticsEventSummaryRollingWindowTest.START, List.of(), 0L);
+    window.record(
+        StatisticsEventSummaryRollingWindowTest.START,
+        StatisticsEventSummaryRollingWindowTest.delta(
+            StatisticsEventSummaryRollingWindowTest.START, "sp", 1));
+    window.seal(1L);
+    window.record(
+        StatisticsEventSummaryRollingWindowTest.START,
+        StatisticsEventSummaryRollingWindowTest.delta(
+            StatisticsEventSummaryRollingWindowTest.START, "sp", 2));
+    window.seal(2L);
+    window.record(
+        StatisticsEventSummaryRollingWindowTest.START,
+        StatisticsEventSummaryRollingWindowTest.delta(
+            StatisticsEventSummaryRollingWindowTest.START, "sp", 4));
+    // Drain 1 is confirmed applied (and read from the database), drain 2 is still in flight.
+    window.reload(
+        StatisticsEventSummaryRollingWindowTest.START,
+        List.of(
+            StatisticsEventSummaryRollingWindowTest.summary(
+                StatisticsEventSummaryRollingWindowTest.START, "sp", 1)),
+        1L);
+    final List<StatisticsEventSummary> summaries =
+        window.findByPeriod(
+            StatisticsEventSummaryRollingWindowTest.START,
+            StatisticsEventSummaryRollingWindowTest.START);
+    Assertions.assertEquals(7L, summaries.get(0).getTotalCount());
+  }
+
+  @Test
+  @DisplayName("A reload keeps sealed segments whose drain is not confirmed yet")
+  public void testReloadKeepsUnconfirmedSegments() {
+    final StatisticsEventSummaryRollingWindow window =
+        new StatisticsEventSummaryRollingWindow("ctx", "city");
+    window.reload(StatisticsEventSummaryRollingWindowTest.START, List.of(), 0L);
+    window.record(
+        StatisticsEventSummaryRollingWindowTest.START,
+        StatisticsEventSummaryRollingWindowTest.delta(
+            StatisticsEventSummaryRollingWindowTest.START, "sp", 3));
+    window.seal(1L);
+    // The batch of drain 1 has not committed when the reload reads the database.
+    window.reload(StatisticsEventSummaryRollingWindowTest.START, List.of(), 0L);
+    Assertions.assertEquals(
+        3L,
+        window
+            .findByPeriod(
+                StatisticsEventSummaryRollingWindowTest.START,
+                StatisticsEventSummaryRollingWindowTest.START)
+            .get(0)
+            .getTotalCount());
+    // Once confirmed, the next reload reads it from the database instead.
+    window.reload(
+        StatisticsEventSummaryRollingWindowTest.START,
+        List.of(
+            StatisticsEventSummaryRollingWindowTest.summary(
+                StatisticsEventSummaryRollingWindowTest.START, "sp", 3)),
+        1L);
+    Assertions.assertEquals(
+        3L,
+        window
+            .findByPeriod(
+                StatisticsEventSummaryRollingWindowTest.START,
+                StatisticsEventSummaryRollingWindowTest.START)
+            .get(0)
+            .getTotalCount());
+  }
+}
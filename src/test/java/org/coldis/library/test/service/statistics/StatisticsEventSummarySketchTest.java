@@ -0,0 +1,121 @@
+package org.coldis.library.test.service.statistics;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.coldis.library.service.statistics.StatisticsEventDimensionConcentration;
+import org.coldis.library.service.statistics.StatisticsEventSummary;
+import org.coldis.library.service.statistics.StatisticsEventSummaryDelta;
+import org.coldis.library.service.statistics.StatisticsEventSummaryHelper;
+import org.coldis.library.service.statistics.StatisticsEventSummarySketch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Pure unit tests for the summary value sketches and bounded summaries. */
+public class StatisticsEventSummarySketchTest {
+
+  /**
+   * Applies a delta the way the {@code row} apply strategy does, with sketches enabled.
+   *
+   * @param summary Summary.
+   * @param sourceDelta Delta.
+   * @param maxValues Maximum number of values kept.
+   */
+  private static void apply(
+      final StatisticsEventSummary summary,
+      final StatisticsEventSummaryDelta sourceDelta,
+      final int maxValues) {
+    final StatisticsEventSummaryDelta delta =
+        StatisticsEventSummaryHelper.sketchDelta(
+            summary,
+            sourceDelta,
+            StatisticsEventSummarySketch.DEFAULT_PRECISION,
+            StatisticsEventSummarySketch.DEFAULT_DEPTH,
+            StatisticsEventSummarySketch.DEFAULT_WIDTH);
+    delta
+        .getCountDeltas()
+        .forEach((key, value) -> summary.getValueCounts().merge(key, value, Long::sum));
+    summary.getValueCounts().values().removeIf(count -> count <= 0);
+    delta
+        .getWeightDeltas()
+        .forEach((key, value) -> summary.getValueWeights().merge(key, value, BigDecimal::add));
+    summary.getValueWeights().values().removeIf(weight -> weight.signum() <= 0);
+    StatisticsEventSummaryHelper.boundValues(summary, maxValues);
+    summary.setTotalCount(
+        summary.getValueCounts().values().stream().mapToLong(Long::longValue).sum());
+    summary.setTotalWeight(
+        summary.getValueWeights().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+  }
+
+  @Test
+  @DisplayName("Distinct and count estimates stay within bounds and survive merges and serialization")
+  public void testEstimates() {
+    final StatisticsEventSummarySketch first = new StatisticsEventSummarySketch();
+    final StatisticsEventSummarySketch second = new StatisticsEventSummarySketch();
+    final StatisticsEventSummarySketch union = new StatisticsEventSummarySketch();
+    for (int value = 0; value < 20000; value++) {
+      final long count = (value % 10) + 1;
+      ((value % 2) == 0 ? first : second).add("device-" + value, count);
+      union.add("device-" + value, count);
+    }
+    final StatisticsEventSummarySketch merged = first.copy().merge(second);
+    Assertions.assertEquals(union, merged);
+    Assertions.assertEquals(20000, merged.estimateDistinctValueCount(), 2000);
+    for (int value = 0; value < 20000; value += 97) {
+      Assertions.assertTrue(merged.estimateCount("device-" + value) >= ((value % 10) + 1));
+    }
+    Assertions.assertEquals(merged, StatisticsEventSummarySketch.fromBytes(merged.toBytes()));
+
+    // Small cardinalities are close to exact, and decrements are subtracted.
+    final StatisticsEventSummarySketch small = new StatisticsEventSummarySketch();
+    for (int value = 0; value < 50; value++) {
+      small.add("value-" + value, 3);
+    }
+    small.add("value-0", -2);
+    Assertions.assertEquals(50, small.estimateDistinctValueCount(), 2);
+    Assertions.assertTrue(small.estimateCount("value-0") >= 1);
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> small.merge(new StatisticsEventSummarySketch(12, 4, 256)));
+  }
+
+  @Test
+  @DisplayName("Bounded summaries keep totals and the heaviest values")
+  public void testBoundedSummary() {
+    final StatisticsEventSummary summary =
+        new StatisticsEventSummary("context", "device", LocalDateTime.of(2026, 1, 1, 0, 0));
+    for (int value = 0; value < 1000; value++) {
+      final StatisticsEventSummaryDelta delta =
+          new StatisticsEventSummaryDelta("context", "device", summary.getDateTime());
+      delta.addDelta("device-" + value, 1, BigDecimal.ONE);
+      delta.addDelta("heavy-" + (value % 5), 10, BigDecimal.TEN);
+      StatisticsEventSummarySketchTest.apply(summary, delta, 20);
+    }
+    Assertions.assertEquals(20, summary.getValueCounts().size());
+    Assertions.assertEquals(11000L, summary.getTotalCount());
+    Assertions.assertEquals(new BigDecimal("11000"), summary.getTotalWeight());
+    for (int value = 0; value < 5; value++) {
+      Assertions.assertEquals(2000L, summary.getValueCounts().get("heavy-" + value));
+    }
+    Assertions.assertTrue(summary.getValueCounts().get(StatisticsEventSummary.OTHER_VALUE) > 900L);
+    Assertions.assertTrue(StatisticsEventSummaryHelper.estimateValueCount(summary, "device-3") >= 1L);
+
+    // Removing an evicted value takes it from the tail.
+    final long otherCount = summary.getValueCounts().get(StatisticsEventSummary.OTHER_VALUE);
+    final StatisticsEventSummaryDelta removal =
+        new StatisticsEventSummaryDelta("context", "device", summary.getDateTime());
+    removal.addDelta("device-3", -1, BigDecimal.ONE.negate());
+    StatisticsEventSummarySketchTest.apply(summary, removal, 20);
+    Assertions.assertEquals(
+        otherCount - 1, summary.getValueCounts().get(StatisticsEventSummary.OTHER_VALUE));
+    Assertions.assertEquals(10999L, summary.getTotalCount());
+
+    // Concentration runs on the bounded state, with the sketch distinct count.
+    final StatisticsEventDimensionConcentration concentration =
+        StatisticsEventSummaryHelper.dimensionConcentration(summary);
+    Assertions.assertEquals(1005, concentration.getDistinctValueCount(), 100);
+    Assertions.assertTrue(concentration.getNormalizedEntropy().doubleValue() < 1.0);
+    Assertions.assertEquals(
+        2000L, StatisticsEventSummaryHelper.estimateValueCount(summary, "heavy-0"));
+  }
+}
@@ -0,0 +1,140 @@
+package org.coldis.library.test.service.statistics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.coldis.library.exception.IntegrationException;
+import org.coldis.library.service.statistics.StatisticsReadExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Pure unit tests for the statistics read executor. */
+public class StatisticsReadExecutorTest {
+
+  /**
+   * Builds reads that sleep, record the highest number of reads running at once and return their
+   * index.
+   *
+   * @param count Number of reads.
+   * @param sleepMillis Sleep of each read.
+   * @param running Reads running.
+   * @param maxRunning Highest number of reads running at once.
+   * @return The reads.
+   */
+  private static List<Supplier<Integer>> sleepingReads(
+      final int count,
+      final long sleepMillis,
+      final AtomicInteger running,
+      final AtomicInteger maxRunning) {
+    final List<Supplier<Integer>> reads = new ArrayList<>();
+    for (int index = 0; index < count; index++) {
+      final int result = index;
+      reads.add(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+              Thread.sleep(sleepMillis);
+            } catch (final InterruptedException exception) {
+              Thread.currentThread().interrupt();
+            } finally {
+              running.decrementAndGet();
+            }
+            return result;
+          });
+    }
+    return reads;
+  }
+
+  @Test
+  @DisplayName("Reads return in order and never exceed the concurrency bound, on platform and virtual threads")
+  public void testBoundedReads() {
+    for (final boolean virtual : List.of(false, true)) {
+      final StatisticsReadExecutor executor =
+          new StatisticsReadExecutor("test-read", virtual, 3, Duration.ZERO);
+      try {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Integer> results =
+            executor.readAll(StatisticsReadExecutorTest.sleepingReads(12, 20, running, maxRunning));
+        for (int index = 0; index < 12; index++) {
+          Assertions.assertEquals(index, results.get(index));
+        }
+        Assertions.assertTrue(maxRunning.get() <= 3, "max running " + maxRunning.get());
+        Assertions.assertTrue(maxRunning.get() > 1, "max running " + maxRunning.get());
+      } finally {
+        executor.shutdown();
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Reads past the deadline are cancelled and failures are rethrown")
+  public void testDeadlineAndFailure() throws Exception {
+    final StatisticsReadExecutor executor =
+        new StatisticsReadExecutor("test-read", false, 2, Duration.ofMillis(100));
+    try {
+      final AtomicBoolean interrupted = new AtomicBoolean();
+      final List<Supplier<Integer>> slowReads = new ArrayList<>();
+      for (int index = 0; index < 2; index++) {
+        slowReads.add(
+            () -> {
+              try {
+                Thread.sleep(10000);
+              } catch (final InterruptedException exception) {
+                interrupted.set(true);
+              }
+              return 0;
+            });
+      }
+      final long start = System.nanoTime();
+      Assertions.assertThrows(IntegrationException.class, () -> executor.readAll(slowReads));
+      Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5000);
+      Thread.sleep(100);
+      Assertions.assertTrue(interrupted.get());
+
+      final List<Supplier<Integer>> failingReads =
+          List.of(
+              () -> 1,
+              () -> {
+                throw new IllegalStateException("read failed");
+              });
+      Assertions.assertThrows(IllegalStateException.class, () -> executor.readAll(failingReads));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("The first failing read cancels the others, even those submitted before it")
+  public void testFailureCancelsEarlierReads() throws Exception {
+    final StatisticsReadExecutor executor =
+        new StatisticsReadExecutor("test-read", false, 2, Duration.ZERO);
+    try {
+      final AtomicBoolean interrupted = new AtomicBoolean();
+      final List<Supplier<Integer>> reads =
+          List.of(
+              () -> {
+                try {
+                  Thread.sleep(10000);
+                } catch (final InterruptedException exception) {
+                  interrupted.set(true);
+                }
+                return 0;
+              },
+              () -> {
+                throw new IllegalStateException("read failed");
+              });
+      final long start = System.nanoTime();
+      Assertions.assertThrows(IllegalStateException.class, () -> executor.readAll(reads));
+      Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5000);
+      Thread.sleep(100);
+      Assertions.assertTrue(interrupted.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}